@@ -0,0 +1,141 @@
+package com.sandemo.hrms.cache;
+
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bounded, read-mostly cache of the departments. Reads are plain ConcurrentHashMap lookups without any locking, the
+ * rare writes are serialized so that the insertion order used for the eviction stays consistent with the map. The
+ * cached entries are never handed out, every read returns a detached copy which the caller is free to change.
+ */
+public class DepartmentCache {
+
+    private static final String CACHE_NAME = "department";
+    private static final String TAG_CACHE = "cache";
+    private static final String TAG_RESULT = "result";
+
+    private final int maxSize;
+    private final Map<Long, DepartmentEntity> entries;
+    private final ArrayDeque<Long> insertionOrder;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter putCounter;
+    private final Counter evictionCounter;
+
+    public DepartmentCache(final int maxSize, final MeterRegistry meterRegistry) {
+
+        if (maxSize < 1) {
+
+            throw new IllegalArgumentException("The department cache size must be positive: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(maxSize);
+        this.insertionOrder = new ArrayDeque<>(maxSize);
+
+        // Same meter names as the Micrometer cache binders, so the existing cache dashboards apply
+        this.hitCounter = Counter.builder("cache.gets")
+                .tags(TAG_CACHE, CACHE_NAME, TAG_RESULT, "hit")
+                .description("The number of times the cache lookup returned a department")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+                .tags(TAG_CACHE, CACHE_NAME, TAG_RESULT, "miss")
+                .description("The number of times the cache lookup had to fall back to the database")
+                .register(meterRegistry);
+        this.putCounter = Counter.builder("cache.puts")
+                .tags(TAG_CACHE, CACHE_NAME)
+                .description("The number of departments added to the cache")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("cache.evictions")
+                .tags(TAG_CACHE, CACHE_NAME)
+                .description("The number of departments evicted to keep the cache within its size")
+                .register(meterRegistry);
+
+        Gauge.builder("cache.size", entries, Map::size)
+                .tags(TAG_CACHE, CACHE_NAME)
+                .description("The number of departments in the cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<DepartmentEntity> get(final Long departmentId) {
+
+        DepartmentEntity cached = Util.isNull(departmentId) ? null : entries.get(departmentId);
+
+        if (Util.isNull(cached)) {
+
+            missCounter.increment();
+
+            return Optional.empty();
+        }
+
+        hitCounter.increment();
+
+        return Optional.of(copyOf(cached));
+    }
+
+    public synchronized void put(final DepartmentEntity departmentEntity) {
+
+        if (Util.isNull(departmentEntity) || Util.isNull(departmentEntity.getDepartId())) {
+
+            return;
+        }
+
+        if (Util.isNull(entries.put(departmentEntity.getDepartId(), copyOf(departmentEntity)))) {
+
+            insertionOrder.addLast(departmentEntity.getDepartId());
+
+            // The oldest entries go first, departments are not expected to outgrow the cache in practice
+            while (insertionOrder.size() > maxSize) {
+
+                entries.remove(insertionOrder.removeFirst());
+                evictionCounter.increment();
+            }
+        }
+
+        putCounter.increment();
+    }
+
+    public synchronized void putAll(final Collection<DepartmentEntity> departmentEntities) {
+
+        departmentEntities.forEach(this::put);
+    }
+
+    public synchronized void clear() {
+
+        entries.clear();
+        insertionOrder.clear();
+    }
+
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    public int size() {
+
+        return entries.size();
+    }
+
+    private DepartmentEntity copyOf(final DepartmentEntity departmentEntity) {
+
+        // The headcount is left out, it changes with every employee write and the department list reads it from the table
+        return DepartmentEntity.builder()
+                .departId(departmentEntity.getDepartId())
+                .name(departmentEntity.getName())
+                .createdAt(departmentEntity.getCreatedAt())
+                .updatedAt(departmentEntity.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.sandemo.hrms.cache;
+
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Cache of the already encoded employee details JSON, keyed by the employeeId. It is bounded by the total number of
+ * cached bytes and every entry expires after the configured time to live. Reads are lock-free, writes are serialized
+ * so that the byte footprint and the eviction order stay consistent with the map.
+ *
+ * A loader takes an invalidation mark before reading the database and hands it back on put, the put is dropped when
+ * any invalidation happened in between, so a response read before a concurrent update can never be cached after it.
+ */
+public class EmployeeDetailsCache {
+
+    private static final String CACHE_NAME = "employee-details";
+    private static final String TAG_CACHE = "cache";
+    private static final String TAG_RESULT = "result";
+
+    private final long maxBytes;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LinkedHashSet<String> insertionOrder = new LinkedHashSet<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter putCounter;
+    private final Counter evictionCounter;
+
+    public EmployeeDetailsCache(final long maxBytes, final Duration timeToLive, final MeterRegistry meterRegistry) {
+
+        this(maxBytes, timeToLive, meterRegistry, System::nanoTime);
+    }
+
+    EmployeeDetailsCache(final long maxBytes, final Duration timeToLive, final MeterRegistry meterRegistry,
+                         final LongSupplier nanoTime) {
+
+        if (maxBytes < 1) {
+
+            throw new IllegalArgumentException("The employee details cache size must be positive: " + maxBytes);
+        }
+
+        if (Util.isNull(timeToLive) || timeToLive.isNegative() || timeToLive.isZero()) {
+
+            throw new IllegalArgumentException("The employee details cache time to live must be positive: " + timeToLive);
+        }
+
+        this.maxBytes = maxBytes;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.nanoTime = nanoTime;
+
+        this.hitCounter = Counter.builder("cache.gets")
+                .tags(TAG_CACHE, CACHE_NAME, TAG_RESULT, "hit")
+                .description("The number of employee details served from the encoded response cache")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+                .tags(TAG_CACHE, CACHE_NAME, TAG_RESULT, "miss")
+                .description("The number of employee details which had to be loaded and encoded")
+                .register(meterRegistry);
+        this.putCounter = Counter.builder("cache.puts")
+                .tags(TAG_CACHE, CACHE_NAME)
+                .description("The number of encoded employee details added to the cache")
+                .register(meterRegistry);
+        this.evictionCounter = Counter.builder("cache.evictions")
+                .tags(TAG_CACHE, CACHE_NAME)
+                .description("The number of encoded employee details evicted for size or expiry")
+                .register(meterRegistry);
+
+        Gauge.builder("cache.size", entries, Map::size)
+                .tags(TAG_CACHE, CACHE_NAME)
+                .description("The number of encoded employee details in the cache")
+                .register(meterRegistry);
+        Gauge.builder("cache.bytes", totalBytes, AtomicLong::get)
+                .tags(TAG_CACHE, CACHE_NAME)
+                .description("The number of bytes held by the encoded employee details")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached details of the employee.
+     *
+     * @param employeeId
+     * @return
+     */
+    public Optional<EncodedEmployeeDetails> get(final String employeeId) {
+
+        Entry entry = Util.isNull(employeeId) ? null : entries.get(employeeId);
+
+        if (Util.isNotNull(entry) && entry.expiresAt - nanoTime.getAsLong() <= 0) {
+
+            expire(employeeId, entry);
+
+            entry = null;
+        }
+
+        if (Util.isNull(entry)) {
+
+            missCounter.increment();
+
+            return Optional.empty();
+        }
+
+        hitCounter.increment();
+
+        return Optional.of(entry.details);
+    }
+
+    /**
+     * Returns the mark to hand back to {@link #put(String, EncodedEmployeeDetails, long)} for the details which are
+     * about to be loaded.
+     *
+     * @return
+     */
+    public long getInvalidationMark() {
+
+        return invalidations.get();
+    }
+
+    /**
+     * Caches the details of the employee unless an invalidation happened since the mark was taken.
+     *
+     * @param employeeId
+     * @param details
+     * @param invalidationMark
+     * @return true when the details were cached
+     */
+    public synchronized boolean put(final String employeeId, final EncodedEmployeeDetails details,
+                                    final long invalidationMark) {
+
+        if (Util.isNull(employeeId) || Util.isNull(details) || details.getJson().length > maxBytes
+                || invalidations.get() != invalidationMark) {
+
+            return false;
+        }
+
+        removeEntry(employeeId);
+
+        entries.put(employeeId, new Entry(details, nanoTime.getAsLong() + timeToLiveNanos));
+        insertionOrder.add(employeeId);
+        totalBytes.addAndGet(details.getJson().length);
+
+        // The oldest entries go first until the footprint fits again
+        Iterator<String> oldest = insertionOrder.iterator();
+
+        while (totalBytes.get() > maxBytes && oldest.hasNext()) {
+
+            Entry evicted = entries.remove(oldest.next());
+            oldest.remove();
+
+            totalBytes.addAndGet(-evicted.details.getJson().length);
+            evictionCounter.increment();
+        }
+
+        putCounter.increment();
+
+        return true;
+    }
+
+    public synchronized void invalidate(final String employeeId) {
+
+        invalidations.incrementAndGet();
+
+        if (Util.isNotNull(employeeId)) {
+
+            removeEntry(employeeId);
+        }
+    }
+
+    public synchronized void clear() {
+
+        invalidations.incrementAndGet();
+        entries.clear();
+        insertionOrder.clear();
+        totalBytes.set(0);
+    }
+
+    public long getTotalBytes() {
+
+        return totalBytes.get();
+    }
+
+    public int size() {
+
+        return entries.size();
+    }
+
+    private synchronized void expire(final String employeeId, final Entry entry) {
+
+        // Only the expired entry is removed, it may have been replaced in the meantime
+        if (entries.get(employeeId) == entry) {
+
+            removeEntry(employeeId);
+            evictionCounter.increment();
+        }
+    }
+
+    private void removeEntry(final String employeeId) {
+
+        Entry removed = entries.remove(employeeId);
+
+        if (Util.isNotNull(removed)) {
+
+            insertionOrder.remove(employeeId);
+            totalBytes.addAndGet(-removed.details.getJson().length);
+        }
+    }
+
+    private static final class Entry {
+
+        private final EncodedEmployeeDetails details;
+        private final long expiresAt;
+
+        private Entry(final EncodedEmployeeDetails details, final long expiresAt) {
+
+            this.details = details;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,703 @@
+package com.sandemo.hrms.cache;
+
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * In-memory prefix index of the employee names and emails for the typeahead search.
+ *
+ * The bulk of the index is an immutable segment: the employees are held in parallel arrays and every searchable
+ * position (the start of the email and the start of every word of the name) is one packed long of slot, field and
+ * offset, kept in a sorted primitive array. A prefix is looked up with a binary search followed by a short forward scan,
+ * without any allocation per indexed term. The writes after the segment was built go into a small pending map, which
+ * is searched linearly and shadows the segment for the employees it holds, until it is folded into a new segment by
+ * {@link #compact()}. {@link #rebuild(Supplier)} replaces the segment from the database, which also picks up the
+ * changes done through other instances of the service.
+ *
+ * Searches never lock, the segment is swapped atomically. Compaction and rebuild are serialized.
+ */
+public class EmployeeSearchIndex {
+
+    private static final String METRIC_PREFIX = "hrms.employee.search.index.";
+
+    // The name and the email columns are at most 120 characters, so an offset fits in a byte
+    private static final int OFFSET_BITS = 8;
+    private static final int FIELD_BITS = 1;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final int NAME_FIELD = 0;
+    private static final int EMAIL_FIELD = 1;
+
+    // Rough JVM sizes, for the footprint estimate only
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long REFERENCE_BYTES = 8;
+
+    private final int compactionThreshold;
+    private final Map<String, IndexedEmployee> pending = new ConcurrentHashMap<>();
+    private volatile Segment segment = Segment.EMPTY;
+
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final Timer rebuildTimer;
+    private final Timer compactionTimer;
+    private final Timer searchTimer;
+
+    public EmployeeSearchIndex(final int compactionThreshold, final MeterRegistry meterRegistry) {
+
+        if (compactionThreshold < 1) {
+
+            throw new IllegalArgumentException("The search index compaction threshold must be positive: "
+                    + compactionThreshold);
+        }
+
+        this.compactionThreshold = compactionThreshold;
+
+        this.rebuildTimer = Timer.builder(METRIC_PREFIX + "build")
+                .tag("type", "rebuild")
+                .description("Time taken to build the employee search index from the database")
+                .register(meterRegistry);
+        this.compactionTimer = Timer.builder(METRIC_PREFIX + "build")
+                .tag("type", "compaction")
+                .description("Time taken to fold the pending changes into the employee search index")
+                .register(meterRegistry);
+        this.searchTimer = Timer.builder(METRIC_PREFIX + "search")
+                .description("Time taken to answer a prefix search from the employee search index")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + "size", this, EmployeeSearchIndex::size)
+                .description("The number of employees in the search index segment")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "pending", pending, Map::size)
+                .description("The number of changes waiting to be folded into the search index segment")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "bytes", estimatedBytes, AtomicLong::get)
+                .description("The estimated heap held by the search index segment")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns up to limit employees whose email or any word of the name starts with the prefix, ignoring the case.
+     * The employees are ordered by the text they matched with.
+     *
+     * @param prefix
+     * @param departmentId only the employees of this department when not null
+     * @param limit
+     * @return
+     */
+    public List<IndexedEmployee> search(final String prefix, final Long departmentId, final int limit) {
+
+        if (Util.isNull(prefix) || prefix.isEmpty() || limit < 1) {
+
+            return new ArrayList<>();
+        }
+
+        return searchTimer.record(() -> doSearch(toLowerCase(prefix), departmentId, limit));
+    }
+
+    /**
+     * Adds the employee or replaces its previous entry.
+     *
+     * @param employeeId
+     * @param name
+     * @param email
+     * @param departmentId
+     */
+    public void put(final String employeeId, final String name, final String email, final Long departmentId) {
+
+        if (Util.isNull(employeeId)) {
+
+            return;
+        }
+
+        pending.put(employeeId, new IndexedEmployee(employeeId, name, email, departmentId));
+    }
+
+    /**
+     * Adds the employees or replaces their previous entries.
+     *
+     * @param indexedEmployees
+     */
+    public void putAll(final Collection<IndexedEmployee> indexedEmployees) {
+
+        indexedEmployees.forEach(indexedEmployee -> put(indexedEmployee.getEmployeeId(), indexedEmployee.getName(),
+                indexedEmployee.getEmail(), indexedEmployee.getDepartmentId()));
+    }
+
+    public void remove(final String employeeId) {
+
+        if (Util.isNull(employeeId)) {
+
+            return;
+        }
+
+        pending.put(employeeId, IndexedEmployee.removed(employeeId));
+    }
+
+    public boolean needsCompaction() {
+
+        return pending.size() >= compactionThreshold;
+    }
+
+    /**
+     * Folds the pending changes into a new segment. The changes which arrive meanwhile stay pending.
+     */
+    public synchronized void compact() {
+
+        Map<String, IndexedEmployee> folded = new HashMap<>(pending);
+
+        if (folded.isEmpty()) {
+
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Segment current = this.segment;
+        SegmentBuilder builder = new SegmentBuilder(current.size() + folded.size());
+
+        for (int slot = 0; slot < current.size(); slot++) {
+
+            if (!folded.containsKey(current.employeeIds[slot])) {
+
+                builder.add(current.employeeIds[slot], current.names[slot], current.emails[slot],
+                        current.departmentIds[slot]);
+            }
+        }
+
+        folded.values().stream()
+                .filter(indexedEmployee -> !indexedEmployee.removed)
+                .forEach(builder::add);
+
+        publish(builder.build(), folded);
+
+        sample.stop(compactionTimer);
+    }
+
+    /**
+     * Replaces the segment with the employees of the loader, the stream is closed once read. The changes which were
+     * pending before the loader was called are expected to be part of it, the ones arriving meanwhile stay pending.
+     *
+     * @param loader
+     * @return number of employees indexed
+     */
+    public synchronized int rebuild(final Supplier<Stream<IndexedEmployee>> loader) {
+
+        Map<String, IndexedEmployee> folded = new HashMap<>(pending);
+
+        Timer.Sample sample = Timer.start();
+        SegmentBuilder builder = new SegmentBuilder(Math.max(16, this.segment.size()));
+
+        try (Stream<IndexedEmployee> employees = loader.get()) {
+
+            employees.forEach(builder::add);
+        }
+
+        Segment rebuilt = builder.build();
+
+        publish(rebuilt, folded);
+
+        sample.stop(rebuildTimer);
+
+        return rebuilt.size();
+    }
+
+    public int size() {
+
+        return segment.size();
+    }
+
+    public int pendingSize() {
+
+        return pending.size();
+    }
+
+    public long getEstimatedBytes() {
+
+        return estimatedBytes.get();
+    }
+
+    private void publish(final Segment rebuilt, final Map<String, IndexedEmployee> folded) {
+
+        this.segment = rebuilt;
+        this.estimatedBytes.set(rebuilt.estimatedBytes);
+
+        // Only the changes which are part of the new segment are dropped, a newer change of the same employee stays
+        folded.forEach(pending::remove);
+    }
+
+    private List<IndexedEmployee> doSearch(final String prefix, final Long departmentId, final int limit) {
+
+        Segment current = this.segment;
+        List<Match> matches = new ArrayList<>();
+
+        for (IndexedEmployee indexedEmployee : pending.values()) {
+
+            if (!indexedEmployee.removed && inDepartment(indexedEmployee.departmentId, departmentId)) {
+
+                String matched = matchOf(indexedEmployee, prefix);
+
+                if (Util.isNotNull(matched)) {
+
+                    matches.add(new Match(matched, indexedEmployee));
+                }
+            }
+        }
+
+        Set<String> found = new HashSet<>();
+
+        // The terms are sorted, so at most limit employees of the segment can make it into the result
+        for (int i = current.lowerBound(prefix); i < current.terms.length && found.size() < limit; i++) {
+
+            long term = current.terms[i];
+
+            if (current.compareToPrefix(term, prefix) != 0) {
+
+                break;
+            }
+
+            int slot = slotOf(term);
+            String employeeId = current.employeeIds[slot];
+
+            if (!pending.containsKey(employeeId) && inDepartment(current.departmentIds[slot], departmentId)
+                    && found.add(employeeId)) {
+
+                matches.add(new Match(toLowerCase(current.textOf(term).substring(offsetOf(term))),
+                        new IndexedEmployee(employeeId, current.names[slot], current.emails[slot],
+                                current.departmentIds[slot])));
+            }
+        }
+
+        matches.sort(Comparator.comparing((Match match) -> match.matched)
+                .thenComparing(match -> match.indexedEmployee.employeeId));
+
+        List<IndexedEmployee> result = new ArrayList<>(Math.min(limit, matches.size()));
+
+        for (int i = 0; i < matches.size() && result.size() < limit; i++) {
+
+            result.add(matches.get(i).indexedEmployee);
+        }
+
+        return result;
+    }
+
+    private static boolean inDepartment(final Long employeeDepartmentId, final Long departmentId) {
+
+        return Util.isNull(departmentId) || departmentId.equals(employeeDepartmentId);
+    }
+
+    /**
+     * Returns the lowest text of the employee starting with the prefix, null when none does.
+     */
+    private static String matchOf(final IndexedEmployee indexedEmployee, final String prefix) {
+
+        String matched = null;
+
+        if (Util.isNotNull(indexedEmployee.email) && startsWithIgnoringCase(indexedEmployee.email, 0, prefix)) {
+
+            matched = toLowerCase(indexedEmployee.email);
+        }
+
+        if (Util.isNotNull(indexedEmployee.name)) {
+
+            for (int offset = 0; offset < indexedEmployee.name.length(); offset++) {
+
+                if (isWordStart(indexedEmployee.name, offset)
+                        && startsWithIgnoringCase(indexedEmployee.name, offset, prefix)) {
+
+                    String candidate = toLowerCase(indexedEmployee.name.substring(offset));
+
+                    if (Util.isNull(matched) || candidate.compareTo(matched) < 0) {
+
+                        matched = candidate;
+                    }
+                }
+            }
+        }
+
+        return matched;
+    }
+
+    private static boolean startsWithIgnoringCase(final String text, final int offset, final String lowerCasePrefix) {
+
+        if (text.length() - offset < lowerCasePrefix.length()) {
+
+            return false;
+        }
+
+        for (int i = 0; i < lowerCasePrefix.length(); i++) {
+
+            if (Character.toLowerCase(text.charAt(offset + i)) != lowerCasePrefix.charAt(i)) {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isWordStart(final String text, final int offset) {
+
+        return Character.isLetterOrDigit(text.charAt(offset))
+                && (offset == 0 || !Character.isLetterOrDigit(text.charAt(offset - 1)));
+    }
+
+    /**
+     * Lower cases char by char, the same way the indexed text is compared, so that both agree on every character.
+     */
+    private static String toLowerCase(final String text) {
+
+        char[] chars = new char[text.length()];
+
+        for (int i = 0; i < chars.length; i++) {
+
+            chars[i] = Character.toLowerCase(text.charAt(i));
+        }
+
+        return new String(chars);
+    }
+
+    private static long termOf(final int slot, final int field, final int offset) {
+
+        return ((long) slot << (FIELD_BITS + OFFSET_BITS)) | ((long) field << OFFSET_BITS) | offset;
+    }
+
+    private static int slotOf(final long term) {
+
+        return (int) (term >>> (FIELD_BITS + OFFSET_BITS));
+    }
+
+    private static int fieldOf(final long term) {
+
+        return (int) ((term >>> OFFSET_BITS) & 1);
+    }
+
+    private static int offsetOf(final long term) {
+
+        return (int) (term & OFFSET_MASK);
+    }
+
+    /**
+     * An indexed employee, or the removal of one.
+     */
+    public static final class IndexedEmployee {
+
+        private final String employeeId;
+        private final String name;
+        private final String email;
+        private final Long departmentId;
+        private final boolean removed;
+
+        public IndexedEmployee(final String employeeId, final String name, final String email, final Long departmentId) {
+
+            this(employeeId, name, email, departmentId, false);
+        }
+
+        private IndexedEmployee(final String employeeId, final String name, final String email, final Long departmentId,
+                                final boolean removed) {
+
+            this.employeeId = employeeId;
+            this.name = name;
+            this.email = email;
+            this.departmentId = departmentId;
+            this.removed = removed;
+        }
+
+        private static IndexedEmployee removed(final String employeeId) {
+
+            return new IndexedEmployee(employeeId, null, null, null, true);
+        }
+
+        public String getEmployeeId() {
+
+            return employeeId;
+        }
+
+        public String getName() {
+
+            return name;
+        }
+
+        public String getEmail() {
+
+            return email;
+        }
+
+        public Long getDepartmentId() {
+
+            return departmentId;
+        }
+    }
+
+    private static final class Match {
+
+        private final String matched;
+        private final IndexedEmployee indexedEmployee;
+
+        private Match(final String matched, final IndexedEmployee indexedEmployee) {
+
+            this.matched = matched;
+            this.indexedEmployee = indexedEmployee;
+        }
+    }
+
+    private static final class Segment {
+
+        private static final Segment EMPTY = new Segment(new String[0], new String[0], new String[0], new long[0],
+                new long[0], 0);
+
+        private final String[] employeeIds;
+        private final String[] names;
+        private final String[] emails;
+        private final long[] departmentIds;
+        private final long[] terms;
+        private final long estimatedBytes;
+
+        private Segment(final String[] employeeIds, final String[] names, final String[] emails,
+                        final long[] departmentIds, final long[] terms, final long estimatedBytes) {
+
+            this.employeeIds = employeeIds;
+            this.names = names;
+            this.emails = emails;
+            this.departmentIds = departmentIds;
+            this.terms = terms;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        private int size() {
+
+            return employeeIds.length;
+        }
+
+        private String textOf(final long term) {
+
+            return fieldOf(term) == EMAIL_FIELD ? emails[slotOf(term)] : names[slotOf(term)];
+        }
+
+        /**
+         * Returns the index of the first term which is not lower than the prefix.
+         */
+        private int lowerBound(final String prefix) {
+
+            int low = 0;
+            int high = terms.length;
+
+            while (low < high) {
+
+                int middle = (low + high) >>> 1;
+
+                if (compareToPrefix(terms[middle], prefix) < 0) {
+
+                    low = middle + 1;
+
+                } else {
+
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+
+        /**
+         * Compares the text of the term with the prefix, 0 when the text starts with it.
+         */
+        private int compareToPrefix(final long term, final String prefix) {
+
+            String text = textOf(term);
+            int offset = offsetOf(term);
+
+            for (int i = 0; i < prefix.length(); i++) {
+
+                if (offset + i >= text.length()) {
+
+                    return -1;
+                }
+
+                int difference = Character.toLowerCase(text.charAt(offset + i)) - prefix.charAt(i);
+
+                if (difference != 0) {
+
+                    return difference;
+                }
+            }
+
+            return 0;
+        }
+
+        /**
+         * Compares the whole text of two terms, the slot breaks the ties so that the order is total.
+         */
+        private int compareTerms(final long left, final long right) {
+
+            String leftText = textOf(left);
+            String rightText = textOf(right);
+            int leftOffset = offsetOf(left);
+            int rightOffset = offsetOf(right);
+            int length = Math.min(leftText.length() - leftOffset, rightText.length() - rightOffset);
+
+            for (int i = 0; i < length; i++) {
+
+                int difference = Character.toLowerCase(leftText.charAt(leftOffset + i))
+                        - Character.toLowerCase(rightText.charAt(rightOffset + i));
+
+                if (difference != 0) {
+
+                    return difference;
+                }
+            }
+
+            int difference = (leftText.length() - leftOffset) - (rightText.length() - rightOffset);
+
+            return difference != 0 ? difference : Long.compare(left, right);
+        }
+
+        /**
+         * Sorts the terms with a merge sort, the JDK only sorts primitive arrays by their natural order.
+         */
+        private void sortTerms() {
+
+            long[] buffer = new long[terms.length];
+
+            for (int width = 1; width < terms.length; width <<= 1) {
+
+                for (int low = 0; low < terms.length - width; low += width << 1) {
+
+                    merge(low, low + width, Math.min(low + (width << 1), terms.length), buffer);
+                }
+            }
+        }
+
+        private void merge(final int low, final int middle, final int high, final long[] buffer) {
+
+            System.arraycopy(terms, low, buffer, low, high - low);
+
+            int left = low;
+            int right = middle;
+
+            for (int i = low; i < high; i++) {
+
+                if (right >= high || (left < middle && compareTerms(buffer[left], buffer[right]) <= 0)) {
+
+                    terms[i] = buffer[left++];
+
+                } else {
+
+                    terms[i] = buffer[right++];
+                }
+            }
+        }
+    }
+
+    private static final class SegmentBuilder {
+
+        private final List<String> employeeIds;
+        private final List<String> names;
+        private final List<String> emails;
+        private final List<Long> departmentIds;
+        private long textBytes;
+
+        private SegmentBuilder(final int expectedSize) {
+
+            this.employeeIds = new ArrayList<>(expectedSize);
+            this.names = new ArrayList<>(expectedSize);
+            this.emails = new ArrayList<>(expectedSize);
+            this.departmentIds = new ArrayList<>(expectedSize);
+        }
+
+        private void add(final IndexedEmployee indexedEmployee) {
+
+            add(indexedEmployee.employeeId, indexedEmployee.name, indexedEmployee.email, indexedEmployee.departmentId);
+        }
+
+        private void add(final String employeeId, final String name, final String email, final Long departmentId) {
+
+            String indexedName = Util.isNull(name) ? "" : name;
+            String indexedEmail = Util.isNull(email) ? "" : email;
+
+            employeeIds.add(employeeId);
+            names.add(indexedName);
+            emails.add(indexedEmail);
+            departmentIds.add(departmentId);
+
+            textBytes += 3 * STRING_OVERHEAD_BYTES
+                    + 2L * (employeeId.length() + indexedName.length() + indexedEmail.length());
+        }
+
+        private Segment build() {
+
+            int size = employeeIds.size();
+            long[] departmentIdArray = new long[size];
+            int termCount = 0;
+
+            for (int slot = 0; slot < size; slot++) {
+
+                Long departmentId = departmentIds.get(slot);
+
+                departmentIdArray[slot] = Util.isNull(departmentId) ? 0L : departmentId;
+                termCount += wordStarts(names.get(slot)) + (emails.get(slot).isEmpty() ? 0 : 1);
+            }
+
+            long[] terms = new long[termCount];
+            int termIndex = 0;
+
+            for (int slot = 0; slot < size; slot++) {
+
+                String name = names.get(slot);
+                int maxOffset = (int) Math.min(name.length(), OFFSET_MASK + 1);
+
+                for (int offset = 0; offset < maxOffset; offset++) {
+
+                    if (isWordStart(name, offset)) {
+
+                        terms[termIndex++] = termOf(slot, NAME_FIELD, offset);
+                    }
+                }
+
+                if (!emails.get(slot).isEmpty()) {
+
+                    terms[termIndex++] = termOf(slot, EMAIL_FIELD, 0);
+                }
+            }
+
+            long estimatedBytes = textBytes + REFERENCE_BYTES * 3L * size + 8L * size + 8L * termCount;
+
+            Segment built = new Segment(employeeIds.toArray(new String[0]), names.toArray(new String[0]),
+                    emails.toArray(new String[0]), departmentIdArray, terms, estimatedBytes);
+
+            built.sortTerms();
+
+            return built;
+        }
+
+        private static int wordStarts(final String name) {
+
+            int count = 0;
+            int maxOffset = (int) Math.min(name.length(), OFFSET_MASK + 1);
+
+            for (int offset = 0; offset < maxOffset; offset++) {
+
+                if (isWordStart(name, offset)) {
+
+                    count++;
+                }
+            }
+
+            return count;
+        }
+    }
+}
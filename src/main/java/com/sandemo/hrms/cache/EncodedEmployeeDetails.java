@@ -0,0 +1,18 @@
+package com.sandemo.hrms.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * The employee details already encoded as JSON, together with the version of the employee they were read at. The
+ * JSON array is shared and must not be modified.
+ */
+@Getter
+@AllArgsConstructor
+public final class EncodedEmployeeDetails {
+
+    private final long version;
+    private final byte[] json;
+}
@@ -10,6 +10,8 @@ public enum ApiResponseMessage {
     EMP_CREATE_MESSAGE("Employee has been created"),
     EMP_UPDATE_MESSAGE("Employee details have been updated"),
     EMP_DELETE_MESSAGE("Employee has been deleted"),
+    EMP_BULK_CREATE_MESSAGE("Bulk employee request has been processed"),
+    EMP_IMPORT_MESSAGE("Employee import has been processed"),
 
     DEP_CREATE_MESSAGE("Department has been created");
 
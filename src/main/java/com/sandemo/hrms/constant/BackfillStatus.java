@@ -0,0 +1,15 @@
+package com.sandemo.hrms.constant;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds the state of an employee event backfill job. A STOPPED or FAILED job resumes from its checkpoint when
+ * it is started again, a COMPLETED one has nothing left to publish.
+ */
+public enum BackfillStatus {
+
+    RUNNING,
+    STOPPED,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,12 @@
+package com.sandemo.hrms.constant;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds the outcome of a single row in a bulk request
+ */
+public enum BulkRowStatus {
+
+    CREATED,
+    REJECTED
+}
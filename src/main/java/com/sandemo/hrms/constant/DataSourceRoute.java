@@ -0,0 +1,12 @@
+package com.sandemo.hrms.constant;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds the connection pools a statement can be routed to
+ */
+public enum DataSourceRoute {
+
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,14 @@
+package com.sandemo.hrms.constant;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds what the event dispatcher does with an event when its queue is full. BLOCK waits for room up to the
+ * block timeout and rejects after it, REJECT rejects right away. A rejected event stays in the outbox and is sent by
+ * the outbox relay on its next run, so the capacity always bounds the memory of the queue.
+ */
+public enum DispatchOverflowPolicy {
+
+    BLOCK,
+    REJECT
+}
@@ -0,0 +1,14 @@
+package com.sandemo.hrms.constant;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds how the key of the v2 employee event is encoded, selected with
+ * kafka.producer.employee.v2.key.encoding. AVRO keeps the EmployeeEventKey record of v1, STRING sends the plain UTF-8
+ * employeeId without the schema registry framing.
+ */
+public enum EmployeeEventKeyEncoding {
+
+    AVRO,
+    STRING
+}
@@ -0,0 +1,25 @@
+package com.sandemo.hrms.constant;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds which schema the employee events are published with, selected with
+ * kafka.producer.employee.schema.mode. V1 publishes the formatted string form on kafka.producer.employee.topic, V2 the
+ * compact form on kafka.producer.employee.v2.topic, DUAL both of them so that the consumers can move over one by one.
+ */
+public enum EmployeeEventSchemaMode {
+
+    V1,
+    V2,
+    DUAL;
+
+    public boolean publishesV1() {
+
+        return this != V2;
+    }
+
+    public boolean publishesV2() {
+
+        return this != V1;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sandemo.hrms.constant;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds the orders the employee listing can be paged in. ID follows iemployee_id_pk, UPDATED_AT follows
+ * tsupdated_at with iemployee_id_pk as the tie-breaker.
+ */
+public enum EmployeeListSort {
+
+    ID,
+    UPDATED_AT
+}
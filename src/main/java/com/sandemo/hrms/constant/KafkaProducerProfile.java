@@ -0,0 +1,51 @@
+package com.sandemo.hrms.constant;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This enum holds the presets of the Kafka producer tuning, selected with kafka.producer.profile. DEFAULT keeps the
+ * client defaults. THROUGHPUT waits up to 20ms to fill large compressed batches, LATENCY sends every record as soon as
+ * possible and gives up quickly when the buffer is full. Both are idempotent with acks=all, so the events of an
+ * employee keep their order across retries with up to 5 requests in flight.
+ */
+public enum KafkaProducerProfile {
+
+    DEFAULT(Collections.emptyMap()),
+    THROUGHPUT(settings("20", "131072", "lz4", "67108864", "10000")),
+    LATENCY(settings("0", "16384", "none", "33554432", "1000"));
+
+    private final Map<String, String> settings;
+
+    KafkaProducerProfile(final Map<String, String> settings) {
+
+        this.settings = settings;
+    }
+
+    public Map<String, String> getSettings() {
+
+        return settings;
+    }
+
+    private static Map<String, String> settings(final String lingerMs, final String batchSize,
+                                                final String compressionType, final String bufferMemory,
+                                                final String maxBlockMs) {
+
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        settings.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        settings.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        settings.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, "true");
+        settings.put(ProducerConfig.ACKS_CONFIG, "all");
+        settings.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "5");
+        settings.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        settings.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+
+        return Collections.unmodifiableMap(settings);
+    }
+}
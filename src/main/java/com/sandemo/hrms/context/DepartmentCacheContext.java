@@ -0,0 +1,33 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.cache.DepartmentCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for the department cache
+ */
+@Configuration
+public class DepartmentCacheContext {
+
+    private static final String MAX_SIZE_PROPERTY = "department.cache.max.size";
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    private Environment environment;
+
+    public DepartmentCacheContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Bean("departmentCache")
+    public DepartmentCache departmentCache(final MeterRegistry meterRegistry) {
+
+        return new DepartmentCache(
+                environment.getProperty(MAX_SIZE_PROPERTY, Integer.class, DEFAULT_MAX_SIZE), meterRegistry);
+    }
+}
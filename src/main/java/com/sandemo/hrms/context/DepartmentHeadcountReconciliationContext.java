@@ -0,0 +1,45 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.service.DepartmentHeadcountReconciliationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Schedules the department headcount reconciliation. It can be switched off with
+ * department.headcount.reconciliation.enabled=false
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "department.headcount.reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class DepartmentHeadcountReconciliationContext {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DepartmentHeadcountReconciliationContext.class);
+
+    private DepartmentHeadcountReconciliationService departmentHeadcountReconciliationService;
+
+    public DepartmentHeadcountReconciliationContext(
+            final DepartmentHeadcountReconciliationService departmentHeadcountReconciliationService) {
+
+        this.departmentHeadcountReconciliationService = departmentHeadcountReconciliationService;
+    }
+
+    @Scheduled(initialDelayString = "${department.headcount.reconciliation.interval.ms:3600000}",
+            fixedDelayString = "${department.headcount.reconciliation.interval.ms:3600000}")
+    public void reconcileHeadcounts() {
+
+        try {
+
+            this.departmentHeadcountReconciliationService.reconcileHeadcounts();
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while reconciling the department headcounts", exception);
+        }
+    }
+}
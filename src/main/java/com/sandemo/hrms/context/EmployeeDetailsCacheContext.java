@@ -0,0 +1,39 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.cache.EmployeeDetailsCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for the encoded employee details cache
+ */
+@Configuration
+public class EmployeeDetailsCacheContext {
+
+    private static final String MAX_BYTES_PROPERTY = "employee.details.cache.max.bytes";
+    private static final String TTL_PROPERTY = "employee.details.cache.ttl.ms";
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final long DEFAULT_TTL_MS = 60000L;
+
+    private Environment environment;
+
+    public EmployeeDetailsCacheContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Bean("employeeDetailsCache")
+    public EmployeeDetailsCache employeeDetailsCache(final MeterRegistry meterRegistry) {
+
+        return new EmployeeDetailsCache(
+                environment.getProperty(MAX_BYTES_PROPERTY, Long.class, DEFAULT_MAX_BYTES),
+                Duration.ofMillis(environment.getProperty(TTL_PROPERTY, Long.class, DEFAULT_TTL_MS)),
+                meterRegistry);
+    }
+}
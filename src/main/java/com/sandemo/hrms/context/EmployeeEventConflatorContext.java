@@ -0,0 +1,43 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.dispatch.EmployeeEventConflator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for the employee event conflation. The events are held back for kafka.conflation.window.ms only
+ * with kafka.conflation.enabled=true, otherwise they are sent right away. The conflation is closed before the
+ * dispatcher, so the events it still holds are sent while the dispatcher takes them.
+ */
+@Configuration
+public class EmployeeEventConflatorContext {
+
+    private static final String KAFKA_CONFLATION_PREFIX = "kafka.conflation.";
+    private static final long DEFAULT_WINDOW_MS = 500L;
+
+    private Environment environment;
+
+    public EmployeeEventConflatorContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Bean(name = "employeeEventConflator", destroyMethod = "close")
+    @DependsOn("employeeEventDispatcher")
+    public EmployeeEventConflator employeeEventConflator(final MeterRegistry meterRegistry) {
+
+        boolean enabled = environment.getProperty(KAFKA_CONFLATION_PREFIX + "enabled", Boolean.class, Boolean.FALSE);
+
+        return new EmployeeEventConflator(
+                enabled ? Duration.ofMillis(environment.getProperty(KAFKA_CONFLATION_PREFIX + "window.ms", Long.class,
+                        DEFAULT_WINDOW_MS)) : Duration.ZERO,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.constant.DispatchOverflowPolicy;
+import com.sandemo.hrms.dispatch.EmployeeEventDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for the employee event dispatcher. The events are queued for the sender threads only with
+ * kafka.dispatch.enabled=true, otherwise they are sent on the calling thread.
+ */
+@Configuration
+public class EmployeeEventDispatcherContext {
+
+    private static final String KAFKA_DISPATCH_PREFIX = "kafka.dispatch.";
+    private static final int DEFAULT_SENDER_THREADS = 4;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    private static final long DEFAULT_BLOCK_TIMEOUT_MS = 500L;
+
+    private Environment environment;
+
+    public EmployeeEventDispatcherContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Bean(name = "employeeEventDispatcher", destroyMethod = "close")
+    public EmployeeEventDispatcher employeeEventDispatcher(final MeterRegistry meterRegistry) {
+
+        boolean enabled = environment.getProperty(KAFKA_DISPATCH_PREFIX + "enabled", Boolean.class, Boolean.FALSE);
+
+        return new EmployeeEventDispatcher(
+                enabled ? environment.getProperty(KAFKA_DISPATCH_PREFIX + "sender.threads", Integer.class,
+                        DEFAULT_SENDER_THREADS) : 0,
+                environment.getProperty(KAFKA_DISPATCH_PREFIX + "queue.capacity", Integer.class, DEFAULT_QUEUE_CAPACITY),
+                DispatchOverflowPolicy.valueOf(environment.getProperty(KAFKA_DISPATCH_PREFIX + "overflow.policy",
+                        DispatchOverflowPolicy.BLOCK.name()).trim().toUpperCase()),
+                Duration.ofMillis(environment.getProperty(KAFKA_DISPATCH_PREFIX + "block.timeout.ms", Long.class,
+                        DEFAULT_BLOCK_TIMEOUT_MS)),
+                meterRegistry);
+    }
+}
@@ -2,13 +2,22 @@ package com.sandemo.hrms.context;
 
 import com.sandemo.hrms.EmployeeEventKey;
 import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.constant.EmployeeEventKeyEncoding;
+import com.sandemo.hrms.constant.KafkaProducerProfile;
+import com.sandemo.hrms.util.Util;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
 import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializer;
 import io.confluent.kafka.serializers.subject.TopicRecordNameStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,16 +26,26 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.ProducerListener;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
  *
- * Avro Producer Configuration for Employee Event
+ * Avro Producer Configuration for Employee Event. The batching, compression and delivery settings come from the preset
+ * selected with kafka.producer.profile, each of them can still be overridden with its own kafka.producer.* property.
+ *
+ * The v2 events go through a producer of their own with the same configuration. Its key is either the EmployeeEventKey
+ * record or, with kafka.producer.employee.v2.key.encoding=string, the plain employeeId.
+ *
+ * The client metrics of both producers are bound to Micrometer as kafka.producer.*, tagged events=v1 or events=v2.
  */
 @Configuration
 public class EmployeeEventKafkaProducerContext {
@@ -36,6 +55,17 @@ public class EmployeeEventKafkaProducerContext {
     private static final String KAFKA_PRODUCER_PREFIX = "kafka.producer.";
     private static final String DEFAULT_SCHEMA_REGISTRY_URL = "http://localhost:8081";
     private static final Boolean SPECIFIC_AVRO_READER_CONFIG_VALUE = true;
+    private static final String PROFILE_PROPERTY = KAFKA_PRODUCER_PREFIX + "profile";
+    private static final String V2_KEY_ENCODING_PROPERTY = KAFKA_PRODUCER_PREFIX + "employee.v2.key.encoding";
+    private static final List<String> TUNING_CONFIGS = Arrays.asList(
+            ProducerConfig.LINGER_MS_CONFIG,
+            ProducerConfig.BATCH_SIZE_CONFIG,
+            ProducerConfig.COMPRESSION_TYPE_CONFIG,
+            ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG,
+            ProducerConfig.ACKS_CONFIG,
+            ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION,
+            ProducerConfig.BUFFER_MEMORY_CONFIG,
+            ProducerConfig.MAX_BLOCK_MS_CONFIG);
 
     @Autowired
     private Environment environment;
@@ -82,19 +112,118 @@ public class EmployeeEventKafkaProducerContext {
                 environment.getProperty(KAFKA_PRODUCER_PREFIX + AbstractKafkaAvroSerDeConfig.VALUE_SUBJECT_NAME_STRATEGY,
                         String.class, TopicRecordNameStrategy.class.getName()));
 
+        // linger.ms, batch.size, compression.type, enable.idempotence, acks, max.in.flight.requests.per.connection,
+        // buffer.memory & max.block.ms
+        props.putAll(getTuningConfig());
+
         return props;
     }
 
+    /**
+     * Returns the settings of the selected profile with the individually configured ones on top. A configuration which
+     * could reorder the events of an employee on a retry is refused.
+     *
+     * @return
+     */
+    Map<String, Object> getTuningConfig() {
+
+        KafkaProducerProfile profile = KafkaProducerProfile.valueOf(
+                environment.getProperty(PROFILE_PROPERTY, KafkaProducerProfile.DEFAULT.name()).trim().toUpperCase());
+
+        Map<String, Object> tuning = new HashMap<>(profile.getSettings());
+
+        for (String config : TUNING_CONFIGS) {
+
+            String value = environment.getProperty(KAFKA_PRODUCER_PREFIX + config);
+
+            if (Util.isNotNull(value)) {
+                tuning.put(config, value.trim());
+            }
+        }
+
+        boolean idempotent = Boolean.parseBoolean(String.valueOf(tuning.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG)));
+        Object maxInFlight = tuning.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION);
+        Object acks = tuning.get(ProducerConfig.ACKS_CONFIG);
+
+        if (idempotent && Util.isNotNull(acks) && !"all".equals(acks) && !"-1".equals(acks)) {
+
+            throw new IllegalStateException("The idempotent producer requires acks=all, configured: " + acks);
+        }
+
+        if (!idempotent && Util.isNotNull(maxInFlight) && Integer.parseInt(String.valueOf(maxInFlight)) > 1) {
+
+            throw new IllegalStateException("Without idempotence more than one request in flight could reorder the "
+                    + "events of an employee on a retry, configured: " + maxInFlight);
+        }
+
+        LOG.info("Kafka producer profile {} with {}", profile, tuning);
+
+        return tuning;
+    }
+
+    /**
+     * The serializers share the schema registry client whose schema ids were resolved while starting up
+     *
+     * @param employeeEventSchemaRegistryClient
+     * @param meterRegistry
+     * @return
+     */
     @Bean("producerFactory")
-    public ProducerFactory<EmployeeEventKey, EmployeeEventValue> producerFactory() {
+    public ProducerFactory<EmployeeEventKey, EmployeeEventValue> producerFactory(
+            final SchemaRegistryClient employeeEventSchemaRegistryClient, final MeterRegistry meterRegistry) {
+
+        Map<String, Object> producerConfig = getProducerConfig();
+
+        DefaultKafkaProducerFactory<EmployeeEventKey, EmployeeEventValue> producerFactory =
+                new DefaultKafkaProducerFactory<>(producerConfig,
+                        serializer(employeeEventSchemaRegistryClient, producerConfig, true),
+                        serializer(employeeEventSchemaRegistryClient, producerConfig, false));
+
+        producerFactory.addListener(metricsListener(meterRegistry, "v1"));
 
-        return new DefaultKafkaProducerFactory<>(getProducerConfig());
+        return producerFactory;
+    }
+
+    /**
+     * The producer of the v2 events, it is only connected once the first v2 event is sent
+     *
+     * @param employeeEventSchemaRegistryClient
+     * @param meterRegistry
+     * @return
+     */
+    @Bean("employeeEventV2ProducerFactory")
+    public ProducerFactory<Object, GenericRecord> employeeEventV2ProducerFactory(
+            final SchemaRegistryClient employeeEventSchemaRegistryClient, final MeterRegistry meterRegistry) {
+
+        Map<String, Object> producerConfig = getProducerConfig();
+
+        EmployeeEventKeyEncoding keyEncoding = EmployeeEventKeyEncoding.valueOf(environment.getProperty(
+                V2_KEY_ENCODING_PROPERTY, EmployeeEventKeyEncoding.AVRO.name()).trim().toUpperCase());
+
+        Serializer<Object> keySerializer = EmployeeEventKeyEncoding.STRING == keyEncoding
+                ? stringSerializer() : serializer(employeeEventSchemaRegistryClient, producerConfig, true);
+        Serializer<GenericRecord> valueSerializer = serializer(employeeEventSchemaRegistryClient, producerConfig, false);
+
+        DefaultKafkaProducerFactory<Object, GenericRecord> producerFactory =
+                new DefaultKafkaProducerFactory<>(producerConfig, keySerializer, valueSerializer);
+
+        producerFactory.addListener(metricsListener(meterRegistry, "v2"));
+
+        return producerFactory;
+    }
+
+    @Bean("employeeEventV2KafkaTemplate")
+    public KafkaTemplate<Object, GenericRecord> employeeEventV2KafkaTemplate(
+            final ProducerFactory<Object, GenericRecord> employeeEventV2ProducerFactory) {
+
+        return new KafkaTemplate<>(employeeEventV2ProducerFactory);
     }
 
     @Bean("kafkaTemplate")
-    public KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate() {
+    public KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate(
+            final ProducerFactory<EmployeeEventKey, EmployeeEventValue> producerFactory) {
 
-        final KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate = new KafkaTemplate<>(producerFactory());
+        final KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate = new KafkaTemplate<>(producerFactory);
 
         // Setting up Producer Listener for logging the details upon success or error case.
         // Note: onError will be used to handle the fallback scenario
@@ -118,4 +247,37 @@ public class EmployeeEventKafkaProducerContext {
 
         return kafkaTemplate;
     }
+
+    /**
+     * Binds the client metrics of every producer the factory creates, such as record-send-rate, batch-size-avg,
+     * request-latency-avg, buffer-available-bytes, record-error-rate and compression-rate-avg, and removes them once the
+     * producer is closed
+     *
+     * @param meterRegistry
+     * @param events
+     * @param <K>
+     * @param <V>
+     * @return
+     */
+    private static <K, V> MicrometerProducerListener<K, V> metricsListener(final MeterRegistry meterRegistry,
+                                                                         final String events) {
+
+        return new MicrometerProducerListener<>(meterRegistry, Collections.singletonList(Tag.of("events", events)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Serializer<T> serializer(final SchemaRegistryClient schemaRegistryClient,
+                                                final Map<String, Object> producerConfig, final boolean isKey) {
+
+        KafkaAvroSerializer serializer = new KafkaAvroSerializer(schemaRegistryClient);
+        serializer.configure(producerConfig, isKey);
+
+        return (Serializer<T>) (Serializer<?>) serializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Serializer<T> stringSerializer() {
+
+        return (Serializer<T>) (Serializer<?>) new StringSerializer();
+    }
 }
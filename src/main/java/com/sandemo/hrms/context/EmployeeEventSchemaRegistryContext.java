@@ -0,0 +1,174 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.constant.EmployeeEventKeyEncoding;
+import com.sandemo.hrms.constant.EmployeeEventSchemaMode;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.registry.EmbeddedSchemaRegistryClient;
+import com.sandemo.hrms.registry.MeteredSchemaRegistryClient;
+import com.sandemo.hrms.util.Util;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import io.confluent.kafka.serializers.subject.TopicRecordNameStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for the schema registry client of the employee event serializers. With
+ * kafka.producer.schema.registry.embedded.enabled=true the schemas are served by an in-process registry backed by
+ * kafka.producer.schema.registry.embedded.file, otherwise by the registry at kafka.producer.schema.registry.url.
+ *
+ * The ids of the key and value schemas are resolved while starting up, so that the first event does not wait for the
+ * registry. When the remote registry can not be reached at that point they are resolved with the first event instead.
+ * The schemas of the v2 topic are resolved as well once kafka.producer.employee.schema.mode publishes v2 events.
+ */
+@Configuration
+public class EmployeeEventSchemaRegistryContext {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeEventSchemaRegistryContext.class);
+
+    private static final String KAFKA_PRODUCER_PREFIX = "kafka.producer.";
+    private static final String EMBEDDED_PREFIX = KAFKA_PRODUCER_PREFIX + "schema.registry.embedded.";
+    private static final String TOPIC_NAME_PROPERTY = KAFKA_PRODUCER_PREFIX + "employee.topic";
+    private static final String V2_TOPIC_NAME_PROPERTY = KAFKA_PRODUCER_PREFIX + "employee.v2.topic";
+    private static final String SCHEMA_MODE_PROPERTY = KAFKA_PRODUCER_PREFIX + "employee.schema.mode";
+    private static final String V2_KEY_ENCODING_PROPERTY = KAFKA_PRODUCER_PREFIX + "employee.v2.key.encoding";
+    private static final String DEFAULT_SCHEMA_REGISTRY_URL = "http://localhost:8081";
+    private static final int IDENTITY_MAP_CAPACITY = 1000;
+
+    private Environment environment;
+
+    public EmployeeEventSchemaRegistryContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Bean("employeeEventSchemaRegistryClient")
+    public SchemaRegistryClient employeeEventSchemaRegistryClient(final MeterRegistry meterRegistry) {
+
+        boolean embedded = environment.getProperty(EMBEDDED_PREFIX + "enabled", Boolean.class, Boolean.FALSE);
+
+        SchemaRegistryClient schemaRegistryClient;
+
+        if (embedded) {
+
+            String file = environment.getProperty(EMBEDDED_PREFIX + "file", "");
+
+            schemaRegistryClient = new EmbeddedSchemaRegistryClient(file.trim().isEmpty() ? null : Paths.get(file),
+                    meterRegistry);
+
+        } else {
+
+            String schemaRegistryUrl = environment.getProperty(
+                    KAFKA_PRODUCER_PREFIX + AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                    DEFAULT_SCHEMA_REGISTRY_URL);
+
+            schemaRegistryClient = new MeteredSchemaRegistryClient(schemaRegistryUrl, IDENTITY_MAP_CAPACITY,
+                    Collections.singletonMap(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, schemaRegistryUrl),
+                    meterRegistry);
+        }
+
+        // The embedded registry starts out empty, so the schemas are always registered with it
+        boolean register = embedded || environment.getProperty(
+                KAFKA_PRODUCER_PREFIX + AbstractKafkaAvroSerDeConfig.AUTO_REGISTER_SCHEMAS, Boolean.class, false);
+
+        EmployeeEventSchemaMode schemaMode = EmployeeEventSchemaMode.valueOf(environment.getProperty(
+                SCHEMA_MODE_PROPERTY, EmployeeEventSchemaMode.V1.name()).trim().toUpperCase());
+
+        if (schemaMode.publishesV1()) {
+
+            String topic = environment.getRequiredProperty(TOPIC_NAME_PROPERTY);
+
+            resolve(schemaRegistryClient, AbstractKafkaAvroSerDeConfig.KEY_SUBJECT_NAME_STRATEGY, topic, true,
+                    EmployeeEventKey.getClassSchema(), register);
+            resolve(schemaRegistryClient, AbstractKafkaAvroSerDeConfig.VALUE_SUBJECT_NAME_STRATEGY, topic, false,
+                    EmployeeEventValue.getClassSchema(), register);
+        }
+
+        if (schemaMode.publishesV2()) {
+
+            String topic = environment.getRequiredProperty(V2_TOPIC_NAME_PROPERTY);
+
+            // The plain string key does not go through the registry
+            if (EmployeeEventKeyEncoding.AVRO.name().equalsIgnoreCase(
+                    environment.getProperty(V2_KEY_ENCODING_PROPERTY, EmployeeEventKeyEncoding.AVRO.name()).trim())) {
+
+                resolve(schemaRegistryClient, AbstractKafkaAvroSerDeConfig.KEY_SUBJECT_NAME_STRATEGY, topic, true,
+                        EmployeeEventKey.getClassSchema(), register);
+            }
+
+            resolve(schemaRegistryClient, AbstractKafkaAvroSerDeConfig.VALUE_SUBJECT_NAME_STRATEGY, topic, false,
+                    EmployeeEventFactoryService.EMPLOYEE_EVENT_VALUE_V2_SCHEMA, register);
+        }
+
+        return schemaRegistryClient;
+    }
+
+    private void resolve(final SchemaRegistryClient schemaRegistryClient, final String strategyConfig,
+                         final String topic, final boolean isKey, final Schema schema, final boolean register) {
+
+        String subject = subjectName(
+                environment.getProperty(KAFKA_PRODUCER_PREFIX + strategyConfig, TopicRecordNameStrategy.class.getName()),
+                topic, isKey, schema);
+
+        if (Util.isNull(subject)) {
+
+            LOG.warn("The subject of {} is not known for the {}, it is resolved with the first event",
+                    schema.getFullName(), strategyConfig);
+
+            return;
+        }
+
+        try {
+
+            int id = register ? schemaRegistryClient.register(subject, schema)
+                    : schemaRegistryClient.getId(subject, schema);
+
+            LOG.info("The schema {} of the subject {} resolved to the id {}", schema.getFullName(), subject, id);
+
+        } catch (Exception exception) {
+
+            LOG.warn("The schema {} of the subject {} could not be resolved, it is resolved with the first event",
+                    schema.getFullName(), subject, exception);
+        }
+    }
+
+    /**
+     * The subject the serializer derives with the Confluent strategy of the given class name, or null for any other
+     * strategy
+     *
+     * @param strategy
+     * @param topic
+     * @param isKey
+     * @param schema
+     * @return
+     */
+    static String subjectName(final String strategy, final String topic, final boolean isKey, final Schema schema) {
+
+        switch (strategy.substring(strategy.lastIndexOf('.') + 1).trim()) {
+
+            case "TopicNameStrategy":
+                return topic + (isKey ? "-key" : "-value");
+
+            case "RecordNameStrategy":
+                return schema.getFullName();
+
+            case "TopicRecordNameStrategy":
+                return topic + "-" + schema.getFullName();
+
+            default:
+                return null;
+        }
+    }
+}
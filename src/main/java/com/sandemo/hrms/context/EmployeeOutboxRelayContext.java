@@ -0,0 +1,48 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.service.EmployeeOutboxRelayService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Schedules the outbox relay. It can be switched off with outbox.relay.enabled=false
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class EmployeeOutboxRelayContext {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeOutboxRelayContext.class);
+
+    private EmployeeOutboxRelayService employeeOutboxRelayService;
+
+    public EmployeeOutboxRelayContext(final EmployeeOutboxRelayService employeeOutboxRelayService) {
+
+        this.employeeOutboxRelayService = employeeOutboxRelayService;
+    }
+
+    /**
+     * Drains the outbox batch by batch, until a batch is empty or nothing of it could be published
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval.ms:200}")
+    public void relayOutbox() {
+
+        try {
+
+            while (this.employeeOutboxRelayService.relayNextBatch() > 0) {
+
+                LOG.trace("Outbox batch relayed, polling the next one");
+            }
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while relaying the outbox", exception);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for the employee search index
+ */
+@Configuration
+public class EmployeeSearchIndexContext {
+
+    private static final String COMPACTION_THRESHOLD_PROPERTY = "employee.search.index.compaction.threshold";
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 4096;
+
+    private Environment environment;
+
+    public EmployeeSearchIndexContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Bean("employeeSearchIndex")
+    public EmployeeSearchIndex employeeSearchIndex(final MeterRegistry meterRegistry) {
+
+        return new EmployeeSearchIndex(
+                environment.getProperty(COMPACTION_THRESHOLD_PROPERTY, Integer.class, DEFAULT_COMPACTION_THRESHOLD),
+                meterRegistry);
+    }
+}
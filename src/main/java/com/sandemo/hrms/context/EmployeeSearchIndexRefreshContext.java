@@ -0,0 +1,67 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.service.EmployeeSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Schedules the compaction and the periodic rebuild of the employee search index. It can be switched off with
+ * employee.search.index.refresh.enabled=false
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "employee.search.index.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class EmployeeSearchIndexRefreshContext {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeSearchIndexRefreshContext.class);
+
+    private EmployeeSearchIndex employeeSearchIndex;
+    private EmployeeSearchService employeeSearchService;
+
+    public EmployeeSearchIndexRefreshContext(final EmployeeSearchIndex employeeSearchIndex,
+                                             final EmployeeSearchService employeeSearchService) {
+
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.employeeSearchService = employeeSearchService;
+    }
+
+    /**
+     * Folds the pending changes into the index once there are enough of them to slow the search down
+     */
+    @Scheduled(fixedDelayString = "${employee.search.index.compaction.interval.ms:5000}")
+    public void compactIndex() {
+
+        try {
+
+            if (this.employeeSearchIndex.needsCompaction()) {
+
+                this.employeeSearchIndex.compact();
+            }
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while compacting the employee search index", exception);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${employee.search.index.rebuild.interval.ms:600000}",
+            fixedDelayString = "${employee.search.index.rebuild.interval.ms:600000}")
+    public void rebuildIndex() {
+
+        try {
+
+            this.employeeSearchService.rebuildSearchIndex();
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while rebuilding the employee search index", exception);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.interceptor.CacheControlHandlerInterceptor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Registers the Cache-Control header per endpoint, configured as
+ * http.cache.control.mappings[/employee/details]=private, no-cache
+ */
+@Configuration
+public class EmployeeServiceCacheControlContext implements WebMvcConfigurer {
+
+    private static final String MAPPINGS_PROPERTY = "http.cache.control.mappings";
+
+    private Environment environment;
+
+    public EmployeeServiceCacheControlContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+
+        Map<String, String> cacheControlMappings = Binder.get(environment)
+                .bind(MAPPINGS_PROPERTY, Bindable.mapOf(String.class, String.class))
+                .orElse(Collections.emptyMap());
+
+        if (!cacheControlMappings.isEmpty()) {
+
+            registry.addInterceptor(new CacheControlHandlerInterceptor(cacheControlMappings));
+        }
+    }
+}
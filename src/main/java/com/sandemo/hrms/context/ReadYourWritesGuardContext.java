@@ -0,0 +1,39 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.datasource.ReadYourWritesGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for the read your writes guard, it only pins reads when the replica routing is switched on
+ */
+@Configuration
+public class ReadYourWritesGuardContext {
+
+    private static final String REPLICA_ENABLED_PROPERTY = "datasource.replica.enabled";
+    private static final String WINDOW_PROPERTY = "datasource.replica.read.your.writes.window.ms";
+    private static final long DEFAULT_WINDOW_MS = 5000L;
+
+    private Environment environment;
+
+    public ReadYourWritesGuardContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    @Bean("readYourWritesGuard")
+    public ReadYourWritesGuard readYourWritesGuard(final MeterRegistry meterRegistry) {
+
+        boolean replicaEnabled = environment.getProperty(REPLICA_ENABLED_PROPERTY, Boolean.class, Boolean.FALSE);
+
+        return new ReadYourWritesGuard(
+                Duration.ofMillis(replicaEnabled ? environment.getProperty(WINDOW_PROPERTY, Long.class, DEFAULT_WINDOW_MS) : 0L),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,103 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Bean configuration for routing the read-only transactions to a replica. It replaces the auto-configured data source
+ * with a primary and a replica pool behind a routing data source, and is switched on with
+ * datasource.replica.enabled=true. The primary pool is configured under spring.datasource.hikari as before, the replica
+ * pool under datasource.replica.hikari, its credentials default to the ones of the primary.
+ *
+ * spring.jpa.open-in-view must be false with the routing, the entity manager of a request would otherwise hold on to
+ * the first connection it got for the whole request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingDataSourceContext {
+
+    private static final String PRIMARY_HIKARI_PREFIX = "spring.datasource.hikari";
+    private static final String REPLICA_HIKARI_PREFIX = "datasource.replica.hikari";
+    private static final String REPLICA_URL_PROPERTY = "datasource.replica.url";
+    private static final String REPLICA_USERNAME_PROPERTY = "datasource.replica.username";
+    private static final String REPLICA_PASSWORD_PROPERTY = "datasource.replica.password";
+
+    private Environment environment;
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    public ReplicaRoutingDataSourceContext(final Environment environment) {
+
+        this.environment = environment;
+    }
+
+    /**
+     * The pools are not beans of their own, the data source initialization of Spring Boot would otherwise run for them
+     * while the routing data source is still being created
+     *
+     * @param dataSourceProperties
+     * @param meterRegistry
+     * @return
+     */
+    @Bean("dataSource")
+    @Primary
+    public DataSource dataSource(final DataSourceProperties dataSourceProperties, final MeterRegistry meterRegistry) {
+
+        HikariDataSource primaryDataSource = pool("primary", PRIMARY_HIKARI_PREFIX, meterRegistry,
+                dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class));
+
+        HikariDataSource replicaDataSource = pool("replica", REPLICA_HIKARI_PREFIX, meterRegistry,
+                DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .driverClassName(dataSourceProperties.determineDriverClassName())
+                        .url(environment.getRequiredProperty(REPLICA_URL_PROPERTY))
+                        .username(environment.getProperty(REPLICA_USERNAME_PROPERTY,
+                                dataSourceProperties.determineUsername()))
+                        .password(environment.getProperty(REPLICA_PASSWORD_PROPERTY,
+                                dataSourceProperties.determinePassword())));
+
+        // The lazy proxy defers the routing to the first statement, once the transaction is known to be read-only
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, meterRegistry));
+    }
+
+    @PreDestroy
+    public void closePools() {
+
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource pool(final String poolName, final String prefix, final MeterRegistry meterRegistry,
+                                  final DataSourceBuilder<HikariDataSource> dataSourceBuilder) {
+
+        HikariDataSource dataSource = dataSourceBuilder.build();
+
+        Binder.get(environment).bind(prefix, Bindable.ofInstance(dataSource));
+
+        // Registers the hikaricp.* meters of the pool, tagged with the pool name
+        dataSource.setPoolName(poolName);
+        dataSource.setMetricRegistry(meterRegistry);
+
+        pools.add(dataSource);
+
+        return dataSource;
+    }
+}
@@ -1,17 +1,29 @@
 package com.sandemo.hrms.controller;
 
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.constant.GlobalConstant;
 import com.sandemo.hrms.dto.request.DepartmentRequestDto;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.DepartmentListResponseDto;
 import com.sandemo.hrms.dto.response.DepartmentResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
+import com.sandemo.hrms.exception.DepartmentNotFoundException;
 import com.sandemo.hrms.service.DepartmentService;
+import com.sandemo.hrms.service.EmployeeExportService;
+import com.sandemo.hrms.service.EmployeeListService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
@@ -24,10 +36,16 @@ import javax.validation.Valid;
 public class DepartmentController {
 
     private DepartmentService departmentService;
+    private EmployeeListService employeeListService;
+    private EmployeeExportService employeeExportService;
 
-    public DepartmentController(DepartmentService departmentService) {
+    public DepartmentController(final DepartmentService departmentService,
+                                final EmployeeListService employeeListService,
+                                final EmployeeExportService employeeExportService) {
 
         this.departmentService = departmentService;
+        this.employeeListService = employeeListService;
+        this.employeeExportService = employeeExportService;
     }
 
     @ApiOperation(value = "Create department with the name provided",
@@ -40,4 +58,57 @@ public class DepartmentController {
                 this.departmentService.createDepartmentAndGetResponse(departmentRequestDto),
                 HttpStatus.CREATED);
     }
+
+    @ApiOperation(value = "List every department with its current headcount",
+            response = DepartmentListResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/list", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DepartmentListResponseDto> getDepartmentList() {
+
+        return new ResponseEntity<>(this.departmentService.getDepartmentList(), HttpStatus.OK);
+    }
+
+    @ApiOperation(value = "List the employees of the department page by page in id order. The nextCursor of a page fetches the next one",
+            response = EmployeeListResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{departmentId}/employees", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeListResponseDto> getDepartmentEmployees(final @PathVariable Long departmentId,
+                                                                          final @RequestParam(required = false) String cursor,
+                                                                          final @RequestParam(required = false) Integer size) {
+
+        requireDepartment(departmentId);
+
+        return ResponseEntity.ok(this.employeeListService.getEmployees(EmployeeListRequestDto.builder()
+                .departmentId(departmentId)
+                .sort(EmployeeListSort.ID)
+                .cursor(cursor)
+                .size(size)
+                .build()));
+    }
+
+    @ApiOperation(value = "Stream all the employees of the department as newline delimited JSON, one employee per line. Selected with Accept: application/x-ndjson",
+            produces = GlobalConstant.NDJSON_MEDIA_TYPE)
+    @GetMapping(value = "/{departmentId}/employees", produces = GlobalConstant.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamDepartmentEmployees(final @PathVariable Long departmentId) {
+
+        // Checked before the response is committed. The error body is JSON, which a client accepting only NDJSON can
+        // not take, so a missing department is answered with the status alone
+        if (!this.departmentService.getDepartmentById(departmentId).isPresent()) {
+
+            return ResponseEntity.notFound().build();
+        }
+
+        StreamingResponseBody body = outputStream ->
+                this.employeeExportService.exportDepartmentEmployees(departmentId, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(GlobalConstant.NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
+    private void requireDepartment(final Long departmentId) {
+
+        if (!this.departmentService.getDepartmentById(departmentId).isPresent()) {
+
+            throw new DepartmentNotFoundException();
+        }
+    }
 }
@@ -1,26 +1,51 @@
 package com.sandemo.hrms.controller;
 
+import com.sandemo.hrms.cache.EncodedEmployeeDetails;
+import com.sandemo.hrms.constant.GlobalConstant;
+import com.sandemo.hrms.dto.request.EmployeeBackfillRequestDto;
+import com.sandemo.hrms.dto.request.EmployeeDetailsBatchRequestDto;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
 import com.sandemo.hrms.dto.request.EmployeeRequestDto;
 import com.sandemo.hrms.dto.request.PutEmployeeRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeBackfillResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeBulkResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeImportResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeSearchResponseDto;
+import com.sandemo.hrms.exception.EmployeeVersionMismatchException;
+import com.sandemo.hrms.service.EmployeeBackfillService;
+import com.sandemo.hrms.service.EmployeeBulkService;
+import com.sandemo.hrms.service.EmployeeExportService;
+import com.sandemo.hrms.service.EmployeeImportService;
+import com.sandemo.hrms.service.EmployeeListService;
+import com.sandemo.hrms.service.EmployeeSearchService;
 import com.sandemo.hrms.service.EmployeeService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.InputStream;
+import java.util.Optional;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -30,11 +55,31 @@ import javax.validation.Valid;
 @Api(value = "Employee controller", description = "This controller provides endpoint for managing the employee of the company")
 public class EmployeeController {
 
+    private static final String ANY_ETAG = "*";
+
     private EmployeeService employeeService;
+    private EmployeeBulkService employeeBulkService;
+    private EmployeeListService employeeListService;
+    private EmployeeExportService employeeExportService;
+    private EmployeeImportService employeeImportService;
+    private EmployeeSearchService employeeSearchService;
+    private EmployeeBackfillService employeeBackfillService;
 
-    public EmployeeController(final EmployeeService employeeService) {
+    public EmployeeController(final EmployeeService employeeService,
+                              final EmployeeBulkService employeeBulkService,
+                              final EmployeeListService employeeListService,
+                              final EmployeeExportService employeeExportService,
+                              final EmployeeImportService employeeImportService,
+                              final EmployeeSearchService employeeSearchService,
+                              final EmployeeBackfillService employeeBackfillService) {
 
         this.employeeService = employeeService;
+        this.employeeBulkService = employeeBulkService;
+        this.employeeListService = employeeListService;
+        this.employeeExportService = employeeExportService;
+        this.employeeImportService = employeeImportService;
+        this.employeeSearchService = employeeSearchService;
+        this.employeeBackfillService = employeeBackfillService;
     }
 
     @ApiOperation(value = "Create employee with the details provided",
@@ -48,15 +93,35 @@ public class EmployeeController {
                 HttpStatus.CREATED);
     }
 
+    @ApiOperation(value = "Create employees in bulk from a JSON array of employee details and return the outcome of each element",
+            response = EmployeeBulkResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/bulk-create", produces = MediaType.APPLICATION_JSON_VALUE, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeBulkResponseDto> createEmployees(final InputStream inputStream) {
+
+        return ResponseEntity.ok(this.employeeBulkService.createEmployeesAndGetResponse(inputStream));
+    }
+
+    @ApiOperation(value = "Import employees from CSV with the header name,email,dateOfBirth,departmentId and return the counts and the errors of the rejected rows",
+            response = EmployeeImportResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = GlobalConstant.CSV_MEDIA_TYPE)
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_JSON_VALUE, consumes = GlobalConstant.CSV_MEDIA_TYPE)
+    public ResponseEntity<EmployeeImportResponseDto> importEmployees(final InputStream inputStream) {
+
+        return ResponseEntity.ok(this.employeeImportService.importEmployees(inputStream));
+    }
+
     @ApiOperation(value = "Update employee with the details provided",
             response = EmployeeResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE)
     @PutMapping(value = "/update/{employeeId}", produces = MediaType.APPLICATION_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<EmployeeResponseDto> updateEmployee(final @PathVariable String employeeId,
-                                                              final @Valid @RequestBody PutEmployeeRequestDto putEmployeeRequestDto) {
+                                                              final @Valid @RequestBody PutEmployeeRequestDto putEmployeeRequestDto,
+                                                              final @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        return ResponseEntity.ok(this.employeeService.updateEmployeeAndGetResponse(employeeId, putEmployeeRequestDto));
+        return ResponseEntity.ok(this.employeeService.updateEmployeeAndGetResponse(
+                employeeId, putEmployeeRequestDto, getExpectedVersion(ifMatch)));
     }
 
     @ApiOperation(value = "Delete employee with the id provided",
@@ -70,8 +135,126 @@ public class EmployeeController {
     @ApiOperation(value = "Get all details for the specific employee",
             response = EmployeeDetailsResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE)
     @GetMapping(value = "/details", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<EmployeeDetailsResponseDto> getEmployeeDetails(final @RequestParam String employeeId) {
+    public ResponseEntity<byte[]> getEmployeeDetails(final @RequestParam String employeeId, final WebRequest webRequest) {
+
+        // A revalidation is answered from the version alone, without loading or encoding the employee
+        if (StringUtils.hasText(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+
+            Optional<Long> version = this.employeeService.getEmployeeVersionById(employeeId);
+
+            if (version.isPresent() && webRequest.checkNotModified(String.valueOf(version.get()))) {
+
+                return null;
+            }
+        }
+
+        EncodedEmployeeDetails encodedEmployeeDetails = this.employeeService.getEncodedEmployeeDetailsById(employeeId);
+
+        // The details are already encoded, so they are written out as they are
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(encodedEmployeeDetails.getVersion()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(encodedEmployeeDetails.getJson());
+    }
+
+    @ApiOperation(value = "Get the details of up to 100 employees at once by employeeIds or by emails, in the order requested, each marked as FOUND or NOT_FOUND",
+            response = EmployeeDetailsBatchResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/details/batch", produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeDetailsBatchResponseDto> getEmployeeDetailsBatch(
+            final @Valid @RequestBody EmployeeDetailsBatchRequestDto employeeDetailsBatchRequestDto) {
+
+        return ResponseEntity.ok(this.employeeService.getEmployeeDetailsBatch(employeeDetailsBatchRequestDto));
+    }
+
+    @ApiOperation(value = "List the employees matching the filters, page by page. The nextCursor of a page fetches the next one",
+            response = EmployeeListResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/list", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeListResponseDto> getEmployees(final EmployeeListRequestDto employeeListRequestDto) {
+
+        return ResponseEntity.ok(this.employeeListService.getEmployees(employeeListRequestDto));
+    }
+
+    @ApiOperation(value = "Search the employees whose name has a word or whose email starts with the query, for typeahead",
+            response = EmployeeSearchResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeSearchResponseDto> searchEmployees(final @RequestParam String q,
+                                                                     final @RequestParam(required = false) Long departmentId,
+                                                                     final @RequestParam(required = false) Integer limit) {
+
+        return ResponseEntity.ok(this.employeeSearchService.searchEmployees(q, departmentId, limit));
+    }
+
+    @ApiOperation(value = "Export all the employees as newline delimited JSON, one employee per line",
+            produces = GlobalConstant.NDJSON_MEDIA_TYPE)
+    @GetMapping(value = "/export", produces = GlobalConstant.NDJSON_MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+
+        // The body is written from a worker thread while the rows are read, the request thread is released right away
+        StreamingResponseBody body = this.employeeExportService::exportEmployees;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(GlobalConstant.NDJSON_MEDIA_TYPE))
+                .body(body);
+    }
+
+    @ApiOperation(value = "Start publishing the employees created or updated within the ranges as events in the background, or resume the job from its checkpoint",
+            response = EmployeeBackfillResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/backfill", produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeBackfillResponseDto> startBackfill(
+            final @Valid @RequestBody EmployeeBackfillRequestDto employeeBackfillRequestDto) {
+
+        return new ResponseEntity<>(this.employeeBackfillService.startBackfill(employeeBackfillRequestDto),
+                HttpStatus.ACCEPTED);
+    }
+
+    @ApiOperation(value = "Stop the backfill job once its current page is published, it can be resumed later",
+            response = EmployeeBackfillResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/backfill/{jobName}/stop", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeBackfillResponseDto> stopBackfill(final @PathVariable String jobName) {
+
+        return ResponseEntity.ok(this.employeeBackfillService.stopBackfill(jobName));
+    }
+
+    @ApiOperation(value = "Get the status and the checkpoint of the backfill job",
+            response = EmployeeBackfillResponseDto.class, produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/backfill/{jobName}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeBackfillResponseDto> getBackfill(final @PathVariable String jobName) {
+
+        return ResponseEntity.ok(this.employeeBackfillService.getBackfill(jobName));
+    }
+
+    /**
+     * Returns the version the If-Match header expects, the ETag of the employee details. An absent header or "*" does
+     * not constrain the update, a weak or unknown tag can never match the strong ETag.
+     *
+     * @param ifMatch
+     * @return
+     */
+    private Long getExpectedVersion(final String ifMatch) {
+
+        if (!StringUtils.hasText(ifMatch) || ANY_ETAG.equals(ifMatch.trim())) {
+
+            return null;
+        }
+
+        String etag = ifMatch.trim();
+
+        if (etag.length() < 2 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+
+            throw new EmployeeVersionMismatchException();
+        }
+
+        try {
+
+            return Long.valueOf(etag.substring(1, etag.length() - 1));
+
+        } catch (NumberFormatException exception) {
 
-        return ResponseEntity.ok(this.employeeService.getEmployeeDetailsById(employeeId));
+            throw new EmployeeVersionMismatchException();
+        }
     }
 }
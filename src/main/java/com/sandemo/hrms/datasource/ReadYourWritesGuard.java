@@ -0,0 +1,127 @@
+package com.sandemo.hrms.datasource;
+
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Remembers the keys written within the last window, so that reads of them are pinned to the primary until the
+ * replica has caught up. The window should cover the usual replication lag, a zero window turns the guard off.
+ *
+ * The expired keys are dropped when read and swept at most once per window on a write, so the map only holds the keys
+ * written within about two windows.
+ */
+public class ReadYourWritesGuard {
+
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt;
+
+    public ReadYourWritesGuard(final Duration window, final MeterRegistry meterRegistry) {
+
+        this(window, meterRegistry, System::nanoTime);
+    }
+
+    ReadYourWritesGuard(final Duration window, final MeterRegistry meterRegistry, final LongSupplier nanoTime) {
+
+        if (Util.isNull(window) || window.isNegative()) {
+
+            throw new IllegalArgumentException("The read your writes window must not be negative: " + window);
+        }
+
+        this.windowNanos = window.toNanos();
+        this.nanoTime = nanoTime;
+        this.nextSweepAt = new AtomicLong(nanoTime.getAsLong() + windowNanos);
+
+        Gauge.builder("hrms.datasource.pinned.keys", pinnedUntil, Map::size)
+                .description("The number of recently written keys whose reads are pinned to the primary")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pins the reads of the key to the primary for the window, starting now.
+     *
+     * @param key
+     */
+    public void recordWrite(final String key) {
+
+        if (windowNanos == 0 || Util.isNull(key)) {
+
+            return;
+        }
+
+        long now = nanoTime.getAsLong();
+
+        pinnedUntil.put(key, now + windowNanos);
+
+        long sweepAt = nextSweepAt.get();
+
+        if (now - sweepAt >= 0 && nextSweepAt.compareAndSet(sweepAt, now + windowNanos)) {
+
+            pinnedUntil.values().removeIf(until -> until - now <= 0);
+        }
+    }
+
+    public boolean isPinned(final String key) {
+
+        Long until = Util.isNull(key) ? null : pinnedUntil.get(key);
+
+        if (Util.isNull(until)) {
+
+            return false;
+        }
+
+        if (until - nanoTime.getAsLong() <= 0) {
+
+            pinnedUntil.remove(key, until);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Runs the read on the primary when the key was written within the window, otherwise wherever the transaction
+     * routes it.
+     *
+     * @param key
+     * @param read
+     * @param <T>
+     * @return
+     */
+    public <T> T read(final String key, final Supplier<T> read) {
+
+        return isPinned(key) ? ReplicaRoutingDataSource.callOnPrimary(read) : read.get();
+    }
+
+    /**
+     * Runs the read on the primary when any of the keys was written within the window.
+     *
+     * @param keys
+     * @param read
+     * @param <T>
+     * @return
+     */
+    public <T> T read(final Collection<String> keys, final Supplier<T> read) {
+
+        return keys.stream().anyMatch(this::isPinned) ? ReplicaRoutingDataSource.callOnPrimary(read) : read.get();
+    }
+
+    public int size() {
+
+        return pinnedUntil.size();
+    }
+}
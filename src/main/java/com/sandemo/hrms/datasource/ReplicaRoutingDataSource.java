@@ -0,0 +1,167 @@
+package com.sandemo.hrms.datasource;
+
+import com.sandemo.hrms.constant.DataSourceRoute;
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Routes the connections of read-only transactions to the replica pool and everything else to the primary pool. The
+ * decision is taken when the connection is requested, so this data source has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks for the
+ * connection before the read-only flag of the transaction is published, the lazy proxy defers it to the first
+ * statement.
+ *
+ * A read which must see the latest committed state, e.g. right after the same employee was written, is run through
+ * {@link #callOnPrimary(Supplier)} before its first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private static final String TAG_ROUTE = "route";
+    private static final String TAG_REASON = "reason";
+
+    private final Map<DataSourceRoute, DataSource> dataSources = new EnumMap<>(DataSourceRoute.class);
+    private final Map<DataSourceRoute, Timer> acquireTimers = new EnumMap<>(DataSourceRoute.class);
+
+    private final Counter writeCounter;
+    private final Counter readOnlyCounter;
+    private final Counter pinnedCounter;
+
+    public ReplicaRoutingDataSource(final DataSource primaryDataSource, final DataSource replicaDataSource,
+                                    final MeterRegistry meterRegistry) {
+
+        if (Util.isNull(primaryDataSource) || Util.isNull(replicaDataSource)) {
+
+            throw new IllegalArgumentException("Both the primary and the replica data source are required");
+        }
+
+        this.dataSources.put(DataSourceRoute.PRIMARY, primaryDataSource);
+        this.dataSources.put(DataSourceRoute.REPLICA, replicaDataSource);
+
+        for (DataSourceRoute route : DataSourceRoute.values()) {
+
+            this.acquireTimers.put(route, Timer.builder("hrms.datasource.connection.acquire")
+                    .tag(TAG_ROUTE, route.name().toLowerCase())
+                    .description("The time taken to get a connection from the pool")
+                    .register(meterRegistry));
+        }
+
+        this.writeCounter = routingCounter(meterRegistry, DataSourceRoute.PRIMARY, "write");
+        this.pinnedCounter = routingCounter(meterRegistry, DataSourceRoute.PRIMARY, "pinned");
+        this.readOnlyCounter = routingCounter(meterRegistry, DataSourceRoute.REPLICA, "read_only");
+    }
+
+    /**
+     * Runs the call with the connections of the current thread routed to the primary, even within a read-only
+     * transaction. It only has an effect when the call acquires the connection, i.e. before the first statement of the
+     * transaction.
+     *
+     * @param call
+     * @param <T>
+     * @return
+     */
+    public static <T> T callOnPrimary(final Supplier<T> call) {
+
+        Boolean previous = PRIMARY_PINNED.get();
+
+        PRIMARY_PINNED.set(Boolean.TRUE);
+
+        try {
+
+            return call.get();
+
+        } finally {
+
+            if (Util.isNull(previous)) {
+
+                PRIMARY_PINNED.remove();
+
+            } else {
+
+                PRIMARY_PINNED.set(previous);
+            }
+        }
+    }
+
+    public static boolean isPrimaryPinned() {
+
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+
+        DataSourceRoute route = route();
+        long startedAt = System.nanoTime();
+
+        try {
+
+            return this.dataSources.get(route).getConnection();
+
+        } finally {
+
+            this.acquireTimers.get(route).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+
+        DataSourceRoute route = route();
+        long startedAt = System.nanoTime();
+
+        try {
+
+            return this.dataSources.get(route).getConnection(username, password);
+
+        } finally {
+
+            this.acquireTimers.get(route).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private DataSourceRoute route() {
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+
+            this.writeCounter.increment();
+
+            return DataSourceRoute.PRIMARY;
+        }
+
+        if (isPrimaryPinned()) {
+
+            this.pinnedCounter.increment();
+
+            return DataSourceRoute.PRIMARY;
+        }
+
+        this.readOnlyCounter.increment();
+
+        return DataSourceRoute.REPLICA;
+    }
+
+    private static Counter routingCounter(final MeterRegistry meterRegistry, final DataSourceRoute route,
+                                          final String reason) {
+
+        return Counter.builder("hrms.datasource.routing")
+                .tags(TAG_ROUTE, route.name().toLowerCase(), TAG_REASON, reason)
+                .description("The number of connections routed to the pool")
+                .register(meterRegistry);
+    }
+}
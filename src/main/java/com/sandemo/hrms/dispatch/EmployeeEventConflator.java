@@ -0,0 +1,272 @@
+package com.sandemo.hrms.dispatch;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Holds the events of an employee back for the conflation window which starts with the first of them, and sends only
+ * the ones which still matter once it ends. An UPDATED event replaces the UPDATED event right before it, a DELETED event
+ * replaces every pending UPDATED event and a CREATED event is always sent. The events left are sent in the order they
+ * were submitted, and the future of a replaced event completes with the outcome of the event which replaced it.
+ *
+ * The windows end on a single thread in the order they were opened, so the events of an employee are never sent out of
+ * order. Without a window the events are sent right away, as if there was no conflation.
+ */
+public class EmployeeEventConflator implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeEventConflator.class);
+
+    private static final String METRIC_PREFIX = "hrms.kafka.conflation.";
+    private static final long CLOSE_TIMEOUT_SECONDS = 5L;
+
+    private final long windowNanos;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, Deque<Event<?>>> pending = new ConcurrentHashMap<>();
+
+    private final Counter sentCounter;
+    private final Counter conflatedCounter;
+    private final Timer delayTimer;
+
+    private volatile boolean closed;
+
+    public EmployeeEventConflator(final Duration window, final MeterRegistry meterRegistry) {
+
+        if (Util.isNull(window) || window.isNegative()) {
+
+            throw new IllegalArgumentException("Invalid conflation window: " + window);
+        }
+
+        this.windowNanos = window.toNanos();
+
+        this.sentCounter = Counter.builder(METRIC_PREFIX + "events")
+                .tag("outcome", "sent")
+                .description("Number of events sent once their conflation window ended")
+                .register(meterRegistry);
+        this.conflatedCounter = Counter.builder(METRIC_PREFIX + "events")
+                .tag("outcome", "conflated")
+                .description("Number of events replaced by a later event of the same employee")
+                .register(meterRegistry);
+        this.delayTimer = Timer.builder(METRIC_PREFIX + "delay")
+                .description("Time a sent event was held back by the conflation window")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + "pending", pending, Map::size)
+                .description("Number of employees with events waiting for their conflation window to end")
+                .register(meterRegistry);
+
+        if (windowNanos > 0) {
+
+            this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+
+                Thread thread = new Thread(runnable, "employee-event-conflator");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+            this.scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        } else {
+
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Adds the event to the conflation window of its employee
+     *
+     * @param employeeId
+     * @param eventType
+     * @param send starts the send of the event
+     * @param <T>
+     * @return future completed with the outcome of the send of the event, or of the event which replaced it
+     */
+    public <T> CompletableFuture<T> conflate(final String employeeId, final EmployeeEventType eventType,
+                                             final Supplier<CompletableFuture<T>> send) {
+
+        if (!isEnabled() || closed) {
+
+            return send.get();
+        }
+
+        Event<T> event = new Event<>(eventType, send, System.nanoTime());
+
+        pending.compute(employeeId, (key, events) -> {
+
+            if (Util.isNull(events)) {
+
+                events = new ArrayDeque<>();
+                scheduler.schedule(() -> flush(key), windowNanos, TimeUnit.NANOSECONDS);
+            }
+
+            add(events, event);
+
+            return events;
+        });
+
+        return event.future;
+    }
+
+    /**
+     * @return whether the events are held back for a window rather than sent right away
+     */
+    public boolean isEnabled() {
+
+        return Util.isNotNull(scheduler);
+    }
+
+    /**
+     * Stops holding events back and sends the pending ones right away
+     */
+    @Override
+    public synchronized void close() {
+
+        if (closed || !isEnabled()) {
+
+            closed = true;
+
+            return;
+        }
+
+        closed = true;
+
+        scheduler.execute(() -> new ArrayList<>(pending.keySet()).forEach(this::flush));
+        scheduler.shutdown();
+
+        try {
+
+            if (!scheduler.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+
+                LOG.warn("The events of {} employees were still pending when the conflation stopped", pending.size());
+            }
+
+        } catch (InterruptedException exception) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void add(final Deque<Event<?>> events, final Event<?> event) {
+
+        if (EmployeeEventType.UPDATED == event.eventType) {
+
+            Event<?> last = events.peekLast();
+
+            if (Util.isNotNull(last) && EmployeeEventType.UPDATED == last.eventType) {
+
+                events.pollLast();
+                replace(last, event);
+            }
+
+        } else if (EmployeeEventType.DELETED == event.eventType) {
+
+            Iterator<Event<?>> iterator = events.iterator();
+
+            while (iterator.hasNext()) {
+
+                Event<?> previous = iterator.next();
+
+                if (EmployeeEventType.UPDATED == previous.eventType) {
+
+                    iterator.remove();
+                    replace(previous, event);
+                }
+            }
+        }
+
+        events.addLast(event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replace(final Event<?> replaced, final Event<?> replacement) {
+
+        conflatedCounter.increment();
+
+        CompletableFuture<Object> future = (CompletableFuture<Object>) replaced.future;
+
+        replacement.future.whenComplete((result, exception) -> {
+
+            if (Util.isNull(exception)) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(exception);
+            }
+        });
+    }
+
+    private void flush(final String employeeId) {
+
+        Deque<Event<?>> events = pending.remove(employeeId);
+
+        if (Util.isNull(events)) {
+
+            return;
+        }
+
+        long now = System.nanoTime();
+
+        for (Event<?> event : events) {
+
+            sentCounter.increment();
+            delayTimer.record(now - event.submittedAt, TimeUnit.NANOSECONDS);
+
+            try {
+
+                event.send();
+
+            } catch (Exception exception) {
+
+                LOG.warn("The {} event of the employee {} could not be sent", event.eventType, employeeId, exception);
+
+                event.future.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private static final class Event<T> {
+
+        private final EmployeeEventType eventType;
+        private final Supplier<CompletableFuture<T>> send;
+        private final long submittedAt;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Event(final EmployeeEventType eventType, final Supplier<CompletableFuture<T>> send,
+                      final long submittedAt) {
+
+            this.eventType = eventType;
+            this.send = send;
+            this.submittedAt = submittedAt;
+        }
+
+        private void send() {
+
+            send.get().whenComplete((result, exception) -> {
+
+                if (Util.isNull(exception)) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(exception);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.sandemo.hrms.dispatch;
+
+import com.sandemo.hrms.constant.DispatchOverflowPolicy;
+import com.sandemo.hrms.exception.EventDispatchRejectedException;
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Hands the sends of the events over to dedicated sender threads, so that the caller never waits for the producer
+ * buffer. Every sender thread drains a lane of its own and the lane of an event is picked by its ordering key, so the
+ * events of an employee are sent one after the other, in the order they were dispatched.
+ *
+ * The lanes share a capacity, what happens to an event once it is used up is decided by the overflow policy.
+ *
+ * Without sender threads the events are sent on the calling thread, as if there was no dispatcher.
+ */
+public class EmployeeEventDispatcher implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeEventDispatcher.class);
+
+    private static final String METRIC_PREFIX = "hrms.kafka.dispatch.";
+
+    private final DispatchOverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final List<BlockingQueue<Dispatch<?>>> lanes = new ArrayList<>();
+    private final List<Thread> senders = new ArrayList<>();
+    private final Semaphore capacity;
+
+    private final Counter rejectedCounter;
+    private final Timer waitTimer;
+
+    private volatile boolean closed;
+
+    public EmployeeEventDispatcher(final int senderThreads, final int queueCapacity,
+                                   final DispatchOverflowPolicy overflowPolicy, final Duration blockTimeout,
+                                   final MeterRegistry meterRegistry) {
+
+        if (senderThreads < 0 || (senderThreads > 0 && queueCapacity < 1)
+                || Util.isNull(overflowPolicy) || Util.isNull(blockTimeout) || blockTimeout.isNegative()) {
+
+            throw new IllegalArgumentException("Invalid dispatcher configuration: " + senderThreads + " sender threads, "
+                    + "capacity " + queueCapacity + ", " + overflowPolicy + ", block timeout " + blockTimeout);
+        }
+
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.capacity = new Semaphore(queueCapacity);
+
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + "overflow")
+                .tag("outcome", "rejected")
+                .description("Number of events rejected because the dispatch queue was full")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + "wait.time")
+                .description("Time an event waited in the dispatch queue until its send started")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + "queue.depth", this, EmployeeEventDispatcher::queueDepth)
+                .description("Number of events waiting in the dispatch queue")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queue.wait", this, EmployeeEventDispatcher::oldestWaitMillis)
+                .description("Time in milliseconds the oldest event in the dispatch queue has been waiting")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        for (int i = 0; i < senderThreads; i++) {
+
+            BlockingQueue<Dispatch<?>> lane = new LinkedBlockingQueue<>();
+            Thread sender = new Thread(() -> drain(lane), "employee-event-sender-" + i);
+            sender.setDaemon(true);
+            sender.start();
+
+            lanes.add(lane);
+            senders.add(sender);
+        }
+    }
+
+    /**
+     * Queues the send of an event in the lane of its ordering key. The returned future completes with the outcome of
+     * the send.
+     *
+     * @param orderingKey the events sharing it are sent in the order they were dispatched
+     * @param send starts the send of the event
+     * @param <T>
+     * @return
+     * @throws EventDispatchRejectedException when the queue is full, or the dispatcher is closed
+     */
+    public <T> CompletableFuture<T> dispatch(final String orderingKey, final Supplier<CompletableFuture<T>> send) {
+
+        if (closed) {
+
+            throw new EventDispatchRejectedException();
+        }
+
+        if (lanes.isEmpty()) {
+
+            return send.get();
+        }
+
+        acquire();
+        Dispatch<T> dispatch = new Dispatch<>(send, System.nanoTime());
+
+        lanes.get(Math.floorMod(String.valueOf(orderingKey).hashCode(), lanes.size())).add(dispatch);
+
+        return dispatch.future;
+    }
+
+    /**
+     * @return whether the events are sent by the sender threads rather than the calling thread
+     */
+    public boolean isAsync() {
+
+        return !lanes.isEmpty();
+    }
+
+    public int queueDepth() {
+
+        return lanes.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    /**
+     * Stops taking events, sends the ones already queued and waits for the sender threads up to the block timeout
+     */
+    @Override
+    public void close() {
+
+        closed = true;
+
+        lanes.forEach(lane -> lane.add(Dispatch.STOP));
+
+        long deadline = System.nanoTime() + Math.max(blockTimeoutNanos, TimeUnit.SECONDS.toNanos(1));
+
+        for (Thread sender : senders) {
+
+            try {
+
+                TimeUnit.NANOSECONDS.timedJoin(sender, Math.max(1L, deadline - System.nanoTime()));
+
+            } catch (InterruptedException exception) {
+
+                Thread.currentThread().interrupt();
+
+                break;
+            }
+        }
+
+        senders.forEach(Thread::interrupt);
+
+        lanes.forEach(lane -> lane.forEach(dispatch -> dispatch.future.completeExceptionally(
+                new EventDispatchRejectedException())));
+    }
+
+    /**
+     * Takes room for an event in the capacity, or rejects it as the overflow policy decides
+     */
+    private void acquire() {
+
+        switch (overflowPolicy) {
+
+            case BLOCK:
+
+                try {
+
+                    if (capacity.tryAcquire(blockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+
+                        return;
+                    }
+
+                } catch (InterruptedException exception) {
+
+                    Thread.currentThread().interrupt();
+                }
+
+                break;
+
+            default:
+
+                if (capacity.tryAcquire()) {
+
+                    return;
+                }
+        }
+
+        rejectedCounter.increment();
+
+        throw new EventDispatchRejectedException();
+    }
+
+    private void drain(final BlockingQueue<Dispatch<?>> lane) {
+
+        while (true) {
+
+            Dispatch<?> dispatch;
+
+            try {
+
+                dispatch = lane.take();
+
+            } catch (InterruptedException exception) {
+
+                return;
+            }
+
+            if (dispatch == Dispatch.STOP) {
+
+                return;
+            }
+
+            capacity.release();
+
+            waitTimer.record(System.nanoTime() - dispatch.dispatchedAt, TimeUnit.NANOSECONDS);
+
+            try {
+
+                dispatch.send();
+
+            } catch (Exception exception) {
+
+                LOG.warn("The event could not be handed to the producer", exception);
+
+                dispatch.future.completeExceptionally(exception);
+            }
+        }
+    }
+
+    private double oldestWaitMillis() {
+
+        long now = System.nanoTime();
+        long oldest = 0L;
+
+        for (BlockingQueue<Dispatch<?>> lane : lanes) {
+
+            Dispatch<?> head = lane.peek();
+
+            if (Util.isNotNull(head) && head != Dispatch.STOP) {
+
+                oldest = Math.max(oldest, now - head.dispatchedAt);
+            }
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(oldest);
+    }
+
+    private static final class Dispatch<T> {
+
+        private static final Dispatch<Object> STOP = new Dispatch<>(() -> null, 0L);
+
+        private final Supplier<CompletableFuture<T>> send;
+        private final long dispatchedAt;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Dispatch(final Supplier<CompletableFuture<T>> send, final long dispatchedAt) {
+
+            this.send = send;
+            this.dispatchedAt = dispatchedAt;
+        }
+
+        private void send() {
+
+            send.get().whenComplete((result, exception) -> {
+
+                if (Util.isNull(exception)) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(exception);
+                }
+            });
+        }
+    }
+}
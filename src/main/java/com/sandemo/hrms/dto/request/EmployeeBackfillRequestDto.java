@@ -0,0 +1,41 @@
+package com.sandemo.hrms.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.sandemo.hrms.constant.GlobalConstant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+import java.time.ZonedDateTime;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Job name and time ranges of an employee event backfill. Every range includes its lower bound and excludes its upper
+ * bound, without any range every employee is published.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeBackfillRequestDto {
+
+    @NotBlank(message = "Job name cannot be blank")
+    @Size(max = 50, message = "Job name should not have more than 50 characters")
+    private String jobName;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime createdFrom;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime createdTo;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime updatedFrom;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime updatedTo;
+}
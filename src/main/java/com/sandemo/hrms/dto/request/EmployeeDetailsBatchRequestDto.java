@@ -0,0 +1,35 @@
+package com.sandemo.hrms.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.CollectionUtils;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * The employees to look up at once, either by employeeId or by email.
+ */
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeDetailsBatchRequestDto {
+
+    @Size(max = 100, message = "At most 100 employeeIds can be looked up at once")
+    private List<String> employeeIds;
+
+    @Size(max = 100, message = "At most 100 emails can be looked up at once")
+    private List<String> emails;
+
+    @AssertTrue(message = "Either employeeIds or emails should be provided")
+    private boolean isValid() {
+
+        return CollectionUtils.isEmpty(employeeIds) != CollectionUtils.isEmpty(emails);
+    }
+}
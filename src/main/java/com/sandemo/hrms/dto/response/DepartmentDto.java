@@ -18,4 +18,5 @@ public class DepartmentDto {
 
     private Long departmentId;
     private String name;
+    private Integer headcount;
 }
@@ -0,0 +1,48 @@
+package com.sandemo.hrms.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sandemo.hrms.constant.BackfillStatus;
+import com.sandemo.hrms.constant.GlobalConstant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeBackfillResponseDto {
+
+    private String jobName;
+    private BackfillStatus status;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime createdFrom;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime createdTo;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime updatedFrom;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime updatedTo;
+
+    private Long lastEmployeeIdPk;
+    private Long published;
+    private String error;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime startedAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.sandemo.hrms.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeBulkResponseDto {
+
+    private Integer total;
+    private Integer created;
+    private Integer rejected;
+    private String message;
+    private List<EmployeeBulkRowResponseDto> results;
+}
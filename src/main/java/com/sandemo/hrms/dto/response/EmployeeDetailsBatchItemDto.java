@@ -0,0 +1,26 @@
+package com.sandemo.hrms.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sandemo.hrms.constant.LookupStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * The outcome of one requested employeeId or email, the details are only present when it was found.
+ */
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeDetailsBatchItemDto {
+
+    private String employeeId;
+    private String email;
+    private LookupStatus status;
+    private EmployeeDetailsResponseDto details;
+}
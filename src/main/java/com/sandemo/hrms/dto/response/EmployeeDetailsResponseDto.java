@@ -1,6 +1,7 @@
 package com.sandemo.hrms.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.sandemo.hrms.constant.GlobalConstant;
 import lombok.AllArgsConstructor;
@@ -13,6 +14,9 @@ import java.time.ZonedDateTime;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * The details of an employee. The single employee read builds it straight from the query as a projection along with
+ * the version, which only backs the ETag and is not part of the body.
  */
 @Data
 @Builder
@@ -35,4 +39,17 @@ public class EmployeeDetailsResponseDto {
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
     private ZonedDateTime lastUpdatedAt;
+
+    @JsonIgnore
+    private Long version;
+
+    public EmployeeDetailsResponseDto(final String employeeId, final String name, final String email,
+                                      final LocalDate dataOfBirth, final Long departmentId, final String departmentName,
+                                      final ZonedDateTime createAt, final ZonedDateTime lastUpdatedAt,
+                                      final Long version) {
+
+        this(employeeId, name, email, dataOfBirth,
+                DepartmentDto.builder().departmentId(departmentId).name(departmentName).build(),
+                createAt, lastUpdatedAt, version);
+    }
 }
@@ -0,0 +1,54 @@
+package com.sandemo.hrms.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sandemo.hrms.constant.GlobalConstant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * A single employee of the listing, same shape as the employee details. It is built straight from the query as a
+ * projection, so no entity is hydrated or dirty checked.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class EmployeeListItemDto {
+
+    @JsonIgnore
+    private Long employeeIdPk;
+
+    private String employeeId;
+    private String name;
+    private String email;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_FORMAT)
+    private LocalDate dataOfBirth;
+
+    private DepartmentDto department;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime createAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = GlobalConstant.DATE_TIME_FORMAT)
+    private ZonedDateTime lastUpdatedAt;
+
+    public EmployeeListItemDto(final Long employeeIdPk, final String employeeId, final String name, final String email,
+                               final LocalDate dataOfBirth, final Long departmentId, final String departmentName,
+                               final ZonedDateTime createAt, final ZonedDateTime lastUpdatedAt) {
+
+        this(employeeIdPk, employeeId, name, email, dataOfBirth,
+                DepartmentDto.builder().departmentId(departmentId).name(departmentName).build(),
+                createAt, lastUpdatedAt);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sandemo.hrms.exception;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+public class EmployeeBackfillNotFoundException extends GenericClientRuntimeException {
+
+    public static final String MESSAGE = "Could not find the backfill job in the database";
+
+    public EmployeeBackfillNotFoundException() {
+
+        super(MESSAGE);
+    }
+}
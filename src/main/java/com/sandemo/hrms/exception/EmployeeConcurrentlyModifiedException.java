@@ -0,0 +1,14 @@
+package com.sandemo.hrms.exception;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+public class EmployeeConcurrentlyModifiedException extends GenericClientRuntimeException {
+
+    public static final String MESSAGE = "The employee has been modified concurrently, retry the update";
+
+    public EmployeeConcurrentlyModifiedException() {
+
+        super(MESSAGE);
+    }
+}
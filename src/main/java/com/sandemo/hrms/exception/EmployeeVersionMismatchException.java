@@ -0,0 +1,14 @@
+package com.sandemo.hrms.exception;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+public class EmployeeVersionMismatchException extends GenericClientRuntimeException {
+
+    public static final String MESSAGE = "The employee has been modified since the version provided";
+
+    public EmployeeVersionMismatchException() {
+
+        super(MESSAGE);
+    }
+}
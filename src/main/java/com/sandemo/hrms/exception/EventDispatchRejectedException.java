@@ -0,0 +1,16 @@
+package com.sandemo.hrms.exception;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Thrown when the event dispatcher has no room left for an event, the outbox relay keeps the event and retries it
+ */
+public class EventDispatchRejectedException extends GenericServerRuntimeException {
+
+    public static final String MESSAGE = "The event could not be queued for publishing, try again later";
+
+    public EventDispatchRejectedException() {
+
+        super(MESSAGE);
+    }
+}
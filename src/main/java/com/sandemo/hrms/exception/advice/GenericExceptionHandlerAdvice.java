@@ -3,7 +3,10 @@ package com.sandemo.hrms.exception.advice;
 import com.sandemo.hrms.dto.response.GenericExceptionResponse;
 import com.sandemo.hrms.exception.DepartmentNotFoundException;
 import com.sandemo.hrms.exception.EmailIdAlreadyExistsException;
+import com.sandemo.hrms.exception.EmployeeBackfillNotFoundException;
+import com.sandemo.hrms.exception.EmployeeConcurrentlyModifiedException;
 import com.sandemo.hrms.exception.EmployeeNotFoundException;
+import com.sandemo.hrms.exception.EmployeeVersionMismatchException;
 import com.sandemo.hrms.exception.GenericClientRuntimeException;
 import com.sandemo.hrms.exception.GenericServerRuntimeException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
@@ -34,13 +37,14 @@ public class GenericExceptionHandlerAdvice extends ResponseEntityExceptionHandle
     private static final String URI = "uri=";
 
     /**
-     * Handling client related exception. Ex: employee or department not found, invalid email format
+     * Handling client related exception. Ex: employee, department or backfill job not found, invalid email format
      *
      * @param exception the exception to handle
      * @param request the HttpServletRequest
      * @return the response entity
      */
-    @ExceptionHandler({EmployeeNotFoundException.class, DepartmentNotFoundException.class})
+    @ExceptionHandler({EmployeeNotFoundException.class, DepartmentNotFoundException.class,
+            EmployeeBackfillNotFoundException.class})
     public final ResponseEntity<GenericExceptionResponse> handleEmployeeNotFoundException(
             GenericClientRuntimeException exception, HttpServletRequest request) {
 
@@ -77,6 +81,50 @@ public class GenericExceptionHandlerAdvice extends ResponseEntityExceptionHandle
                 , HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handling the stale version of a conditional update
+     *
+     * @param exception the exception to handle
+     * @param request the HttpServletRequest
+     * @return the response entity
+     */
+    @ExceptionHandler(EmployeeVersionMismatchException.class)
+    public final ResponseEntity<GenericExceptionResponse> handleEmployeeVersionMismatchException(
+            GenericClientRuntimeException exception, HttpServletRequest request) {
+
+        return new ResponseEntity<>(
+                GenericExceptionResponse.builder()
+                        .timestamp(ZonedDateTime.now())
+                        .status(HttpStatus.PRECONDITION_FAILED.value())
+                        .errors(Collections.singletonList(exception.getMessage()))
+                        .message(HttpStatus.PRECONDITION_FAILED.getReasonPhrase())
+                        .path(request.getContextPath() + request.getServletPath())
+                        .build()
+                , HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handling an update without If-Match which lost to a concurrent update of the same employee
+     *
+     * @param exception the exception to handle
+     * @param request the HttpServletRequest
+     * @return the response entity
+     */
+    @ExceptionHandler(EmployeeConcurrentlyModifiedException.class)
+    public final ResponseEntity<GenericExceptionResponse> handleEmployeeConcurrentlyModifiedException(
+            GenericClientRuntimeException exception, HttpServletRequest request) {
+
+        return new ResponseEntity<>(
+                GenericExceptionResponse.builder()
+                        .timestamp(ZonedDateTime.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .errors(Collections.singletonList(exception.getMessage()))
+                        .message(HttpStatus.CONFLICT.getReasonPhrase())
+                        .path(request.getContextPath() + request.getServletPath())
+                        .build()
+                , HttpStatus.CONFLICT);
+    }
+
     /**
      * Handling MethodArgumentNotValidException
      *
@@ -0,0 +1,200 @@
+package com.sandemo.hrms.factory;
+
+import com.sandemo.hrms.EmployeeEventData;
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.constant.GlobalConstant;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.util.Util;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This factory service provides methods for building the employee event and converting it from/to its Avro binary
+ * form, which is how the event is kept in the outbox until it is published.
+ *
+ * The v2 value is derived from the v1 one when it is published. It is a generic record of the schema
+ * avro/EmployeeEventValueV2.avsc rather than a generated class, the Avro 1.8 code generator can not handle the nullable
+ * logical types of its dates.
+ */
+@Service("employeeEventFactoryService")
+public class EmployeeEventFactoryService {
+
+    public static final Schema EMPLOYEE_EVENT_VALUE_V2_SCHEMA = loadSchema("/avro/EmployeeEventValueV2.avsc");
+
+    private static final Schema EMPLOYEE_EVENT_DATA_V2_SCHEMA =
+            EMPLOYEE_EVENT_VALUE_V2_SCHEMA.getField("data").schema().getTypes().get(1);
+    private static final Schema EMPLOYEE_EVENT_TYPE_V2_SCHEMA = EMPLOYEE_EVENT_VALUE_V2_SCHEMA.getField("type").schema();
+
+    /**
+     * This method is in charge of building the Employee event key
+     *
+     * @param employeeId
+     * @return
+     */
+    public EmployeeEventKey getEmployeeEventKey(final String employeeId) {
+
+        return EmployeeEventKey.newBuilder().setEmployeeId(employeeId).build();
+    }
+
+    /**
+     * This method is in charge of building the Employee event value.
+     *
+     * @param employeeEntity
+     * @param employeeEventType
+     * @return
+     */
+    public EmployeeEventValue getEmployeeEventValue(final EmployeeEntity employeeEntity,
+                                                    final EmployeeEventType employeeEventType) {
+
+        return EmployeeEventValue.newBuilder()
+                .setTime(Util.getFormattedTimestamp(ZonedDateTime.now()))
+                .setType(employeeEventType)
+                .setAppName(GlobalConstant.APP_NAME)
+                .setData(
+                        employeeEventType.equals(EmployeeEventType.DELETED)
+                                ? null :                                                // Event data will be null for the DELETE event
+                                EmployeeEventData.newBuilder()
+                                        .setName(employeeEntity.getName())
+                                        .setEmail(employeeEntity.getEmail())
+                                        .setDepartmentId(employeeEntity.getDepartmentEntity().getDepartId())
+                                        .setDateOfBirth(Util.getFormattedDate(employeeEntity.getDateOfBirth()))
+                                        .setCreatedAt(Util.getFormattedTimestamp(employeeEntity.getCreatedAt()))
+                                        .setUpdatedAt(Util.getFormattedTimestamp(employeeEntity.getUpdatedAt()))
+                                        .build()
+
+                        )
+                .build();
+    }
+
+    /**
+     * This method is in charge of building the v2 Employee event value out of the v1 one. The formatted timestamps and
+     * dates become epoch milliseconds and epoch days.
+     *
+     * @param employeeEventValue
+     * @param departmentName null when it is not published
+     * @return
+     */
+    public GenericRecord getEmployeeEventValueV2(final EmployeeEventValue employeeEventValue,
+                                                 final String departmentName) {
+
+        GenericRecord employeeEventValueV2 = new GenericData.Record(EMPLOYEE_EVENT_VALUE_V2_SCHEMA);
+        employeeEventValueV2.put("time", toEpochMilli(employeeEventValue.getTime()));
+        employeeEventValueV2.put("type", new GenericData.EnumSymbol(EMPLOYEE_EVENT_TYPE_V2_SCHEMA,
+                employeeEventValue.getType().name()));
+        employeeEventValueV2.put("appName", employeeEventValue.getAppName());
+
+        EmployeeEventData employeeEventData = employeeEventValue.getData();
+
+        if (Util.isNotNull(employeeEventData)) {
+
+            LocalDate dateOfBirth = Util.parseDate(employeeEventData.getDateOfBirth());
+
+            GenericRecord employeeEventDataV2 = new GenericData.Record(EMPLOYEE_EVENT_DATA_V2_SCHEMA);
+            employeeEventDataV2.put("name", employeeEventData.getName());
+            employeeEventDataV2.put("email", employeeEventData.getEmail());
+            employeeEventDataV2.put("departmentId", employeeEventData.getDepartmentId());
+            employeeEventDataV2.put("departmentName", departmentName);
+            employeeEventDataV2.put("dateOfBirth", Util.isNotNull(dateOfBirth) ? (int) dateOfBirth.toEpochDay() : null);
+            employeeEventDataV2.put("createdAt", toEpochMilli(employeeEventData.getCreatedAt()));
+            employeeEventDataV2.put("updatedAt", toEpochMilli(employeeEventData.getUpdatedAt()));
+
+            employeeEventValueV2.put("data", employeeEventDataV2);
+        }
+
+        return employeeEventValueV2;
+    }
+
+    public byte[] toBytes(final EmployeeEventKey employeeEventKey) {
+
+        try {
+
+            return toArray(employeeEventKey.toByteBuffer());
+
+        } catch (IOException exception) {
+
+            throw new GenericServerRuntimeException("Unable to serialize the employee event key", exception);
+        }
+    }
+
+    public byte[] toBytes(final EmployeeEventValue employeeEventValue) {
+
+        try {
+
+            return toArray(employeeEventValue.toByteBuffer());
+
+        } catch (IOException exception) {
+
+            throw new GenericServerRuntimeException("Unable to serialize the employee event value", exception);
+        }
+    }
+
+    public EmployeeEventKey getEmployeeEventKey(final byte[] bytes) {
+
+        try {
+
+            return EmployeeEventKey.fromByteBuffer(ByteBuffer.wrap(bytes));
+
+        } catch (IOException exception) {
+
+            throw new GenericServerRuntimeException("Unable to deserialize the employee event key", exception);
+        }
+    }
+
+    public EmployeeEventValue getEmployeeEventValue(final byte[] bytes) {
+
+        try {
+
+            return EmployeeEventValue.fromByteBuffer(ByteBuffer.wrap(bytes));
+
+        } catch (IOException exception) {
+
+            throw new GenericServerRuntimeException("Unable to deserialize the employee event value", exception);
+        }
+    }
+
+    private byte[] toArray(final ByteBuffer byteBuffer) {
+
+        byte[] bytes = new byte[byteBuffer.remaining()];
+        byteBuffer.get(bytes);
+
+        return bytes;
+    }
+
+    private static Long toEpochMilli(final CharSequence timestamp) {
+
+        ZonedDateTime dateTime = Util.parseTimestamp(timestamp);
+
+        return Util.isNotNull(dateTime) ? dateTime.toInstant().toEpochMilli() : null;
+    }
+
+    private static Schema loadSchema(final String resource) {
+
+        try (InputStream inputStream = EmployeeEventFactoryService.class.getResourceAsStream(resource)) {
+
+            if (Util.isNull(inputStream)) {
+
+                throw new IllegalStateException("The schema " + resource + " is not on the classpath");
+            }
+
+            return new Schema.Parser().parse(inputStream);
+
+        } catch (IOException exception) {
+
+            throw new UncheckedIOException("Unable to read the schema " + resource, exception);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.sandemo.hrms.generator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Thread safe allocator which hands out identifiers from an in-memory block [next, limit) reserved from a
+ * database sequence (pooled-lo: the sequence value is the first id of the block). Once only the prefetch threshold
+ * is left in the current block, the next block is reserved in the background so callers rarely wait for a nextval.
+ */
+public class PooledIdAllocator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PooledIdAllocator.class);
+
+    private static final String METRIC_PREFIX = "hrms.id.block.";
+    private static final String TAG_SEQUENCE = "sequence";
+    private static final String TAG_MODE = "mode";
+
+    private final int blockSize;
+    private final int prefetchThreshold;
+    private final LongSupplier prefetchSource;
+    private final Executor executor;
+
+    private final Timer prefetchTimer;
+    private final Timer inlineTimer;
+    private final Counter stallCounter;
+    private final Counter discardCounter;
+
+    private long next;
+    private long limit;
+    private CompletableFuture<Long> pendingBlock;
+
+    /**
+     * @param sequenceName      name used to tag the metrics
+     * @param blockSize         number of ids reserved by a single nextval, must match the sequence increment
+     * @param prefetchThreshold remaining ids in the current block at which the next block is requested
+     * @param prefetchSource    returns the next sequence value, invoked on the executor
+     * @param executor          executor running the prefetch
+     * @param meterRegistry     registry the block refill metrics are bound to
+     */
+    public PooledIdAllocator(final String sequenceName, final int blockSize, final int prefetchThreshold,
+                             final LongSupplier prefetchSource, final Executor executor,
+                             final MeterRegistry meterRegistry) {
+
+        if (blockSize < 1 || prefetchThreshold < 0 || prefetchThreshold >= blockSize) {
+
+            throw new IllegalArgumentException("Invalid block size " + blockSize + " or prefetch threshold "
+                    + prefetchThreshold + " for sequence " + sequenceName);
+        }
+
+        this.blockSize = blockSize;
+        this.prefetchThreshold = prefetchThreshold;
+        this.prefetchSource = prefetchSource;
+        this.executor = executor;
+
+        this.prefetchTimer = Timer.builder(METRIC_PREFIX + "fetch")
+                .description("Time taken to reserve a block of ids from the sequence")
+                .tags(TAG_SEQUENCE, sequenceName, TAG_MODE, "prefetch")
+                .register(meterRegistry);
+        this.inlineTimer = Timer.builder(METRIC_PREFIX + "fetch")
+                .description("Time taken to reserve a block of ids from the sequence")
+                .tags(TAG_SEQUENCE, sequenceName, TAG_MODE, "inline")
+                .register(meterRegistry);
+        this.stallCounter = Counter.builder(METRIC_PREFIX + "stall")
+                .description("Number of times an id was requested while no reserved block was ready")
+                .tags(TAG_SEQUENCE, sequenceName)
+                .register(meterRegistry);
+        this.discardCounter = Counter.builder(METRIC_PREFIX + "prefetch.failed")
+                .description("Number of prefetched blocks which could not be reserved")
+                .tags(TAG_SEQUENCE, sequenceName)
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + "remaining", this, PooledIdAllocator::getRemaining)
+                .description("Ids left in the current block")
+                .tags(TAG_SEQUENCE, sequenceName)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "size", this, allocator -> allocator.blockSize)
+                .description("Number of ids reserved by a single sequence call")
+                .tags(TAG_SEQUENCE, sequenceName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the next identifier. When the current block is used up, the prefetched block is taken, waiting for it
+     * if it is still in flight, or the block is reserved inline through the given source.
+     *
+     * @param inlineSource returns the next sequence value in the caller's thread
+     * @return
+     */
+    public synchronized long next(final LongSupplier inlineSource) {
+
+        if (next >= limit) {
+
+            refill(inlineSource);
+        }
+
+        long value = next++;
+
+        if (pendingBlock == null && limit - next <= prefetchThreshold) {
+
+            pendingBlock = CompletableFuture.supplyAsync(() -> prefetchTimer.record(prefetchSource::getAsLong),
+                    executor);
+        }
+
+        return value;
+    }
+
+    public synchronized long getRemaining() {
+
+        return limit - next;
+    }
+
+    private void refill(final LongSupplier inlineSource) {
+
+        Long start = null;
+
+        if (pendingBlock != null) {
+
+            if (!pendingBlock.isDone()) {
+
+                stallCounter.increment();
+            }
+
+            try {
+
+                start = pendingBlock.join();
+
+            } catch (CompletionException | IllegalStateException exception) {
+
+                discardCounter.increment();
+
+                LOG.warn("Prefetch of the next id block failed, reserving it inline", exception);
+
+            } finally {
+
+                pendingBlock = null;
+            }
+        }
+
+        if (start == null) {
+
+            stallCounter.increment();
+
+            start = inlineTimer.record(inlineSource::getAsLong);
+        }
+
+        next = start;
+        limit = start + blockSize;
+    }
+}
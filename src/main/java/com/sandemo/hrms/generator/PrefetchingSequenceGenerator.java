@@ -0,0 +1,131 @@
+package com.sandemo.hrms.generator;
+
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Sequence generator which hands out ids from a pooled-lo block through {@link PooledIdAllocator}. The sequence
+ * increment must be equal to the configured increment size.
+ */
+public class PrefetchingSequenceGenerator extends SequenceStyleGenerator {
+
+    public static final String PREFETCH_THRESHOLD_PARAM = "prefetch_threshold";
+    public static final int DEFAULT_PREFETCH_THRESHOLD = 10;
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+
+        Thread thread = new Thread(runnable, "id-block-prefetch");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private int prefetchThreshold;
+    private ConnectionProvider connectionProvider;
+    private volatile PooledIdAllocator allocator;
+
+    @Override
+    public void configure(final Type type, final Properties params, final ServiceRegistry serviceRegistry)
+            throws MappingException {
+
+        super.configure(type, params, serviceRegistry);
+
+        this.prefetchThreshold = Math.min(
+                ConfigurationHelper.getInt(PREFETCH_THRESHOLD_PARAM, params, DEFAULT_PREFETCH_THRESHOLD),
+                getDatabaseStructure().getIncrementSize() - 1);
+        this.connectionProvider = serviceRegistry.getService(ConnectionProvider.class);
+    }
+
+    @Override
+    public Serializable generate(final SharedSessionContractImplementor session, final Object object)
+            throws HibernateException {
+
+        long value = getAllocator(session).next(() -> getDatabaseStructure().buildCallback(session)
+                .getNextValue().makeValue().longValue());
+
+        IntegralDataTypeHolder holder = IdentifierGeneratorHelper.getIntegralDataTypeHolder(
+                getIdentifierType().getReturnedClass());
+        holder.initialize(value);
+
+        return holder.makeValue();
+    }
+
+    private PooledIdAllocator getAllocator(final SharedSessionContractImplementor session) {
+
+        PooledIdAllocator current = allocator;
+
+        if (current == null) {
+
+            synchronized (this) {
+
+                current = allocator;
+
+                if (current == null) {
+
+                    // The sequence name is only rendered once the schema objects are registered
+                    String sequenceName = getDatabaseStructure().getName();
+                    String nextValueSql = session.getJdbcServices().getDialect()
+                            .getSequenceNextValString(sequenceName);
+
+                    current = new PooledIdAllocator(sequenceName, getDatabaseStructure().getIncrementSize(),
+                            prefetchThreshold, () -> fetchNextValue(nextValueSql), PREFETCH_EXECUTOR,
+                            Metrics.globalRegistry);
+                    allocator = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Prefetch runs outside of any session, so it takes its own connection. Sequence calls are not transactional,
+     * the reserved block is kept even if the connection is never committed.
+     */
+    private long fetchNextValue(final String nextValueSql) {
+
+        try {
+
+            Connection connection = connectionProvider.getConnection();
+
+            try (PreparedStatement statement = connection.prepareStatement(nextValueSql);
+                 ResultSet resultSet = statement.executeQuery()) {
+
+                if (!resultSet.next()) {
+
+                    throw new HibernateException("Sequence returned no value: " + nextValueSql);
+                }
+
+                return resultSet.getLong(1);
+
+            } finally {
+
+                connectionProvider.closeConnection(connection);
+            }
+
+        } catch (SQLException exception) {
+
+            throw new HibernateException("Could not reserve the next id block: " + nextValueSql, exception);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.sandemo.hrms.interceptor;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Sets the Cache-Control header of the GET and HEAD responses from the configured mappings of endpoint path pattern
+ * to header value. The first matching pattern wins and a header already set by the handler is left as it is.
+ */
+public class CacheControlHandlerInterceptor extends HandlerInterceptorAdapter {
+
+    private final Map<String, String> cacheControlMappings;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public CacheControlHandlerInterceptor(final Map<String, String> cacheControlMappings) {
+
+        this.cacheControlMappings = new LinkedHashMap<>(cacheControlMappings);
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+
+            return true;
+        }
+
+        String lookupPath = urlPathHelper.getLookupPathForRequest(request);
+
+        for (Map.Entry<String, String> mapping : cacheControlMappings.entrySet()) {
+
+            if (pathMatcher.match(mapping.getKey(), lookupPath)) {
+
+                if (!response.containsHeader(HttpHeaders.CACHE_CONTROL)) {
+
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, mapping.getValue());
+                }
+
+                break;
+            }
+        }
+
+        return true;
+    }
+}
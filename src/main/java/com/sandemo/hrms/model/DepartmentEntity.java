@@ -1,17 +1,21 @@
 package com.sandemo.hrms.model;
 
+import com.sandemo.hrms.generator.PrefetchingSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.SequenceGenerator;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
@@ -33,7 +37,13 @@ public class DepartmentEntity implements Serializable {
     @Id
     @Column(name = "idepart_id", nullable = false)
     @GeneratedValue(generator = "seq_depart_id", strategy = GenerationType.SEQUENCE)
-    @SequenceGenerator(name = "seq_depart_id", sequenceName = "seq_department_id", allocationSize = 1)
+    @GenericGenerator(name = "seq_depart_id", strategy = "com.sandemo.hrms.generator.PrefetchingSequenceGenerator",
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "seq_department_id"),
+                    @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+                    @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo"),
+                    @Parameter(name = PrefetchingSequenceGenerator.PREFETCH_THRESHOLD_PARAM, value = "10")
+            })
     private Long departId;
 
     @Column(name = "sname", nullable = false, length = 50)
@@ -44,4 +54,20 @@ public class DepartmentEntity implements Serializable {
 
     @Column(name = "tsupdated_at")
     private ZonedDateTime updatedAt;
+
+    /**
+     * Number of employees of the department. It is only ever changed by the relative updates of the
+     * DepartmentEntityRepository, never written back from an entity, so a stale copy can not overwrite it.
+     */
+    @Column(name = "iheadcount", nullable = false, updatable = false)
+    private Integer headcount;
+
+    @PrePersist
+    private void onCreate() {
+
+        if (headcount == null) {
+
+            headcount = 0;
+        }
+    }
 }
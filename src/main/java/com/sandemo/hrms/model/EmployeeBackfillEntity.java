@@ -0,0 +1,82 @@
+package com.sandemo.hrms.model;
+
+import com.sandemo.hrms.constant.BackfillStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Checkpoint of an employee event backfill job. The time ranges are the ones the job was started with, the last
+ * employee id is the position the job resumes after. A running job is leased to the instance which runs it until
+ * lockedUntil, the version makes the claim of the lease atomic.
+ */
+@Entity
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "employee_backfill")
+public class EmployeeBackfillEntity implements Serializable {
+
+    private static final long serialVersionUID = -7526472295622776154L;
+
+    @Id
+    @Column(name = "sjob_name", nullable = false, length = 50)
+    private String jobName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sstatus", nullable = false, length = 20)
+    private BackfillStatus status;
+
+    @Column(name = "tscreated_from")
+    private ZonedDateTime createdFrom;
+
+    @Column(name = "tscreated_to")
+    private ZonedDateTime createdTo;
+
+    @Column(name = "tsupdated_from")
+    private ZonedDateTime updatedFrom;
+
+    @Column(name = "tsupdated_to")
+    private ZonedDateTime updatedTo;
+
+    @Column(name = "ilast_employee_id_pk")
+    private Long lastEmployeeIdPk;
+
+    @Column(name = "ipublished", nullable = false)
+    private Long published;
+
+    @Column(name = "serror", length = 500)
+    private String error;
+
+    @Column(name = "tsstarted_at", nullable = false)
+    private ZonedDateTime startedAt;
+
+    @Column(name = "tsupdated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+
+    @Column(name = "sowner", length = 64)
+    private String owner;
+
+    @Column(name = "tslocked_until")
+    private ZonedDateTime lockedUntil;
+
+    @Version
+    @Column(name = "iversion", nullable = false)
+    private Long version;
+}
@@ -1,24 +1,32 @@
 package com.sandemo.hrms.model;
 
+import com.sandemo.hrms.generator.PrefetchingSequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.NotFound;
 import org.hibernate.annotations.NotFoundAction;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
-import javax.persistence.SequenceGenerator;
+import javax.persistence.PrePersist;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -32,7 +40,15 @@ import java.time.ZonedDateTime;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "employee")
+@Table(name = "employee", uniqueConstraints = {
+        @UniqueConstraint(name = "unique_email", columnNames = "semail"),
+        @UniqueConstraint(name = "unique_employee_id", columnNames = "semployee_id")
+}, indexes = {
+        @Index(name = "idx_employee_depart_id_pk", columnList = "idepart_id, iemployee_id_pk"),
+        @Index(name = "idx_employee_updated_at_pk", columnList = "tsupdated_at, iemployee_id_pk"),
+        @Index(name = "idx_employee_depart_id_updated_at_pk", columnList = "idepart_id, tsupdated_at, iemployee_id_pk"),
+        @Index(name = "idx_employee_created_at_pk", columnList = "tscreated_at, iemployee_id_pk")
+})
 public class EmployeeEntity implements Serializable {
 
     private static final long serialVersionUID = -7526472295622776150L;
@@ -40,7 +56,13 @@ public class EmployeeEntity implements Serializable {
     @Id
     @Column(name = "iemployee_id_pk", nullable = false)
     @GeneratedValue(generator = "seq_emp_id", strategy = GenerationType.SEQUENCE)
-    @SequenceGenerator(name = "seq_emp_id", sequenceName = "seq_employee_id", allocationSize = 1)
+    @GenericGenerator(name = "seq_emp_id", strategy = "com.sandemo.hrms.generator.PrefetchingSequenceGenerator",
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "seq_employee_id"),
+                    @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+                    @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo"),
+                    @Parameter(name = PrefetchingSequenceGenerator.PREFETCH_THRESHOLD_PARAM, value = "10")
+            })
     private Long employeeIdPk;
 
     @Column(name= "semployee_id", nullable = false, length = 50)
@@ -58,11 +80,32 @@ public class EmployeeEntity implements Serializable {
     @Column(name = "tscreated_at")
     private ZonedDateTime createdAt;
 
-    @Column(name = "tsupdated_at")
+    @Column(name = "tsupdated_at", nullable = false)
     private ZonedDateTime updatedAt;
 
+    @Version
+    @Column(name = "iversion", nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.EAGER, cascade = {CascadeType.MERGE, CascadeType.REFRESH})
-    @JoinColumn(name = "idepart_id", nullable = false)
+    @JoinColumn(name = "idepart_id", nullable = false, foreignKey = @ForeignKey(name = "fk_depart_id"))
     @NotFound(action = NotFoundAction.EXCEPTION)
     private DepartmentEntity departmentEntity;
+
+    /**
+     * A new employee counts as updated when it is created, so the listing in update order never sees an empty value
+     */
+    @PrePersist
+    private void onCreate() {
+
+        if (createdAt == null) {
+
+            createdAt = ZonedDateTime.now();
+        }
+
+        if (updatedAt == null) {
+
+            updatedAt = createdAt;
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package com.sandemo.hrms.model;
+
+import com.sandemo.hrms.EmployeeEventType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Employee event waiting to be published, written in the same transaction as the employee change. Events are relayed
+ * in id order, so the id is taken from the sequence one by one instead of from a pooled block. The relay owner and the
+ * lock expiry are the lease of the relay which is publishing the event.
+ */
+@Entity
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "employee_outbox")
+public class EmployeeOutboxEntity implements Serializable {
+
+    private static final long serialVersionUID = -7526472295622776153L;
+
+    @Id
+    @Column(name = "ioutbox_id_pk", nullable = false)
+    @GeneratedValue(generator = "seq_outbox_id", strategy = GenerationType.SEQUENCE)
+    @SequenceGenerator(name = "seq_outbox_id", sequenceName = "seq_employee_outbox_id", allocationSize = 1)
+    private Long outboxIdPk;
+
+    @Column(name = "semployee_id", nullable = false, length = 50)
+    private String employeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sevent_type", nullable = false, length = 20)
+    private EmployeeEventType eventType;
+
+    @Column(name = "bevent_key", nullable = false, length = 1024)
+    private byte[] eventKey;
+
+    @Column(name = "bevent_value", nullable = false, length = 65536)
+    private byte[] eventValue;
+
+    @Column(name = "tscreated_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "srelay_owner", length = 64)
+    private String relayOwner;
+
+    @Column(name = "tslocked_until")
+    private ZonedDateTime lockedUntil;
+}
@@ -0,0 +1,125 @@
+package com.sandemo.hrms.registry;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.util.Util;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * An in-process schema registry for the local and test runs. Every registration is appended to a JSON file and replayed
+ * in the same order on the next start, so a schema keeps its id across restarts. Without a file the registrations only
+ * live as long as the process.
+ *
+ * The id lookups are timed as hrms.kafka.schema.registry.lookup with registry=embedded.
+ */
+public class EmbeddedSchemaRegistryClient extends MockSchemaRegistryClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedSchemaRegistryClient.class);
+
+    private static final String SUBJECT = "subject";
+    private static final String SCHEMA = "schema";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final SchemaRegistryLookups lookups;
+    private final List<Map<String, String>> registrations = new ArrayList<>();
+
+    public EmbeddedSchemaRegistryClient(final Path file, final MeterRegistry meterRegistry) {
+
+        this.file = file;
+        this.lookups = new SchemaRegistryLookups("embedded", meterRegistry);
+
+        if (Util.isNotNull(file) && Files.exists(file)) {
+
+            replay();
+        }
+    }
+
+    @Override
+    public synchronized int register(final String subject, final Schema schema)
+            throws IOException, RestClientException {
+
+        return lookups.lookup("register", subject, schema, (lookupSubject, lookupSchema) -> {
+
+            int id = super.register(lookupSubject, lookupSchema);
+
+            if (!isRegistered(lookupSubject, lookupSchema)) {
+
+                append(lookupSubject, lookupSchema);
+            }
+
+            return id;
+        });
+    }
+
+    @Override
+    public int getId(final String subject, final Schema schema) throws IOException, RestClientException {
+
+        return lookups.lookup("get_id", subject, schema, super::getId);
+    }
+
+    private void replay() {
+
+        try {
+
+            List<Map<String, String>> stored = OBJECT_MAPPER.readValue(file.toFile(),
+                    new TypeReference<List<Map<String, String>>>() { });
+
+            for (Map<String, String> registration : stored) {
+
+                super.register(registration.get(SUBJECT), new Schema.Parser().parse(registration.get(SCHEMA)));
+                registrations.add(registration);
+            }
+
+            LOG.info("Replayed {} schema registrations from {}", registrations.size(), file);
+
+        } catch (IOException | RestClientException exception) {
+
+            throw new IllegalStateException("The schema registrations could not be read from " + file, exception);
+        }
+    }
+
+    private boolean isRegistered(final String subject, final Schema schema) {
+
+        String schemaString = schema.toString();
+
+        return registrations.stream().anyMatch(registration -> subject.equals(registration.get(SUBJECT))
+                && schemaString.equals(registration.get(SCHEMA)));
+    }
+
+    private void append(final String subject, final Schema schema) throws IOException {
+
+        Map<String, String> registration = new LinkedHashMap<>();
+        registration.put(SUBJECT, subject);
+        registration.put(SCHEMA, schema.toString());
+
+        registrations.add(registration);
+
+        if (Util.isNull(file)) {
+
+            return;
+        }
+
+        if (Util.isNotNull(file.getParent())) {
+
+            Files.createDirectories(file.getParent());
+        }
+
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), registrations);
+    }
+}
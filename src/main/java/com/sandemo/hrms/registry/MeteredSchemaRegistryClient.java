@@ -0,0 +1,40 @@
+package com.sandemo.hrms.registry;
+
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * The client of the remote schema registry, the id lookups which reach the registry are timed as
+ * hrms.kafka.schema.registry.lookup with registry=remote
+ */
+public class MeteredSchemaRegistryClient extends CachedSchemaRegistryClient {
+
+    private final SchemaRegistryLookups lookups;
+
+    public MeteredSchemaRegistryClient(final String baseUrls, final int identityMapCapacity,
+                                       final Map<String, ?> originals, final MeterRegistry meterRegistry) {
+
+        super(baseUrls, identityMapCapacity, originals);
+
+        this.lookups = new SchemaRegistryLookups("remote", meterRegistry);
+    }
+
+    @Override
+    public int register(final String subject, final Schema schema) throws IOException, RestClientException {
+
+        return lookups.lookup("register", subject, schema, super::register);
+    }
+
+    @Override
+    public int getId(final String subject, final Schema schema) throws IOException, RestClientException {
+
+        return lookups.lookup("get_id", subject, schema, super::getId);
+    }
+}
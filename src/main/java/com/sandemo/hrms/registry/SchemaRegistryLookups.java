@@ -0,0 +1,75 @@
+package com.sandemo.hrms.registry;
+
+import com.sandemo.hrms.util.Util;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Caches the schema ids in front of a registry client and times the lookups which reach the registry. The schemas are
+ * kept by identity like in the Confluent client, the serializer always passes the schema instance of the generated
+ * class, so the hot path costs one map lookup.
+ */
+final class SchemaRegistryLookups {
+
+    private static final String LOOKUP_METRIC = "hrms.kafka.schema.registry.lookup";
+
+    private final Map<String, Map<Schema, Integer>> ids = new ConcurrentHashMap<>();
+    private final String registry;
+    private final MeterRegistry meterRegistry;
+
+    SchemaRegistryLookups(final String registry, final MeterRegistry meterRegistry) {
+
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    int lookup(final String operation, final String subject, final Schema schema, final Lookup lookup)
+            throws IOException, RestClientException {
+
+        Map<Schema, Integer> subjectIds = ids.computeIfAbsent(subject,
+                key -> Collections.synchronizedMap(new IdentityHashMap<>()));
+
+        Integer id = subjectIds.get(schema);
+
+        if (Util.isNotNull(id)) {
+
+            return id;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+
+        try {
+
+            id = lookup.lookup(subject, schema);
+            outcome = "success";
+
+        } finally {
+
+            sample.stop(Timer.builder(LOOKUP_METRIC)
+                    .description("Time taken by the schema id lookups which reached the schema registry")
+                    .tags("registry", registry, "operation", operation, "outcome", outcome)
+                    .register(meterRegistry));
+        }
+
+        subjectIds.put(schema, id);
+
+        return id;
+    }
+
+    @FunctionalInterface
+    interface Lookup {
+
+        int lookup(String subject, Schema schema) throws IOException, RestClientException;
+    }
+}
@@ -1,13 +1,63 @@
 package com.sandemo.hrms.repository;
 
+import com.sandemo.hrms.dto.response.DepartmentDto;
 import com.sandemo.hrms.model.DepartmentEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
  */
 @Repository
 public interface DepartmentEntityRepository extends JpaRepository<DepartmentEntity, Long> {
 
+    /**
+     * Returns every department with its headcount, projected straight into the response DTO in a single scan.
+     *
+     * @return
+     */
+    @Query("SELECT new com.sandemo.hrms.dto.response.DepartmentDto(d.departId, d.name, d.headcount) "
+            + "FROM DepartmentEntity d ORDER BY d.departId")
+    List<DepartmentDto> findAllWithHeadcount();
+
+    @Query("SELECT d.departId FROM DepartmentEntity d ORDER BY d.departId")
+    List<Long> findAllDepartIds();
+
+    /**
+     * Adds the delta to the headcount relative to its current value, so that concurrent writers never lose an update.
+     * The row stays locked until the end of the transaction.
+     *
+     * @param departId
+     * @param delta
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE DepartmentEntity d SET d.headcount = d.headcount + :delta WHERE d.departId = :departId")
+    int addToHeadcount(@Param("departId") final Long departId, @Param("delta") final int delta);
+
+    /**
+     * Returns the headcount and locks the department row, which holds off every employee write of the department
+     * until the end of the transaction.
+     *
+     * @param departId
+     * @return
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d.headcount FROM DepartmentEntity d WHERE d.departId = :departId")
+    Optional<Integer> findHeadcountForUpdate(@Param("departId") final Long departId);
+
+    @Query("SELECT COUNT(e) FROM EmployeeEntity e WHERE e.departmentEntity.departId = :departId")
+    long countEmployees(@Param("departId") final Long departId);
+
+    @Modifying
+    @Query("UPDATE DepartmentEntity d SET d.headcount = :headcount WHERE d.departId = :departId")
+    int updateHeadcount(@Param("departId") final Long departId, @Param("headcount") final int headcount);
 }
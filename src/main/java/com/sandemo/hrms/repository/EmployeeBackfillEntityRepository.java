@@ -0,0 +1,12 @@
+package com.sandemo.hrms.repository;
+
+import com.sandemo.hrms.model.EmployeeBackfillEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@Repository
+public interface EmployeeBackfillEntityRepository extends JpaRepository<EmployeeBackfillEntity, String> {
+}
@@ -1,18 +1,72 @@
 package com.sandemo.hrms.repository;
 
+import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
 import com.sandemo.hrms.model.EmployeeEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
  */
 @Repository
-public interface EmployeeEntityRepository extends JpaRepository<EmployeeEntity, Long> {
+public interface EmployeeEntityRepository extends JpaRepository<EmployeeEntity, Long>, EmployeeEntityRepositoryCustom {
 
     Optional<EmployeeEntity> findByEmployeeId(final String employeeId);
 
     Optional<EmployeeEntity> findByEmail(final String email);
+
+    /**
+     * Returns the details of the employee along with its department and version as a projection, in one query which
+     * reads only the needed columns. No entity is hydrated, so nothing is added to the persistence context.
+     *
+     * @param employeeId
+     * @return
+     */
+    @Query("SELECT new com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto(e.employeeId, e.name, e.email,"
+            + " e.dateOfBirth, d.departId, d.name, e.createdAt, e.updatedAt, e.version)"
+            + " FROM EmployeeEntity e JOIN e.departmentEntity d WHERE e.employeeId = :employeeId")
+    Optional<EmployeeDetailsResponseDto> findDetailsByEmployeeId(@Param("employeeId") final String employeeId);
+
+    /**
+     * Returns the employees with the given ids along with their department, in one query.
+     *
+     * @param employeeIds
+     * @return
+     */
+    @Query("SELECT e FROM EmployeeEntity e JOIN FETCH e.departmentEntity WHERE e.employeeId IN :employeeIds")
+    List<EmployeeEntity> findAllWithDepartmentByEmployeeIdIn(@Param("employeeIds") final Collection<String> employeeIds);
+
+    /**
+     * Returns the employees with the given emails along with their department, in one query.
+     *
+     * @param emails
+     * @return
+     */
+    @Query("SELECT e FROM EmployeeEntity e JOIN FETCH e.departmentEntity WHERE e.email IN :emails")
+    List<EmployeeEntity> findAllWithDepartmentByEmailIn(@Param("emails") final Collection<String> emails);
+
+    /**
+     * Returns the emails out of the given ones which are already taken, without hydrating the employee entities.
+     *
+     * @param emails
+     * @return
+     */
+    @Query("SELECT e.email FROM EmployeeEntity e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") final Collection<String> emails);
+
+    /**
+     * Returns only the version of the employee, enough to answer a conditional request without hydrating the entity.
+     *
+     * @param employeeId
+     * @return
+     */
+    @Query("SELECT e.version FROM EmployeeEntity e WHERE e.employeeId = :employeeId")
+    Optional<Long> findVersionByEmployeeId(@Param("employeeId") final String employeeId);
+
 }
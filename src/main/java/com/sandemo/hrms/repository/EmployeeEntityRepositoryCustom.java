@@ -0,0 +1,104 @@
+package com.sandemo.hrms.repository;
+
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.model.EmployeeEntity;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Repository methods of the employee which cannot be expressed as a derived or a fixed query
+ */
+public interface EmployeeEntityRepositoryCustom {
+
+    /**
+     * Applies the non-null attributes of the changes to the employee in a single conditional UPDATE which only matches
+     * while the employee is still at the given version, and increments the version. Returns the department the
+     * employee was in before the update, empty when the employee does not exist or has moved past the version. The
+     * columns of the updated row are set on the changes, so that they hold the whole employee afterwards, with the
+     * department by its id only.
+     * The persistence context is flushed before and cleared after the statement.
+     *
+     * @param employeeId
+     * @param version
+     * @param changes
+     * @return
+     */
+    Optional<Long> updateByEmployeeIdAndVersion(final String employeeId, final long version, final EmployeeEntity changes);
+
+    /**
+     * Deletes the employee in a single statement and returns the department it was in, empty when there was no such
+     * employee. The statement takes the row lock itself, so no read has to lock the row beforehand.
+     * The persistence context is flushed before and cleared after the statement.
+     *
+     * @param employeeId
+     * @return
+     */
+    Optional<Long> deleteByEmployeeIdReturningDepartmentId(final String employeeId);
+
+    /**
+     * Returns up to limit employees matching the filters as projections, in the given order and strictly after the
+     * position of the previous page (keyset pagination). The position is empty for the first page, afterUpdatedAt is
+     * only used by the UPDATED_AT order.
+     *
+     * @param filter
+     * @param sort
+     * @param afterEmployeeIdPk
+     * @param afterUpdatedAt
+     * @param limit
+     * @return
+     */
+    List<EmployeeListItemDto> findEmployeePage(final EmployeeListRequestDto filter, final EmployeeListSort sort,
+                                               final Long afterEmployeeIdPk, final ZonedDateTime afterUpdatedAt,
+                                               final int limit);
+
+    /**
+     * Returns the same page as {@link #findEmployeePage} in the order of iemployee_id_pk, and share locks the rows read
+     * until the end of the transaction. An employee of the page can not be changed or deleted meanwhile, and a change
+     * which held its row first is committed before the page is read.
+     *
+     * @param filter
+     * @param afterEmployeeIdPk
+     * @param limit
+     * @return
+     */
+    List<EmployeeListItemDto> findEmployeePageForShare(final EmployeeListRequestDto filter,
+                                                       final Long afterEmployeeIdPk, final int limit);
+
+    /**
+     * Streams all the employees as projections in the order of iemployee_id_pk, reading them from a forward-only
+     * cursor fetchSize rows at a time. The stream must be consumed and closed within the surrounding transaction.
+     *
+     * @param fetchSize
+     * @return
+     */
+    Stream<EmployeeListItemDto> streamAllEmployees(final int fetchSize);
+
+    /**
+     * Streams the employees of the department as projections in the order of iemployee_id_pk, the same way as
+     * {@link #streamAllEmployees(int)}. The rows are read through the (idepart_id, iemployee_id_pk) index.
+     *
+     * @param departmentId
+     * @param fetchSize
+     * @return
+     */
+    Stream<EmployeeListItemDto> streamEmployeesByDepartment(final Long departmentId, final int fetchSize);
+
+    /**
+     * Inserts the new employees in one set-based statement, bypassing the persistence context, and returns the
+     * employeeIds of the ones inserted. An employee whose email is already taken, by an existing employee or by an
+     * earlier one of the list, is skipped instead of failing the statement. The primary keys are assigned from the
+     * entity sequence and set on the entities.
+     *
+     * @param employeeEntities
+     * @return
+     */
+    Set<String> insertSkippingTakenEmails(final List<EmployeeEntity> employeeEntities);
+}
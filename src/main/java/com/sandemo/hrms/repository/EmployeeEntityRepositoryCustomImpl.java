@@ -0,0 +1,574 @@
+package com.sandemo.hrms.repository;
+
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.util.Util;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+public class EmployeeEntityRepositoryCustomImpl implements EmployeeEntityRepositoryCustom {
+
+    private static final String EMPLOYEE_ID_PK = "employeeIdPk";
+    private static final String EMPLOYEE_ID = "employeeId";
+    private static final String NAME = "name";
+    private static final String EMAIL = "email";
+    private static final String DATE_OF_BIRTH = "dateOfBirth";
+    private static final String DEPARTMENT = "departmentEntity";
+    private static final String CREATED_AT = "createdAt";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String DEPART_ID = "departId";
+
+    private static final String IMPORT_STAGE = "employee_import_stage";
+    private static final String IMPORT_COLUMNS =
+            "iemployee_id_pk, semployee_id, semail, sname, tsdateofbirth, idepart_id, tscreated_at";
+    private static final String CREATE_IMPORT_STAGE = "CREATE TEMPORARY TABLE IF NOT EXISTS " + IMPORT_STAGE
+            + " (iemployee_id_pk bigint NOT NULL, semployee_id varchar(50) NOT NULL, semail varchar(50) NOT NULL,"
+            + " sname varchar(120) NOT NULL, tsdateofbirth date, idepart_id integer NOT NULL,"
+            + " tscreated_at timestamp with time zone NOT NULL) ON COMMIT DELETE ROWS";
+    private static final String TRUNCATE_IMPORT_STAGE = "TRUNCATE " + IMPORT_STAGE;
+    private static final String COPY_IMPORT_STAGE = "COPY " + IMPORT_STAGE + " (" + IMPORT_COLUMNS
+            + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String MERGE_IMPORT_STAGE = "INSERT INTO %s (" + IMPORT_COLUMNS + ", tsupdated_at, iversion)"
+            + " SELECT " + IMPORT_COLUMNS + ", tscreated_at, 0 FROM " + IMPORT_STAGE + " ORDER BY iemployee_id_pk"
+            + " ON CONFLICT (semail) DO NOTHING RETURNING semployee_id";
+    private static final String INSERT_EMPLOYEE = "INSERT INTO %s (" + IMPORT_COLUMNS + ", tsupdated_at, iversion)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String EMPLOYEE_COLUMNS = "iemployee_id_pk, semployee_id, semail, sname, tsdateofbirth,"
+            + " idepart_id, tscreated_at, tsupdated_at, iversion";
+    private static final String UPDATE_RETURNING_PREVIOUS_DEPART_ID = "UPDATE %1$s AS e SET %2$s FROM %1$s AS p"
+            + " WHERE p.iemployee_id_pk = e.iemployee_id_pk AND e.semployee_id = ? AND e.iversion = ?"
+            + " RETURNING p.idepart_id, e." + EMPLOYEE_COLUMNS.replace(", ", ", e.");
+    private static final String FIND_DEPART_ID_AT_VERSION =
+            "SELECT idepart_id FROM %s WHERE semployee_id = ? AND iversion = ?";
+    private static final String UPDATE_AT_VERSION = "UPDATE %s SET %s WHERE semployee_id = ? AND iversion = ?";
+    private static final String FIND_EMPLOYEE = "SELECT " + EMPLOYEE_COLUMNS + " FROM %s WHERE semployee_id = ?";
+    private static final String DELETE_RETURNING_DEPART_ID = "DELETE FROM %s WHERE semployee_id = ? RETURNING idepart_id";
+    private static final String DELETE_FROM_OLD_TABLE =
+            "SELECT idepart_id FROM OLD TABLE (DELETE FROM %s WHERE semployee_id = ?)";
+    private static final String FIND_TAKEN_EMAILS = "SELECT e.email FROM EmployeeEntity e WHERE e.email IN :emails";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Long> updateByEmployeeIdAndVersion(final String employeeId, final long version,
+                                                       final EmployeeEntity changes) {
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        String tableName = ((AbstractEntityPersister) session.getFactory().getMetamodel()
+                .entityPersister(EmployeeEntity.class)).getTableName();
+
+        // Only the provided attributes are part of the statement, so no value has to be read beforehand
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+
+        addChange(columns, values, "sname", changes.getName());
+        addChange(columns, values, "semail", changes.getEmail());
+        addChange(columns, values, "tsdateofbirth", Util.isNull(changes.getDateOfBirth()) ? null
+                : Date.valueOf(changes.getDateOfBirth()));
+        addChange(columns, values, "idepart_id", Util.isNull(changes.getDepartmentEntity()) ? null
+                : changes.getDepartmentEntity().getDepartId());
+        addChange(columns, values, "tsupdated_at", Util.isNull(changes.getUpdatedAt()) ? null
+                : Timestamp.from(changes.getUpdatedAt().toInstant()));
+
+        // Same as a flushing and clearing @Modifying query, a managed copy of the employee would be stale afterwards
+        entityManager.flush();
+
+        Optional<Long> previousDepartmentId = session.doReturningWork(connection ->
+                connection.isWrapperFor(PGConnection.class)
+                        ? updateReturning(connection, tableName, columns, values, employeeId, version, changes)
+                        : updateAndRead(connection, tableName, columns, values, employeeId, version, changes));
+
+        entityManager.clear();
+
+        return previousDepartmentId;
+    }
+
+    /**
+     * Updates the employee and returns the department it was in from the same statement, joined to the row as it was
+     * read by the statement. A concurrent change between the read and the row lock also moves the version, so the
+     * joined department is the one the update replaces whenever the version still matches.
+     */
+    private Optional<Long> updateReturning(final Connection connection, final String tableName,
+                                           final List<String> columns, final List<Object> values,
+                                           final String employeeId, final long version,
+                                           final EmployeeEntity changes) throws SQLException {
+
+        String sql = String.format(UPDATE_RETURNING_PREVIOUS_DEPART_ID, tableName,
+                setClause(columns, "iversion = e.iversion + 1"));
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            bindUpdate(statement, values, employeeId, version);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+                if (!resultSet.next()) {
+
+                    return Optional.empty();
+                }
+
+                readEmployee(resultSet, 2, changes);
+
+                return Optional.of(resultSet.getLong(1));
+            }
+        }
+    }
+
+    /**
+     * Fallback for the databases without UPDATE ... FROM ... RETURNING. The department is read before the conditional
+     * update, a change in between moves the version and fails the update, and the row is read back after it.
+     */
+    private Optional<Long> updateAndRead(final Connection connection, final String tableName,
+                                         final List<String> columns, final List<Object> values,
+                                         final String employeeId, final long version,
+                                         final EmployeeEntity changes) throws SQLException {
+
+        Long previousDepartmentId;
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                String.format(FIND_DEPART_ID_AT_VERSION, tableName))) {
+
+            statement.setString(1, employeeId);
+            statement.setLong(2, version);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+                if (!resultSet.next()) {
+
+                    return Optional.empty();
+                }
+
+                previousDepartmentId = resultSet.getLong(1);
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(String.format(UPDATE_AT_VERSION, tableName,
+                setClause(columns, "iversion = iversion + 1")))) {
+
+            bindUpdate(statement, values, employeeId, version);
+
+            if (statement.executeUpdate() == 0) {
+
+                return Optional.empty();
+            }
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(String.format(FIND_EMPLOYEE, tableName))) {
+
+            statement.setString(1, employeeId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+
+                resultSet.next();
+                readEmployee(resultSet, 1, changes);
+            }
+        }
+
+        return Optional.of(previousDepartmentId);
+    }
+
+    private static void addChange(final List<String> columns, final List<Object> values, final String column,
+                                  final Object value) {
+
+        if (Util.isNotNull(value)) {
+
+            columns.add(column);
+            values.add(value);
+        }
+    }
+
+    private static String setClause(final List<String> columns, final String versionIncrement) {
+
+        return Stream.concat(columns.stream().map(column -> column + " = ?"), Stream.of(versionIncrement))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static void bindUpdate(final PreparedStatement statement, final List<Object> values,
+                                   final String employeeId, final long version) throws SQLException {
+
+        int index = 1;
+
+        for (Object value : values) {
+
+            statement.setObject(index++, value);
+        }
+
+        statement.setString(index++, employeeId);
+        statement.setLong(index, version);
+    }
+
+    /**
+     * Sets the columns of EMPLOYEE_COLUMNS, read from the given position on, on the employee. The department is only
+     * set by its id.
+     */
+    private static void readEmployee(final ResultSet resultSet, final int from, final EmployeeEntity employeeEntity)
+            throws SQLException {
+
+        Date dateOfBirth = resultSet.getDate(from + 4);
+
+        employeeEntity.setEmployeeIdPk(resultSet.getLong(from));
+        employeeEntity.setEmployeeId(resultSet.getString(from + 1));
+        employeeEntity.setEmail(resultSet.getString(from + 2));
+        employeeEntity.setName(resultSet.getString(from + 3));
+        employeeEntity.setDateOfBirth(Util.isNull(dateOfBirth) ? null : dateOfBirth.toLocalDate());
+        employeeEntity.setDepartmentEntity(DepartmentEntity.builder().departId(resultSet.getLong(from + 5)).build());
+        employeeEntity.setCreatedAt(toZonedDateTime(resultSet.getTimestamp(from + 6)));
+        employeeEntity.setUpdatedAt(toZonedDateTime(resultSet.getTimestamp(from + 7)));
+        employeeEntity.setVersion(resultSet.getLong(from + 8));
+    }
+
+    private static ZonedDateTime toZonedDateTime(final Timestamp timestamp) {
+
+        // The same zone Hibernate reads the ZonedDateTime attributes with
+        return Util.isNull(timestamp) ? null : timestamp.toInstant().atZone(ZoneId.systemDefault());
+    }
+
+    @Override
+    public Optional<Long> deleteByEmployeeIdReturningDepartmentId(final String employeeId) {
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        String tableName = ((AbstractEntityPersister) session.getFactory().getMetamodel()
+                .entityPersister(EmployeeEntity.class)).getTableName();
+
+        entityManager.flush();
+
+        // The databases without DELETE ... RETURNING read the deleted row from the OLD TABLE delta table instead
+        Optional<Long> departmentId = session.doReturningWork(connection -> {
+
+            String sql = String.format(connection.isWrapperFor(PGConnection.class)
+                    ? DELETE_RETURNING_DEPART_ID : DELETE_FROM_OLD_TABLE, tableName);
+
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+
+                statement.setString(1, employeeId);
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+
+                    return resultSet.next() ? Optional.of(resultSet.getLong(1)) : Optional.<Long>empty();
+                }
+            }
+        });
+
+        // A managed copy of the employee would outlive its row otherwise
+        entityManager.clear();
+
+        return departmentId;
+    }
+
+    @Override
+    public List<EmployeeListItemDto> findEmployeePage(final EmployeeListRequestDto filter, final EmployeeListSort sort,
+                                                      final Long afterEmployeeIdPk, final ZonedDateTime afterUpdatedAt,
+                                                      final int limit) {
+
+        return employeePageQuery(filter, sort, afterEmployeeIdPk, afterUpdatedAt, limit).getResultList();
+    }
+
+    @Override
+    public List<EmployeeListItemDto> findEmployeePageForShare(final EmployeeListRequestDto filter,
+                                                              final Long afterEmployeeIdPk, final int limit) {
+
+        return employeePageQuery(filter, EmployeeListSort.ID, afterEmployeeIdPk, null, limit)
+                .setLockMode(LockModeType.PESSIMISTIC_READ)
+                .getResultList();
+    }
+
+    private TypedQuery<EmployeeListItemDto> employeePageQuery(final EmployeeListRequestDto filter,
+                                                              final EmployeeListSort sort,
+                                                              final Long afterEmployeeIdPk,
+                                                              final ZonedDateTime afterUpdatedAt, final int limit) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeListItemDto> query = criteriaBuilder.createQuery(EmployeeListItemDto.class);
+        Root<EmployeeEntity> root = query.from(EmployeeEntity.class);
+        Join<EmployeeEntity, DepartmentEntity> department = root.join(DEPARTMENT);
+
+        Path<Long> employeeIdPk = root.get(EMPLOYEE_ID_PK);
+        Path<ZonedDateTime> updatedAt = root.get(UPDATED_AT);
+
+        selectListItem(criteriaBuilder, query, root, department);
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (Util.isNotNull(filter.getDepartmentId())) {
+            predicates.add(criteriaBuilder.equal(root.get(DEPARTMENT).get(DEPART_ID), filter.getDepartmentId()));
+        }
+
+        addRange(criteriaBuilder, predicates, root.<ZonedDateTime>get(CREATED_AT), filter.getCreatedFrom(), filter.getCreatedTo());
+        addRange(criteriaBuilder, predicates, updatedAt, filter.getUpdatedFrom(), filter.getUpdatedTo());
+        addRange(criteriaBuilder, predicates, root.<LocalDate>get(DATE_OF_BIRTH), filter.getDateOfBirthFrom(),
+                filter.getDateOfBirthTo());
+
+        if (sort == EmployeeListSort.UPDATED_AT) {
+
+            if (Util.isNotNull(afterEmployeeIdPk)) {
+
+                // (updatedAt, id) > (after, afterId), the leading bound lets the index range start at the position
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(updatedAt, afterUpdatedAt));
+                predicates.add(criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(updatedAt, afterUpdatedAt),
+                        criteriaBuilder.greaterThan(employeeIdPk, afterEmployeeIdPk)));
+            }
+
+            query.orderBy(criteriaBuilder.asc(updatedAt), criteriaBuilder.asc(employeeIdPk));
+
+        } else {
+
+            if (Util.isNotNull(afterEmployeeIdPk)) {
+                predicates.add(criteriaBuilder.greaterThan(employeeIdPk, afterEmployeeIdPk));
+            }
+
+            query.orderBy(criteriaBuilder.asc(employeeIdPk));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit);
+    }
+
+    @Override
+    public Stream<EmployeeListItemDto> streamAllEmployees(final int fetchSize) {
+
+        return streamEmployees(null, fetchSize);
+    }
+
+    @Override
+    public Stream<EmployeeListItemDto> streamEmployeesByDepartment(final Long departmentId, final int fetchSize) {
+
+        return streamEmployees(departmentId, fetchSize);
+    }
+
+    private Stream<EmployeeListItemDto> streamEmployees(final Long departmentId, final int fetchSize) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeListItemDto> query = criteriaBuilder.createQuery(EmployeeListItemDto.class);
+        Root<EmployeeEntity> root = query.from(EmployeeEntity.class);
+        Join<EmployeeEntity, DepartmentEntity> department = root.join(DEPARTMENT);
+
+        selectListItem(criteriaBuilder, query, root, department);
+
+        // Filtered on the foreign key column of the employee, so that the department index serves the order as well
+        if (Util.isNotNull(departmentId)) {
+            query.where(criteriaBuilder.equal(root.get(DEPARTMENT).get(DEPART_ID), departmentId));
+        }
+
+        query.orderBy(criteriaBuilder.asc(root.get(EMPLOYEE_ID_PK)));
+
+        // Hibernate streams over a forward-only scroll, the fetch size bounds the rows the driver holds at once
+        return entityManager.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Constructor projection, only the selected columns are read and nothing ends up in the persistence context
+     */
+    private void selectListItem(final CriteriaBuilder criteriaBuilder, final CriteriaQuery<EmployeeListItemDto> query,
+                                final Root<EmployeeEntity> root, final Join<EmployeeEntity, DepartmentEntity> department) {
+
+        query.select(criteriaBuilder.construct(EmployeeListItemDto.class,
+                root.get(EMPLOYEE_ID_PK), root.get(EMPLOYEE_ID), root.get(NAME), root.get(EMAIL),
+                root.get(DATE_OF_BIRTH), department.get(DEPART_ID), department.get(NAME), root.get(CREATED_AT),
+                root.get(UPDATED_AT)));
+    }
+
+    @Override
+    public Set<String> insertSkippingTakenEmails(final List<EmployeeEntity> employeeEntities) {
+
+        if (employeeEntities.isEmpty()) {
+
+            return Collections.emptySet();
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        AbstractEntityPersister persister = (AbstractEntityPersister) session.getFactory().getMetamodel()
+                .entityPersister(EmployeeEntity.class);
+
+        // The ids come from the same pooled sequence as the persisted employees
+        for (EmployeeEntity employeeEntity : employeeEntities) {
+
+            employeeEntity.setEmployeeIdPk((Long) persister.getIdentifierGenerator().generate(session, employeeEntity));
+            employeeEntity.setUpdatedAt(employeeEntity.getCreatedAt());
+            employeeEntity.setVersion(0L);
+        }
+
+        String tableName = persister.getTableName();
+
+        entityManager.flush();
+
+        return session.doReturningWork(connection -> connection.isWrapperFor(PGConnection.class)
+                ? copyAndMerge(connection, tableName, employeeEntities)
+                : batchInsert(connection, tableName, employeeEntities));
+    }
+
+    /**
+     * Streams the employees into a temporary table with the COPY protocol and moves them over with a single
+     * INSERT ... SELECT, the unique email constraint decides which ones are skipped.
+     */
+    private Set<String> copyAndMerge(final Connection connection, final String tableName,
+                                     final List<EmployeeEntity> employeeEntities) throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+
+            statement.execute(CREATE_IMPORT_STAGE);
+            statement.execute(TRUNCATE_IMPORT_STAGE);
+        }
+
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_IMPORT_STAGE);
+
+        try {
+
+            StringBuilder row = new StringBuilder();
+
+            for (EmployeeEntity employeeEntity : employeeEntities) {
+
+                row.setLength(0);
+                row.append(employeeEntity.getEmployeeIdPk()).append(',');
+                appendCsvField(row, employeeEntity.getEmployeeId()).append(',');
+                appendCsvField(row, employeeEntity.getEmail()).append(',');
+                appendCsvField(row, employeeEntity.getName()).append(',');
+                appendCsvField(row, Util.isNull(employeeEntity.getDateOfBirth()) ? null
+                        : employeeEntity.getDateOfBirth().toString()).append(',');
+                row.append(employeeEntity.getDepartmentEntity().getDepartId()).append(',');
+                appendCsvField(row, employeeEntity.getCreatedAt().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME))
+                        .append('\n');
+
+                byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+
+            copyIn.endCopy();
+
+        } finally {
+
+            if (copyIn.isActive()) {
+
+                copyIn.cancelCopy();
+            }
+        }
+
+        Set<String> insertedIds = new HashSet<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(String.format(MERGE_IMPORT_STAGE, tableName))) {
+
+            while (resultSet.next()) {
+
+                insertedIds.add(resultSet.getString(1));
+            }
+        }
+
+        return insertedIds;
+    }
+
+    /**
+     * Fallback for the databases without COPY, the taken emails are looked up first and the rest is inserted as one
+     * JDBC batch. Unlike the COPY path an email taken concurrently fails the batch instead of being skipped.
+     */
+    private Set<String> batchInsert(final Connection connection, final String tableName,
+                                    final List<EmployeeEntity> employeeEntities) throws SQLException {
+
+        Set<String> takenEmails = new HashSet<>(entityManager.createQuery(FIND_TAKEN_EMAILS, String.class)
+                .setParameter("emails", employeeEntities.stream().map(EmployeeEntity::getEmail).collect(Collectors.toSet()))
+                .getResultList());
+
+        Set<String> insertedIds = new HashSet<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(String.format(INSERT_EMPLOYEE, tableName))) {
+
+            for (EmployeeEntity employeeEntity : employeeEntities) {
+
+                // Set#add also skips the second occurrence of an email within the list
+                if (!takenEmails.add(employeeEntity.getEmail())) {
+
+                    continue;
+                }
+
+                Timestamp createdAt = Timestamp.from(employeeEntity.getCreatedAt().toInstant());
+
+                statement.setLong(1, employeeEntity.getEmployeeIdPk());
+                statement.setString(2, employeeEntity.getEmployeeId());
+                statement.setString(3, employeeEntity.getEmail());
+                statement.setString(4, employeeEntity.getName());
+                statement.setDate(5, Util.isNull(employeeEntity.getDateOfBirth()) ? null
+                        : Date.valueOf(employeeEntity.getDateOfBirth()));
+                statement.setLong(6, employeeEntity.getDepartmentEntity().getDepartId());
+                statement.setTimestamp(7, createdAt);
+                statement.setTimestamp(8, createdAt);
+                statement.addBatch();
+
+                insertedIds.add(employeeEntity.getEmployeeId());
+            }
+
+            statement.executeBatch();
+        }
+
+        return insertedIds;
+    }
+
+    private static StringBuilder appendCsvField(final StringBuilder row, final String value) {
+
+        // An unquoted empty field is NULL for COPY, a quoted one is an empty string
+        if (Util.isNotNull(value)) {
+
+            row.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+
+        return row;
+    }
+
+    private <T extends Comparable<? super T>> void addRange(final CriteriaBuilder criteriaBuilder,
+                                                           final List<Predicate> predicates, final Path<T> path,
+                                                           final T from, final T to) {
+
+        if (Util.isNotNull(from)) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(path, from));
+        }
+
+        if (Util.isNotNull(to)) {
+            predicates.add(criteriaBuilder.lessThan(path, to));
+        }
+    }
+}
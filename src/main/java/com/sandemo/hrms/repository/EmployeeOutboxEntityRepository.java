@@ -0,0 +1,59 @@
+package com.sandemo.hrms.repository;
+
+import com.sandemo.hrms.model.EmployeeOutboxEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@Repository
+public interface EmployeeOutboxEntityRepository extends JpaRepository<EmployeeOutboxEntity, Long> {
+
+    /**
+     * Takes the lock which serializes the claims of the relays until the end of the transaction, it is not waited for.
+     * Without it two relays could claim two events of the same employee at once and publish them out of order.
+     *
+     * @param lockId
+     * @return whether the lock was taken
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryLockRelayClaim(@Param("lockId") final long lockId);
+
+    /**
+     * Returns the oldest outbox rows which are not leased. A row is left out while an earlier row of the same employee
+     * is leased by another relay, so the events of an employee are never published by two relays at once.
+     *
+     * @param now
+     * @param pageable
+     * @return
+     */
+    @Query("SELECT o FROM EmployeeOutboxEntity o WHERE (o.lockedUntil IS NULL OR o.lockedUntil < :now) "
+            + "AND NOT EXISTS (SELECT e FROM EmployeeOutboxEntity e WHERE e.employeeId = o.employeeId "
+            + "AND e.outboxIdPk < o.outboxIdPk AND e.lockedUntil >= :now) "
+            + "ORDER BY o.outboxIdPk")
+    List<EmployeeOutboxEntity> findNextBatchForRelay(@Param("now") final ZonedDateTime now, final Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE EmployeeOutboxEntity o SET o.relayOwner = :relayOwner, o.lockedUntil = :lockedUntil "
+            + "WHERE o.outboxIdPk IN :ids")
+    int claimByIds(@Param("ids") final Collection<Long> ids, @Param("relayOwner") final String relayOwner,
+                   @Param("lockedUntil") final ZonedDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE EmployeeOutboxEntity o SET o.relayOwner = NULL, o.lockedUntil = NULL "
+            + "WHERE o.relayOwner = :relayOwner")
+    int releaseClaims(@Param("relayOwner") final String relayOwner);
+
+    @Modifying
+    @Query("DELETE FROM EmployeeOutboxEntity o WHERE o.outboxIdPk IN :ids")
+    int deleteByIds(@Param("ids") final Collection<Long> ids);
+}
@@ -0,0 +1,17 @@
+package com.sandemo.hrms.service;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of correcting the department headcounts which drifted from the employee table
+ */
+public interface DepartmentHeadcountReconciliationService {
+
+    /**
+     * This method is in charge of recounting the employees of every department and correcting the headcounts which
+     * differ
+     *
+     * @return number of departments corrected
+     */
+    int reconcileHeadcounts();
+}
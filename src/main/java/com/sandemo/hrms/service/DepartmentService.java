@@ -1,9 +1,13 @@
 package com.sandemo.hrms.service;
 
 import com.sandemo.hrms.dto.request.DepartmentRequestDto;
+import com.sandemo.hrms.dto.response.DepartmentListResponseDto;
 import com.sandemo.hrms.dto.response.DepartmentResponseDto;
 import com.sandemo.hrms.model.DepartmentEntity;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -30,6 +34,47 @@ public interface DepartmentService {
      */
     Optional<DepartmentEntity> getDepartmentById(final Long departmentId);
 
+    /**
+     * This method is in charge of fetching the Department records for all the given departmentIds in one query.
+     * The ids which do not exist are simply absent from the result.
+     *
+     * @param departmentIds
+     * @return
+     */
+    List<DepartmentEntity> getDepartmentsByIds(final Collection<Long> departmentIds);
+
+    /**
+     * This method is in charge of returning a reference to the Department record without loading it. It is meant to be
+     * set on an association only, a missing department is reported by the fk_depart_id constraint on flush.
+     *
+     * @param departmentId
+     * @return
+     */
+    DepartmentEntity getDepartmentReference(final Long departmentId);
+
+    /**
+     * This method is in charge of loading the departments into the cache with a single query, it runs on startup
+     * so that the first requests after a deploy are already served from the cache.
+     *
+     * @return number of departments loaded
+     */
+    int preloadDepartmentCache();
+
+    /**
+     * This method is in charge of adding the given deltas to the headcount of the departments. It must be called in the
+     * transaction of the employee writes it accounts for, the departments stay locked until that transaction ends.
+     *
+     * @param headcountDeltas delta per departmentId
+     */
+    void adjustHeadcounts(final Map<Long, Integer> headcountDeltas);
+
+    /**
+     * This method is in charge of returning every department with its current headcount.
+     *
+     * @return
+     */
+    DepartmentListResponseDto getDepartmentList();
+
     /**
      * This method is in charge of creating Department based on the input provided
      * and will return the DepartmentResponseDto
@@ -0,0 +1,36 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.dto.request.EmployeeBackfillRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeBackfillResponseDto;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of re-publishing the state of the employees as events, for the consumers which bootstrap
+ * from the topic and for re-emitting the events of a period
+ */
+public interface EmployeeBackfillService {
+
+    /**
+     * This method is in charge of starting the backfill job in the background, or resuming it from its checkpoint when
+     * it was stopped or failed before
+     *
+     * @param employeeBackfillRequestDto
+     * @return the checkpoint of the job
+     */
+    EmployeeBackfillResponseDto startBackfill(final EmployeeBackfillRequestDto employeeBackfillRequestDto);
+
+    /**
+     * This method is in charge of stopping the backfill job once its current page is published, it can be resumed later
+     *
+     * @param jobName
+     * @return the checkpoint of the job
+     */
+    EmployeeBackfillResponseDto stopBackfill(final String jobName);
+
+    /**
+     * @param jobName
+     * @return the checkpoint of the job
+     */
+    EmployeeBackfillResponseDto getBackfill(final String jobName);
+}
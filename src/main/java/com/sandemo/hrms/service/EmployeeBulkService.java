@@ -0,0 +1,23 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.dto.response.EmployeeBulkResponseDto;
+
+import java.io.InputStream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of creating Employee data in bulk
+ */
+public interface EmployeeBulkService {
+
+    /**
+     * This method is in charge of creating Employee data for every valid element of the JSON array read from the given
+     * stream, produce messages into kafka topic and return the outcome of each element. Invalid elements are reported
+     * as rejected and do not prevent the valid ones from being created.
+     *
+     * @param inputStream
+     * @return
+     */
+    EmployeeBulkResponseDto createEmployeesAndGetResponse(final InputStream inputStream);
+}
@@ -0,0 +1,31 @@
+package com.sandemo.hrms.service;
+
+import java.io.OutputStream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of exporting the Employee directory
+ */
+public interface EmployeeExportService {
+
+    /**
+     * This method is in charge of writing every Employee as one JSON object per line (NDJSON) into the stream provided.
+     * The rows are read from a database cursor and written as they arrive, so the memory used does not depend on the
+     * number of employees, and all of them are read from the same snapshot.
+     *
+     * @param outputStream
+     * @return the number of employees written
+     */
+    long exportEmployees(final OutputStream outputStream);
+
+    /**
+     * This method is in charge of writing the Employees of one department as NDJSON into the stream provided, the same
+     * way as {@link #exportEmployees(OutputStream)}.
+     *
+     * @param departmentId
+     * @param outputStream
+     * @return the number of employees written
+     */
+    long exportDepartmentEmployees(final Long departmentId, final OutputStream outputStream);
+}
@@ -0,0 +1,24 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.dto.response.EmployeeImportResponseDto;
+
+import java.io.InputStream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of importing Employee data from CSV
+ */
+public interface EmployeeImportService {
+
+    /**
+     * This method is in charge of creating Employee data for every valid row of the CSV read from the given stream and
+     * return the counts along with the errors of the rejected rows. The first row is the header naming the columns
+     * name, email, dateOfBirth and departmentId. The rows are committed chunk by chunk, so the employees of the chunks
+     * already committed stay created when a later chunk fails.
+     *
+     * @param inputStream
+     * @return
+     */
+    EmployeeImportResponseDto importEmployees(final InputStream inputStream);
+}
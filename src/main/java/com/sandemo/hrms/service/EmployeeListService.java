@@ -0,0 +1,21 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of listing the Employee data
+ */
+public interface EmployeeListService {
+
+    /**
+     * This method is in charge of returning a page of the Employees matching the filters provided. The pages are
+     * chained with the opaque cursor returned along with each page, the cost of a page does not grow with its position.
+     *
+     * @param employeeListRequestDto
+     * @return
+     */
+    EmployeeListResponseDto getEmployees(final EmployeeListRequestDto employeeListRequestDto);
+}
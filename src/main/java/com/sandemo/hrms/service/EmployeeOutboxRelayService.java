@@ -0,0 +1,16 @@
+package com.sandemo.hrms.service;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of publishing the employee events recorded in the outbox
+ */
+public interface EmployeeOutboxRelayService {
+
+    /**
+     * This method is in charge of publishing the next batch of outbox events and removing the published ones
+     *
+     * @return number of events published
+     */
+    int relayNextBatch();
+}
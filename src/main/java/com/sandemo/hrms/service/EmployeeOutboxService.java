@@ -0,0 +1,30 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.model.EmployeeEntity;
+
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of recording the employee events in the outbox, as part of the caller's transaction
+ */
+public interface EmployeeOutboxService {
+
+    /**
+     * This method is in charge of building the event for the given employee and adding it to the outbox
+     *
+     * @param employeeEntity
+     * @param employeeEventType
+     */
+    void addEvent(final EmployeeEntity employeeEntity, final EmployeeEventType employeeEventType);
+
+    /**
+     * This method is in charge of building the events for all the given employees and adding them to the outbox
+     *
+     * @param employeeEntities
+     * @param employeeEventType
+     */
+    void addEvents(final List<EmployeeEntity> employeeEntities, final EmployeeEventType employeeEventType);
+}
@@ -0,0 +1,30 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.dto.response.EmployeeSearchResponseDto;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This interface is in charge of the typeahead search of the Employees
+ */
+public interface EmployeeSearchService {
+
+    /**
+     * This method is in charge of returning the Employees whose email or any word of the name starts with the query,
+     * served from the in-memory search index.
+     *
+     * @param query
+     * @param departmentId only the Employees of this department when provided
+     * @param limit
+     * @return
+     */
+    EmployeeSearchResponseDto searchEmployees(final String query, final Long departmentId, final Integer limit);
+
+    /**
+     * This method is in charge of building the search index from a streamed scan of the Employees, it runs on startup
+     * and periodically, so that the changes done through other instances are picked up as well.
+     *
+     * @return number of employees indexed
+     */
+    int rebuildSearchIndex();
+}
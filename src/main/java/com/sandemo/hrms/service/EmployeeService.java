@@ -1,7 +1,10 @@
 package com.sandemo.hrms.service;
 
+import com.sandemo.hrms.cache.EncodedEmployeeDetails;
+import com.sandemo.hrms.dto.request.EmployeeDetailsBatchRequestDto;
 import com.sandemo.hrms.dto.request.EmployeeRequestDto;
 import com.sandemo.hrms.dto.request.PutEmployeeRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeResponseDto;
 import com.sandemo.hrms.model.EmployeeEntity;
@@ -42,6 +45,19 @@ public interface EmployeeService {
      */
     EmployeeEntity updateEmployee(final String employeeId, final PutEmployeeRequestDto putEmployeeRequestDto);
 
+    /**
+     * This method is in charge of updating Employee attributes on the input provided, only while the Employee is still
+     * at the expected version. The update is a single conditional statement and a stale version is rejected with
+     * EmployeeVersionMismatchException. Without an expected version it behaves as the unconditional update.
+     *
+     * @param employeeId
+     * @param putEmployeeRequestDto
+     * @param expectedVersion
+     * @return
+     */
+    EmployeeEntity updateEmployee(final String employeeId, final PutEmployeeRequestDto putEmployeeRequestDto,
+                                  final Long expectedVersion);
+
     /**
      * This method is in charge of updating Employee attributes on the input provided, produce message into kafka topic
      * and return response
@@ -52,6 +68,18 @@ public interface EmployeeService {
      */
     EmployeeResponseDto updateEmployeeAndGetResponse(final String employeeId, final PutEmployeeRequestDto putEmployeeRequestDto);
 
+    /**
+     * This method is in charge of updating Employee attributes only while the Employee is still at the expected version,
+     * produce message into kafka topic and return response
+     *
+     * @param employeeId
+     * @param putEmployeeRequestDto
+     * @param expectedVersion
+     * @return
+     */
+    EmployeeResponseDto updateEmployeeAndGetResponse(final String employeeId, final PutEmployeeRequestDto putEmployeeRequestDto,
+                                                     final Long expectedVersion);
+
     /**
      * This method is in charge of deleting Employee record by employeeId.
      *
@@ -86,8 +114,36 @@ public interface EmployeeService {
 
     /**
      * This method is in charge of fetching the Employee details by employeeId and return employee details response.
+     * The details are read as a projection within a read-only transaction, no employee entity is hydrated.
      *
      * @return
      */
     EmployeeDetailsResponseDto getEmployeeDetailsById(final String employeeId);
+
+    /**
+     * This method is in charge of fetching the Employee details of several employees at once, by employeeIds or by
+     * emails, with a single query. The results follow the order of the request and mark the ones not found.
+     *
+     * @param employeeDetailsBatchRequestDto
+     * @return
+     */
+    EmployeeDetailsBatchResponseDto getEmployeeDetailsBatch(final EmployeeDetailsBatchRequestDto employeeDetailsBatchRequestDto);
+
+    /**
+     * This method is in charge of returning the Employee details by employeeId as encoded JSON, along with the version
+     * of the employee. The encoded response is cached, so repeated reads of the same employee skip both the database
+     * and the serialization. A miss reads the details the same way as {@link #getEmployeeDetailsById(String)}.
+     *
+     * @param employeeId
+     * @return
+     */
+    EncodedEmployeeDetails getEncodedEmployeeDetailsById(final String employeeId);
+
+    /**
+     * This method is in charge of returning only the version of the Employee, without hydrating the entity.
+     *
+     * @param employeeId
+     * @return
+     */
+    Optional<Long> getEmployeeVersionById(final String employeeId);
 }
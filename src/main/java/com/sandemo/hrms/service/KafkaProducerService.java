@@ -1,7 +1,10 @@
 package com.sandemo.hrms.service;
 
-import com.sandemo.hrms.model.EmployeeEntity;
-import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventValue;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -11,10 +14,12 @@ import com.sandemo.hrms.EmployeeEventType;
 public interface KafkaProducerService {
 
     /**
-     * This method is in charge for building the message and sending to Kafka topic
+     * This method is in charge for sending an already built event to Kafka topic asynchronously
      *
-     * @param employeeEntity
-     * @param employeeEventType
+     * @param employeeEventKey
+     * @param employeeEventValue
+     * @return future completed with the broker acknowledgement
      */
-    void sendMessage(final EmployeeEntity employeeEntity, final EmployeeEventType employeeEventType);
+    CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> sendEvent(
+            final EmployeeEventKey employeeEventKey, final EmployeeEventValue employeeEventValue);
 }
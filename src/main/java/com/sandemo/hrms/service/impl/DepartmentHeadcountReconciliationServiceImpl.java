@@ -0,0 +1,99 @@
+package com.sandemo.hrms.service.impl;
+
+import com.sandemo.hrms.repository.DepartmentEntityRepository;
+import com.sandemo.hrms.service.DepartmentHeadcountReconciliationService;
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service corrects the department headcounts. Every department is recounted in a short transaction of its own:
+ * the department row is locked first, which waits for the employee writes of the department still in flight and holds
+ * off the next ones, so the count taken afterwards is exact and the correction can not race a concurrent write.
+ */
+@Service("departmentHeadcountReconciliationService")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DepartmentHeadcountReconciliationServiceImpl implements DepartmentHeadcountReconciliationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DepartmentHeadcountReconciliationServiceImpl.class);
+
+    private DepartmentEntityRepository departmentEntityRepository;
+    private PlatformTransactionManager transactionManager;
+
+    private final Counter correctedCounter;
+
+    public DepartmentHeadcountReconciliationServiceImpl(final DepartmentEntityRepository departmentEntityRepository,
+                                                        final PlatformTransactionManager transactionManager,
+                                                        final MeterRegistry meterRegistry) {
+
+        this.departmentEntityRepository = departmentEntityRepository;
+        this.transactionManager = transactionManager;
+
+        this.correctedCounter = Counter.builder("hrms.department.headcount.corrected")
+                .description("Number of department headcounts corrected by the reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int reconcileHeadcounts() {
+
+        TransactionTemplate departmentTransaction = new TransactionTemplate(this.transactionManager);
+        departmentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        List<Long> departmentIds = this.departmentEntityRepository.findAllDepartIds();
+        int corrected = 0;
+
+        for (Long departmentId : departmentIds) {
+
+            if(Boolean.TRUE.equals(departmentTransaction.execute(status -> reconcileHeadcount(departmentId)))) {
+
+                corrected++;
+            }
+        }
+
+        if(corrected > 0) {
+
+            correctedCounter.increment(corrected);
+        }
+
+        LOG.debug("Reconciled the headcount of {} departments, {} corrected", departmentIds.size(), corrected);
+
+        return corrected;
+    }
+
+    private boolean reconcileHeadcount(final Long departmentId) {
+
+        // A department deleted in the meantime has nothing to correct
+        Integer headcount = this.departmentEntityRepository.findHeadcountForUpdate(departmentId).orElse(null);
+
+        if(Util.isNull(headcount)) {
+
+            return false;
+        }
+
+        int counted = (int) this.departmentEntityRepository.countEmployees(departmentId);
+
+        if(counted == headcount) {
+
+            return false;
+        }
+
+        LOG.warn("Headcount of the department {} drifted, correcting {} to {}", departmentId, headcount, counted);
+
+        this.departmentEntityRepository.updateHeadcount(departmentId, counted);
+
+        return true;
+    }
+}
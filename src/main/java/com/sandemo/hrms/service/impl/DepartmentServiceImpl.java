@@ -1,6 +1,8 @@
 package com.sandemo.hrms.service.impl;
 
+import com.sandemo.hrms.cache.DepartmentCache;
 import com.sandemo.hrms.dto.request.DepartmentRequestDto;
+import com.sandemo.hrms.dto.response.DepartmentListResponseDto;
 import com.sandemo.hrms.dto.response.DepartmentResponseDto;
 import com.sandemo.hrms.exception.GenericClientRuntimeException;
 import com.sandemo.hrms.factory.ValidationFactoryService;
@@ -12,12 +14,24 @@ import com.sandemo.hrms.exception.GenericServerRuntimeException;
 import com.sandemo.hrms.repository.DepartmentEntityRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -32,12 +46,15 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private DepartmentEntityRepository departmentEntityRepository;
     private ValidationFactoryService validationFactoryService;
+    private DepartmentCache departmentCache;
 
     public DepartmentServiceImpl(final DepartmentEntityRepository departmentEntityRepository,
-                                 final ValidationFactoryService validationFactoryService) {
+                                 final ValidationFactoryService validationFactoryService,
+                                 final DepartmentCache departmentCache) {
 
         this.departmentEntityRepository = departmentEntityRepository;
         this.validationFactoryService = validationFactoryService;
+        this.departmentCache = departmentCache;
     }
 
     @Override
@@ -50,10 +67,14 @@ public class DepartmentServiceImpl implements DepartmentService {
             this.validationFactoryService.validObject(departmentRequestDto);
 
             // Saving the DepartmentEntity
-            return this.departmentEntityRepository.save(
+            DepartmentEntity departmentEntity = this.departmentEntityRepository.save(
                     DepartmentEntity.builder()
                             .name(departmentRequestDto.getName()).build());
 
+            cacheAfterCommit(departmentEntity);
+
+            return departmentEntity;
+
         } catch (GenericClientRuntimeException | ConstraintViolationException exception) {
 
             throw exception;
@@ -73,7 +94,118 @@ public class DepartmentServiceImpl implements DepartmentService {
             return Optional.empty();
         }
 
-        return this.departmentEntityRepository.findById(departmentId);
+        Optional<DepartmentEntity> cached = this.departmentCache.get(departmentId);
+
+        if(cached.isPresent()) {
+
+            return cached;
+        }
+
+        Optional<DepartmentEntity> departmentEntity = this.departmentEntityRepository.findById(departmentId);
+
+        departmentEntity.ifPresent(this.departmentCache::put);
+
+        return departmentEntity;
+    }
+
+    @Override
+    public List<DepartmentEntity> getDepartmentsByIds(final Collection<Long> departmentIds) {
+
+        if(Util.isNull(departmentIds) || departmentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<DepartmentEntity> departmentEntities = new ArrayList<>(departmentIds.size());
+        Set<Long> missingIds = new LinkedHashSet<>();
+
+        for (Long departmentId : new LinkedHashSet<>(departmentIds)) {
+
+            Optional<DepartmentEntity> cached = this.departmentCache.get(departmentId);
+
+            if(cached.isPresent()) {
+
+                departmentEntities.add(cached.get());
+
+            } else {
+
+                missingIds.add(departmentId);
+            }
+        }
+
+        // Only the departments which are not cached are fetched, still in one query
+        if(!missingIds.isEmpty()) {
+
+            List<DepartmentEntity> fetched = this.departmentEntityRepository.findAllById(missingIds);
+
+            this.departmentCache.putAll(fetched);
+            departmentEntities.addAll(fetched);
+        }
+
+        return departmentEntities;
+    }
+
+    @Override
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public int preloadDepartmentCache() {
+
+        List<DepartmentEntity> departmentEntities = this.departmentEntityRepository.findAll(
+                PageRequest.of(0, this.departmentCache.getMaxSize(), Sort.by("departId"))).getContent();
+
+        this.departmentCache.putAll(departmentEntities);
+
+        LOG.info("Preloaded {} departments into the cache", departmentEntities.size());
+
+        return departmentEntities.size();
+    }
+
+    @Override
+    public DepartmentEntity getDepartmentReference(final Long departmentId) {
+
+        if(Util.isNull(departmentId)) {
+
+            throw new GenericClientRuntimeException("The departmentId must not be null");
+        }
+
+        return this.departmentEntityRepository.getOne(departmentId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, rollbackFor = {Exception.class})
+    public void adjustHeadcounts(final Map<Long, Integer> headcountDeltas) {
+
+        if(Util.isNull(headcountDeltas) || headcountDeltas.isEmpty()) {
+            return;
+        }
+
+        // The departments are locked in ascending id order, so that two transactions moving employees between the
+        // same departments in opposite directions can not deadlock
+        new TreeMap<>(headcountDeltas).forEach((departmentId, delta) -> {
+
+            if(delta != 0) {
+
+                this.departmentEntityRepository.addToHeadcount(departmentId, delta);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public DepartmentListResponseDto getDepartmentList() {
+
+        return DepartmentListResponseDto.builder()
+                .departments(this.departmentEntityRepository.findAllWithHeadcount())
+                .build();
+    }
+
+    /**
+     * The department is cached only once it is committed, so that a rolled back department is never served
+     *
+     * @param departmentEntity
+     */
+    private void cacheAfterCommit(final DepartmentEntity departmentEntity) {
+
+        Util.afterCommit(() -> this.departmentCache.put(departmentEntity));
     }
 
     @Override
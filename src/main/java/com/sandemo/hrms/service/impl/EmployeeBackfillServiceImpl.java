@@ -0,0 +1,538 @@
+package com.sandemo.hrms.service.impl;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.constant.BackfillStatus;
+import com.sandemo.hrms.dto.request.EmployeeBackfillRequestDto;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeBackfillResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.exception.EmployeeBackfillNotFoundException;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeBackfillEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.repository.EmployeeBackfillEntityRepository;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.EmployeeBackfillService;
+import com.sandemo.hrms.service.EmployeeOutboxService;
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service re-publishes the employees as CREATED or UPDATED events, in the background and one job at a time. The
+ * employees are read page by page in the order of their primary key, so only one page is held in memory whatever the
+ * size of the table, and the pages are spaced so that the events are added at the configured rate.
+ *
+ * Every page is read on the primary with its rows share locked, and its events are added to the outbox together with
+ * the checkpoint in the same transaction. A change of one of its employees either commits before the page is read, or
+ * waits for the page to commit and draws a later outbox id, so the relay publishes the backfill events in order with
+ * the live ones. A job which is stopped or fails resumes after the last committed page with the time ranges it was
+ * started with.
+ *
+ * One job runs at a time on an instance. The instance which runs a job leases its row for employee.backfill.lease.ms
+ * and renews the lease with every page, the claim is a versioned update of the row so two instances can not both
+ * claim it. A job which is RUNNING elsewhere is refused until its lease has expired, and a job which was stopped or
+ * taken over meanwhile ends after its current page is rolled back.
+ */
+@Service("employeeBackfillService")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeBackfillServiceImpl implements EmployeeBackfillService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeBackfillServiceImpl.class);
+
+    private static final String BACKFILL_PREFIX = "employee.backfill.";
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int DEFAULT_RATE_PER_SECOND = 1000;
+    private static final long DEFAULT_LEASE_MS = 60000L;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30L;
+    private static final int ERROR_MAX_LENGTH = 500;
+
+    private static final String METRIC_PREFIX = "hrms.employee.backfill.";
+
+    private EmployeeEntityRepository employeeEntityRepository;
+    private EmployeeBackfillEntityRepository employeeBackfillEntityRepository;
+    private EmployeeOutboxService employeeOutboxService;
+    private PlatformTransactionManager transactionManager;
+
+    private final int pageSize;
+    private final long leaseMs;
+    private final RateLimiter rateLimiter;
+
+    // Owner of the leases taken by this instance
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ExecutorService jobExecutor;
+
+    private final Counter publishedCounter;
+    private final Timer pageTimer;
+
+    // The job running on this instance, guarded by this
+    private BackfillJob runningJob;
+
+    public EmployeeBackfillServiceImpl(final EmployeeEntityRepository employeeEntityRepository,
+                                       final EmployeeBackfillEntityRepository employeeBackfillEntityRepository,
+                                       final EmployeeOutboxService employeeOutboxService,
+                                       final PlatformTransactionManager transactionManager,
+                                       final MeterRegistry meterRegistry,
+                                       final Environment environment) {
+
+        this.employeeEntityRepository = employeeEntityRepository;
+        this.employeeBackfillEntityRepository = employeeBackfillEntityRepository;
+        this.employeeOutboxService = employeeOutboxService;
+        this.transactionManager = transactionManager;
+
+        this.pageSize = environment.getProperty(BACKFILL_PREFIX + "page.size", Integer.class, DEFAULT_PAGE_SIZE);
+        this.leaseMs = environment.getProperty(BACKFILL_PREFIX + "lease.ms", Long.class, DEFAULT_LEASE_MS);
+
+        int ratePerSecond = environment.getProperty(BACKFILL_PREFIX + "rate.per.second", Integer.class,
+                DEFAULT_RATE_PER_SECOND);
+
+        this.rateLimiter = new RateLimiter(ratePerSecond);
+
+        if (pageSize <= 0) {
+
+            throw new IllegalArgumentException("Invalid employee backfill page size " + pageSize);
+        }
+
+        // The lease is renewed once per page, it must outlast the pause between two pages
+        long pageIntervalMs = ratePerSecond > 0 ? TimeUnit.SECONDS.toMillis(pageSize) / ratePerSecond : 0L;
+
+        if (leaseMs <= pageIntervalMs) {
+
+            throw new IllegalArgumentException("The employee backfill lease of " + leaseMs
+                    + "ms must be longer than the " + pageIntervalMs + "ms between two pages");
+        }
+
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+
+            Thread thread = new Thread(runnable, "employee-backfill");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        this.publishedCounter = Counter.builder(METRIC_PREFIX + "published")
+                .description("Number of employee events added to the outbox by the backfill")
+                .register(meterRegistry);
+        this.pageTimer = Timer.builder(METRIC_PREFIX + "page")
+                .description("Time taken to read one page of the backfill and add its events to the outbox")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public EmployeeBackfillResponseDto startBackfill(final EmployeeBackfillRequestDto employeeBackfillRequestDto) {
+
+        validateRange("created", employeeBackfillRequestDto.getCreatedFrom(), employeeBackfillRequestDto.getCreatedTo());
+        validateRange("updated", employeeBackfillRequestDto.getUpdatedFrom(), employeeBackfillRequestDto.getUpdatedTo());
+
+        String jobName = employeeBackfillRequestDto.getJobName().trim();
+
+        synchronized (this) {
+
+            if (Util.isNotNull(runningJob)) {
+
+                throw new GenericClientRuntimeException("The backfill job " + runningJob.jobName + " is running");
+            }
+
+            ZonedDateTime now = ZonedDateTime.now();
+            EmployeeBackfillEntity employeeBackfillEntity = this.employeeBackfillEntityRepository.findById(jobName)
+                    .orElse(null);
+
+            if (Util.isNull(employeeBackfillEntity)) {
+
+                employeeBackfillEntity = EmployeeBackfillEntity.builder()
+                        .jobName(jobName)
+                        .createdFrom(employeeBackfillRequestDto.getCreatedFrom())
+                        .createdTo(employeeBackfillRequestDto.getCreatedTo())
+                        .updatedFrom(employeeBackfillRequestDto.getUpdatedFrom())
+                        .updatedTo(employeeBackfillRequestDto.getUpdatedTo())
+                        .published(0L)
+                        .startedAt(now)
+                        .build();
+
+            } else if (BackfillStatus.COMPLETED == employeeBackfillEntity.getStatus()) {
+
+                return toEmployeeBackfillResponseDto(employeeBackfillEntity);
+
+            } else if (isLeased(employeeBackfillEntity, now)) {
+
+                throw new GenericClientRuntimeException("The backfill job " + jobName
+                        + " is running on another instance");
+
+            } else {
+
+                LOG.info("Resuming the backfill job {} after the employee {}", jobName,
+                        employeeBackfillEntity.getLastEmployeeIdPk());
+            }
+
+            employeeBackfillEntity.setStatus(BackfillStatus.RUNNING);
+            employeeBackfillEntity.setError(null);
+            employeeBackfillEntity.setUpdatedAt(now);
+            employeeBackfillEntity.setOwner(owner);
+            employeeBackfillEntity.setLockedUntil(now.plus(Duration.ofMillis(leaseMs)));
+
+            EmployeeBackfillEntity started;
+
+            try {
+
+                // The version of the row read above, or its primary key for a new job, fails a concurrent claim
+                started = this.employeeBackfillEntityRepository.save(employeeBackfillEntity);
+
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException exception) {
+
+                throw new GenericClientRuntimeException("The backfill job " + jobName
+                        + " has just been started by another instance", exception);
+            }
+
+            BackfillJob backfillJob = new BackfillJob(jobName);
+
+            runningJob = backfillJob;
+            jobExecutor.execute(() -> run(backfillJob, started));
+
+            return toEmployeeBackfillResponseDto(started);
+        }
+    }
+
+    @Override
+    public EmployeeBackfillResponseDto stopBackfill(final String jobName) {
+
+        EmployeeBackfillEntity employeeBackfillEntity = findEmployeeBackfill(jobName);
+
+        synchronized (this) {
+
+            if (Util.isNotNull(runningJob) && runningJob.jobName.equals(employeeBackfillEntity.getJobName())) {
+
+                LOG.info("Stopping the backfill job {} once its current page is committed", jobName);
+
+                runningJob.stopRequested = true;
+
+                return toEmployeeBackfillResponseDto(employeeBackfillEntity);
+            }
+        }
+
+        // A job running elsewhere loses its lease and ends after its current page, one left running by an instance which
+        // went down is only marked as stopped
+        if (BackfillStatus.RUNNING == employeeBackfillEntity.getStatus()) {
+
+            employeeBackfillEntity.setStatus(BackfillStatus.STOPPED);
+            employeeBackfillEntity.setUpdatedAt(ZonedDateTime.now());
+            employeeBackfillEntity.setOwner(null);
+            employeeBackfillEntity.setLockedUntil(null);
+            employeeBackfillEntity = this.employeeBackfillEntityRepository.save(employeeBackfillEntity);
+        }
+
+        return toEmployeeBackfillResponseDto(employeeBackfillEntity);
+    }
+
+    @Override
+    public EmployeeBackfillResponseDto getBackfill(final String jobName) {
+
+        return toEmployeeBackfillResponseDto(findEmployeeBackfill(jobName));
+    }
+
+    /**
+     * Stops the running job after its current page and waits for it to save its checkpoint
+     */
+    @PreDestroy
+    public void close() {
+
+        synchronized (this) {
+
+            if (Util.isNotNull(runningJob)) {
+
+                runningJob.stopRequested = true;
+            }
+        }
+
+        jobExecutor.shutdown();
+
+        try {
+
+            if (!jobExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+
+                LOG.warn("The backfill job did not stop in time, it resumes from its last checkpoint");
+            }
+
+        } catch (InterruptedException exception) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(final BackfillJob backfillJob, final EmployeeBackfillEntity employeeBackfillEntity) {
+
+        EmployeeBackfillEntity checkpoint = employeeBackfillEntity;
+
+        try {
+
+            // Not read-only, so the page is read on the primary where its events are added
+            TransactionTemplate pageTransaction = new TransactionTemplate(this.transactionManager);
+            pageTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            EmployeeListRequestDto filter = EmployeeListRequestDto.builder()
+                    .createdFrom(checkpoint.getCreatedFrom())
+                    .createdTo(checkpoint.getCreatedTo())
+                    .updatedFrom(checkpoint.getUpdatedFrom())
+                    .updatedTo(checkpoint.getUpdatedTo())
+                    .build();
+
+            while (!backfillJob.stopRequested) {
+
+                rateLimiter.acquire(pageSize);
+
+                Timer.Sample sample = Timer.start();
+
+                Long afterEmployeeIdPk = checkpoint.getLastEmployeeIdPk();
+                long published = checkpoint.getPublished();
+                EmployeeBackfillEntity committed = pageTransaction.execute(status ->
+                        addPage(backfillJob.jobName, filter, afterEmployeeIdPk));
+
+                if (Util.isNull(committed)) {
+
+                    break;
+                }
+
+                sample.stop(pageTimer);
+
+                publishedCounter.increment(committed.getPublished() - published);
+                checkpoint = committed;
+            }
+
+            finish(checkpoint, backfillJob.stopRequested ? BackfillStatus.STOPPED : BackfillStatus.COMPLETED, null);
+
+        } catch (InterruptedException exception) {
+
+            Thread.currentThread().interrupt();
+
+            finish(checkpoint, BackfillStatus.STOPPED, null);
+
+        } catch (OptimisticLockingFailureException exception) {
+
+            // The row belongs to whoever stopped or took over the job, it is left as they saved it
+            LOG.info("The backfill job {} lost its lease after the employee {}", backfillJob.jobName,
+                    checkpoint.getLastEmployeeIdPk());
+
+        } catch (Exception exception) {
+
+            LOG.error("The backfill job {} failed after the employee {}", backfillJob.jobName,
+                    checkpoint.getLastEmployeeIdPk(), exception);
+
+            finish(checkpoint, BackfillStatus.FAILED, exception);
+
+        } finally {
+
+            synchronized (this) {
+
+                runningJob = null;
+            }
+        }
+    }
+
+    /**
+     * Adds the events of the next page to the outbox and moves the checkpoint past it along with the lease, returns the
+     * saved checkpoint or null once there is no employee left. The page is rolled back when the job is no longer leased
+     * to this instance.
+     */
+    private EmployeeBackfillEntity addPage(final String jobName, final EmployeeListRequestDto filter,
+                                           final Long afterEmployeeIdPk) {
+
+        List<EmployeeListItemDto> page = this.employeeEntityRepository.findEmployeePageForShare(filter,
+                afterEmployeeIdPk, pageSize);
+
+        if (page.isEmpty()) {
+
+            return null;
+        }
+
+        Map<EmployeeEventType, List<EmployeeEntity>> employeeEntities = page.stream()
+                .collect(Collectors.groupingBy(EmployeeBackfillServiceImpl::getEmployeeEventType,
+                        Collectors.mapping(EmployeeBackfillServiceImpl::toEmployeeEntity, Collectors.toList())));
+
+        employeeEntities.forEach((employeeEventType, entities) ->
+                this.employeeOutboxService.addEvents(entities, employeeEventType));
+
+        EmployeeBackfillEntity checkpoint = findEmployeeBackfill(jobName);
+
+        if (!owner.equals(checkpoint.getOwner())) {
+
+            throw new OptimisticLockingFailureException("The backfill job " + jobName + " is no longer leased");
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+
+        checkpoint.setLastEmployeeIdPk(page.get(page.size() - 1).getEmployeeIdPk());
+        checkpoint.setPublished(checkpoint.getPublished() + page.size());
+        checkpoint.setUpdatedAt(now);
+        checkpoint.setLockedUntil(now.plus(Duration.ofMillis(leaseMs)));
+
+        return this.employeeBackfillEntityRepository.save(checkpoint);
+    }
+
+    private void finish(final EmployeeBackfillEntity checkpoint, final BackfillStatus status,
+                        final Exception exception) {
+
+        checkpoint.setStatus(status);
+        checkpoint.setUpdatedAt(ZonedDateTime.now());
+        checkpoint.setOwner(null);
+        checkpoint.setLockedUntil(null);
+
+        if (Util.isNotNull(exception)) {
+
+            String error = String.valueOf(exception.getMessage());
+            checkpoint.setError(error.length() > ERROR_MAX_LENGTH ? error.substring(0, ERROR_MAX_LENGTH) : error);
+        }
+
+        try {
+
+            this.employeeBackfillEntityRepository.save(checkpoint);
+
+            LOG.info("The backfill job {} is {} after adding the events of {} employees", checkpoint.getJobName(),
+                    status, checkpoint.getPublished());
+
+        } catch (Exception saveException) {
+
+            LOG.error("The backfill job {} could not be marked as {}", checkpoint.getJobName(), status, saveException);
+        }
+    }
+
+    /**
+     * A lease which is not renewed in time, because its instance went down, no longer holds the job
+     */
+    private static boolean isLeased(final EmployeeBackfillEntity employeeBackfillEntity, final ZonedDateTime now) {
+
+        return BackfillStatus.RUNNING == employeeBackfillEntity.getStatus()
+                && Util.isNotNull(employeeBackfillEntity.getLockedUntil())
+                && employeeBackfillEntity.getLockedUntil().isAfter(now);
+    }
+
+    /**
+     * tsupdated_at starts equal to tscreated_at, an employee which was never updated is published as CREATED
+     */
+    private static EmployeeEventType getEmployeeEventType(final EmployeeListItemDto employee) {
+
+        return Util.isNotNull(employee.getCreateAt()) && Util.isNotNull(employee.getLastUpdatedAt())
+                && employee.getLastUpdatedAt().isAfter(employee.getCreateAt())
+                ? EmployeeEventType.UPDATED : EmployeeEventType.CREATED;
+    }
+
+    private static EmployeeEntity toEmployeeEntity(final EmployeeListItemDto employee) {
+
+        return EmployeeEntity.builder()
+                .employeeIdPk(employee.getEmployeeIdPk())
+                .employeeId(employee.getEmployeeId())
+                .name(employee.getName())
+                .email(employee.getEmail())
+                .dateOfBirth(employee.getDataOfBirth())
+                .departmentEntity(DepartmentEntity.builder()
+                        .departId(employee.getDepartment().getDepartmentId())
+                        .name(employee.getDepartment().getName())
+                        .build())
+                .createdAt(employee.getCreateAt())
+                .updatedAt(employee.getLastUpdatedAt())
+                .build();
+    }
+
+    private static void validateRange(final String field, final ZonedDateTime from, final ZonedDateTime to) {
+
+        if (Util.isNotNull(from) && Util.isNotNull(to) && !from.isBefore(to)) {
+
+            throw new GenericClientRuntimeException("The " + field + " range of the backfill is empty");
+        }
+    }
+
+    private EmployeeBackfillEntity findEmployeeBackfill(final String jobName) {
+
+        return this.employeeBackfillEntityRepository.findById(jobName)
+                .orElseThrow(EmployeeBackfillNotFoundException::new);
+    }
+
+    private static EmployeeBackfillResponseDto toEmployeeBackfillResponseDto(
+            final EmployeeBackfillEntity employeeBackfillEntity) {
+
+        return EmployeeBackfillResponseDto.builder()
+                .jobName(employeeBackfillEntity.getJobName())
+                .status(employeeBackfillEntity.getStatus())
+                .createdFrom(employeeBackfillEntity.getCreatedFrom())
+                .createdTo(employeeBackfillEntity.getCreatedTo())
+                .updatedFrom(employeeBackfillEntity.getUpdatedFrom())
+                .updatedTo(employeeBackfillEntity.getUpdatedTo())
+                .lastEmployeeIdPk(employeeBackfillEntity.getLastEmployeeIdPk())
+                .published(employeeBackfillEntity.getPublished())
+                .error(employeeBackfillEntity.getError())
+                .startedAt(employeeBackfillEntity.getStartedAt())
+                .updatedAt(employeeBackfillEntity.getUpdatedAt())
+                .build();
+    }
+
+    private static final class BackfillJob {
+
+        private final String jobName;
+        private volatile boolean stopRequested;
+
+        private BackfillJob(final String jobName) {
+
+            this.jobName = jobName;
+        }
+    }
+
+    /**
+     * Spaces the pages so that the events are added at the configured rate, without any rate they are not held
+     */
+    private static final class RateLimiter {
+
+        private final long intervalNanos;
+        private long nextPermitAt = System.nanoTime();
+
+        private RateLimiter(final int ratePerSecond) {
+
+            this.intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0L;
+        }
+
+        /**
+         * Waits until the permits taken before are used up, and takes the given ones
+         */
+        private void acquire(final int permits) throws InterruptedException {
+
+            if (intervalNanos == 0L) {
+
+                return;
+            }
+
+            long now = System.nanoTime();
+            long permitAt = Math.max(nextPermitAt, now);
+
+            nextPermitAt = permitAt + intervalNanos * permits;
+
+            if (permitAt > now) {
+
+                TimeUnit.NANOSECONDS.sleep(permitAt - now);
+            }
+        }
+    }
+}
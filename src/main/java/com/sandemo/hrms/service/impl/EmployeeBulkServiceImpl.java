@@ -0,0 +1,402 @@
+package com.sandemo.hrms.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.BulkRowStatus;
+import com.sandemo.hrms.dto.request.EmployeeRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeBulkResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeBulkRowResponseDto;
+import com.sandemo.hrms.exception.DepartmentNotFoundException;
+import com.sandemo.hrms.exception.EmailIdAlreadyExistsException;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.factory.ValidationFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.DepartmentService;
+import com.sandemo.hrms.service.EmployeeBulkService;
+import com.sandemo.hrms.service.EmployeeOutboxService;
+import com.sandemo.hrms.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service provides the methods which are used to create the employee data in bulk.
+ *
+ * The request body is read element by element from the stream and handled in chunks, so that the departments are
+ * looked up with one query per chunk and the employees are inserted with one set-based statement per chunk (see
+ * {@link EmployeeEntityRepository#insertSkippingTakenEmails(List)}). The persistence context is cleared after each
+ * chunk, the whole request still commits or rolls back as one.
+ */
+@Service("employeeBulkService")
+@Transactional(propagation = Propagation.REQUIRED, rollbackFor = {Exception.class})
+public class EmployeeBulkServiceImpl implements EmployeeBulkService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeBulkServiceImpl.class);
+
+    private static final String CHUNK_SIZE_PROPERTY = "employee.bulk.chunk.size";
+    private static final String MAX_ROWS_PROPERTY = "employee.bulk.max.rows";
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final int DEFAULT_MAX_ROWS = 10000;
+
+    private EmployeeEntityRepository employeeEntityRepository;
+    private DepartmentService departmentService;
+    private ValidationFactoryService validationFactoryService;
+    private EmployeeOutboxService employeeOutboxService;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private int chunkSize;
+    private int maxRows;
+
+    public EmployeeBulkServiceImpl(final EmployeeEntityRepository employeeEntityRepository,
+                                   final DepartmentService departmentService,
+                                   final ValidationFactoryService validationFactoryService,
+                                   final EmployeeOutboxService employeeOutboxService,
+                                   final EmployeeSearchIndex employeeSearchIndex,
+                                   final ObjectMapper objectMapper,
+                                   final Environment environment) {
+
+        this.employeeEntityRepository = employeeEntityRepository;
+        this.departmentService = departmentService;
+        this.validationFactoryService = validationFactoryService;
+        this.employeeOutboxService = employeeOutboxService;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.objectMapper = objectMapper;
+
+        this.chunkSize = environment.getProperty(CHUNK_SIZE_PROPERTY, Integer.class, DEFAULT_CHUNK_SIZE);
+        this.maxRows = environment.getProperty(MAX_ROWS_PROPERTY, Integer.class, DEFAULT_MAX_ROWS);
+    }
+
+    @Override
+    public EmployeeBulkResponseDto createEmployeesAndGetResponse(final InputStream inputStream) {
+
+        if(Util.isNull(inputStream)) {
+
+            throw new GenericClientRuntimeException("The request body must not be empty");
+        }
+
+        BulkContext bulkContext = new BulkContext();
+
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(inputStream)) {
+
+            if(parser.nextToken() != JsonToken.START_ARRAY) {
+
+                throw new GenericClientRuntimeException("The request body must be a JSON array");
+            }
+
+            List<BulkRow> chunk = new ArrayList<>(this.chunkSize);
+            JsonToken token;
+
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+
+                if(Util.isNull(token)) {
+
+                    throw new GenericClientRuntimeException("The request body is not a complete JSON array");
+                }
+
+                if(bulkContext.results.size() >= this.maxRows) {
+
+                    throw new GenericClientRuntimeException(
+                            "The request must not contain more than " + this.maxRows + " employees");
+                }
+
+                chunk.add(readRow(bulkContext, parser.readValueAsTree()));
+
+                if(chunk.size() >= this.chunkSize) {
+
+                    processChunk(bulkContext, chunk);
+                    chunk.clear();
+                }
+            }
+
+            processChunk(bulkContext, chunk);
+
+        } catch (GenericClientRuntimeException exception) {
+
+            throw exception;
+
+        } catch (JsonProcessingException exception) {
+
+            throw new GenericClientRuntimeException("Malformed JSON request: " + exception.getOriginalMessage(), exception);
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while creating employees in bulk", exception);
+
+            throw new GenericServerRuntimeException("Unexpected error occurred while creating employees in bulk", exception);
+        }
+
+        int created = bulkContext.indexedEmployees.size();
+
+        LOG.debug("Created {} out of {} employees in bulk", created, bulkContext.results.size());
+
+        // One headcount update per department for the whole request
+        this.departmentService.adjustHeadcounts(bulkContext.headcounts);
+
+        // The created employees become searchable only once committed, a rolled back request never shows up
+        Util.afterCommit(() -> this.employeeSearchIndex.putAll(bulkContext.indexedEmployees));
+
+        return EmployeeBulkResponseDto.builder()
+                .total(bulkContext.results.size())
+                .created(created)
+                .rejected(bulkContext.results.size() - created)
+                .message(ApiResponseMessage.EMP_BULK_CREATE_MESSAGE.getValue())
+                .results(bulkContext.results)
+                .build();
+    }
+
+    /**
+     * Binds one element of the array to EmployeeRequestDto. An element which can not be bound is rejected right away
+     * without affecting the rest of the request.
+     *
+     * @param bulkContext
+     * @param jsonNode
+     * @return
+     */
+    private BulkRow readRow(final BulkContext bulkContext, final JsonNode jsonNode) {
+
+        BulkRow bulkRow = new BulkRow(EmployeeBulkRowResponseDto.builder().index(bulkContext.results.size()).build());
+
+        bulkContext.results.add(bulkRow.result);
+
+        try {
+
+            bulkRow.request = this.objectMapper.treeToValue(jsonNode, EmployeeRequestDto.class);
+
+            if(Util.isNull(bulkRow.request)) {
+
+                reject(bulkRow, "The employee details must not be null");
+            }
+
+        } catch (JsonProcessingException exception) {
+
+            reject(bulkRow, exception.getOriginalMessage());
+        }
+
+        return bulkRow;
+    }
+
+    /**
+     * Validates the rows of the chunk, resolves the departments with one query and inserts the remaining rows with one
+     * statement, a row whose email is taken meanwhile is rejected. The outbox events of the chunk are written before the
+     * persistence context is cleared.
+     *
+     * @param bulkContext
+     * @param chunk
+     */
+    private void processChunk(final BulkContext bulkContext, final List<BulkRow> chunk) {
+
+        List<BulkRow> candidates = new ArrayList<>(chunk.size());
+
+        for (BulkRow bulkRow : chunk) {
+
+            if(isRejected(bulkRow)) {
+
+                continue;
+            }
+
+            try {
+
+                this.validationFactoryService.validObject(bulkRow.request);
+
+            } catch (ConstraintViolationException exception) {
+
+                reject(bulkRow, exception.getConstraintViolations().stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.toList()));
+
+                continue;
+            }
+
+            bulkRow.email = bulkRow.request.getEmail().toLowerCase();
+
+            // The same email id must not be used twice within the request
+            if(!bulkContext.emails.add(bulkRow.email)) {
+
+                reject(bulkRow, EmailIdAlreadyExistsException.MESSAGE);
+
+                continue;
+            }
+
+            candidates.add(bulkRow);
+        }
+
+        if(candidates.isEmpty()) {
+
+            return;
+        }
+
+        resolveDepartments(bulkContext, candidates);
+
+        List<EmployeeEntity> employeeEntities = new ArrayList<>(candidates.size());
+        Map<String, BulkRow> rowsByEmployeeId = new HashMap<>();
+        ZonedDateTime now = ZonedDateTime.now();
+
+        for (BulkRow bulkRow : candidates) {
+
+            DepartmentEntity departmentEntity = bulkContext.departments.get(bulkRow.request.getDepartmentId());
+
+            if(Util.isNull(departmentEntity)) {
+
+                reject(bulkRow, DepartmentNotFoundException.MESSAGE);
+
+                continue;
+            }
+
+            EmployeeEntity employeeEntity = EmployeeEntity.builder()
+                    .employeeId(UUID.randomUUID().toString())                //UUID version 4 is used
+                    .name(bulkRow.request.getName())
+                    .email(bulkRow.email)                                    //Email id will be stored in lower case
+                    .dateOfBirth(bulkRow.request.getDateOfBirth())
+                    .departmentEntity(departmentEntity)
+                    .createdAt(now)
+                    .build();
+
+            employeeEntities.add(employeeEntity);
+            rowsByEmployeeId.put(employeeEntity.getEmployeeId(), bulkRow);
+        }
+
+        if(employeeEntities.isEmpty()) {
+
+            return;
+        }
+
+        // The unique constraint decides which emails are taken, also against a concurrent request which has inserted
+        // the same email since, so such a row is rejected instead of failing the whole request
+        Set<String> insertedIds = this.employeeEntityRepository.insertSkippingTakenEmails(employeeEntities);
+        List<EmployeeEntity> insertedEntities = new ArrayList<>(insertedIds.size());
+
+        for (EmployeeEntity employeeEntity : employeeEntities) {
+
+            BulkRow bulkRow = rowsByEmployeeId.get(employeeEntity.getEmployeeId());
+
+            if(!insertedIds.contains(employeeEntity.getEmployeeId())) {
+
+                reject(bulkRow, EmailIdAlreadyExistsException.MESSAGE);
+
+                continue;
+            }
+
+            bulkRow.result.setStatus(BulkRowStatus.CREATED);
+            bulkRow.result.setEmployeeId(employeeEntity.getEmployeeId());
+
+            insertedEntities.add(employeeEntity);
+            bulkContext.headcounts.merge(employeeEntity.getDepartmentEntity().getDepartId(), 1, Integer::sum);
+            bulkContext.indexedEmployees.add(new EmployeeSearchIndex.IndexedEmployee(employeeEntity.getEmployeeId(),
+                    employeeEntity.getName(), employeeEntity.getEmail(), employeeEntity.getDepartmentEntity().getDepartId()));
+        }
+
+        if(insertedEntities.isEmpty()) {
+
+            return;
+        }
+
+        // Recording the events of the chunk in the outbox, they are published by the relay once committed
+        this.employeeOutboxService.addEvents(insertedEntities, EmployeeEventType.CREATED);
+
+        // Writing the outbox rows and detaching them, so that the persistence context does not grow with the request
+        this.entityManager.flush();
+        this.entityManager.clear();
+    }
+
+    /**
+     * Loads the departments which are referred by the candidates and not resolved by an earlier chunk yet.
+     *
+     * @param bulkContext
+     * @param candidates
+     */
+    private void resolveDepartments(final BulkContext bulkContext, final List<BulkRow> candidates) {
+
+        Set<Long> unresolvedIds = candidates.stream()
+                .map(bulkRow -> bulkRow.request.getDepartmentId())
+                .filter(departmentId -> !bulkContext.departments.containsKey(departmentId))
+                .collect(Collectors.toSet());
+
+        if(unresolvedIds.isEmpty()) {
+
+            return;
+        }
+
+        this.departmentService.getDepartmentsByIds(unresolvedIds)
+                .forEach(departmentEntity -> bulkContext.departments.put(departmentEntity.getDepartId(), departmentEntity));
+
+        // Remembering the unknown ids as well, so that they are not queried again for the next chunk
+        unresolvedIds.forEach(departmentId -> bulkContext.departments.putIfAbsent(departmentId, null));
+    }
+
+    private static boolean isRejected(final BulkRow bulkRow) {
+
+        return BulkRowStatus.REJECTED.equals(bulkRow.result.getStatus());
+    }
+
+    private static void reject(final BulkRow bulkRow, final String error) {
+
+        reject(bulkRow, Collections.singletonList(error));
+    }
+
+    private static void reject(final BulkRow bulkRow, final List<String> errors) {
+
+        bulkRow.result.setStatus(BulkRowStatus.REJECTED);
+        bulkRow.result.setErrors(errors);
+    }
+
+    /**
+     * State which is carried from one chunk to the next, the created employees are only kept with the fields the
+     * headcounts and the search index need
+     */
+    private static class BulkContext {
+
+        private final List<EmployeeBulkRowResponseDto> results = new ArrayList<>();
+        private final Map<Long, Integer> headcounts = new HashMap<>();
+        private final List<EmployeeSearchIndex.IndexedEmployee> indexedEmployees = new ArrayList<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Map<Long, DepartmentEntity> departments = new HashMap<>();
+    }
+
+    private static class BulkRow {
+
+        private final EmployeeBulkRowResponseDto result;
+        private EmployeeRequestDto request;
+        private String email;
+
+        private BulkRow(final EmployeeBulkRowResponseDto result) {
+
+            this.result = result;
+        }
+    }
+}
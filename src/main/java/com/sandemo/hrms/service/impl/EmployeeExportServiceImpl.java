@@ -0,0 +1,120 @@
+package com.sandemo.hrms.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.EmployeeExportService;
+import com.sandemo.hrms.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service streams the employee directory as NDJSON.
+ *
+ * The employees are projections read from a forward-only cursor and serialized one by one through a single
+ * JsonGenerator, nothing is kept per row once it is written. The export runs in one REPEATABLE READ transaction, so
+ * the whole file reflects a single snapshot even though it may take a while to write.
+ */
+@Service("employeeExportService")
+@Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.REPEATABLE_READ, readOnly = true,
+        rollbackFor = {Exception.class})
+public class EmployeeExportServiceImpl implements EmployeeExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeExportServiceImpl.class);
+
+    private static final String FETCH_SIZE_PROPERTY = "employee.export.fetch.size";
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private static final char LINE_SEPARATOR = '\n';
+
+    private EmployeeEntityRepository employeeEntityRepository;
+    private ObjectWriter objectWriter;
+
+    private int fetchSize;
+
+    public EmployeeExportServiceImpl(final EmployeeEntityRepository employeeEntityRepository,
+                                     final ObjectMapper objectMapper,
+                                     final Environment environment) {
+
+        this.employeeEntityRepository = employeeEntityRepository;
+
+        // Flushing is left to the generator buffer, flushing every line would send one chunk per employee
+        this.objectWriter = objectMapper.writerFor(EmployeeListItemDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        this.fetchSize = environment.getProperty(FETCH_SIZE_PROPERTY, Integer.class, DEFAULT_FETCH_SIZE);
+    }
+
+    @Override
+    public long exportEmployees(final OutputStream outputStream) {
+
+        return export(() -> this.employeeEntityRepository.streamAllEmployees(this.fetchSize), outputStream);
+    }
+
+    @Override
+    public long exportDepartmentEmployees(final Long departmentId, final OutputStream outputStream) {
+
+        if(Util.isNull(departmentId)) {
+
+            throw new GenericClientRuntimeException("The departmentId must not be null");
+        }
+
+        return export(() -> this.employeeEntityRepository.streamEmployeesByDepartment(departmentId, this.fetchSize),
+                outputStream);
+    }
+
+    private long export(final Supplier<Stream<EmployeeListItemDto>> loader, final OutputStream outputStream) {
+
+        if(Util.isNull(outputStream)) {
+
+            throw new GenericClientRuntimeException("The output stream must not be null");
+        }
+
+        long exported = 0;
+
+        try (Stream<EmployeeListItemDto> employees = loader.get();
+             JsonGenerator generator = this.objectWriter.getFactory().createGenerator(outputStream)) {
+
+            // The stream belongs to the caller, and the lines are separated explicitly instead of by the root separator
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<EmployeeListItemDto> iterator = employees.iterator();
+
+            while (iterator.hasNext()) {
+
+                this.objectWriter.writeValue(generator, iterator.next());
+                generator.writeRaw(LINE_SEPARATOR);
+
+                exported++;
+            }
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while exporting the employees after {} rows", exported, exception);
+
+            throw new GenericServerRuntimeException("Unexpected error occurred while exporting the employees", exception);
+        }
+
+        LOG.debug("Exported {} employees", exported);
+
+        return exported;
+    }
+}
@@ -0,0 +1,419 @@
+package com.sandemo.hrms.service.impl;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.GlobalConstant;
+import com.sandemo.hrms.dto.request.EmployeeRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeImportResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeImportRowErrorDto;
+import com.sandemo.hrms.exception.DepartmentNotFoundException;
+import com.sandemo.hrms.exception.EmailIdAlreadyExistsException;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.factory.ValidationFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.DepartmentService;
+import com.sandemo.hrms.service.EmployeeImportService;
+import com.sandemo.hrms.service.EmployeeOutboxService;
+import com.sandemo.hrms.util.CsvRecordReader;
+import com.sandemo.hrms.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service imports employees from CSV.
+ *
+ * The CSV is read record by record and handled in chunks: the rows of a chunk are validated in parallel, the departments
+ * are resolved with one look-up and the valid rows are inserted set-based (see
+ * {@link EmployeeEntityRepository#insertSkippingTakenEmails(List)}), with the outbox events, in a transaction of their
+ * own. Only one chunk is held in memory, and the employees of a committed chunk are not rolled back by a later one.
+ */
+@Service("employeeImportService")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeImportServiceImpl.class);
+
+    private static final String CHUNK_SIZE_PROPERTY = "employee.import.chunk.size";
+    private static final String MAX_REPORTED_ERRORS_PROPERTY = "employee.import.max.reported.errors";
+    private static final int DEFAULT_CHUNK_SIZE = 5000;
+    private static final int DEFAULT_MAX_REPORTED_ERRORS = 1000;
+
+    private static final String NAME_COLUMN = "name";
+    private static final String EMAIL_COLUMN = "email";
+    private static final String DATE_OF_BIRTH_COLUMN = "dateOfBirth";
+    private static final String DEPARTMENT_ID_COLUMN = "departmentId";
+    private static final List<String> COLUMNS = Arrays.asList(NAME_COLUMN, EMAIL_COLUMN, DATE_OF_BIRTH_COLUMN,
+            DEPARTMENT_ID_COLUMN);
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(GlobalConstant.DATE_FORMAT);
+
+    private EmployeeEntityRepository employeeEntityRepository;
+    private DepartmentService departmentService;
+    private ValidationFactoryService validationFactoryService;
+    private EmployeeOutboxService employeeOutboxService;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private PlatformTransactionManager transactionManager;
+
+    private int chunkSize;
+    private int maxReportedErrors;
+
+    public EmployeeImportServiceImpl(final EmployeeEntityRepository employeeEntityRepository,
+                                     final DepartmentService departmentService,
+                                     final ValidationFactoryService validationFactoryService,
+                                     final EmployeeOutboxService employeeOutboxService,
+                                     final EmployeeSearchIndex employeeSearchIndex,
+                                     final PlatformTransactionManager transactionManager,
+                                     final Environment environment) {
+
+        this.employeeEntityRepository = employeeEntityRepository;
+        this.departmentService = departmentService;
+        this.validationFactoryService = validationFactoryService;
+        this.employeeOutboxService = employeeOutboxService;
+        this.employeeSearchIndex = employeeSearchIndex;
+
+        this.transactionManager = transactionManager;
+
+        this.chunkSize = environment.getProperty(CHUNK_SIZE_PROPERTY, Integer.class, DEFAULT_CHUNK_SIZE);
+        this.maxReportedErrors = environment.getProperty(MAX_REPORTED_ERRORS_PROPERTY, Integer.class,
+                DEFAULT_MAX_REPORTED_ERRORS);
+    }
+
+    @Override
+    public EmployeeImportResponseDto importEmployees(final InputStream inputStream) {
+
+        if(Util.isNull(inputStream)) {
+
+            throw new GenericClientRuntimeException("The request body must not be empty");
+        }
+
+        ImportContext importContext = new ImportContext(this.transactionManager);
+
+        try (CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+
+            Map<String, Integer> columnIndexes = readHeader(reader.readRecord());
+
+            List<ImportRow> chunk = new ArrayList<>(this.chunkSize);
+            List<String> record;
+
+            while (Util.isNotNull(record = reader.readRecord())) {
+
+                chunk.add(readRow(reader.getRecordLine(), record, columnIndexes));
+
+                if(chunk.size() >= this.chunkSize) {
+
+                    processChunk(importContext, chunk);
+                    chunk.clear();
+                }
+            }
+
+            processChunk(importContext, chunk);
+
+        } catch (GenericClientRuntimeException exception) {
+
+            throw exception;
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while importing employees, {} were created before it", importContext.created, exception);
+
+            throw new GenericServerRuntimeException("Unexpected error occurred while importing employees", exception);
+        }
+
+        LOG.debug("Imported {} out of {} employees", importContext.created, importContext.total);
+
+        return EmployeeImportResponseDto.builder()
+                .total(importContext.total)
+                .created(importContext.created)
+                .rejected(importContext.total - importContext.created)
+                .message(ApiResponseMessage.EMP_IMPORT_MESSAGE.getValue())
+                .errors(importContext.errors)
+                .build();
+    }
+
+    private Map<String, Integer> readHeader(final List<String> header) {
+
+        if(Util.isNull(header)) {
+
+            throw new GenericClientRuntimeException("The CSV must start with a header row");
+        }
+
+        Map<String, Integer> columnIndexes = new HashMap<>();
+
+        for (int index = 0; index < header.size(); index++) {
+
+            columnIndexes.put(header.get(index).trim(), index);
+        }
+
+        List<String> missingColumns = COLUMNS.stream()
+                .filter(column -> !columnIndexes.containsKey(column))
+                .collect(Collectors.toList());
+
+        if(!missingColumns.isEmpty()) {
+
+            throw new GenericClientRuntimeException("The CSV header is missing the columns " + missingColumns);
+        }
+
+        return columnIndexes;
+    }
+
+    /**
+     * Binds one record to EmployeeRequestDto, a record which can not be bound is rejected right away.
+     *
+     * @param line
+     * @param record
+     * @param columnIndexes
+     * @return
+     */
+    private ImportRow readRow(final long line, final List<String> record, final Map<String, Integer> columnIndexes) {
+
+        ImportRow importRow = new ImportRow(line);
+
+        if(record.size() != columnIndexes.size()) {
+
+            importRow.errors = Collections.singletonList("The row must have " + columnIndexes.size() + " columns");
+
+            return importRow;
+        }
+
+        List<String> errors = new ArrayList<>();
+        EmployeeRequestDto request = EmployeeRequestDto.builder()
+                .name(getValue(record, columnIndexes, NAME_COLUMN))
+                .email(getValue(record, columnIndexes, EMAIL_COLUMN))
+                .build();
+
+        String dateOfBirth = getValue(record, columnIndexes, DATE_OF_BIRTH_COLUMN);
+
+        if(Util.isNotNull(dateOfBirth)) {
+
+            try {
+
+                request.setDateOfBirth(LocalDate.parse(dateOfBirth, DATE_FORMATTER));
+
+            } catch (DateTimeParseException exception) {
+
+                errors.add("Date of birth should be in " + GlobalConstant.DATE_FORMAT + " format");
+            }
+        }
+
+        String departmentId = getValue(record, columnIndexes, DEPARTMENT_ID_COLUMN);
+
+        if(Util.isNotNull(departmentId)) {
+
+            try {
+
+                request.setDepartmentId(Long.valueOf(departmentId));
+
+            } catch (NumberFormatException exception) {
+
+                errors.add("Department id should be a number");
+            }
+        }
+
+        if(errors.isEmpty()) {
+
+            importRow.request = request;
+
+        } else {
+
+            importRow.errors = errors;
+        }
+
+        return importRow;
+    }
+
+    private static String getValue(final List<String> record, final Map<String, Integer> columnIndexes,
+                                   final String column) {
+
+        String value = record.get(columnIndexes.get(column)).trim();
+
+        return StringUtils.hasLength(value) ? value : null;
+    }
+
+    /**
+     * Validates the rows of the chunk in parallel, resolves their departments and inserts the valid ones in a
+     * transaction of their own. The rows whose email turns out to be taken are rejected afterwards.
+     *
+     * @param importContext
+     * @param chunk
+     */
+    private void processChunk(final ImportContext importContext, final List<ImportRow> chunk) {
+
+        if(chunk.isEmpty()) {
+
+            return;
+        }
+
+        // Every row only writes its own fields, and the validator is thread safe
+        chunk.parallelStream()
+                .filter(importRow -> Util.isNull(importRow.errors))
+                .forEach(this::validate);
+
+        List<ImportRow> candidates = chunk.stream()
+                .filter(importRow -> Util.isNull(importRow.errors))
+                .collect(Collectors.toList());
+
+        Map<Long, DepartmentEntity> departments = candidates.isEmpty()
+                ? Collections.emptyMap()
+                : this.departmentService.getDepartmentsByIds(candidates.stream()
+                        .map(importRow -> importRow.request.getDepartmentId())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(DepartmentEntity::getDepartId, departmentEntity -> departmentEntity));
+
+        List<EmployeeEntity> employeeEntities = new ArrayList<>(candidates.size());
+        Map<String, ImportRow> rowsByEmployeeId = new HashMap<>();
+        ZonedDateTime now = ZonedDateTime.now();
+
+        for (ImportRow importRow : candidates) {
+
+            DepartmentEntity departmentEntity = departments.get(importRow.request.getDepartmentId());
+
+            if(Util.isNull(departmentEntity)) {
+
+                importRow.errors = Collections.singletonList(DepartmentNotFoundException.MESSAGE);
+
+                continue;
+            }
+
+            EmployeeEntity employeeEntity = EmployeeEntity.builder()
+                    .employeeId(UUID.randomUUID().toString())                //UUID version 4 is used
+                    .name(importRow.request.getName())
+                    .email(importRow.request.getEmail().toLowerCase())       //Email id will be stored in lower case
+                    .dateOfBirth(importRow.request.getDateOfBirth())
+                    .departmentEntity(departmentEntity)
+                    .createdAt(now)
+                    .build();
+
+            employeeEntities.add(employeeEntity);
+            rowsByEmployeeId.put(employeeEntity.getEmployeeId(), importRow);
+        }
+
+        Set<String> insertedIds = employeeEntities.isEmpty() ? Collections.emptySet()
+                : importContext.chunkTransaction.execute(status -> {
+
+                    Set<String> employeeIds = this.employeeEntityRepository.insertSkippingTakenEmails(employeeEntities);
+                    List<EmployeeEntity> insertedEntities = employeeEntities.stream()
+                            .filter(employeeEntity -> employeeIds.contains(employeeEntity.getEmployeeId()))
+                            .collect(Collectors.toList());
+
+                    // One headcount update per department of the chunk
+                    this.departmentService.adjustHeadcounts(insertedEntities.stream()
+                            .collect(Collectors.groupingBy(
+                                    employeeEntity -> employeeEntity.getDepartmentEntity().getDepartId(),
+                                    Collectors.summingInt(employeeEntity -> 1))));
+
+                    // Recording the events in the outbox within the chunk, they are published by the relay once committed
+                    this.employeeOutboxService.addEvents(insertedEntities, EmployeeEventType.CREATED);
+
+                    // The created employees become searchable only once committed, a rolled back chunk never shows up
+                    List<EmployeeSearchIndex.IndexedEmployee> indexedEmployees = insertedEntities.stream()
+                            .map(employeeEntity -> new EmployeeSearchIndex.IndexedEmployee(
+                                    employeeEntity.getEmployeeId(), employeeEntity.getName(), employeeEntity.getEmail(),
+                                    employeeEntity.getDepartmentEntity().getDepartId()))
+                            .collect(Collectors.toList());
+
+                    Util.afterCommit(() -> this.employeeSearchIndex.putAll(indexedEmployees));
+
+                    return employeeIds;
+                });
+
+        rowsByEmployeeId.forEach((employeeId, importRow) -> {
+
+            if(!insertedIds.contains(employeeId)) {
+
+                importRow.errors = Collections.singletonList(EmailIdAlreadyExistsException.MESSAGE);
+            }
+        });
+
+        importContext.total += chunk.size();
+        importContext.created += insertedIds.size();
+
+        for (ImportRow importRow : chunk) {
+
+            if(Util.isNotNull(importRow.errors) && importContext.errors.size() < this.maxReportedErrors) {
+
+                importContext.errors.add(EmployeeImportRowErrorDto.builder()
+                        .line(importRow.line)
+                        .errors(importRow.errors)
+                        .build());
+            }
+        }
+    }
+
+    private void validate(final ImportRow importRow) {
+
+        try {
+
+            this.validationFactoryService.validObject(importRow.request);
+
+        } catch (ConstraintViolationException exception) {
+
+            importRow.errors = exception.getConstraintViolations().stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * State which is carried from one chunk to the next, only the first errors are kept for the response
+     */
+    private static class ImportContext {
+
+        private final List<EmployeeImportRowErrorDto> errors = new ArrayList<>();
+        private final TransactionTemplate chunkTransaction;
+        private long total;
+        private long created;
+
+        private ImportContext(final PlatformTransactionManager transactionManager) {
+
+            this.chunkTransaction = new TransactionTemplate(transactionManager);
+            this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+    }
+
+    private static class ImportRow {
+
+        private final long line;
+        private EmployeeRequestDto request;
+        private List<String> errors;
+
+        private ImportRow(final long line) {
+
+            this.line = line;
+        }
+    }
+}
@@ -1,106 +1,241 @@
 package com.sandemo.hrms.service.impl;
 
-import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.EmployeeEventData;
+import com.sandemo.hrms.constant.EmployeeEventKeyEncoding;
+import com.sandemo.hrms.constant.EmployeeEventSchemaMode;
+import com.sandemo.hrms.dispatch.EmployeeEventConflator;
+import com.sandemo.hrms.dispatch.EmployeeEventDispatcher;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.service.DepartmentService;
 import com.sandemo.hrms.service.KafkaProducerService;
 import com.sandemo.hrms.util.Util;
-import com.sandemo.hrms.EmployeeEventData;
 import com.sandemo.hrms.EmployeeEventKey;
 import com.sandemo.hrms.EmployeeEventType;
 import com.sandemo.hrms.EmployeeEventValue;
-import com.sandemo.hrms.constant.GlobalConstant;
 import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
-import java.time.ZonedDateTime;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
  *
- * This service is in charge of producing employee Kafka event
+ * This service is in charge of producing employee Kafka event. The events first go through the conflation, which may
+ * hold them back and drop the ones replaced by a later event of the same employee, and then through the event
+ * dispatcher, which either hands them to its sender threads or runs them on the calling thread.
+ *
+ * The events are built in the v1 form, the v2 form is derived from it when kafka.producer.employee.schema.mode publishes
+ * v2 events. In the dual mode both forms of an event are sent in the same dispatch, and the event counts as sent once
+ * both of them are acknowledged.
+ *
+ * The time from handing an event to the producer until it is acknowledged is timed as hrms.kafka.send.ack, tagged with
+ * the event type and the outcome, with a histogram to derive the percentiles from.
  */
 @Service("employeeKafkaProducerService")
 public class EmployeeKafkaProducerServiceImpl implements KafkaProducerService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeKafkaProducerServiceImpl.class);
+
     private static final String TOPIC_NAME_PROPERTY = "kafka.producer.employee.topic";
+    private static final String V2_PREFIX = "kafka.producer.employee.v2.";
+    private static final String SCHEMA_MODE_PROPERTY = "kafka.producer.employee.schema.mode";
+    private static final String SEND_ACK_METRIC = "hrms.kafka.send.ack";
 
     private Environment environment;
     private KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate;
+    private KafkaTemplate<Object, GenericRecord> employeeEventV2KafkaTemplate;
+    private EmployeeEventFactoryService employeeEventFactoryService;
+    private DepartmentService departmentService;
+    private EmployeeEventConflator employeeEventConflator;
+    private EmployeeEventDispatcher employeeEventDispatcher;
 
     private String employeeEventTopic;
+    private String employeeEventV2Topic;
+    private EmployeeEventSchemaMode schemaMode = EmployeeEventSchemaMode.V1;
+    private EmployeeEventKeyEncoding v2KeyEncoding = EmployeeEventKeyEncoding.AVRO;
+    private boolean v2DepartmentNameEnabled;
+
+    private final Map<EmployeeEventType, Timer> ackTimers = new EnumMap<>(EmployeeEventType.class);
+    private final Map<EmployeeEventType, Timer> failedTimers = new EnumMap<>(EmployeeEventType.class);
 
     public EmployeeKafkaProducerServiceImpl(final Environment environment,
-                                            final KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate) {
+                                            final KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate,
+                                            final KafkaTemplate<Object, GenericRecord> employeeEventV2KafkaTemplate,
+                                            final EmployeeEventFactoryService employeeEventFactoryService,
+                                            final DepartmentService departmentService,
+                                            final EmployeeEventConflator employeeEventConflator,
+                                            final EmployeeEventDispatcher employeeEventDispatcher,
+                                            final MeterRegistry meterRegistry) {
 
         this.environment = environment;
         this.kafkaTemplate = kafkaTemplate;
+        this.employeeEventV2KafkaTemplate = employeeEventV2KafkaTemplate;
+        this.employeeEventFactoryService = employeeEventFactoryService;
+        this.departmentService = departmentService;
+        this.employeeEventConflator = employeeEventConflator;
+        this.employeeEventDispatcher = employeeEventDispatcher;
+
+        for (EmployeeEventType employeeEventType : EmployeeEventType.values()) {
+
+            this.ackTimers.put(employeeEventType, sendAckTimer(meterRegistry, employeeEventType, "acknowledged"));
+            this.failedTimers.put(employeeEventType, sendAckTimer(meterRegistry, employeeEventType, "failed"));
+        }
     }
 
     @PostConstruct
     private void init() {
 
-        this.employeeEventTopic = this.environment.getRequiredProperty(TOPIC_NAME_PROPERTY);
+        this.schemaMode = EmployeeEventSchemaMode.valueOf(this.environment.getProperty(SCHEMA_MODE_PROPERTY,
+                EmployeeEventSchemaMode.V1.name()).trim().toUpperCase());
+
+        if (this.schemaMode.publishesV1()) {
+
+            this.employeeEventTopic = this.environment.getRequiredProperty(TOPIC_NAME_PROPERTY);
+        }
+
+        if (this.schemaMode.publishesV2()) {
+
+            this.employeeEventV2Topic = this.environment.getRequiredProperty(V2_PREFIX + "topic");
+            this.v2KeyEncoding = EmployeeEventKeyEncoding.valueOf(this.environment.getProperty(
+                    V2_PREFIX + "key.encoding", EmployeeEventKeyEncoding.AVRO.name()).trim().toUpperCase());
+            this.v2DepartmentNameEnabled = this.environment.getProperty(V2_PREFIX + "department.name.enabled",
+                    Boolean.class, Boolean.FALSE);
+        }
+
+        LOG.info("The employee events are published with the {} schema", this.schemaMode);
     }
 
     /**
-     * This method is in charge for building the message and sending it to Kafka topic.
+     * This method is in charge for sending an already built event to Kafka topic without waiting for it. Consecutive
+     * calls are pipelined by the producer, the returned future completes once the broker has acknowledged the record.
      *
-     * @param employeeEntity
-     * @param employeeEventType
+     * @param employeeEventKey
+     * @param employeeEventValue
+     * @return
      */
     @Override
-    public void sendMessage(final EmployeeEntity employeeEntity, final EmployeeEventType employeeEventType) {
+    public CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> sendEvent(
+            final EmployeeEventKey employeeEventKey, final EmployeeEventValue employeeEventValue) {
 
-        if(Util.isNull(employeeEntity) || Util.isNull(employeeEventType)) {
+        if(Util.isNull(employeeEventKey) || Util.isNull(employeeEventValue)) {
 
             throw new GenericServerRuntimeException("The method argument must not be null");
         }
 
-        this.kafkaTemplate.send(employeeEventTopic,
-                getEmployeeEventKey(employeeEntity.getEmployeeId()),
-                getEmployeeEventValue(employeeEntity, employeeEventType));
+        return send(employeeEventKey, employeeEventValue);
     }
 
     /**
-     * This method is in charge of building the Employee event key
+     * The events of an employee are conflated and dispatched by their employeeId, so they keep their order
      *
-     * @param employeeId
+     * @param employeeEventKey
+     * @param employeeEventValue
      * @return
      */
-    private EmployeeEventKey getEmployeeEventKey(final String employeeId) {
+    private CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> send(
+            final EmployeeEventKey employeeEventKey, final EmployeeEventValue employeeEventValue) {
 
-        return EmployeeEventKey.newBuilder().setEmployeeId(employeeId).build();
+        String employeeId = String.valueOf(employeeEventKey.getEmployeeId());
+
+        return this.employeeEventConflator.conflate(employeeId, employeeEventValue.getType(), () ->
+                this.employeeEventDispatcher.dispatch(employeeId, () -> publish(employeeEventKey, employeeEventValue)));
     }
 
-    /**
-     * This method is in charge of building the Employee event value.
-     *
-     * @param employeeEntity
-     * @param employeeEventType
-     * @return
-     */
-    private EmployeeEventValue getEmployeeEventValue(final EmployeeEntity employeeEntity,
-                                                     final EmployeeEventType employeeEventType) {
-
-        return EmployeeEventValue.newBuilder()
-                .setTime(Util.getFormattedTimestamp(ZonedDateTime.now()))
-                .setType(employeeEventType)
-                .setAppName(GlobalConstant.APP_NAME)
-                .setData(
-                        employeeEventType.equals(EmployeeEventType.DELETED)
-                                ? null :                                                // Event data will be null for the DELETE event
-                                EmployeeEventData.newBuilder()
-                                        .setName(employeeEntity.getName())
-                                        .setEmail(employeeEntity.getEmail())
-                                        .setDepartmentId(employeeEntity.getDepartmentEntity().getDepartId())
-                                        .setDateOfBirth(Util.getFormattedDate(employeeEntity.getDateOfBirth()))
-                                        .setCreatedAt(Util.getFormattedTimestamp(employeeEntity.getCreatedAt()))
-                                        .setUpdatedAt(Util.getFormattedTimestamp(employeeEntity.getUpdatedAt()))
-                                        .build()
-
-                        )
-                .build();
+    private CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> publish(
+            final EmployeeEventKey employeeEventKey, final EmployeeEventValue employeeEventValue) {
+
+        long start = System.nanoTime();
+        EmployeeEventType employeeEventType = employeeEventValue.getType();
+
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> future =
+                publishWithSchema(employeeEventKey, employeeEventValue);
+
+        future.whenComplete((sendResult, exception) ->
+                (Util.isNull(exception) ? this.ackTimers : this.failedTimers).get(employeeEventType)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+
+        return future;
+    }
+
+    private CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> publishWithSchema(
+            final EmployeeEventKey employeeEventKey, final EmployeeEventValue employeeEventValue) {
+
+        switch (this.schemaMode) {
+
+            case V2:
+
+                // Reported as the v1 event it was derived from, with the metadata of the v2 record
+                return sendV2(employeeEventKey, employeeEventValue).thenApply(sendResult -> new SendResult<>(
+                        new ProducerRecord<>(employeeEventV2Topic, employeeEventKey, employeeEventValue),
+                        sendResult.getRecordMetadata()));
+
+            case DUAL:
+
+                CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> v1 =
+                        sendV1(employeeEventKey, employeeEventValue);
+
+                return v1.thenCombine(sendV2(employeeEventKey, employeeEventValue), (sendResult, v2) -> sendResult);
+
+            default:
+
+                return sendV1(employeeEventKey, employeeEventValue);
+        }
+    }
+
+    private CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> sendV1(
+            final EmployeeEventKey employeeEventKey, final EmployeeEventValue employeeEventValue) {
+
+        return this.kafkaTemplate.send(employeeEventTopic, employeeEventKey, employeeEventValue).completable();
+    }
+
+    private CompletableFuture<SendResult<Object, GenericRecord>> sendV2(
+            final EmployeeEventKey employeeEventKey, final EmployeeEventValue employeeEventValue) {
+
+        Object key = EmployeeEventKeyEncoding.STRING == this.v2KeyEncoding
+                ? String.valueOf(employeeEventKey.getEmployeeId()) : employeeEventKey;
+
+        return this.employeeEventV2KafkaTemplate.send(employeeEventV2Topic, key,
+                this.employeeEventFactoryService.getEmployeeEventValueV2(employeeEventValue,
+                        getDepartmentName(employeeEventValue.getData()))).completable();
+    }
+
+    private String getDepartmentName(final EmployeeEventData employeeEventData) {
+
+        if (!this.v2DepartmentNameEnabled || Util.isNull(employeeEventData)) {
+
+            return null;
+        }
+
+        return this.departmentService.getDepartmentById(employeeEventData.getDepartmentId())
+                .map(DepartmentEntity::getName)
+                .orElse(null);
+    }
+
+    private static Timer sendAckTimer(final MeterRegistry meterRegistry, final EmployeeEventType employeeEventType,
+                                      final String outcome) {
+
+        return Timer.builder(SEND_ACK_METRIC)
+                .tag("type", employeeEventType.name())
+                .tag("outcome", outcome)
+                .description("Time from handing the event to the producer until the broker acknowledged it")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,174 @@
+package com.sandemo.hrms.service.impl;
+
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.EmployeeListService;
+import com.sandemo.hrms.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service provides the keyset paginated listing of the employees.
+ *
+ * Every page is read with one more row than requested, the extra row only tells whether a next page exists. The cursor
+ * of the next page is the sort key of the last employee returned, encoded so that clients treat it as opaque.
+ */
+@Service("employeeListService")
+@Transactional(propagation = Propagation.REQUIRED, readOnly = true, rollbackFor = {Exception.class})
+public class EmployeeListServiceImpl implements EmployeeListService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeListServiceImpl.class);
+
+    private static final String DEFAULT_PAGE_SIZE_PROPERTY = "employee.list.default.page.size";
+    private static final String MAX_PAGE_SIZE_PROPERTY = "employee.list.max.page.size";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String CURSOR_SEPARATOR_REGEX = "\\|";
+
+    private EmployeeEntityRepository employeeEntityRepository;
+
+    private int defaultPageSize;
+    private int maxPageSize;
+
+    public EmployeeListServiceImpl(final EmployeeEntityRepository employeeEntityRepository,
+                                   final Environment environment) {
+
+        this.employeeEntityRepository = employeeEntityRepository;
+
+        this.defaultPageSize = environment.getProperty(DEFAULT_PAGE_SIZE_PROPERTY, Integer.class, DEFAULT_PAGE_SIZE);
+        this.maxPageSize = environment.getProperty(MAX_PAGE_SIZE_PROPERTY, Integer.class, MAX_PAGE_SIZE);
+    }
+
+    @Override
+    public EmployeeListResponseDto getEmployees(final EmployeeListRequestDto employeeListRequestDto) {
+
+        if(Util.isNull(employeeListRequestDto)) {
+
+            throw new GenericClientRuntimeException("The employee list request must not be null");
+        }
+
+        int pageSize = Util.isNull(employeeListRequestDto.getSize()) ? this.defaultPageSize : employeeListRequestDto.getSize();
+
+        if(pageSize < 1 || pageSize > this.maxPageSize) {
+
+            throw new GenericClientRuntimeException("The size must be between 1 and " + this.maxPageSize);
+        }
+
+        EmployeeListSort sort = Util.isNull(employeeListRequestDto.getSort())
+                ? EmployeeListSort.ID : employeeListRequestDto.getSort();
+
+        try {
+
+            Long afterEmployeeIdPk = null;
+            ZonedDateTime afterUpdatedAt = null;
+
+            if(StringUtils.hasText(employeeListRequestDto.getCursor())) {
+
+                String[] position = decodeCursor(employeeListRequestDto.getCursor(), sort);
+
+                afterEmployeeIdPk = Long.valueOf(position[1]);
+                afterUpdatedAt = sort == EmployeeListSort.UPDATED_AT
+                        ? ZonedDateTime.ofInstant(Instant.parse(position[2]), ZoneOffset.UTC)
+                        : null;
+            }
+
+            List<EmployeeListItemDto> employees = this.employeeEntityRepository.findEmployeePage(
+                    employeeListRequestDto, sort, afterEmployeeIdPk, afterUpdatedAt, pageSize + 1);
+
+            String nextCursor = null;
+
+            if(employees.size() > pageSize) {
+
+                employees = employees.subList(0, pageSize);
+                nextCursor = encodeCursor(employees.get(pageSize - 1), sort);
+            }
+
+            LOG.debug("Listed {} employees, more available: {}", employees.size(), Util.isNotNull(nextCursor));
+
+            return EmployeeListResponseDto.builder()
+                    .employees(employees)
+                    .nextCursor(nextCursor)
+                    .build();
+
+        } catch (GenericClientRuntimeException exception) {
+
+            throw exception;
+
+        } catch (Exception exception) {
+
+            LOG.error("Exception while listing the employees", exception);
+
+            throw new GenericServerRuntimeException("Unexpected error occurred while listing the employees", exception);
+        }
+    }
+
+    private String encodeCursor(final EmployeeListItemDto lastEmployee, final EmployeeListSort sort) {
+
+        StringBuilder position = new StringBuilder(sort.name())
+                .append(CURSOR_SEPARATOR).append(lastEmployee.getEmployeeIdPk());
+
+        if(sort == EmployeeListSort.UPDATED_AT) {
+
+            // The instant keeps the full precision of the column, the formatted response value does not
+            position.append(CURSOR_SEPARATOR).append(lastEmployee.getLastUpdatedAt().toInstant());
+        }
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(final String cursor, final EmployeeListSort sort) {
+
+        try {
+
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_SEPARATOR_REGEX);
+
+            int expectedLength = sort == EmployeeListSort.UPDATED_AT ? 3 : 2;
+
+            if(position.length != expectedLength || !sort.name().equals(position[0])) {
+
+                throw new GenericClientRuntimeException("The cursor does not belong to the " + sort + " order");
+            }
+
+            // Validating the values here, so that a tampered cursor is reported as a client error
+            Long.parseLong(position[1]);
+
+            if(sort == EmployeeListSort.UPDATED_AT) {
+
+                Instant.parse(position[2]);
+            }
+
+            return position;
+
+        } catch (GenericClientRuntimeException exception) {
+
+            throw exception;
+
+        } catch (RuntimeException exception) {
+
+            throw new GenericClientRuntimeException("The cursor is not valid", exception);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.sandemo.hrms.service.impl;
+
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.model.EmployeeOutboxEntity;
+import com.sandemo.hrms.repository.EmployeeOutboxEntityRepository;
+import com.sandemo.hrms.service.EmployeeOutboxRelayService;
+import com.sandemo.hrms.service.KafkaProducerService;
+import com.sandemo.hrms.util.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service relays the outbox to Kafka. A batch is leased to this relay in a short transaction, all its events are
+ * handed to the producer back to back without holding any lock or connection, and a second short transaction deletes
+ * the acknowledged rows and releases the lease of the others. The rows are deleted only up to the first failed event,
+ * that one and everything after it are sent again with the next batch.
+ *
+ * The claims of the relays are serialized, and a row is not claimed while an earlier event of the same employee is
+ * leased by another relay, so several instances can relay the outbox and the events of an employee still keep their
+ * order. The lease of a relay which went down expires after outbox.relay.lease.ms, which has to be longer than the
+ * send timeout so that a lease never expires while its events are still being sent.
+ */
+@Service("employeeOutboxRelayService")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeOutboxRelayServiceImpl implements EmployeeOutboxRelayService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeOutboxRelayServiceImpl.class);
+
+    private static final String OUTBOX_RELAY_PREFIX = "outbox.relay.";
+    private static final int DEFAULT_BATCH_SIZE = 200;
+    private static final long DEFAULT_SEND_TIMEOUT_MS = 30000L;
+    private static final long DEFAULT_LEASE_MS = 60000L;
+
+    // Key of the advisory lock which serializes the claims of the relays
+    private static final long RELAY_CLAIM_LOCK_ID = "emp.employee_outbox".hashCode();
+
+    private static final String METRIC_PREFIX = "hrms.outbox.relay.";
+
+    private EmployeeOutboxEntityRepository employeeOutboxEntityRepository;
+    private EmployeeEventFactoryService employeeEventFactoryService;
+    private KafkaProducerService employeeKafkaProducerService;
+    private PlatformTransactionManager transactionManager;
+
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long leaseMs;
+
+    // Owner of the leases taken by this relay
+    private final String relayOwner = UUID.randomUUID().toString();
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer lagTimer;
+    private final Timer batchTimer;
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+
+    public EmployeeOutboxRelayServiceImpl(final EmployeeOutboxEntityRepository employeeOutboxEntityRepository,
+                                          final EmployeeEventFactoryService employeeEventFactoryService,
+                                          final KafkaProducerService employeeKafkaProducerService,
+                                          final PlatformTransactionManager transactionManager,
+                                          final MeterRegistry meterRegistry,
+                                          final Environment environment) {
+
+        this.employeeOutboxEntityRepository = employeeOutboxEntityRepository;
+        this.employeeEventFactoryService = employeeEventFactoryService;
+        this.employeeKafkaProducerService = employeeKafkaProducerService;
+        this.transactionManager = transactionManager;
+
+        this.batchSize = environment.getProperty(OUTBOX_RELAY_PREFIX + "batch.size", Integer.class, DEFAULT_BATCH_SIZE);
+        this.sendTimeoutMs = environment.getProperty(OUTBOX_RELAY_PREFIX + "send.timeout.ms", Long.class,
+                DEFAULT_SEND_TIMEOUT_MS);
+        this.leaseMs = environment.getProperty(OUTBOX_RELAY_PREFIX + "lease.ms", Long.class, DEFAULT_LEASE_MS);
+
+        if(leaseMs <= sendTimeoutMs) {
+
+            throw new IllegalArgumentException("The outbox relay lease of " + leaseMs
+                    + "ms must be longer than the send timeout of " + sendTimeoutMs + "ms");
+        }
+
+        this.publishedCounter = Counter.builder(METRIC_PREFIX + "published")
+                .description("Number of outbox events published to Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(METRIC_PREFIX + "failed")
+                .description("Number of outbox events which could not be published and are retried")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder(METRIC_PREFIX + "lag")
+                .description("Time from writing the event to the outbox until Kafka acknowledged it")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder(METRIC_PREFIX + "batch")
+                .description("Time taken to relay one outbox batch")
+                .register(meterRegistry);
+
+        Gauge.builder(METRIC_PREFIX + "oldest.pending.age", oldestPendingAgeMs, AtomicLong::get)
+                .description("Age in milliseconds of the oldest outbox event seen by the last relay run")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int relayNextBatch() {
+
+        Timer.Sample sample = Timer.start();
+
+        try {
+
+            List<EmployeeOutboxEntity> outboxEntities = newTransaction().execute(status -> claimNextBatch());
+
+            // Another relay is claiming its batch, this one tries again on its next run
+            if(Util.isNull(outboxEntities)) {
+
+                return 0;
+            }
+
+            if(outboxEntities.isEmpty()) {
+
+                oldestPendingAgeMs.set(0);
+
+                return 0;
+            }
+
+            oldestPendingAgeMs.set(ageOf(outboxEntities.get(0)).toMillis());
+
+            List<Long> publishedIds = new ArrayList<>(outboxEntities.size());
+
+            try {
+
+                publish(outboxEntities, publishedIds);
+
+            } finally {
+
+                newTransaction().executeWithoutResult(status -> {
+
+                    if(!publishedIds.isEmpty()) {
+
+                        this.employeeOutboxEntityRepository.deleteByIds(publishedIds);
+                    }
+
+                    this.employeeOutboxEntityRepository.releaseClaims(relayOwner);
+                });
+            }
+
+            publishedCounter.increment(publishedIds.size());
+
+            LOG.debug("Relayed {} out of {} outbox events", publishedIds.size(), outboxEntities.size());
+
+            return publishedIds.size();
+
+        } finally {
+
+            sample.stop(batchTimer);
+        }
+    }
+
+    /**
+     * Leases the next batch to this relay
+     *
+     * @return the leased rows, or null when another relay is claiming its batch
+     */
+    private List<EmployeeOutboxEntity> claimNextBatch() {
+
+        if(!this.employeeOutboxEntityRepository.tryLockRelayClaim(RELAY_CLAIM_LOCK_ID)) {
+
+            return null;
+        }
+
+        ZonedDateTime now = ZonedDateTime.now();
+        List<EmployeeOutboxEntity> outboxEntities =
+                this.employeeOutboxEntityRepository.findNextBatchForRelay(now, PageRequest.of(0, batchSize));
+
+        if(!outboxEntities.isEmpty()) {
+
+            this.employeeOutboxEntityRepository.claimByIds(outboxEntities.stream()
+                    .map(EmployeeOutboxEntity::getOutboxIdPk)
+                    .collect(Collectors.toList()), relayOwner, now.plus(Duration.ofMillis(leaseMs)));
+        }
+
+        return outboxEntities;
+    }
+
+    /**
+     * Sends the events and adds the ids of the acknowledged ones to publishedIds, up to the first failed event
+     *
+     * @param outboxEntities
+     * @param publishedIds
+     */
+    private void publish(final List<EmployeeOutboxEntity> outboxEntities, final List<Long> publishedIds) {
+
+        // Every event is handed to the producer before waiting for any acknowledgement
+        List<CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>>> futures =
+                new ArrayList<>(outboxEntities.size());
+
+        outboxEntities.forEach(outboxEntity -> futures.add(send(outboxEntity)));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+
+        for (int i = 0; i < outboxEntities.size(); i++) {
+
+            EmployeeOutboxEntity outboxEntity = outboxEntities.get(i);
+
+            try {
+
+                futures.get(i).get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+            } catch (InterruptedException exception) {
+
+                Thread.currentThread().interrupt();
+
+                failedCounter.increment(outboxEntities.size() - i);
+
+                return;
+
+            } catch (Exception exception) {
+
+                LOG.warn("The outbox event {} for the employee {} could not be published, {} events are retried",
+                        outboxEntity.getOutboxIdPk(), outboxEntity.getEmployeeId(), outboxEntities.size() - i,
+                        exception);
+
+                failedCounter.increment(outboxEntities.size() - i);
+
+                return;
+            }
+
+            publishedIds.add(outboxEntity.getOutboxIdPk());
+            lagTimer.record(ageOf(outboxEntity));
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        return transactionTemplate;
+    }
+
+    private CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> send(
+            final EmployeeOutboxEntity outboxEntity) {
+
+        try {
+
+            return this.employeeKafkaProducerService.sendEvent(
+                    this.employeeEventFactoryService.getEmployeeEventKey(outboxEntity.getEventKey()),
+                    this.employeeEventFactoryService.getEmployeeEventValue(outboxEntity.getEventValue()));
+
+        } catch (Exception exception) {
+
+            CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> future = new CompletableFuture<>();
+            future.completeExceptionally(exception);
+
+            return future;
+        }
+    }
+
+    private Duration ageOf(final EmployeeOutboxEntity outboxEntity) {
+
+        return Duration.between(outboxEntity.getCreatedAt(), ZonedDateTime.now());
+    }
+}
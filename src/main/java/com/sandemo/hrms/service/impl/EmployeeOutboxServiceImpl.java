@@ -0,0 +1,90 @@
+package com.sandemo.hrms.service.impl;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.model.EmployeeOutboxEntity;
+import com.sandemo.hrms.repository.EmployeeOutboxEntityRepository;
+import com.sandemo.hrms.service.EmployeeOutboxService;
+import com.sandemo.hrms.util.Util;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service writes the employee events into the outbox table. The relay publishes them once the transaction which
+ * changed the employee has been committed.
+ */
+@Service("employeeOutboxService")
+@Transactional(propagation = Propagation.MANDATORY, rollbackFor = {Exception.class})
+public class EmployeeOutboxServiceImpl implements EmployeeOutboxService {
+
+    private EmployeeOutboxEntityRepository employeeOutboxEntityRepository;
+    private EmployeeEventFactoryService employeeEventFactoryService;
+
+    public EmployeeOutboxServiceImpl(final EmployeeOutboxEntityRepository employeeOutboxEntityRepository,
+                                     final EmployeeEventFactoryService employeeEventFactoryService) {
+
+        this.employeeOutboxEntityRepository = employeeOutboxEntityRepository;
+        this.employeeEventFactoryService = employeeEventFactoryService;
+    }
+
+    @Override
+    public void addEvent(final EmployeeEntity employeeEntity, final EmployeeEventType employeeEventType) {
+
+        if(Util.isNull(employeeEntity) || Util.isNull(employeeEventType)) {
+
+            throw new GenericServerRuntimeException("The method argument must not be null");
+        }
+
+        // The employee change is flushed first so its row lock is held before the outbox id is drawn. A concurrent
+        // change of the same employee then always gets a higher id, which keeps the events of a key in order.
+        this.employeeOutboxEntityRepository.flush();
+
+        this.employeeOutboxEntityRepository.save(buildOutboxEntity(employeeEntity, employeeEventType));
+    }
+
+    @Override
+    public void addEvents(final List<EmployeeEntity> employeeEntities, final EmployeeEventType employeeEventType) {
+
+        if(Util.isNull(employeeEntities) || Util.isNull(employeeEventType)) {
+
+            throw new GenericServerRuntimeException("The method argument must not be null");
+        }
+
+        if(employeeEntities.isEmpty()) {
+
+            return;
+        }
+
+        this.employeeOutboxEntityRepository.flush();
+
+        this.employeeOutboxEntityRepository.saveAll(employeeEntities.stream()
+                .map(employeeEntity -> buildOutboxEntity(employeeEntity, employeeEventType))
+                .collect(Collectors.toList()));
+    }
+
+    private EmployeeOutboxEntity buildOutboxEntity(final EmployeeEntity employeeEntity,
+                                                   final EmployeeEventType employeeEventType) {
+
+        EmployeeEventValue employeeEventValue =
+                this.employeeEventFactoryService.getEmployeeEventValue(employeeEntity, employeeEventType);
+
+        return EmployeeOutboxEntity.builder()
+                .employeeId(employeeEntity.getEmployeeId())
+                .eventType(employeeEventType)
+                .eventKey(this.employeeEventFactoryService.toBytes(
+                        this.employeeEventFactoryService.getEmployeeEventKey(employeeEntity.getEmployeeId())))
+                .eventValue(this.employeeEventFactoryService.toBytes(employeeEventValue))
+                .createdAt(ZonedDateTime.now())
+                .build();
+    }
+}
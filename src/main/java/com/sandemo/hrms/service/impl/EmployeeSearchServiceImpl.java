@@ -0,0 +1,105 @@
+package com.sandemo.hrms.service.impl;
+
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.datasource.ReplicaRoutingDataSource;
+import com.sandemo.hrms.dto.response.EmployeeSearchItemDto;
+import com.sandemo.hrms.dto.response.EmployeeSearchResponseDto;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.EmployeeSearchService;
+import com.sandemo.hrms.util.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * This service answers the typeahead search from the in-memory {@link EmployeeSearchIndex}, no query reaches the
+ * database. The index is built from a streamed scan of the employees and kept current by the employee writes.
+ */
+@Service("employeeSearchService")
+@Transactional(propagation = Propagation.REQUIRED, readOnly = true, rollbackFor = {Exception.class})
+public class EmployeeSearchServiceImpl implements EmployeeSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeSearchServiceImpl.class);
+
+    private static final String DEFAULT_LIMIT_PROPERTY = "employee.search.default.limit";
+    private static final String MAX_LIMIT_PROPERTY = "employee.search.max.limit";
+    private static final String FETCH_SIZE_PROPERTY = "employee.search.index.fetch.size";
+    private static final int DEFAULT_LIMIT = 10;
+    private static final int MAX_LIMIT = 50;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private EmployeeEntityRepository employeeEntityRepository;
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    private int defaultLimit;
+    private int maxLimit;
+    private int fetchSize;
+
+    public EmployeeSearchServiceImpl(final EmployeeEntityRepository employeeEntityRepository,
+                                     final EmployeeSearchIndex employeeSearchIndex,
+                                     final Environment environment) {
+
+        this.employeeEntityRepository = employeeEntityRepository;
+        this.employeeSearchIndex = employeeSearchIndex;
+
+        this.defaultLimit = environment.getProperty(DEFAULT_LIMIT_PROPERTY, Integer.class, DEFAULT_LIMIT);
+        this.maxLimit = environment.getProperty(MAX_LIMIT_PROPERTY, Integer.class, MAX_LIMIT);
+        this.fetchSize = environment.getProperty(FETCH_SIZE_PROPERTY, Integer.class, DEFAULT_FETCH_SIZE);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public EmployeeSearchResponseDto searchEmployees(final String query, final Long departmentId, final Integer limit) {
+
+        if(!StringUtils.hasText(query)) {
+
+            throw new GenericClientRuntimeException("The query must not be null or empty");
+        }
+
+        int resultLimit = Util.isNull(limit) ? this.defaultLimit : limit;
+
+        if(resultLimit < 1 || resultLimit > this.maxLimit) {
+
+            throw new GenericClientRuntimeException("The limit must be between 1 and " + this.maxLimit);
+        }
+
+        return EmployeeSearchResponseDto.builder()
+                .employees(this.employeeSearchIndex.search(query.trim(), departmentId, resultLimit).stream()
+                        .map(indexedEmployee -> EmployeeSearchItemDto.builder()
+                                .employeeId(indexedEmployee.getEmployeeId())
+                                .name(indexedEmployee.getName())
+                                .email(indexedEmployee.getEmail())
+                                .departmentId(indexedEmployee.getDepartmentId())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    @EventListener(ApplicationStartedEvent.class)
+    public int rebuildSearchIndex() {
+
+        // Read from the primary, a lagging replica would replace the already indexed recent writes with stale rows
+        int indexed = ReplicaRoutingDataSource.callOnPrimary(() -> this.employeeSearchIndex.rebuild(
+                () -> this.employeeEntityRepository
+                        .streamAllEmployees(this.fetchSize)
+                        .map(employee -> new EmployeeSearchIndex.IndexedEmployee(employee.getEmployeeId(),
+                                employee.getName(), employee.getEmail(), employee.getDepartment().getDepartmentId()))));
+
+        LOG.info("Indexed {} employees for the search in about {} bytes", indexed,
+                this.employeeSearchIndex.getEstimatedBytes());
+
+        return indexed;
+    }
+}
@@ -1,36 +1,58 @@
 package com.sandemo.hrms.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.cache.EmployeeDetailsCache;
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.cache.EncodedEmployeeDetails;
+import com.sandemo.hrms.datasource.ReadYourWritesGuard;
+import com.sandemo.hrms.dto.request.EmployeeDetailsBatchRequestDto;
 import com.sandemo.hrms.dto.request.EmployeeRequestDto;
 import com.sandemo.hrms.dto.request.PutEmployeeRequestDto;
 import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchItemDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeResponseDto;
-import com.sandemo.hrms.model.DepartmentEntity;
 import com.sandemo.hrms.model.EmployeeEntity;
 import com.sandemo.hrms.service.DepartmentService;
 import com.sandemo.hrms.service.EmployeeService;
-import com.sandemo.hrms.service.KafkaProducerService;
+import com.sandemo.hrms.service.EmployeeOutboxService;
 import com.sandemo.hrms.util.Util;
 import com.sandemo.hrms.EmployeeEventType;
 import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.LookupStatus;
 import com.sandemo.hrms.exception.DepartmentNotFoundException;
 import com.sandemo.hrms.exception.EmailIdAlreadyExistsException;
+import com.sandemo.hrms.exception.EmployeeConcurrentlyModifiedException;
 import com.sandemo.hrms.exception.EmployeeNotFoundException;
+import com.sandemo.hrms.exception.EmployeeVersionMismatchException;
 import com.sandemo.hrms.exception.GenericClientRuntimeException;
 import com.sandemo.hrms.exception.GenericServerRuntimeException;
 import com.sandemo.hrms.factory.ValidationFactoryService;
 import com.sandemo.hrms.repository.EmployeeEntityRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import javax.validation.ConstraintViolationException;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -43,20 +65,35 @@ public class EmployeeServiceImpl implements EmployeeService {
 
     private static final Logger LOG = LoggerFactory.getLogger(EmployeeServiceImpl.class);
 
+    private static final String UNIQUE_EMAIL_CONSTRAINT = "unique_email";
+    private static final String DEPARTMENT_FOREIGN_KEY_CONSTRAINT = "fk_depart_id";
+
     private EmployeeEntityRepository employeeEntityRepository;
     private DepartmentService departmentService;
     private ValidationFactoryService validationFactoryService;
-    private KafkaProducerService employeeKafkaProducerService;
+    private EmployeeOutboxService employeeOutboxService;
+    private EmployeeDetailsCache employeeDetailsCache;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private ReadYourWritesGuard readYourWritesGuard;
+    private ObjectMapper objectMapper;
 
     public EmployeeServiceImpl(final EmployeeEntityRepository employeeEntityRepository,
                                final DepartmentService departmentService,
                                final ValidationFactoryService validationFactoryService,
-                               final KafkaProducerService employeeKafkaProducerService) {
+                               final EmployeeOutboxService employeeOutboxService,
+                               final EmployeeDetailsCache employeeDetailsCache,
+                               final EmployeeSearchIndex employeeSearchIndex,
+                               final ReadYourWritesGuard readYourWritesGuard,
+                               final ObjectMapper objectMapper) {
 
         this.employeeEntityRepository = employeeEntityRepository;
         this.departmentService = departmentService;
         this.validationFactoryService = validationFactoryService;
-        this.employeeKafkaProducerService = employeeKafkaProducerService;
+        this.employeeOutboxService = employeeOutboxService;
+        this.employeeDetailsCache = employeeDetailsCache;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -68,32 +105,35 @@ public class EmployeeServiceImpl implements EmployeeService {
             // Validating the input parameter
             this.validationFactoryService.validObject(employeeRequestDto);
 
-            // Validate if the email id is already exists
-            if(getEmployeeByEmail(employeeRequestDto.getEmail()).isPresent()) {
-
-                throw new EmailIdAlreadyExistsException();
-            }
-
-            // Saving the EmployeeEntity
-            DepartmentEntity departmentEntity =
-                    this.departmentService.getDepartmentById(employeeRequestDto.getDepartmentId())
-                            .orElseThrow(DepartmentNotFoundException::new);
-
-            // Saving the EmployeeEntity
-            return this.employeeEntityRepository.save(
+            // Saving the EmployeeEntity. The email uniqueness and the department existence are enforced by the
+            // unique_email and fk_depart_id constraints, so the insert is flushed here to surface them
+            EmployeeEntity employeeEntity = this.employeeEntityRepository.saveAndFlush(
                     EmployeeEntity.builder()
                             .employeeId(UUID.randomUUID().toString())                //UUID version 4 is used
                             .name(employeeRequestDto.getName())
                             .email(employeeRequestDto.getEmail().toLowerCase())      //Email id will be stored in lower case
                             .dateOfBirth(employeeRequestDto.getDateOfBirth())
-                            .departmentEntity(departmentEntity)
+                            .departmentEntity(this.departmentService.getDepartmentReference(
+                                    employeeRequestDto.getDepartmentId()))
                             .createdAt(ZonedDateTime.now())
                             .build()
             );
+
+            this.departmentService.adjustHeadcounts(Collections.singletonMap(employeeRequestDto.getDepartmentId(), 1));
+
+            indexAfterCommit(employeeEntity);
+            pinReadsAfterCommit(employeeEntity.getEmployeeId());
+
+            return employeeEntity;
+
         } catch (GenericClientRuntimeException | ConstraintViolationException exception) {
 
             throw exception;
 
+        } catch (DataIntegrityViolationException exception) {
+
+            throw translateDataIntegrityViolation(exception);
+
         } catch (Exception exception) {
 
             LOG.error("Exception while creating employee",exception);
@@ -109,8 +149,8 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         LOG.debug("Created the employee with id: {}", employeeEntity.getEmployeeId());
 
-        // Producing message into Kafka topic
-        this.employeeKafkaProducerService.sendMessage(employeeEntity, EmployeeEventType.CREATED);
+        // Recording the event in the outbox, it is published by the relay once committed
+        this.employeeOutboxService.addEvent(employeeEntity, EmployeeEventType.CREATED);
 
         return buildEmployeeResponseDto(employeeEntity.getEmployeeId(), ApiResponseMessage.EMP_CREATE_MESSAGE.getValue());
     }
@@ -119,6 +159,14 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Transactional(propagation = Propagation.REQUIRED, rollbackFor = {Exception.class})
     public EmployeeEntity updateEmployee(final String employeeId, final PutEmployeeRequestDto putEmployeeRequestDto) {
 
+        return this.updateEmployee(employeeId, putEmployeeRequestDto, null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, rollbackFor = {Exception.class})
+    public EmployeeEntity updateEmployee(final String employeeId, final PutEmployeeRequestDto putEmployeeRequestDto,
+                                         final Long expectedVersion) {
+
         try {
 
             if(!StringUtils.hasText(employeeId)) {
@@ -129,39 +177,50 @@ public class EmployeeServiceImpl implements EmployeeService {
             // Validating the input parameter
             this.validationFactoryService.validObject(putEmployeeRequestDto);
 
-            // Fetching employee record by using employeeId
-            EmployeeEntity employeeEntity = getEmployeeById(employeeId).orElseThrow(EmployeeNotFoundException::new);
+            if(Util.isNotNull(expectedVersion)) {
 
-            // Validating if the email id is already exists with another employee
-            if(StringUtils.hasText(putEmployeeRequestDto.getEmail())) {
+                return updateEmployeeIfVersionMatches(employeeId.toLowerCase(), expectedVersion, putEmployeeRequestDto);
+            }
 
-                Optional<EmployeeEntity> employeeEntityOptional=  getEmployeeByEmail(putEmployeeRequestDto.getEmail());
+            // Fetching employee record by using employeeId
+            EmployeeEntity employeeEntity = getEmployeeById(employeeId).orElseThrow(EmployeeNotFoundException::new);
+            Long previousDepartmentId = employeeEntity.getDepartmentEntity().getDepartId();
 
-                if(employeeEntityOptional.isPresent()
-                        && !employeeEntityOptional.get().getEmployeeId().equals(employeeEntity.getEmployeeId())) {
+            // The department is only referenced, its existence is enforced by the fk_depart_id constraint
+            if(Util.isNotNull(putEmployeeRequestDto.getDepartmentId())) {
 
-                    throw new EmailIdAlreadyExistsException();
-                }
+                employeeEntity.setDepartmentEntity(
+                        this.departmentService.getDepartmentReference(putEmployeeRequestDto.getDepartmentId()));
             }
 
-            // Validating if the department exists in the database
-            if(Util.isNotNull(putEmployeeRequestDto.getDepartmentId())) {
+            // Saving updated EmployeeEntity, flushed here so that a taken email, a missing department or a concurrent
+            // update (version check) surfaces
+            EmployeeEntity updatedEmployeeEntity = this.employeeEntityRepository.saveAndFlush(
+                    updateEmployeeAttribute(employeeEntity, putEmployeeRequestDto));
 
-                DepartmentEntity departmentEntity =
-                        this.departmentService.getDepartmentById(putEmployeeRequestDto.getDepartmentId())
-                                .orElseThrow(DepartmentNotFoundException::new);
+            // The version check of the flush guarantees the employee was still in the department it was read with
+            moveHeadcount(previousDepartmentId, putEmployeeRequestDto.getDepartmentId());
 
-                employeeEntity.setDepartmentEntity(departmentEntity);
-            }
+            invalidateDetailsAfterCommit(updatedEmployeeEntity.getEmployeeId());
+            indexAfterCommit(updatedEmployeeEntity);
+            pinReadsAfterCommit(updatedEmployeeEntity.getEmployeeId());
 
-            // Saving updated EmployeeEntity
-            return this.employeeEntityRepository.save(
-                    updateEmployeeAttribute(employeeEntity, putEmployeeRequestDto));
+            return updatedEmployeeEntity;
 
         } catch (GenericClientRuntimeException | ConstraintViolationException exception) {
 
             throw exception;
 
+        } catch (OptimisticLockingFailureException exception) {
+
+            // No version was given by the caller, so this is a conflict with a concurrent update and not a failed
+            // precondition
+            throw new EmployeeConcurrentlyModifiedException();
+
+        } catch (DataIntegrityViolationException exception) {
+
+            throw translateDataIntegrityViolation(exception);
+
         } catch (Exception exception) {
 
             LOG.error("Exception while updating employee",exception);
@@ -173,12 +232,20 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Override
     public EmployeeResponseDto updateEmployeeAndGetResponse(String employeeId, PutEmployeeRequestDto putEmployeeRequestDto) {
 
-        EmployeeEntity employeeEntity = this.updateEmployee(employeeId, putEmployeeRequestDto);
+        return this.updateEmployeeAndGetResponse(employeeId, putEmployeeRequestDto, null);
+    }
+
+    @Override
+    public EmployeeResponseDto updateEmployeeAndGetResponse(final String employeeId,
+                                                            final PutEmployeeRequestDto putEmployeeRequestDto,
+                                                            final Long expectedVersion) {
+
+        EmployeeEntity employeeEntity = this.updateEmployee(employeeId, putEmployeeRequestDto, expectedVersion);
 
         LOG.debug("Updated the Employee data. employeeId: {}", employeeEntity.getEmployeeId());
 
-        // Producing message into Kafka topic
-        this.employeeKafkaProducerService.sendMessage(employeeEntity, EmployeeEventType.UPDATED);
+        // Recording the event in the outbox, it is published by the relay once committed
+        this.employeeOutboxService.addEvent(employeeEntity, EmployeeEventType.UPDATED);
 
         return buildEmployeeResponseDto(employeeEntity.getEmployeeId(), ApiResponseMessage.EMP_UPDATE_MESSAGE.getValue());
     }
@@ -194,9 +261,15 @@ public class EmployeeServiceImpl implements EmployeeService {
                 throw new GenericClientRuntimeException("The employeeId must not be null or empty for the delete");
             }
 
-            EmployeeEntity employeeEntity = getEmployeeById(employeeId).orElseThrow(EmployeeNotFoundException::new);
+            // The delete itself tells the department the employee leaves, no row means there was no such employee
+            Long departmentId = this.employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(
+                    employeeId.toLowerCase()).orElseThrow(EmployeeNotFoundException::new);
 
-            this.employeeEntityRepository.delete(employeeEntity);
+            this.departmentService.adjustHeadcounts(Collections.singletonMap(departmentId, -1));
+
+            invalidateDetailsAfterCommit(employeeId.toLowerCase());
+            Util.afterCommit(() -> employeeSearchIndex.remove(employeeId.toLowerCase()));
+            pinReadsAfterCommit(employeeId.toLowerCase());
 
         } catch (GenericClientRuntimeException exception) {
 
@@ -217,8 +290,8 @@ public class EmployeeServiceImpl implements EmployeeService {
 
         LOG.debug("Deleted the Employee data. employeeId: {}", employeeId.toLowerCase());
 
-        // Producing message into Kafka topic
-        this.employeeKafkaProducerService.sendMessage(
+        // Recording the event in the outbox, it is published by the relay once committed
+        this.employeeOutboxService.addEvent(
                 EmployeeEntity.builder().employeeId(employeeId.toLowerCase()).build(), EmployeeEventType.DELETED);
 
         return buildEmployeeResponseDto(employeeId, ApiResponseMessage.EMP_DELETE_MESSAGE.getValue());
@@ -247,6 +320,7 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public EmployeeDetailsResponseDto getEmployeeDetailsById(final String employeeId) {
 
         if(!StringUtils.hasText(employeeId)) {
@@ -254,7 +328,122 @@ public class EmployeeServiceImpl implements EmployeeService {
             throw new GenericClientRuntimeException("The employeeId must not be null or empty");
         }
 
-        EmployeeEntity employeeEntity = this.getEmployeeById(employeeId).orElseThrow(EmployeeNotFoundException::new);
+        // Read as a projection, the response does not need a managed entity
+        return this.readYourWritesGuard.read(employeeId.toLowerCase(),
+                () -> this.employeeEntityRepository.findDetailsByEmployeeId(employeeId.toLowerCase()))
+                .orElseThrow(EmployeeNotFoundException::new);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public EmployeeDetailsBatchResponseDto getEmployeeDetailsBatch(
+            final EmployeeDetailsBatchRequestDto employeeDetailsBatchRequestDto) {
+
+        // Validating the input parameter
+        this.validationFactoryService.validObject(employeeDetailsBatchRequestDto);
+
+        boolean byEmail = CollectionUtils.isEmpty(employeeDetailsBatchRequestDto.getEmployeeIds());
+        List<String> keys = byEmail
+                ? employeeDetailsBatchRequestDto.getEmails()
+                : employeeDetailsBatchRequestDto.getEmployeeIds();
+
+        // Both the ids and the emails are stored in lower case, the repeated ones are queried once
+        Set<String> lookupKeys = keys.stream()
+                .filter(StringUtils::hasText)
+                .map(String::toLowerCase)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<String, EmployeeEntity> employeeEntities = new HashMap<>();
+
+        if(!lookupKeys.isEmpty()) {
+
+            // The writes are tracked by employeeId, only a lookup by ids can tell that it needs the primary
+            List<EmployeeEntity> found = byEmail
+                    ? this.employeeEntityRepository.findAllWithDepartmentByEmailIn(lookupKeys)
+                    : this.readYourWritesGuard.read(lookupKeys,
+                            () -> this.employeeEntityRepository.findAllWithDepartmentByEmployeeIdIn(lookupKeys));
+
+            found.forEach(employeeEntity -> employeeEntities.put(
+                    byEmail ? employeeEntity.getEmail() : employeeEntity.getEmployeeId(), employeeEntity));
+        }
+
+        List<EmployeeDetailsBatchItemDto> results = new ArrayList<>(keys.size());
+
+        for(String key : keys) {
+
+            EmployeeEntity employeeEntity = StringUtils.hasText(key) ? employeeEntities.get(key.toLowerCase()) : null;
+
+            results.add(EmployeeDetailsBatchItemDto.builder()
+                    .employeeId(byEmail ? null : key)
+                    .email(byEmail ? key : null)
+                    .status(Util.isNull(employeeEntity) ? LookupStatus.NOT_FOUND : LookupStatus.FOUND)
+                    .details(Util.isNull(employeeEntity) ? null : buildEmployeeDetailsResponseDto(employeeEntity))
+                    .build());
+        }
+
+        return EmployeeDetailsBatchResponseDto.builder().results(results).build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public EncodedEmployeeDetails getEncodedEmployeeDetailsById(final String employeeId) {
+
+        if(!StringUtils.hasText(employeeId)) {
+
+            throw new GenericClientRuntimeException("The employeeId must not be null or empty");
+        }
+
+        String cacheKey = employeeId.toLowerCase();
+
+        Optional<EncodedEmployeeDetails> cached = this.employeeDetailsCache.get(cacheKey);
+
+        if(cached.isPresent()) {
+
+            return cached.get();
+        }
+
+        // Taken before the read, so that a concurrent update invalidating the employee keeps this copy out of the cache
+        long invalidationMark = this.employeeDetailsCache.getInvalidationMark();
+
+        // A replica lagging behind a recent write would otherwise put the previous details back into the cache
+        EmployeeDetailsResponseDto employeeDetails = this.readYourWritesGuard.read(cacheKey,
+                () -> this.employeeEntityRepository.findDetailsByEmployeeId(cacheKey))
+                .orElseThrow(EmployeeNotFoundException::new);
+
+        try {
+
+            EncodedEmployeeDetails encodedEmployeeDetails = new EncodedEmployeeDetails(
+                    Util.isNull(employeeDetails.getVersion()) ? 0L : employeeDetails.getVersion(),
+                    this.objectMapper.writeValueAsBytes(employeeDetails));
+
+            this.employeeDetailsCache.put(cacheKey, encodedEmployeeDetails, invalidationMark);
+
+            return encodedEmployeeDetails;
+
+        } catch (JsonProcessingException exception) {
+
+            LOG.error("Exception while encoding the employee details", exception);
+
+            throw new GenericServerRuntimeException("Unexpected error occurred while encoding the employee details", exception);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<Long> getEmployeeVersionById(final String employeeId) {
+
+        if(!StringUtils.hasText(employeeId)) {
+
+            return Optional.empty();
+        }
+
+        // Only the version column is read. The details cache of this instance is not asked, it is only invalidated by
+        // the changes made through this instance and could answer with a version another instance has moved past.
+        return this.readYourWritesGuard.read(employeeId.toLowerCase(),
+                () -> this.employeeEntityRepository.findVersionByEmployeeId(employeeId.toLowerCase()));
+    }
+
+    private EmployeeDetailsResponseDto buildEmployeeDetailsResponseDto(final EmployeeEntity employeeEntity) {
 
         LOG.debug("Building EmployeeDetailsResponseDto");
 
@@ -272,6 +461,44 @@ public class EmployeeServiceImpl implements EmployeeService {
                 .build();
     }
 
+    /**
+     * Updates the employee with a single conditional UPDATE when the caller already holds its version, no read precedes
+     * it. The statement returns the department the employee leaves and the updated row, which the outbox event is built
+     * from.
+     *
+     * @param employeeId
+     * @param expectedVersion
+     * @param putEmployeeRequestDto
+     * @return
+     */
+    private EmployeeEntity updateEmployeeIfVersionMatches(final String employeeId, final long expectedVersion,
+                                                          final PutEmployeeRequestDto putEmployeeRequestDto) {
+
+        EmployeeEntity employeeEntity = updateEmployeeAttribute(new EmployeeEntity(), putEmployeeRequestDto);
+
+        // The department is only referenced, its existence is enforced by the fk_depart_id constraint
+        if(Util.isNotNull(putEmployeeRequestDto.getDepartmentId())) {
+
+            employeeEntity.setDepartmentEntity(
+                    this.departmentService.getDepartmentReference(putEmployeeRequestDto.getDepartmentId()));
+        }
+
+        // Only a failed update tells a stale version apart from a missing employee
+        Long previousDepartmentId = this.employeeEntityRepository.updateByEmployeeIdAndVersion(employeeId,
+                expectedVersion, employeeEntity).orElseThrow(() -> this.employeeEntityRepository
+                .findVersionByEmployeeId(employeeId).isPresent()
+                ? new EmployeeVersionMismatchException()
+                : new EmployeeNotFoundException());
+
+        moveHeadcount(previousDepartmentId, putEmployeeRequestDto.getDepartmentId());
+
+        invalidateDetailsAfterCommit(employeeId);
+        indexAfterCommit(employeeEntity);
+        pinReadsAfterCommit(employeeId);
+
+        return employeeEntity;
+    }
+
     private EmployeeEntity updateEmployeeAttribute(final EmployeeEntity employeeEntity,
                                                    final PutEmployeeRequestDto putEmployeeRequestDto) {
 
@@ -295,6 +522,113 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeEntity;
     }
 
+    /**
+     * Moves one employee from the headcount of the previous department to the new one, within the transaction of the
+     * update. Nothing changes when no new department is given or it is the same.
+     *
+     * @param previousDepartmentId
+     * @param departmentId
+     */
+    private void moveHeadcount(final Long previousDepartmentId, final Long departmentId) {
+
+        if(Util.isNull(departmentId) || departmentId.equals(previousDepartmentId)) {
+
+            return;
+        }
+
+        Map<Long, Integer> headcountDeltas = new HashMap<>();
+        headcountDeltas.put(departmentId, 1);
+
+        if(Util.isNotNull(previousDepartmentId)) {
+
+            headcountDeltas.put(previousDepartmentId, -1);
+        }
+
+        this.departmentService.adjustHeadcounts(headcountDeltas);
+    }
+
+    /**
+     * The cached details are dropped once the change is committed, a reader in between still gets the committed
+     * version from the database and its copy is kept out of the cache by the invalidation mark
+     *
+     * @param employeeId
+     */
+    private void invalidateDetailsAfterCommit(final String employeeId) {
+
+        Util.afterCommit(() -> employeeDetailsCache.invalidate(employeeId));
+    }
+
+    /**
+     * The search index only sees the employee once it is committed, a rolled back change is never searchable
+     *
+     * @param employeeEntity
+     */
+    private void indexAfterCommit(final EmployeeEntity employeeEntity) {
+
+        String employeeId = employeeEntity.getEmployeeId();
+        String name = employeeEntity.getName();
+        String email = employeeEntity.getEmail();
+        Long departmentId = employeeEntity.getDepartmentEntity().getDepartId();
+
+        Util.afterCommit(() -> employeeSearchIndex.put(employeeId, name, email, departmentId));
+    }
+
+    /**
+     * The reads of the employee go to the primary for a while after the change is committed, until the replica has
+     * caught up with it
+     *
+     * @param employeeId
+     */
+    private void pinReadsAfterCommit(final String employeeId) {
+
+        Util.afterCommit(() -> readYourWritesGuard.recordWrite(employeeId));
+    }
+
+    /**
+     * Translates the violation of the unique_email and fk_depart_id constraints into the matching client exception,
+     * any other violation is unexpected.
+     *
+     * @param exception
+     * @return
+     */
+    private RuntimeException translateDataIntegrityViolation(final DataIntegrityViolationException exception) {
+
+        String violation = getViolatedConstraint(exception).toLowerCase();
+
+        if(violation.contains(UNIQUE_EMAIL_CONSTRAINT)) {
+
+            return new EmailIdAlreadyExistsException();
+        }
+
+        if(violation.contains(DEPARTMENT_FOREIGN_KEY_CONSTRAINT)) {
+
+            return new DepartmentNotFoundException();
+        }
+
+        LOG.error("Unexpected constraint violation while saving the employee", exception);
+
+        return new GenericServerRuntimeException("Unexpected error occurred while saving the employee record", exception);
+    }
+
+    private String getViolatedConstraint(final DataIntegrityViolationException exception) {
+
+        if(exception.getCause() instanceof org.hibernate.exception.ConstraintViolationException) {
+
+            org.hibernate.exception.ConstraintViolationException cause =
+                    (org.hibernate.exception.ConstraintViolationException) exception.getCause();
+
+            if(StringUtils.hasText(cause.getConstraintName())) {
+
+                return cause.getConstraintName();
+            }
+        }
+
+        // Falling back to the driver message when the dialect could not extract the constraint name
+        Throwable rootCause = exception.getMostSpecificCause();
+
+        return Util.isNotNull(rootCause.getMessage()) ? rootCause.getMessage() : "";
+    }
+
     private EmployeeResponseDto buildEmployeeResponseDto(final String employeeId, final String message) {
 
         return EmployeeResponseDto.builder()
@@ -0,0 +1,179 @@
+package com.sandemo.hrms.util;
+
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Incremental reader of RFC 4180 CSV records, only the record being read is held in memory.
+ *
+ * Fields are separated by commas and may be enclosed in double quotes, a quoted field may contain commas, line breaks
+ * and doubled quotes. Records end with LF or CRLF, and blank lines are skipped.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private static final int END_OF_STREAM = -1;
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char CARRIAGE_RETURN = '\r';
+    private static final char LINE_FEED = '\n';
+
+    private final BufferedReader reader;
+
+    private long currentLine = 1;
+    private long recordLine;
+    private int pushedBack = END_OF_STREAM;
+
+    public CsvRecordReader(final Reader reader) {
+
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns the fields of the next record, or null at the end of the stream.
+     *
+     * @return
+     * @throws IOException
+     */
+    public List<String> readRecord() throws IOException {
+
+        int character;
+
+        // Skipping the blank lines in between records
+        while ((character = read()) == CARRIAGE_RETURN || character == LINE_FEED) {
+
+            skipLineEnd(character);
+        }
+
+        if (character == END_OF_STREAM) {
+
+            return null;
+        }
+
+        recordLine = currentLine;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+
+        while (true) {
+
+            if (quoted) {
+
+                if (character == END_OF_STREAM) {
+
+                    throw new GenericClientRuntimeException("Unterminated quoted field in the record at line " + recordLine);
+                }
+
+                if (character == QUOTE) {
+
+                    int next = read();
+
+                    if (next == QUOTE) {
+
+                        field.append(QUOTE);
+
+                    } else {
+
+                        quoted = false;
+                        pushBack(next);
+                    }
+
+                } else {
+
+                    if (character == LINE_FEED) {
+
+                        currentLine++;
+                    }
+
+                    field.append((char) character);
+                }
+
+            } else if (character == QUOTE && fieldStart) {
+
+                quoted = true;
+                fieldStart = false;
+
+            } else if (character == SEPARATOR) {
+
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+
+            } else if (character == CARRIAGE_RETURN || character == LINE_FEED || character == END_OF_STREAM) {
+
+                skipLineEnd(character);
+                fields.add(field.toString());
+
+                return fields;
+
+            } else {
+
+                field.append((char) character);
+                fieldStart = false;
+            }
+
+            character = read();
+        }
+    }
+
+    /**
+     * Returns the line the last record read starts at, the first line of the stream is 1.
+     *
+     * @return
+     */
+    public long getRecordLine() {
+
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        reader.close();
+    }
+
+    private int read() throws IOException {
+
+        if (pushedBack != END_OF_STREAM) {
+
+            int character = pushedBack;
+            pushedBack = END_OF_STREAM;
+
+            return character;
+        }
+
+        return reader.read();
+    }
+
+    private void pushBack(final int character) {
+
+        pushedBack = character;
+    }
+
+    private void skipLineEnd(final int character) throws IOException {
+
+        if (character == CARRIAGE_RETURN) {
+
+            int next = read();
+
+            if (next != LINE_FEED) {
+
+                pushBack(next);
+            }
+        }
+
+        if (character != END_OF_STREAM) {
+
+            currentLine++;
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.sandemo.hrms.util;
 import com.sandemo.hrms.constant.GlobalConstant;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -14,6 +16,11 @@ import java.time.format.DateTimeFormatter;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class Util {
 
+    // DateTimeFormatter is immutable and thread safe, the patterns are compiled once
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(GlobalConstant.DATE_FORMAT);
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern(GlobalConstant.DATE_TIME_FORMAT);
+
     public static boolean isNull(final Object value) {
 
         return value == null;
@@ -27,14 +34,53 @@ public class Util {
     public static String getFormattedDate(final LocalDate date) {
 
         return isNotNull(date)
-                ? date.format(DateTimeFormatter.ofPattern(GlobalConstant.DATE_FORMAT))
+                ? date.format(DATE_FORMATTER)
                 : null ;
     }
 
     public static String getFormattedTimestamp(final ZonedDateTime dateTime) {
 
         return isNotNull(dateTime)
-                ? dateTime.format(DateTimeFormatter.ofPattern(GlobalConstant.DATE_TIME_FORMAT))
+                ? dateTime.format(DATE_TIME_FORMATTER)
+                : null ;
+    }
+
+    public static LocalDate parseDate(final CharSequence date) {
+
+        return isNotNull(date)
+                ? LocalDate.parse(date, DATE_FORMATTER)
                 : null ;
     }
+
+    public static ZonedDateTime parseTimestamp(final CharSequence dateTime) {
+
+        return isNotNull(dateTime)
+                ? ZonedDateTime.parse(dateTime, DATE_TIME_FORMATTER)
+                : null ;
+    }
+
+    /**
+     * Runs the action once the surrounding transaction has been committed, a rolled back transaction never runs it.
+     * Without a transaction the action is run right away.
+     *
+     * @param action
+     */
+    public static void afterCommit(final Runnable action) {
+
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+
+            action.run();
+
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+
+                action.run();
+            }
+        });
+    }
 }
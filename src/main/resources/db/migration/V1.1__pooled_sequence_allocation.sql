@@ -0,0 +1,10 @@
+-- Ids are reserved in blocks of 50 (pooled-lo, see PrefetchingSequenceGenerator), the increment must match the
+-- increment_size of the entity mappings. Values already handed out stay below the next block.
+
+ALTER SEQUENCE emp.seq_department_id
+    INCREMENT 50
+    CACHE 1;
+
+ALTER SEQUENCE emp.seq_employee_id
+    INCREMENT 50
+    CACHE 1;
@@ -0,0 +1,29 @@
+-- SEQUENCE: emp.seq_employee_outbox_id
+
+-- DROP SEQUENCE emp.seq_employee_outbox_id;
+
+CREATE SEQUENCE emp.seq_employee_outbox_id
+    INCREMENT 1
+    START 1
+    MINVALUE 0
+    MAXVALUE 999999999999999999
+    CACHE 1;
+
+ALTER SEQUENCE emp.seq_employee_outbox_id OWNER to postgres01;
+
+-- Table: emp.employee_outbox
+
+-- DROP TABLE emp.employee_outbox;
+
+CREATE TABLE emp.employee_outbox
+(
+    ioutbox_id_pk bigint NOT NULL,
+    semployee_id character varying(50) NOT NULL,
+    sevent_type character varying(20) NOT NULL,
+    bevent_key bytea NOT NULL,
+    bevent_value bytea NOT NULL,
+    tscreated_at timestamp with time zone NOT NULL,
+    CONSTRAINT pk_employee_outbox_id PRIMARY KEY (ioutbox_id_pk)
+);
+
+ALTER TABLE emp.employee_outbox OWNER to postgres01;
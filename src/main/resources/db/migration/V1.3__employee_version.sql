@@ -0,0 +1,5 @@
+-- Optimistic locking version of the employee (see EmployeeEntity#version), it is also the ETag of the employee
+-- details, so existing rows start at 0 and every update increments it.
+
+ALTER TABLE emp.employee
+    ADD COLUMN iversion bigint NOT NULL DEFAULT 0;
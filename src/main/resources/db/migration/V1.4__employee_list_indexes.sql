@@ -0,0 +1,29 @@
+-- Indexes of the keyset (seek) pagination of the employee listing, the last column is always the tie-breaker the
+-- cursor resumes from. tsupdated_at is set on insert, so the UPDATED_AT order never has to deal with NULLs.
+
+UPDATE emp.employee
+    SET tscreated_at = COALESCE(tscreated_at, now())
+    WHERE tscreated_at IS NULL;
+
+UPDATE emp.employee
+    SET tsupdated_at = tscreated_at
+    WHERE tsupdated_at IS NULL;
+
+ALTER TABLE emp.employee
+    ALTER COLUMN tsupdated_at SET NOT NULL;
+
+-- Department filter in ID order
+CREATE INDEX idx_employee_depart_id_pk
+    ON emp.employee (idepart_id, iemployee_id_pk);
+
+-- UPDATED_AT order and the updated time range
+CREATE INDEX idx_employee_updated_at_pk
+    ON emp.employee (tsupdated_at, iemployee_id_pk);
+
+-- Department filter in UPDATED_AT order
+CREATE INDEX idx_employee_depart_id_updated_at_pk
+    ON emp.employee (idepart_id, tsupdated_at, iemployee_id_pk);
+
+-- Created time range
+CREATE INDEX idx_employee_created_at_pk
+    ON emp.employee (tscreated_at, iemployee_id_pk);
@@ -0,0 +1,8 @@
+-- Headcount of every department, maintained by the employee writes within their own transaction and corrected by the
+-- periodic reconciliation, so that the department list is a plain scan of the department table.
+
+ALTER TABLE emp.department
+    ADD COLUMN iheadcount integer NOT NULL DEFAULT 0;
+
+UPDATE emp.department d
+    SET iheadcount = (SELECT COUNT(*) FROM emp.employee e WHERE e.idepart_id = d.idepart_id);
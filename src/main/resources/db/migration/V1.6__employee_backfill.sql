@@ -0,0 +1,24 @@
+-- Checkpoint of the employee event backfill jobs, one row per job. A job publishes the employees in the order of
+-- iemployee_id_pk and records the last one acknowledged, so a stopped or failed job resumes right after it.
+
+-- Table: emp.employee_backfill
+
+-- DROP TABLE emp.employee_backfill;
+
+CREATE TABLE emp.employee_backfill
+(
+    sjob_name character varying(50) NOT NULL,
+    sstatus character varying(20) NOT NULL,
+    tscreated_from timestamp with time zone,
+    tscreated_to timestamp with time zone,
+    tsupdated_from timestamp with time zone,
+    tsupdated_to timestamp with time zone,
+    ilast_employee_id_pk bigint,
+    ipublished bigint NOT NULL DEFAULT 0,
+    serror character varying(500),
+    tsstarted_at timestamp with time zone NOT NULL,
+    tsupdated_at timestamp with time zone NOT NULL,
+    CONSTRAINT pk_employee_backfill_job_name PRIMARY KEY (sjob_name)
+);
+
+ALTER TABLE emp.employee_backfill OWNER to postgres01;
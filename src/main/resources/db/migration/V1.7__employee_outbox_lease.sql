@@ -0,0 +1,11 @@
+-- Lease of the outbox rows a relay is publishing. A relay claims a batch in a short transaction, sends it without
+-- holding any lock or connection, and then deletes the published rows and releases the rest. A lease which is not
+-- released before tslocked_until, because its relay went down, can be claimed by another relay.
+
+ALTER TABLE emp.employee_outbox
+    ADD COLUMN srelay_owner character varying(64),
+    ADD COLUMN tslocked_until timestamp with time zone;
+
+-- Earlier events of the same employee which are leased by another relay hold the later ones back
+CREATE INDEX idx_employee_outbox_employee_id_pk
+    ON emp.employee_outbox (semployee_id, ioutbox_id_pk);
@@ -0,0 +1,8 @@
+-- Lease of a running backfill job. The instance which starts or resumes a job claims its row with the optimistic
+-- locking version (see EmployeeBackfillEntity#version) and renews tslocked_until with every page. A job which is
+-- RUNNING elsewhere is only taken over once its lease has expired, because its instance went down.
+
+ALTER TABLE emp.employee_backfill
+    ADD COLUMN iversion bigint NOT NULL DEFAULT 0,
+    ADD COLUMN sowner character varying(64),
+    ADD COLUMN tslocked_until timestamp with time zone;
@@ -0,0 +1,88 @@
+package com.sandemo.hrms.cache;
+
+import com.sandemo.hrms.model.DepartmentEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class DepartmentCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private DepartmentCache departmentCache;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        departmentCache = new DepartmentCache(2, meterRegistry);
+    }
+
+    @Test
+    public void testGetReturnsACopy() {
+
+        departmentCache.put(getDepartmentEntity(1L, "HR"));
+
+        departmentCache.get(1L).ifPresent(departmentEntity -> departmentEntity.setName("Changed"));
+
+        Assert.assertEquals("HR", departmentCache.get(1L).map(DepartmentEntity::getName).orElse(null));
+    }
+
+    @Test
+    public void testPutEvictsTheOldestEntry() {
+
+        departmentCache.putAll(Arrays.asList(getDepartmentEntity(1L, "HR"), getDepartmentEntity(2L, "IT"),
+                getDepartmentEntity(3L, "Finance")));
+
+        Assert.assertEquals(2, departmentCache.size());
+        Assert.assertFalse(departmentCache.get(1L).isPresent());
+        Assert.assertTrue(departmentCache.get(3L).isPresent());
+        Assert.assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count(), 0);
+        Assert.assertEquals(2.0, meterRegistry.get("cache.size").gauge().value(), 0);
+    }
+
+    @Test
+    public void testPutReplacesWithoutEviction() {
+
+        departmentCache.put(getDepartmentEntity(1L, "HR"));
+        departmentCache.put(getDepartmentEntity(2L, "IT"));
+        departmentCache.put(getDepartmentEntity(1L, "People"));
+
+        Assert.assertEquals("People", departmentCache.get(1L).map(DepartmentEntity::getName).orElse(null));
+        Assert.assertTrue(departmentCache.get(2L).isPresent());
+        Assert.assertEquals(0.0, meterRegistry.get("cache.evictions").counter().count(), 0);
+    }
+
+    @Test
+    public void testGetCountsHitsAndMisses() {
+
+        departmentCache.put(getDepartmentEntity(1L, "HR"));
+
+        departmentCache.get(1L);
+        departmentCache.get(2L);
+        departmentCache.get(null);
+
+        Assert.assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count(), 0);
+        Assert.assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCacheWhenSizeIsNotPositive() {
+
+        new DepartmentCache(0, meterRegistry);
+    }
+
+    private DepartmentEntity getDepartmentEntity(final Long departId, final String name) {
+
+        return DepartmentEntity.builder().departId(departId).name(name).build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.sandemo.hrms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeDetailsCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    private MeterRegistry meterRegistry;
+    private AtomicLong nanoTime;
+    private EmployeeDetailsCache employeeDetailsCache;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        nanoTime = new AtomicLong();
+        employeeDetailsCache = new EmployeeDetailsCache(10, TTL, meterRegistry, nanoTime::get);
+    }
+
+    @Test
+    public void testGetCountsHitsAndMisses() {
+
+        employeeDetailsCache.put("a", getDetails(4), employeeDetailsCache.getInvalidationMark());
+
+        Assert.assertTrue(employeeDetailsCache.get("a").isPresent());
+        Assert.assertFalse(employeeDetailsCache.get("b").isPresent());
+
+        Assert.assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count(), 0);
+        Assert.assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count(), 0);
+    }
+
+    @Test
+    public void testPutEvictsTheOldestWhenTheBytesAreExceeded() {
+
+        long mark = employeeDetailsCache.getInvalidationMark();
+
+        employeeDetailsCache.put("a", getDetails(4), mark);
+        employeeDetailsCache.put("b", getDetails(4), mark);
+        employeeDetailsCache.put("c", getDetails(4), mark);
+
+        Assert.assertFalse(employeeDetailsCache.get("a").isPresent());
+        Assert.assertTrue(employeeDetailsCache.get("c").isPresent());
+        Assert.assertEquals(8, employeeDetailsCache.getTotalBytes());
+        Assert.assertEquals(8.0, meterRegistry.get("cache.bytes").gauge().value(), 0);
+        Assert.assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count(), 0);
+    }
+
+    @Test
+    public void testPutWhenTheEntryIsLargerThanTheCache() {
+
+        Assert.assertFalse(employeeDetailsCache.put("a", getDetails(11), employeeDetailsCache.getInvalidationMark()));
+        Assert.assertEquals(0, employeeDetailsCache.size());
+    }
+
+    @Test
+    public void testGetWhenTheEntryHasExpired() {
+
+        employeeDetailsCache.put("a", getDetails(4), employeeDetailsCache.getInvalidationMark());
+
+        nanoTime.addAndGet(TTL.toNanos());
+
+        Assert.assertFalse(employeeDetailsCache.get("a").isPresent());
+        Assert.assertEquals(0, employeeDetailsCache.getTotalBytes());
+        Assert.assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count(), 0);
+    }
+
+    @Test
+    public void testInvalidateRemovesTheEntry() {
+
+        employeeDetailsCache.put("a", getDetails(4), employeeDetailsCache.getInvalidationMark());
+
+        employeeDetailsCache.invalidate("a");
+
+        Assert.assertFalse(employeeDetailsCache.get("a").isPresent());
+        Assert.assertEquals(0, employeeDetailsCache.getTotalBytes());
+    }
+
+    @Test
+    public void testPutIsDroppedWhenInvalidatedDuringTheLoad() {
+
+        long mark = employeeDetailsCache.getInvalidationMark();
+
+        employeeDetailsCache.invalidate("a");
+
+        Assert.assertFalse(employeeDetailsCache.put("a", getDetails(4), mark));
+        Assert.assertFalse(employeeDetailsCache.get("a").isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCacheWhenTimeToLiveIsZero() {
+
+        new EmployeeDetailsCache(10, Duration.ZERO, meterRegistry);
+    }
+
+    private EncodedEmployeeDetails getDetails(final int length) {
+
+        return new EncodedEmployeeDetails(0, new byte[length]);
+    }
+}
@@ -0,0 +1,152 @@
+package com.sandemo.hrms.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeSearchIndexTest {
+
+    private static final Long HR = 1L;
+    private static final Long IT = 2L;
+
+    private MeterRegistry meterRegistry;
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        employeeSearchIndex = new EmployeeSearchIndex(2, meterRegistry);
+
+        employeeSearchIndex.rebuild(() -> Stream.of(
+                new EmployeeSearchIndex.IndexedEmployee("e1", "Anna Smith", "anna.smith@test.com", HR),
+                new EmployeeSearchIndex.IndexedEmployee("e2", "Andrew Jones", "ajones@test.com", IT),
+                new EmployeeSearchIndex.IndexedEmployee("e3", "John Anderson-Smythe", "john@test.com", HR),
+                new EmployeeSearchIndex.IndexedEmployee("e4", "Bob Brown", "bob@test.com", IT)));
+    }
+
+    @Test
+    public void testSearchMatchesTheStartOfAnyWordOfTheName() {
+
+        Assert.assertEquals(Arrays.asList("e1", "e3"), ids(employeeSearchIndex.search("sm", null, 10)));
+        Assert.assertEquals(Arrays.asList("e3"), ids(employeeSearchIndex.search("smy", null, 10)));
+        Assert.assertTrue(employeeSearchIndex.search("mith", null, 10).isEmpty());
+    }
+
+    @Test
+    public void testSearchMatchesTheStartOfTheEmailIgnoringTheCase() {
+
+        Assert.assertEquals(Arrays.asList("e2"), ids(employeeSearchIndex.search("AJO", null, 10)));
+        Assert.assertEquals(Arrays.asList("e4"), ids(employeeSearchIndex.search("bob@", null, 10)));
+    }
+
+    @Test
+    public void testSearchOrdersByTheMatchedTextAndAppliesTheLimit() {
+
+        // anderson-smythe < andrew jones < anna smith < anna.smith@, each employee is returned once
+        Assert.assertEquals(Arrays.asList("e3", "e2", "e1"), ids(employeeSearchIndex.search("an", null, 10)));
+        Assert.assertEquals(Arrays.asList("e3", "e2"), ids(employeeSearchIndex.search("an", null, 2)));
+    }
+
+    @Test
+    public void testSearchFiltersTheDepartment() {
+
+        Assert.assertEquals(Arrays.asList("e3", "e1"), ids(employeeSearchIndex.search("an", HR, 10)));
+        Assert.assertEquals(Arrays.asList("e2"), ids(employeeSearchIndex.search("an", IT, 10)));
+        Assert.assertTrue(employeeSearchIndex.search("an", 99L, 10).isEmpty());
+    }
+
+    @Test
+    public void testPendingChangesShadowTheSegment() {
+
+        employeeSearchIndex.put("e1", "Zoe Smith", "zoe@test.com", HR);
+        employeeSearchIndex.remove("e2");
+        employeeSearchIndex.put("e5", "Ann Lee", "lee@test.com", IT);
+
+        Assert.assertEquals(Arrays.asList("e3", "e5"), ids(employeeSearchIndex.search("an", null, 10)));
+        Assert.assertEquals(Arrays.asList("e1"), ids(employeeSearchIndex.search("zo", null, 10)));
+        Assert.assertEquals(4, employeeSearchIndex.size());
+        Assert.assertEquals(3, employeeSearchIndex.pendingSize());
+    }
+
+    @Test
+    public void testCompactFoldsThePendingChanges() {
+
+        employeeSearchIndex.put("e5", "Ann Lee", "lee@test.com", IT);
+        Assert.assertFalse(employeeSearchIndex.needsCompaction());
+
+        employeeSearchIndex.remove("e2");
+        Assert.assertTrue(employeeSearchIndex.needsCompaction());
+
+        employeeSearchIndex.compact();
+
+        Assert.assertEquals(0, employeeSearchIndex.pendingSize());
+        Assert.assertEquals(4, employeeSearchIndex.size());
+        Assert.assertEquals(Arrays.asList("e3", "e5", "e1"), ids(employeeSearchIndex.search("an", null, 10)));
+        Assert.assertEquals(1, meterRegistry.get("hrms.employee.search.index.build").tag("type", "compaction")
+                .timer().count());
+    }
+
+    @Test
+    public void testRebuildKeepsTheChangesArrivingWhileLoading() {
+
+        employeeSearchIndex.put("e5", "Ann Lee", "lee@test.com", IT);
+
+        employeeSearchIndex.rebuild(() -> {
+
+            // A change committed while the database is read is not part of the loaded employees
+            employeeSearchIndex.put("e6", "Anton Roe", "roe@test.com", HR);
+
+            return Stream.of(new EmployeeSearchIndex.IndexedEmployee("e5", "Ann Lee", "lee@test.com", IT));
+        });
+
+        Assert.assertEquals(1, employeeSearchIndex.size());
+        Assert.assertEquals(1, employeeSearchIndex.pendingSize());
+        Assert.assertEquals(Arrays.asList("e5", "e6"), ids(employeeSearchIndex.search("an", null, 10)));
+    }
+
+    @Test
+    public void testSearchWhenThePrefixIsEmpty() {
+
+        Assert.assertTrue(employeeSearchIndex.search("", null, 10).isEmpty());
+        Assert.assertTrue(employeeSearchIndex.search(null, null, 10).isEmpty());
+    }
+
+    @Test
+    public void testMetricsAreRecorded() {
+
+        employeeSearchIndex.search("an", null, 10);
+
+        Assert.assertEquals(1, meterRegistry.get("hrms.employee.search.index.build").tag("type", "rebuild")
+                .timer().count());
+        Assert.assertEquals(1, meterRegistry.get("hrms.employee.search.index.search").timer().count());
+        Assert.assertEquals(4.0, meterRegistry.get("hrms.employee.search.index.size").gauge().value(), 0);
+        Assert.assertTrue(meterRegistry.get("hrms.employee.search.index.bytes").gauge().value() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIndexWhenCompactionThresholdIsZero() {
+
+        new EmployeeSearchIndex(0, meterRegistry);
+    }
+
+    private List<String> ids(final List<EmployeeSearchIndex.IndexedEmployee> indexedEmployees) {
+
+        return indexedEmployees.stream()
+                .map(EmployeeSearchIndex.IndexedEmployee::getEmployeeId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,118 @@
+package com.sandemo.hrms.context;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeEventKafkaProducerContextTest {
+
+    private MockEnvironment environment;
+    private EmployeeEventKafkaProducerContext employeeEventKafkaProducerContext;
+
+    @Before
+    public void init() {
+
+        environment = new MockEnvironment()
+                .withProperty("kafka.producer.bootstrap.servers", "localhost:9092");
+        employeeEventKafkaProducerContext = new EmployeeEventKafkaProducerContext(environment);
+    }
+
+    @Test
+    public void testDefaultProfileKeepsTheClientDefaults() {
+
+        Map<String, Object> config = employeeEventKafkaProducerContext.getProducerConfig();
+
+        Assert.assertFalse(config.containsKey(ProducerConfig.LINGER_MS_CONFIG));
+        Assert.assertFalse(config.containsKey(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        Assert.assertEquals("localhost:9092", config.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+    }
+
+    @Test
+    public void testThroughputProfile() {
+
+        environment.setProperty("kafka.producer.profile", "throughput");
+
+        Map<String, Object> config = employeeEventKafkaProducerContext.getProducerConfig();
+
+        Assert.assertEquals("20", config.get(ProducerConfig.LINGER_MS_CONFIG));
+        Assert.assertEquals("131072", config.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        Assert.assertEquals("lz4", config.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        Assert.assertEquals("true", config.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        Assert.assertEquals("all", config.get(ProducerConfig.ACKS_CONFIG));
+        Assert.assertEquals("5", config.get(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION));
+    }
+
+    @Test
+    public void testLatencyProfile() {
+
+        environment.setProperty("kafka.producer.profile", "LATENCY");
+
+        Map<String, Object> config = employeeEventKafkaProducerContext.getProducerConfig();
+
+        Assert.assertEquals("0", config.get(ProducerConfig.LINGER_MS_CONFIG));
+        Assert.assertEquals("none", config.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        Assert.assertEquals("1000", config.get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+    }
+
+    @Test
+    public void testPropertyOverridesTheProfile() {
+
+        environment.setProperty("kafka.producer.profile", "throughput");
+        environment.setProperty("kafka.producer.compression.type", "zstd");
+        environment.setProperty("kafka.producer.linger.ms", "50");
+
+        Map<String, Object> config = employeeEventKafkaProducerContext.getProducerConfig();
+
+        Assert.assertEquals("zstd", config.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        Assert.assertEquals("50", config.get(ProducerConfig.LINGER_MS_CONFIG));
+        Assert.assertEquals("131072", config.get(ProducerConfig.BATCH_SIZE_CONFIG));
+    }
+
+    @Test
+    public void testSingleInFlightRequestWithoutIdempotence() {
+
+        environment.setProperty("kafka.producer.enable.idempotence", "false");
+        environment.setProperty("kafka.producer.acks", "1");
+        environment.setProperty("kafka.producer.max.in.flight.requests.per.connection", "1");
+
+        Map<String, Object> config = employeeEventKafkaProducerContext.getProducerConfig();
+
+        Assert.assertEquals("1", config.get(ProducerConfig.ACKS_CONFIG));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInFlightRequestsWithoutIdempotence() {
+
+        environment.setProperty("kafka.producer.profile", "throughput");
+        environment.setProperty("kafka.producer.enable.idempotence", "false");
+
+        employeeEventKafkaProducerContext.getProducerConfig();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIdempotenceWithoutAcksAll() {
+
+        environment.setProperty("kafka.producer.profile", "latency");
+        environment.setProperty("kafka.producer.acks", "1");
+
+        employeeEventKafkaProducerContext.getProducerConfig();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownProfile() {
+
+        environment.setProperty("kafka.producer.profile", "fastest");
+
+        employeeEventKafkaProducerContext.getProducerConfig();
+    }
+}
@@ -0,0 +1,107 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.registry.EmbeddedSchemaRegistryClient;
+import com.sandemo.hrms.registry.MeteredSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeEventSchemaRegistryContextTest {
+
+    private static final String TOPIC = "employee_updates";
+
+    private MockEnvironment environment;
+    private MeterRegistry meterRegistry;
+    private EmployeeEventSchemaRegistryContext employeeEventSchemaRegistryContext;
+
+    @Before
+    public void init() {
+
+        environment = new MockEnvironment()
+                .withProperty("kafka.producer.employee.topic", TOPIC);
+        meterRegistry = new SimpleMeterRegistry();
+        employeeEventSchemaRegistryContext = new EmployeeEventSchemaRegistryContext(environment);
+    }
+
+    @Test
+    public void testEmbeddedRegistryResolvesBothSchemasAtStartup() throws Exception {
+
+        environment.setProperty("kafka.producer.schema.registry.embedded.enabled", "true");
+
+        SchemaRegistryClient client = employeeEventSchemaRegistryContext.employeeEventSchemaRegistryClient(meterRegistry);
+
+        Assert.assertTrue(client instanceof EmbeddedSchemaRegistryClient);
+        Assert.assertEquals(2, meterRegistry.get("hrms.kafka.schema.registry.lookup")
+                .tags("registry", "embedded", "operation", "register", "outcome", "success").timer().count());
+
+        client.getId(TOPIC + "-com.sandemo.hrms.EmployeeEventKey", EmployeeEventKey.getClassSchema());
+        client.getId(TOPIC + "-com.sandemo.hrms.EmployeeEventValue", EmployeeEventValue.getClassSchema());
+
+        // The serializer lookups are answered from the startup resolution
+        Assert.assertTrue(meterRegistry.find("hrms.kafka.schema.registry.lookup").tag("operation", "get_id")
+                .timers().isEmpty());
+    }
+
+    @Test
+    public void testDualModeResolvesTheV2SchemaOfTheV2Topic() throws Exception {
+
+        environment.setProperty("kafka.producer.schema.registry.embedded.enabled", "true");
+        environment.setProperty("kafka.producer.employee.schema.mode", "dual");
+        environment.setProperty("kafka.producer.employee.v2.topic", TOPIC + "_v2");
+        environment.setProperty("kafka.producer.employee.v2.key.encoding", "string");
+
+        SchemaRegistryClient client = employeeEventSchemaRegistryContext.employeeEventSchemaRegistryClient(meterRegistry);
+
+        // The string key of the v2 topic is not registered
+        Assert.assertEquals(3, meterRegistry.get("hrms.kafka.schema.registry.lookup")
+                .tags("registry", "embedded", "operation", "register", "outcome", "success").timer().count());
+
+        client.getId(TOPIC + "_v2-com.sandemo.hrms.v2.EmployeeEventValue",
+                EmployeeEventFactoryService.EMPLOYEE_EVENT_VALUE_V2_SCHEMA);
+
+        Assert.assertTrue(meterRegistry.find("hrms.kafka.schema.registry.lookup").tag("operation", "get_id")
+                .timers().isEmpty());
+    }
+
+    @Test
+    public void testRemoteRegistryWhichCanNotBeReachedDoesNotFailTheStartup() {
+
+        environment.setProperty("kafka.producer.schema.registry.url", "http://localhost:1");
+
+        SchemaRegistryClient client = employeeEventSchemaRegistryContext.employeeEventSchemaRegistryClient(meterRegistry);
+
+        Assert.assertTrue(client instanceof MeteredSchemaRegistryClient);
+        Assert.assertEquals(2, meterRegistry.get("hrms.kafka.schema.registry.lookup")
+                .tags("registry", "remote", "operation", "get_id", "outcome", "error").timer().count());
+    }
+
+    @Test
+    public void testSubjectName() {
+
+        Assert.assertEquals(TOPIC + "-com.sandemo.hrms.EmployeeEventKey",
+                EmployeeEventSchemaRegistryContext.subjectName(
+                        "io.confluent.kafka.serializers.subject.TopicRecordNameStrategy", TOPIC, true,
+                        EmployeeEventKey.getClassSchema()));
+        Assert.assertEquals(TOPIC + "-value", EmployeeEventSchemaRegistryContext.subjectName(
+                "io.confluent.kafka.serializers.subject.strategy.TopicNameStrategy", TOPIC, false,
+                EmployeeEventValue.getClassSchema()));
+        Assert.assertEquals("com.sandemo.hrms.EmployeeEventValue", EmployeeEventSchemaRegistryContext.subjectName(
+                "io.confluent.kafka.serializers.subject.RecordNameStrategy", TOPIC, false,
+                EmployeeEventValue.getClassSchema()));
+        Assert.assertNull(EmployeeEventSchemaRegistryContext.subjectName("com.example.CustomStrategy", TOPIC, false,
+                EmployeeEventValue.getClassSchema()));
+    }
+}
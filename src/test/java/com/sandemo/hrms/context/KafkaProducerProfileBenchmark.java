@@ -0,0 +1,134 @@
+package com.sandemo.hrms.context;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.constant.KafkaProducerProfile;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Sends the same employee events under each producer profile and prints the events/sec up to the last acknowledgement.
+ * It is not run with the tests, start it against the broker of local/docker-compose.yml:
+ *
+ * java ... com.sandemo.hrms.context.KafkaProducerProfileBenchmark localhost:9092 employee_updates_benchmark 200000
+ *
+ * With "mock" as the bootstrap servers it runs on a MockProducer, which ignores linger, batching and compression, so it
+ * only measures the encoding and the client overhead of the events.
+ *
+ * The events are encoded up front as plain Avro bytes, the schema registry is not involved.
+ */
+public class KafkaProducerProfileBenchmark {
+
+    private static final int EMPLOYEES = 1000;
+
+    public static void main(String[] args) throws Exception {
+
+        String bootstrapServers = args.length > 0 ? args[0] : "localhost:9092";
+        String topic = args.length > 1 ? args[1] : "employee_updates_benchmark";
+        int events = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        byte[][] keys = new byte[EMPLOYEES][];
+        byte[][] values = new byte[EMPLOYEES][];
+        encodeEvents(keys, values);
+
+        for (KafkaProducerProfile profile : KafkaProducerProfile.values()) {
+
+            // One run to warm up the client and the topic, one to measure
+            run(profile, bootstrapServers, topic, events / 10, keys, values);
+            double eventsPerSec = run(profile, bootstrapServers, topic, events, keys, values);
+
+            System.out.printf("%-10s %,12.0f events/sec%n", profile, eventsPerSec);
+        }
+    }
+
+    private static double run(final KafkaProducerProfile profile, final String bootstrapServers, final String topic,
+                              final int events, final byte[][] keys, final byte[][] values) {
+
+        AtomicLong failed = new AtomicLong();
+
+        try (Producer<byte[], byte[]> producer = producer(profile, bootstrapServers)) {
+
+            long start = System.nanoTime();
+
+            for (int i = 0; i < events; i++) {
+
+                producer.send(new ProducerRecord<>(topic, keys[i % EMPLOYEES], values[i % EMPLOYEES]),
+                        (metadata, exception) -> {
+
+                            if (exception != null) {
+                                failed.incrementAndGet();
+                            }
+                        });
+            }
+
+            producer.flush();
+
+            long elapsed = System.nanoTime() - start;
+
+            if (failed.get() > 0) {
+
+                throw new IllegalStateException(failed.get() + " of " + events + " events failed under " + profile);
+            }
+
+            return events / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private static Producer<byte[], byte[]> producer(final KafkaProducerProfile profile,
+                                                     final String bootstrapServers) {
+
+        if ("mock".equals(bootstrapServers)) {
+
+            return new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        }
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("kafka.producer.profile", profile.name());
+
+        Map<String, Object> config = new HashMap<>(
+                new EmployeeEventKafkaProducerContext(environment).getTuningConfig());
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        return new KafkaProducer<>(config, new ByteArraySerializer(), new ByteArraySerializer());
+    }
+
+    private static void encodeEvents(final byte[][] keys, final byte[][] values) {
+
+        EmployeeEventFactoryService employeeEventFactoryService = new EmployeeEventFactoryService();
+        DepartmentEntity departmentEntity = DepartmentEntity.builder().departId(1L).name("Engineering").build();
+
+        for (int i = 0; i < EMPLOYEES; i++) {
+
+            EmployeeEntity employeeEntity = EmployeeEntity.builder()
+                    .employeeId("benchmark-" + i)
+                    .name("Benchmark Employee " + i)
+                    .email("benchmark." + i + "@sandemo.com")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i))
+                    .departmentEntity(departmentEntity)
+                    .createdAt(ZonedDateTime.now())
+                    .updatedAt(ZonedDateTime.now())
+                    .build();
+
+            keys[i] = employeeEventFactoryService.toBytes(
+                    employeeEventFactoryService.getEmployeeEventKey(employeeEntity.getEmployeeId()));
+            values[i] = employeeEventFactoryService.toBytes(
+                    employeeEventFactoryService.getEmployeeEventValue(employeeEntity, EmployeeEventType.UPDATED));
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.sandemo.hrms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.GlobalConstant;
 import com.sandemo.hrms.dto.request.DepartmentRequestDto;
 import com.sandemo.hrms.dto.response.DepartmentResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
 import com.sandemo.hrms.dto.response.GenericExceptionResponse;
 import com.sandemo.hrms.EmployeeServiceApp;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.repository.DepartmentEntityRepository;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
 import org.flywaydb.core.Flyway;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -22,6 +31,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
  */
@@ -32,6 +47,7 @@ public class DepartmentControllerIntegrationTest {
 
     private static final String BASE_URL = "http://localhost:";
     private static final String CREATE_DEPART_URL = "/sandemo/department/create";
+    private static final String DEPART_EMPLOYEES_URL = "/sandemo/department/%d/employees";
     private static final String DEPART_NAME = "HR";
 
     private TestRestTemplate restTemplate = new TestRestTemplate();
@@ -44,6 +60,12 @@ public class DepartmentControllerIntegrationTest {
     @MockBean
     private Flyway flyway;
 
+    @Autowired
+    private DepartmentEntityRepository departmentEntityRepository;
+
+    @Autowired
+    private EmployeeEntityRepository employeeEntityRepository;
+
     @LocalServerPort
     private Integer port;
 
@@ -97,4 +119,80 @@ public class DepartmentControllerIntegrationTest {
         Assert.assertFalse(response.getBody().getErrors().isEmpty());
         Assert.assertEquals(1, response.getBody().getErrors().size());
     }
+
+    @Test
+    public void testGetDepartmentEmployeesPageByPageAndStreamed() throws Exception {
+
+        // Given, an employee of another department which must be left out
+        DepartmentEntity departmentEntity = this.departmentEntityRepository.save(
+                DepartmentEntity.builder().name("Reorg").build());
+        DepartmentEntity otherDepartment = this.departmentEntityRepository.save(
+                DepartmentEntity.builder().name("Other").build());
+
+        List<String> employeeIds = Arrays.asList(
+                saveEmployee("reorg1", departmentEntity),
+                saveEmployee("reorg2", departmentEntity),
+                saveEmployee("reorg3", departmentEntity));
+        saveEmployee("other1", otherDepartment);
+
+        String url = BASE_URL + port + String.format(DEPART_EMPLOYEES_URL, departmentEntity.getDepartId());
+
+        // Result, pages of two chained by the cursor
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+
+        do {
+
+            ResponseEntity<EmployeeListResponseDto> response = restTemplate.getForEntity(
+                    url + "?size=2" + (cursor == null ? "" : "&cursor=" + cursor), EmployeeListResponseDto.class);
+
+            Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+
+            response.getBody().getEmployees().stream().map(EmployeeListItemDto::getEmployeeId).forEach(paged::add);
+            cursor = response.getBody().getNextCursor();
+
+        } while (cursor != null);
+
+        Assert.assertEquals(employeeIds, paged);
+
+        // Result, the whole department streamed as NDJSON
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.parseMediaType(GlobalConstant.NDJSON_MEDIA_TYPE)));
+
+        ResponseEntity<String> streamed = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers),
+                String.class);
+
+        Assert.assertEquals(HttpStatus.OK.value(), streamed.getStatusCodeValue());
+        Assert.assertEquals(GlobalConstant.NDJSON_MEDIA_TYPE, streamed.getHeaders().getContentType().toString());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> streamedIds = new ArrayList<>();
+
+        for (String line : streamed.getBody().split("\n")) {
+
+            streamedIds.add(objectMapper.readTree(line).get("employeeId").asText());
+        }
+
+        Assert.assertEquals(employeeIds, streamedIds);
+    }
+
+    @Test
+    public void testGetDepartmentEmployeesWhenDepartmentNotFound() {
+
+        ResponseEntity<GenericExceptionResponse> response = restTemplate.getForEntity(
+                BASE_URL + port + String.format(DEPART_EMPLOYEES_URL, -1L), GenericExceptionResponse.class);
+
+        Assert.assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCodeValue());
+    }
+
+    private String saveEmployee(final String employeeId, final DepartmentEntity departmentEntity) {
+
+        return this.employeeEntityRepository.save(
+                EmployeeEntity.builder()
+                        .employeeId(employeeId)
+                        .name(employeeId)
+                        .email(employeeId + "@email.com")
+                        .dateOfBirth(LocalDate.now())
+                        .departmentEntity(departmentEntity).build()).getEmployeeId();
+    }
 }
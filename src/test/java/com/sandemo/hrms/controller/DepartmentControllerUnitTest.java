@@ -1,12 +1,22 @@
 package com.sandemo.hrms.controller;
 
 import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.constant.GlobalConstant;
 import com.sandemo.hrms.dto.request.DepartmentRequestDto;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.DepartmentListResponseDto;
 import com.sandemo.hrms.dto.response.DepartmentResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
+import com.sandemo.hrms.model.DepartmentEntity;
 import com.sandemo.hrms.exception.GenericClientRuntimeException;
 import com.sandemo.hrms.exception.GenericServerRuntimeException;
 import com.sandemo.hrms.exception.advice.GenericExceptionHandlerAdvice;
 import com.sandemo.hrms.service.DepartmentService;
+import com.sandemo.hrms.service.EmployeeExportService;
+import com.sandemo.hrms.service.EmployeeListService;
 import io.restassured.http.ContentType;
 import io.restassured.module.mockmvc.RestAssuredMockMvc;
 import org.hamcrest.Matchers;
@@ -20,6 +30,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 
+import java.util.Collections;
+import java.util.Optional;
+
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
  */
@@ -28,14 +41,23 @@ public class DepartmentControllerUnitTest {
 
     private static final String DEPART_NAME = "HR";
     private static final String URL = "/department/create";
+    private static final String LIST_URL = "/department/list";
+    private static final String EMPLOYEES_URL = "/department/1/employees";
     private static final String JSON_FIELD = "departmentId";
     private static final Long DEPART_ID = 1L;
 
     @Mock
     private DepartmentService departmentService;
 
+    @Mock
+    private EmployeeListService employeeListService;
+
+    @Mock
+    private EmployeeExportService employeeExportService;
+
     @InjectMocks
-    private DepartmentController departmentController = new DepartmentController(departmentService);
+    private DepartmentController departmentController = new DepartmentController(departmentService,
+            employeeListService, employeeExportService);
 
     @InjectMocks
     private GenericExceptionHandlerAdvice genericExceptionHandlerAdvice;
@@ -134,6 +156,76 @@ public class DepartmentControllerUnitTest {
                 .body("", Matchers.aMapWithSize(5));
     }
 
+    @Test
+    public void testGetDepartmentListSuccess() {
+
+        Mockito.when(departmentService.getDepartmentList()).thenReturn(DepartmentListResponseDto.builder()
+                .departments(Collections.singletonList(new DepartmentDto(DEPART_ID, DEPART_NAME, 3)))
+                .build());
+
+        RestAssuredMockMvc.given()
+                .when()
+                .get(LIST_URL)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .body("departments", Matchers.hasSize(1),
+                        "departments[0].departmentId", Matchers.equalTo(DEPART_ID.intValue()),
+                        "departments[0].name", Matchers.equalTo(DEPART_NAME),
+                        "departments[0].headcount", Matchers.equalTo(3));
+    }
+
+    @Test
+    public void testGetDepartmentEmployeesSuccess() {
+
+        Mockito.when(departmentService.getDepartmentById(DEPART_ID)).thenReturn(Optional.of(
+                DepartmentEntity.builder().departId(DEPART_ID).name(DEPART_NAME).build()));
+        Mockito.when(employeeListService.getEmployees(Mockito.any(EmployeeListRequestDto.class)))
+                .thenReturn(EmployeeListResponseDto.builder()
+                        .employees(Collections.singletonList(EmployeeListItemDto.builder().employeeId("emp1").build()))
+                        .nextCursor("cursor")
+                        .build());
+
+        RestAssuredMockMvc.given()
+                .queryParam("cursor", "previous")
+                .queryParam("size", 1)
+                .when()
+                .get(EMPLOYEES_URL)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .body("employees[0].employeeId", Matchers.equalTo("emp1"),
+                        "nextCursor", Matchers.equalTo("cursor"));
+
+        Mockito.verify(employeeListService).getEmployees(Mockito.eq(EmployeeListRequestDto.builder()
+                .departmentId(DEPART_ID)
+                .sort(EmployeeListSort.ID)
+                .cursor("previous")
+                .size(1)
+                .build()));
+    }
+
+    @Test
+    public void testGetDepartmentEmployeesWhenDepartmentNotFound() {
+
+        Mockito.when(departmentService.getDepartmentById(DEPART_ID)).thenReturn(Optional.empty());
+
+        RestAssuredMockMvc.given()
+                .when()
+                .get(EMPLOYEES_URL)
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+
+        RestAssuredMockMvc.given()
+                .accept(GlobalConstant.NDJSON_MEDIA_TYPE)
+                .when()
+                .get(EMPLOYEES_URL)
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+
+        Mockito.verifyZeroInteractions(employeeListService, employeeExportService);
+    }
+
     private DepartmentResponseDto getDepartmentResponseDto() {
 
         return DepartmentResponseDto.builder()
@@ -1,13 +1,30 @@
 package com.sandemo.hrms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.cache.EmployeeDetailsCache;
 import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.BulkRowStatus;
+import com.sandemo.hrms.constant.GlobalConstant;
+import com.sandemo.hrms.constant.LookupStatus;
+import com.sandemo.hrms.dto.request.EmployeeDetailsBatchRequestDto;
 import com.sandemo.hrms.dto.request.EmployeeRequestDto;
+import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.DepartmentListResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeBulkResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchItemDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeImportResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeSearchItemDto;
+import com.sandemo.hrms.dto.response.EmployeeSearchResponseDto;
 import com.sandemo.hrms.model.DepartmentEntity;
 import com.sandemo.hrms.model.EmployeeEntity;
 import com.sandemo.hrms.repository.DepartmentEntityRepository;
 import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.DepartmentHeadcountReconciliationService;
+import com.sandemo.hrms.service.EmployeeSearchService;
 import com.sandemo.hrms.service.KafkaProducerService;
 import com.sandemo.hrms.EmployeeServiceApp;
 import org.flywaydb.core.Flyway;
@@ -31,7 +48,11 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -43,15 +64,23 @@ public class EmployeeControllerIntegrationTest {
 
     private static final String BASE_URL = "http://localhost:";
     private static final String CREATE_EMP_URL = "/sandemo/employee/create";
+    private static final String BULK_CREATE_EMP_URL = "/sandemo/employee/bulk-create";
     private static final String UPDATE_EMP_URL = "/sandemo/employee/update/";
     private static final String DELETE_EMP_URL = "/sandemo/employee/delete/";
     private static final String GET_EMP_URL = "/sandemo/employee/details?employeeId=";
+    private static final String LIST_EMP_URL = "/sandemo/employee/list";
+    private static final String BATCH_GET_EMP_URL = "/sandemo/employee/details/batch";
+    private static final String EXPORT_EMP_URL = "/sandemo/employee/export";
+    private static final String IMPORT_EMP_URL = "/sandemo/employee/import";
+    private static final String LIST_DEPART_URL = "/sandemo/department/list";
+    private static final String SEARCH_EMP_URL = "/sandemo/employee/search?q=";
     private static final String DEPART_NAME = "HR";
     private static final String EMPLOYEE_ID = "testid1";
     private static final String EMPLOYEE_NAME = "testname1";
     private static final String EMPLOYEE_EMAIL = "test@email.com";
     private static final String EMPLOYEE_1_EMAIL = "test2@email.com";
     private static final String EMPLOYEE_2_EMAIL = "test2@email.com";
+    private static final String EMPLOYEE_3_EMAIL = "test3@email.com";
     private static final Long INVALID_DEPART_ID = -1L;
 
     private static final HttpHeaders HEADERS = new HttpHeaders();
@@ -70,6 +99,15 @@ public class EmployeeControllerIntegrationTest {
     @MockBean
     private KafkaProducerService employeeKafkaProducerService;
 
+    @Autowired
+    private EmployeeDetailsCache employeeDetailsCache;
+
+    @Autowired
+    private DepartmentHeadcountReconciliationService departmentHeadcountReconciliationService;
+
+    @Autowired
+    private EmployeeSearchService employeeSearchService;
+
     @MockBean
     private Flyway flyway;
 
@@ -83,6 +121,9 @@ public class EmployeeControllerIntegrationTest {
         this.employeeEntityRepository.deleteAll();
         this.departmentEntityRepository.deleteAll();
 
+        // The employees are recreated with the same id behind the service, so their cached details are dropped
+        this.employeeDetailsCache.clear();
+
         departmentEntity = this.departmentEntityRepository.save(DepartmentEntity.builder().name(DEPART_NAME).build());
 
         // This will be used for update and delete scenarios
@@ -93,6 +134,9 @@ public class EmployeeControllerIntegrationTest {
                         .email(EMPLOYEE_EMAIL)
                         .dateOfBirth(LocalDate.now())
                         .departmentEntity(departmentEntity).build());
+
+        // The setup is saved behind the service, so the search index is rebuilt from the database
+        this.employeeSearchService.rebuildSearchIndex();
     }
 
     @LocalServerPort
@@ -160,6 +204,52 @@ public class EmployeeControllerIntegrationTest {
         Assert.assertNotNull(response.getBody());
     }
 
+    @Test
+    public void testCreateEmployeesInBulkWithValidAndInvalidRows() {
+
+        // Given
+        HttpEntity<List<EmployeeRequestDto>> entity = new HttpEntity<List<EmployeeRequestDto>>(
+                Arrays.asList(
+                        EmployeeRequestDto.builder()
+                                .name(EMPLOYEE_NAME)
+                                .email(EMPLOYEE_3_EMAIL)
+                                .dateOfBirth(LocalDate.now())
+                                .departmentId(departmentEntity.getDepartId())
+                                .build(),
+                        EmployeeRequestDto.builder()
+                                .name(EMPLOYEE_NAME)
+                                .email(EMPLOYEE_EMAIL)
+                                .dateOfBirth(LocalDate.now())
+                                .departmentId(departmentEntity.getDepartId())
+                                .build(),
+                        EmployeeRequestDto.builder()
+                                .name(EMPLOYEE_NAME)
+                                .email(EMPLOYEE_1_EMAIL)
+                                .dateOfBirth(LocalDate.now())
+                                .departmentId(INVALID_DEPART_ID)
+                                .build()), HEADERS);
+
+        ResponseEntity<EmployeeBulkResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + BULK_CREATE_EMP_URL, HttpMethod.POST, entity, EmployeeBulkResponseDto.class);
+
+        // Result
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertNotNull(response.getBody());
+        Assert.assertEquals(Integer.valueOf(1), response.getBody().getCreated());
+        Assert.assertEquals(Integer.valueOf(2), response.getBody().getRejected());
+        Assert.assertEquals(BulkRowStatus.CREATED, response.getBody().getResults().get(0).getStatus());
+        Assert.assertEquals(BulkRowStatus.REJECTED, response.getBody().getResults().get(1).getStatus());
+        Assert.assertEquals(BulkRowStatus.REJECTED, response.getBody().getResults().get(2).getStatus());
+
+        // Verify in the database
+
+        Optional<EmployeeEntity> employeeEntityOptional = this.employeeEntityRepository.findByEmployeeId(
+                response.getBody().getResults().get(0).getEmployeeId());
+
+        Assert.assertTrue(employeeEntityOptional.isPresent());
+        Assert.assertEquals(EMPLOYEE_3_EMAIL, employeeEntityOptional.get().getEmail());
+    }
+
     @Test
     public void testUpdateEmployeeValid() {
 
@@ -213,6 +303,19 @@ public class EmployeeControllerIntegrationTest {
         Assert.assertFalse(employeeEntityOptional.isPresent());
     }
 
+    @Test
+    public void testDeleteEmployeeWhenNotFound() {
+
+        // Given
+        HttpEntity<EmployeeRequestDto> entity = new HttpEntity<EmployeeRequestDto>(null, HEADERS);
+
+        ResponseEntity<EmployeeResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + DELETE_EMP_URL + "unknown-id", HttpMethod.DELETE, entity, EmployeeResponseDto.class);
+
+        // Result
+        Assert.assertEquals(HttpStatus.NOT_FOUND.value(), response.getStatusCodeValue());
+    }
+
     @Test
     public void testGetEmployeeDetailsValid() {
 
@@ -235,4 +338,306 @@ public class EmployeeControllerIntegrationTest {
         Assert.assertEquals(employeeEntity.getDepartmentEntity().getDepartId(), response.getBody().getDepartment().getDepartmentId());
         Assert.assertEquals(employeeEntity.getDepartmentEntity().getName(), response.getBody().getDepartment().getName());
     }
+
+    @Test
+    public void testGetEmployeeDetailsAfterUpdate() {
+
+        // Given
+        HttpEntity<EmployeeRequestDto> entity = new HttpEntity<EmployeeRequestDto>(null, HEADERS);
+
+        restTemplate.exchange(BASE_URL + port + GET_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.GET, entity,
+                EmployeeDetailsResponseDto.class);
+
+        restTemplate.exchange(BASE_URL + port + UPDATE_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.PUT,
+                new HttpEntity<EmployeeRequestDto>(EmployeeRequestDto.builder().email(EMPLOYEE_3_EMAIL).build(), HEADERS),
+                EmployeeResponseDto.class);
+
+        ResponseEntity<EmployeeDetailsResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + GET_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.GET, entity,
+                EmployeeDetailsResponseDto.class);
+
+        // Result, the details cached by the first read are invalidated by the update
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertNotNull(response.getBody());
+        Assert.assertEquals(EMPLOYEE_3_EMAIL, response.getBody().getEmail());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsWhenNotModified() {
+
+        // Given
+        ResponseEntity<EmployeeDetailsResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + GET_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.GET,
+                new HttpEntity<EmployeeRequestDto>(null, HEADERS), EmployeeDetailsResponseDto.class);
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(response.getHeaders().getETag());
+
+        ResponseEntity<EmployeeDetailsResponseDto> conditionalResponse = restTemplate.exchange(
+                BASE_URL + port + GET_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.GET,
+                new HttpEntity<EmployeeRequestDto>(null, conditionalHeaders), EmployeeDetailsResponseDto.class);
+
+        // Result
+        Assert.assertEquals("\"0\"", response.getHeaders().getETag());
+        Assert.assertEquals("private, no-cache", response.getHeaders().getCacheControl());
+        Assert.assertEquals(HttpStatus.NOT_MODIFIED.value(), conditionalResponse.getStatusCodeValue());
+        Assert.assertNull(conditionalResponse.getBody());
+        Assert.assertEquals("private, no-cache", conditionalResponse.getHeaders().getCacheControl());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsWhenModifiedAfterUpdate() {
+
+        // Given
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch("\"0\"");
+
+        restTemplate.exchange(BASE_URL + port + UPDATE_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.PUT,
+                new HttpEntity<EmployeeRequestDto>(EmployeeRequestDto.builder().name(EMPLOYEE_NAME + "x").build(), HEADERS),
+                EmployeeResponseDto.class);
+
+        ResponseEntity<EmployeeDetailsResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + GET_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.GET,
+                new HttpEntity<EmployeeRequestDto>(null, conditionalHeaders), EmployeeDetailsResponseDto.class);
+
+        // Result
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertEquals("\"1\"", response.getHeaders().getETag());
+        Assert.assertEquals(EMPLOYEE_NAME + "x", response.getBody().getName());
+    }
+
+    @Test
+    public void testUpdateEmployeeWithIfMatch() {
+
+        // Given
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setContentType(MediaType.APPLICATION_JSON);
+        conditionalHeaders.setIfMatch("\"0\"");
+
+        HttpEntity<EmployeeRequestDto> entity = new HttpEntity<EmployeeRequestDto>(
+                EmployeeRequestDto.builder().email(EMPLOYEE_3_EMAIL).build(), conditionalHeaders);
+
+        ResponseEntity<EmployeeResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + UPDATE_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.PUT, entity,
+                EmployeeResponseDto.class);
+
+        ResponseEntity<EmployeeResponseDto> staleResponse = restTemplate.exchange(
+                BASE_URL + port + UPDATE_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.PUT, entity,
+                EmployeeResponseDto.class);
+
+        // Result, the second update still expects the version the first one moved past
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertEquals(HttpStatus.PRECONDITION_FAILED.value(), staleResponse.getStatusCodeValue());
+
+        Optional<EmployeeEntity> employeeEntityOptional = this.employeeEntityRepository.findByEmployeeId(employeeEntity.getEmployeeId());
+
+        Assert.assertTrue(employeeEntityOptional.isPresent());
+        Assert.assertEquals(EMPLOYEE_3_EMAIL, employeeEntityOptional.get().getEmail());
+        Assert.assertEquals(Long.valueOf(1L), employeeEntityOptional.get().getVersion());
+    }
+
+    @Test
+    public void testGetEmployeesPageByPage() {
+
+        // Given
+        this.employeeEntityRepository.save(
+                EmployeeEntity.builder()
+                        .employeeId(EMPLOYEE_ID + "2")
+                        .name(EMPLOYEE_NAME)
+                        .email(EMPLOYEE_2_EMAIL)
+                        .dateOfBirth(LocalDate.now())
+                        .departmentEntity(departmentEntity).build());
+
+        String url = BASE_URL + port + LIST_EMP_URL + "?size=1&departmentId=" + departmentEntity.getDepartId();
+
+        ResponseEntity<EmployeeListResponseDto> firstPage = restTemplate.getForEntity(url, EmployeeListResponseDto.class);
+
+        ResponseEntity<EmployeeListResponseDto> secondPage = restTemplate.getForEntity(
+                url + "&cursor=" + firstPage.getBody().getNextCursor(), EmployeeListResponseDto.class);
+
+        // Result
+        Assert.assertEquals(HttpStatus.OK.value(), firstPage.getStatusCodeValue());
+        Assert.assertEquals(EMPLOYEE_ID, firstPage.getBody().getEmployees().get(0).getEmployeeId());
+        Assert.assertEquals(DEPART_NAME, firstPage.getBody().getEmployees().get(0).getDepartment().getName());
+        Assert.assertNotNull(firstPage.getBody().getNextCursor());
+
+        Assert.assertEquals(HttpStatus.OK.value(), secondPage.getStatusCodeValue());
+        Assert.assertEquals(1, secondPage.getBody().getEmployees().size());
+        Assert.assertEquals(EMPLOYEE_ID + "2", secondPage.getBody().getEmployees().get(0).getEmployeeId());
+        Assert.assertNull(secondPage.getBody().getNextCursor());
+    }
+
+    @Test
+    public void testGetEmployeesWhenSizeIsTooLarge() {
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                BASE_URL + port + LIST_EMP_URL + "?size=100000", String.class);
+
+        Assert.assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatusCodeValue());
+    }
+
+    @Test
+    public void testExportEmployeesValid() throws Exception {
+
+        // Given
+        this.employeeEntityRepository.save(
+                EmployeeEntity.builder()
+                        .employeeId(EMPLOYEE_ID + "2")
+                        .name(EMPLOYEE_NAME)
+                        .email(EMPLOYEE_2_EMAIL)
+                        .dateOfBirth(LocalDate.now())
+                        .departmentEntity(departmentEntity).build());
+
+        ResponseEntity<String> response = restTemplate.getForEntity(BASE_URL + port + EXPORT_EMP_URL, String.class);
+
+        // Result, one employee per line
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertEquals(GlobalConstant.NDJSON_MEDIA_TYPE, response.getHeaders().getContentType().toString());
+
+        String[] lines = response.getBody().split("\n");
+
+        Assert.assertEquals(2, lines.length);
+        Assert.assertEquals(EMPLOYEE_ID, new ObjectMapper().readTree(lines[0]).get("employeeId").asText());
+        Assert.assertEquals(EMPLOYEE_ID + "2", new ObjectMapper().readTree(lines[1]).get("employeeId").asText());
+    }
+
+    @Test
+    public void testImportEmployeesValid() {
+
+        // Given
+        HttpHeaders csvHeaders = new HttpHeaders();
+        csvHeaders.setContentType(MediaType.parseMediaType(GlobalConstant.CSV_MEDIA_TYPE));
+
+        HttpEntity<String> entity = new HttpEntity<>("name,email,dateOfBirth,departmentId\n"
+                + EMPLOYEE_NAME + "," + EMPLOYEE_1_EMAIL + ",1990-01-01," + departmentEntity.getDepartId() + "\n"
+                + EMPLOYEE_NAME + "," + EMPLOYEE_EMAIL + ",," + departmentEntity.getDepartId() + "\n"
+                + EMPLOYEE_NAME + "," + EMPLOYEE_3_EMAIL + ",," + INVALID_DEPART_ID + "\n", csvHeaders);
+
+        ResponseEntity<EmployeeImportResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + IMPORT_EMP_URL, HttpMethod.POST, entity, EmployeeImportResponseDto.class);
+
+        // Result
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertEquals(Long.valueOf(3), response.getBody().getTotal());
+        Assert.assertEquals(Long.valueOf(1), response.getBody().getCreated());
+        Assert.assertEquals(2, response.getBody().getErrors().size());
+        Assert.assertEquals(Long.valueOf(3), response.getBody().getErrors().get(0).getLine());
+        Assert.assertEquals(Long.valueOf(4), response.getBody().getErrors().get(1).getLine());
+
+        Assert.assertTrue(this.employeeEntityRepository.findByEmail(EMPLOYEE_1_EMAIL).isPresent());
+        Assert.assertFalse(this.employeeEntityRepository.findByEmail(EMPLOYEE_3_EMAIL).isPresent());
+    }
+
+    @Test
+    public void testDepartmentHeadcountFollowsTheEmployeeWrites() {
+
+        // The employee of the setup is saved behind the service, the reconciliation corrects the headcount
+        Assert.assertEquals(1, departmentHeadcountReconciliationService.reconcileHeadcounts());
+        Assert.assertEquals(Integer.valueOf(1), getHeadcount(departmentEntity.getDepartId()));
+
+        restTemplate.exchange(BASE_URL + port + CREATE_EMP_URL, HttpMethod.POST, new HttpEntity<>(
+                EmployeeRequestDto.builder()
+                        .name(EMPLOYEE_NAME)
+                        .email(EMPLOYEE_3_EMAIL)
+                        .dateOfBirth(LocalDate.now())
+                        .departmentId(departmentEntity.getDepartId())
+                        .build(), HEADERS), EmployeeResponseDto.class);
+
+        Assert.assertEquals(Integer.valueOf(2), getHeadcount(departmentEntity.getDepartId()));
+
+        // Moving the employee of the setup to another department
+        DepartmentEntity otherDepartment = this.departmentEntityRepository.save(DepartmentEntity.builder().name("Finance").build());
+
+        restTemplate.exchange(BASE_URL + port + UPDATE_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.PUT,
+                new HttpEntity<>(EmployeeRequestDto.builder()
+                        .name(EMPLOYEE_NAME)
+                        .email(EMPLOYEE_EMAIL)
+                        .dateOfBirth(LocalDate.now())
+                        .departmentId(otherDepartment.getDepartId())
+                        .build(), HEADERS), EmployeeResponseDto.class);
+
+        Assert.assertEquals(Integer.valueOf(1), getHeadcount(departmentEntity.getDepartId()));
+        Assert.assertEquals(Integer.valueOf(1), getHeadcount(otherDepartment.getDepartId()));
+
+        restTemplate.exchange(BASE_URL + port + DELETE_EMP_URL + employeeEntity.getEmployeeId(), HttpMethod.DELETE,
+                new HttpEntity<>(null, HEADERS), EmployeeResponseDto.class);
+
+        Assert.assertEquals(Integer.valueOf(0), getHeadcount(otherDepartment.getDepartId()));
+
+        // Nothing drifted along the way
+        Assert.assertEquals(0, departmentHeadcountReconciliationService.reconcileHeadcounts());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsBatchByEmails() {
+
+        ResponseEntity<EmployeeDetailsBatchResponseDto> response = restTemplate.exchange(
+                BASE_URL + port + BATCH_GET_EMP_URL, HttpMethod.POST, new HttpEntity<>(
+                        EmployeeDetailsBatchRequestDto.builder()
+                                .emails(Arrays.asList(EMPLOYEE_3_EMAIL, EMPLOYEE_EMAIL.toUpperCase()))
+                                .build(), HEADERS), EmployeeDetailsBatchResponseDto.class);
+
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertNotNull(response.getBody());
+        Assert.assertEquals(Arrays.asList(LookupStatus.NOT_FOUND, LookupStatus.FOUND), response.getBody().getResults()
+                .stream().map(EmployeeDetailsBatchItemDto::getStatus).collect(Collectors.toList()));
+        Assert.assertEquals(EMPLOYEE_ID, response.getBody().getResults().get(1).getDetails().getEmployeeId());
+        Assert.assertEquals(DEPART_NAME, response.getBody().getResults().get(1).getDetails().getDepartment().getName());
+    }
+
+    @Test
+    public void testSearchEmployeesFollowsTheEmployeeWrites() {
+
+        Assert.assertEquals(Collections.singletonList(EMPLOYEE_ID), searchEmployeeIds("TESTN"));
+
+        ResponseEntity<EmployeeResponseDto> created = restTemplate.exchange(BASE_URL + port + CREATE_EMP_URL,
+                HttpMethod.POST, new HttpEntity<>(EmployeeRequestDto.builder()
+                        .name("Searchable Person")
+                        .email(EMPLOYEE_3_EMAIL)
+                        .dateOfBirth(LocalDate.now())
+                        .departmentId(departmentEntity.getDepartId())
+                        .build(), HEADERS), EmployeeResponseDto.class);
+
+        String createdEmployeeId = created.getBody().getEmployeeId();
+
+        Assert.assertEquals(Collections.singletonList(createdEmployeeId), searchEmployeeIds("pers"));
+        Assert.assertEquals(Collections.singletonList(createdEmployeeId), searchEmployeeIds("test3@"));
+        Assert.assertEquals(Arrays.asList(createdEmployeeId, EMPLOYEE_ID),
+                searchEmployeeIds("test&departmentId=" + departmentEntity.getDepartId()));
+        Assert.assertTrue(searchEmployeeIds("test&departmentId=" + INVALID_DEPART_ID).isEmpty());
+
+        restTemplate.exchange(BASE_URL + port + DELETE_EMP_URL + createdEmployeeId, HttpMethod.DELETE,
+                new HttpEntity<>(null, HEADERS), EmployeeResponseDto.class);
+
+        Assert.assertTrue(searchEmployeeIds("pers").isEmpty());
+    }
+
+    private List<String> searchEmployeeIds(final String query) {
+
+        ResponseEntity<EmployeeSearchResponseDto> response = restTemplate.getForEntity(
+                BASE_URL + port + SEARCH_EMP_URL + query, EmployeeSearchResponseDto.class);
+
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertNotNull(response.getBody());
+
+        return response.getBody().getEmployees().stream()
+                .map(EmployeeSearchItemDto::getEmployeeId)
+                .collect(Collectors.toList());
+    }
+
+    private Integer getHeadcount(final Long departmentId) {
+
+        ResponseEntity<DepartmentListResponseDto> response = restTemplate.getForEntity(
+                BASE_URL + port + LIST_DEPART_URL, DepartmentListResponseDto.class);
+
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatusCodeValue());
+        Assert.assertEquals("max-age=30", response.getHeaders().getCacheControl());
+        Assert.assertNotNull(response.getBody());
+
+        return response.getBody().getDepartments().stream()
+                .filter(departmentDto -> departmentId.equals(departmentDto.getDepartmentId()))
+                .map(DepartmentDto::getHeadcount)
+                .findFirst()
+                .orElse(null);
+    }
 }
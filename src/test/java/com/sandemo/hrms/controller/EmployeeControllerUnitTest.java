@@ -1,14 +1,44 @@
 package com.sandemo.hrms.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.cache.EncodedEmployeeDetails;
 import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.BackfillStatus;
+import com.sandemo.hrms.constant.BulkRowStatus;
+import com.sandemo.hrms.constant.LookupStatus;
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.dto.request.EmployeeBackfillRequestDto;
+import com.sandemo.hrms.dto.request.EmployeeDetailsBatchRequestDto;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
 import com.sandemo.hrms.dto.request.EmployeeRequestDto;
 import com.sandemo.hrms.dto.request.PutEmployeeRequestDto;
 import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.EmployeeBackfillResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeBulkResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeBulkRowResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchItemDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeImportResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeImportRowErrorDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeSearchItemDto;
+import com.sandemo.hrms.dto.response.EmployeeSearchResponseDto;
 import com.sandemo.hrms.exception.DepartmentNotFoundException;
+import com.sandemo.hrms.exception.EmployeeBackfillNotFoundException;
 import com.sandemo.hrms.exception.EmployeeNotFoundException;
+import com.sandemo.hrms.exception.EmployeeConcurrentlyModifiedException;
+import com.sandemo.hrms.exception.EmployeeVersionMismatchException;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
 import com.sandemo.hrms.exception.advice.GenericExceptionHandlerAdvice;
+import com.sandemo.hrms.service.EmployeeBackfillService;
+import com.sandemo.hrms.service.EmployeeBulkService;
+import com.sandemo.hrms.service.EmployeeExportService;
+import com.sandemo.hrms.service.EmployeeImportService;
+import com.sandemo.hrms.service.EmployeeListService;
+import com.sandemo.hrms.service.EmployeeSearchService;
 import com.sandemo.hrms.service.EmployeeService;
 import io.restassured.http.ContentType;
 import io.restassured.module.mockmvc.RestAssuredMockMvc;
@@ -21,10 +51,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -38,22 +73,51 @@ public class EmployeeControllerUnitTest {
     private static final String DEPART_NAME = "HR";
     private static final String JSON_FIELD = "employeeId";
     private static final String CREATE_EMP_URL = "/employee/create";
+    private static final String BULK_CREATE_EMP_URL = "/employee/bulk-create";
     private static final String UPDATE_EMP_URL = "/employee/update/";
     private static final String DELETE_EMP_URL = "/employee/delete/";
     private static final String GET_EMP_URL = "/employee/details?employeeId=";
+    private static final String LIST_EMP_URL = "/employee/list";
+    private static final String BATCH_GET_EMP_URL = "/employee/details/batch";
+    private static final String IMPORT_EMP_URL = "/employee/import";
+    private static final String SEARCH_EMP_URL = "/employee/search";
+    private static final String BACKFILL_EMP_URL = "/employee/backfill";
+    private static final String BACKFILL_JOB_NAME = "bootstrap";
     private static final Long DEPART_ID = 1L;
+    private static final long VERSION = 3L;
+    private static final String ETAG = "\"3\"";
 
     @Mock
     private EmployeeService employeeService;
 
+    @Mock
+    private EmployeeBulkService employeeBulkService;
+
+    @Mock
+    private EmployeeListService employeeListService;
+
+    @Mock
+    private EmployeeExportService employeeExportService;
+
+    @Mock
+    private EmployeeImportService employeeImportService;
+
+    @Mock
+    private EmployeeSearchService employeeSearchService;
+
+    @Mock
+    private EmployeeBackfillService employeeBackfillService;
+
     @InjectMocks
-    private EmployeeController employeeController = new EmployeeController(employeeService);
+    private EmployeeController employeeController = new EmployeeController(employeeService, employeeBulkService,
+            employeeListService, employeeExportService, employeeImportService, employeeSearchService,
+            employeeBackfillService);
 
     @InjectMocks
     private GenericExceptionHandlerAdvice genericExceptionHandlerAdvice;
 
     @Before
-    public void init() {
+    public void init() throws Exception {
 
         MockitoAnnotations.initMocks(this);
 
@@ -61,11 +125,121 @@ public class EmployeeControllerUnitTest {
 
         Mockito.when(employeeService.createEmployeeAndGetResponse(Mockito.any(EmployeeRequestDto.class)))
                 .thenReturn(getEmployeeResponseDto(ApiResponseMessage.EMP_CREATE_MESSAGE.getValue()));
-        Mockito.when(employeeService.updateEmployeeAndGetResponse(Mockito.anyString(), Mockito.any(PutEmployeeRequestDto.class)))
+        Mockito.when(employeeService.updateEmployeeAndGetResponse(Mockito.anyString(), Mockito.any(PutEmployeeRequestDto.class),
+                Mockito.any()))
                 .thenReturn(getEmployeeResponseDto(ApiResponseMessage.EMP_UPDATE_MESSAGE.getValue()));
         Mockito.when(employeeService.deleteEmployeeByIdAndGetResponse(Mockito.anyString()))
                 .thenReturn(getEmployeeResponseDto(ApiResponseMessage.EMP_DELETE_MESSAGE.getValue()));
-        Mockito.when(employeeService.getEmployeeDetailsById(Mockito.anyString())).thenReturn(getEmployeeDetailsResponseDto());
+        Mockito.when(employeeService.getEncodedEmployeeDetailsById(Mockito.anyString())).thenReturn(
+                new EncodedEmployeeDetails(VERSION, new ObjectMapper().findAndRegisterModules()
+                        .writeValueAsBytes(getEmployeeDetailsResponseDto())));
+        Mockito.when(employeeService.getEmployeeVersionById(Mockito.anyString())).thenReturn(Optional.of(VERSION));
+        Mockito.when(employeeBulkService.createEmployeesAndGetResponse(Mockito.any(InputStream.class)))
+                .thenReturn(getEmployeeBulkResponseDto());
+        Mockito.when(employeeListService.getEmployees(Mockito.any(EmployeeListRequestDto.class)))
+                .thenReturn(getEmployeeListResponseDto());
+        Mockito.when(employeeImportService.importEmployees(Mockito.any(InputStream.class)))
+                .thenReturn(getEmployeeImportResponseDto());
+        Mockito.when(employeeSearchService.searchEmployees(Mockito.anyString(), Mockito.any(), Mockito.any()))
+                .thenReturn(getEmployeeSearchResponseDto());
+    }
+
+    @Test
+    public void testSearchEmployeesSuccess() {
+
+        RestAssuredMockMvc.given()
+                .queryParam("q", "test")
+                .queryParam("departmentId", DEPART_ID)
+                .queryParam("limit", 5)
+                .when()
+                .get(SEARCH_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .body("employees", Matchers.hasSize(1),
+                        "employees[0]." + JSON_FIELD, Matchers.equalTo(EMPLOYEE_ID),
+                        "employees[0].email", Matchers.equalTo(EMPLOYEE_EMAIL));
+
+        Mockito.verify(employeeSearchService).searchEmployees("test", DEPART_ID, 5);
+    }
+
+    @Test
+    public void testSearchEmployeesWhenQueryIsMissing() {
+
+        RestAssuredMockMvc.given()
+                .when()
+                .get(SEARCH_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        Mockito.verifyZeroInteractions(employeeSearchService);
+    }
+
+    @Test
+    public void testImportEmployeesSuccess() {
+
+        RestAssuredMockMvc.given()
+                .contentType("text/csv")
+                .body("name,email,dateOfBirth,departmentId\n" + EMPLOYEE_NAME + "," + EMPLOYEE_EMAIL + ",,1\n")
+                .when()
+                .post(IMPORT_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .body("created", Matchers.equalTo(1),
+                        "rejected", Matchers.equalTo(1),
+                        "errors[0].line", Matchers.equalTo(3));
+    }
+
+    @Test
+    public void testImportEmployeesWhenContentTypeIsNotCsv() {
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body("[]")
+                .when()
+                .post(IMPORT_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+    }
+
+    @Test
+    public void testGetEmployeesSuccess() {
+
+        RestAssuredMockMvc.given()
+                .queryParam("departmentId", DEPART_ID)
+                .queryParam("sort", EmployeeListSort.UPDATED_AT.name())
+                .queryParam("updatedFrom", "2020-11-01T00:00:00Z")
+                .queryParam("size", 1)
+                .when()
+                .get(LIST_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .body("employees", Matchers.hasSize(1),
+                        "employees[0]." + JSON_FIELD, Matchers.equalTo(EMPLOYEE_ID),
+                        "employees[0]", Matchers.not(Matchers.hasKey("employeeIdPk")),
+                        "nextCursor", Matchers.equalTo("cursor"));
+
+        Mockito.verify(employeeListService).getEmployees(Mockito.argThat(request ->
+                DEPART_ID.equals(request.getDepartmentId())
+                        && request.getSort() == EmployeeListSort.UPDATED_AT
+                        && request.getUpdatedFrom().toInstant().toEpochMilli() == 1604188800000L
+                        && Integer.valueOf(1).equals(request.getSize())));
+    }
+
+    @Test
+    public void testGetEmployeesBadRequest() {
+
+        Mockito.when(employeeListService.getEmployees(Mockito.any(EmployeeListRequestDto.class)))
+                .thenThrow(new GenericClientRuntimeException("The cursor is not valid"));
+
+        RestAssuredMockMvc.given()
+                .queryParam("cursor", "invalid")
+                .when()
+                .get(LIST_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
     }
 
     @Test
@@ -126,6 +300,45 @@ public class EmployeeControllerUnitTest {
                 .body("", Matchers.aMapWithSize(5));
     }
 
+    @Test
+    public void testCreateEmployeesInBulkSuccess() {
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body(Collections.singletonList(EmployeeRequestDto.builder()
+                        .email(EMPLOYEE_EMAIL)
+                        .dateOfBirth(LocalDate.now())
+                        .name(EMPLOYEE_NAME)
+                        .departmentId(DEPART_ID).build()))
+                .when()
+                .post(BULK_CREATE_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .body("", Matchers.aMapWithSize(5),
+                        "created", Matchers.equalTo(1),
+                        "rejected", Matchers.equalTo(1),
+                        "results[0]." + JSON_FIELD, Matchers.equalTo(EMPLOYEE_ID),
+                        "results[1].status", Matchers.equalTo(BulkRowStatus.REJECTED.name()));
+    }
+
+    @Test
+    public void testCreateEmployeesInBulkBadRequest() {
+
+        Mockito.when(employeeBulkService.createEmployeesAndGetResponse(Mockito.any(InputStream.class)))
+                .thenThrow(new GenericClientRuntimeException("The request body must be a JSON array"));
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body("{}")
+                .when()
+                .post(BULK_CREATE_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .contentType(ContentType.JSON)
+                .body("", Matchers.aMapWithSize(5));
+    }
+
     @Test
     public void testUpdateEmployeeSuccess() {
 
@@ -145,6 +358,74 @@ public class EmployeeControllerUnitTest {
                         JSON_FIELD, Matchers.equalTo(EMPLOYEE_ID));
     }
 
+    @Test
+    public void testUpdateEmployeeWithIfMatch() {
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.IF_MATCH, ETAG)
+                .body(PutEmployeeRequestDto.builder().name(EMPLOYEE_NAME).build())
+                .when()
+                .put(UPDATE_EMP_URL+EMPLOYEE_ID)
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        Mockito.verify(employeeService).updateEmployeeAndGetResponse(Mockito.eq(EMPLOYEE_ID),
+                Mockito.any(PutEmployeeRequestDto.class), Mockito.eq(VERSION));
+    }
+
+    @Test
+    public void testUpdateEmployeeWithWeakIfMatch() {
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.IF_MATCH, "W/" + ETAG)
+                .body(PutEmployeeRequestDto.builder().name(EMPLOYEE_NAME).build())
+                .when()
+                .put(UPDATE_EMP_URL+EMPLOYEE_ID)
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value())
+                .contentType(ContentType.JSON)
+                .body("", Matchers.aMapWithSize(5));
+
+        Mockito.verifyZeroInteractions(employeeService);
+    }
+
+    @Test
+    public void testUpdateEmployeeWhenVersionMismatch() {
+
+        Mockito.when(employeeService.updateEmployeeAndGetResponse(Mockito.anyString(), Mockito.any(PutEmployeeRequestDto.class),
+                Mockito.any())).thenThrow(new EmployeeVersionMismatchException());
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .header(HttpHeaders.IF_MATCH, ETAG)
+                .body(PutEmployeeRequestDto.builder().name(EMPLOYEE_NAME).build())
+                .when()
+                .put(UPDATE_EMP_URL+EMPLOYEE_ID)
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value())
+                .contentType(ContentType.JSON)
+                .body("", Matchers.aMapWithSize(5));
+    }
+
+    @Test
+    public void testUpdateEmployeeWhenConcurrentlyModified() {
+
+        Mockito.when(employeeService.updateEmployeeAndGetResponse(Mockito.anyString(), Mockito.any(PutEmployeeRequestDto.class),
+                Mockito.any())).thenThrow(new EmployeeConcurrentlyModifiedException());
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body(PutEmployeeRequestDto.builder().name(EMPLOYEE_NAME).build())
+                .when()
+                .put(UPDATE_EMP_URL+EMPLOYEE_ID)
+                .then()
+                .statusCode(HttpStatus.CONFLICT.value())
+                .contentType(ContentType.JSON)
+                .body("", Matchers.aMapWithSize(5));
+    }
+
     @Test
     public void testDeleteEmployeeSuccess() {
 
@@ -169,14 +450,86 @@ public class EmployeeControllerUnitTest {
                 .then()
                 .statusCode(HttpStatus.OK.value())
                 .contentType(ContentType.JSON)
+                .header(HttpHeaders.ETAG, ETAG)
                 .body("", Matchers.aMapWithSize(7),
                         JSON_FIELD, Matchers.equalTo(EMPLOYEE_ID));
+
+        Mockito.verify(employeeService, Mockito.never()).getEmployeeVersionById(Mockito.anyString());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsBatchSuccess() {
+
+        Mockito.when(employeeService.getEmployeeDetailsBatch(Mockito.any(EmployeeDetailsBatchRequestDto.class)))
+                .thenReturn(EmployeeDetailsBatchResponseDto.builder()
+                        .results(Arrays.asList(
+                                EmployeeDetailsBatchItemDto.builder().employeeId(EMPLOYEE_ID).status(LookupStatus.FOUND)
+                                        .details(getEmployeeDetailsResponseDto()).build(),
+                                EmployeeDetailsBatchItemDto.builder().employeeId("unknown")
+                                        .status(LookupStatus.NOT_FOUND).build()))
+                        .build());
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body(EmployeeDetailsBatchRequestDto.builder()
+                        .employeeIds(Arrays.asList(EMPLOYEE_ID, "unknown")).build())
+                .when()
+                .post(BATCH_GET_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(ContentType.JSON)
+                .body("results", Matchers.hasSize(2),
+                        "results[0].status", Matchers.equalTo(LookupStatus.FOUND.name()),
+                        "results[0].details." + JSON_FIELD, Matchers.equalTo(EMPLOYEE_ID),
+                        "results[1].status", Matchers.equalTo(LookupStatus.NOT_FOUND.name()),
+                        "results[1]", Matchers.not(Matchers.hasKey("details")));
+    }
+
+    @Test
+    public void testGetEmployeeDetailsBatchWhenNeitherIdsNorEmailsAreGiven() {
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body("{}")
+                .when()
+                .post(BATCH_GET_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        Mockito.verify(employeeService, Mockito.never()).getEmployeeDetailsBatch(Mockito.any());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsWhenNotModified() {
+
+        RestAssuredMockMvc.given()
+                .header(HttpHeaders.IF_NONE_MATCH, ETAG)
+                .when()
+                .get(GET_EMP_URL+EMPLOYEE_ID)
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value())
+                .header(HttpHeaders.ETAG, ETAG);
+
+        Mockito.verify(employeeService, Mockito.never()).getEncodedEmployeeDetailsById(Mockito.anyString());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsWhenModified() {
+
+        RestAssuredMockMvc.given()
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+                .when()
+                .get(GET_EMP_URL+EMPLOYEE_ID)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header(HttpHeaders.ETAG, ETAG)
+                .body(JSON_FIELD, Matchers.equalTo(EMPLOYEE_ID));
     }
 
     @Test
     public void testGetEmployeeDetailsWhenNoDataFound() {
 
-        Mockito.when(employeeService.getEmployeeDetailsById(Mockito.anyString())).thenThrow(new EmployeeNotFoundException());
+        Mockito.when(employeeService.getEncodedEmployeeDetailsById(Mockito.anyString())).thenThrow(new EmployeeNotFoundException());
 
         RestAssuredMockMvc.given()
                 .contentType(ContentType.JSON)
@@ -188,6 +541,54 @@ public class EmployeeControllerUnitTest {
                 .body("", Matchers.aMapWithSize(5));
     }
 
+    @Test
+    public void testStartBackfill() {
+
+        Mockito.when(employeeBackfillService.startBackfill(Mockito.any(EmployeeBackfillRequestDto.class)))
+                .thenReturn(EmployeeBackfillResponseDto.builder()
+                        .jobName(BACKFILL_JOB_NAME)
+                        .status(BackfillStatus.RUNNING)
+                        .published(0L)
+                        .build());
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body("{\"jobName\":\"" + BACKFILL_JOB_NAME + "\",\"updatedFrom\":\"2020-01-01T00:00:00.000+0000\"}")
+                .when()
+                .post(BACKFILL_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .body("jobName", Matchers.equalTo(BACKFILL_JOB_NAME),
+                        "status", Matchers.equalTo(BackfillStatus.RUNNING.name()));
+    }
+
+    @Test
+    public void testStartBackfillWithoutJobName() {
+
+        RestAssuredMockMvc.given()
+                .contentType(ContentType.JSON)
+                .body("{}")
+                .when()
+                .post(BACKFILL_EMP_URL)
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        Mockito.verify(employeeBackfillService, Mockito.never()).startBackfill(Mockito.any());
+    }
+
+    @Test
+    public void testGetBackfillWhenNoJobFound() {
+
+        Mockito.when(employeeBackfillService.getBackfill(Mockito.anyString()))
+                .thenThrow(new EmployeeBackfillNotFoundException());
+
+        RestAssuredMockMvc.given()
+                .when()
+                .get(BACKFILL_EMP_URL + "/" + BACKFILL_JOB_NAME)
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
     private EmployeeDetailsResponseDto getEmployeeDetailsResponseDto() {
 
         return EmployeeDetailsResponseDto.builder()
@@ -204,10 +605,60 @@ public class EmployeeControllerUnitTest {
                 .build();
     }
 
+    private EmployeeBulkResponseDto getEmployeeBulkResponseDto() {
+
+        return EmployeeBulkResponseDto.builder()
+                .total(2)
+                .created(1)
+                .rejected(1)
+                .message(ApiResponseMessage.EMP_BULK_CREATE_MESSAGE.getValue())
+                .results(Arrays.asList(
+                        EmployeeBulkRowResponseDto.builder()
+                                .index(0)
+                                .employeeId(EMPLOYEE_ID)
+                                .status(BulkRowStatus.CREATED).build(),
+                        EmployeeBulkRowResponseDto.builder()
+                                .index(1)
+                                .status(BulkRowStatus.REJECTED)
+                                .errors(Collections.singletonList("Email should be valid")).build()))
+                .build();
+    }
+
     private EmployeeResponseDto getEmployeeResponseDto(final String message) {
 
         return EmployeeResponseDto.builder()
                 .employeeId(EMPLOYEE_ID)
                 .message(message).build();
     }
+
+    private EmployeeSearchResponseDto getEmployeeSearchResponseDto() {
+
+        return EmployeeSearchResponseDto.builder()
+                .employees(Collections.singletonList(new EmployeeSearchItemDto(EMPLOYEE_ID, EMPLOYEE_NAME,
+                        EMPLOYEE_EMAIL, DEPART_ID)))
+                .build();
+    }
+
+    private EmployeeListResponseDto getEmployeeListResponseDto() {
+
+        return EmployeeListResponseDto.builder()
+                .employees(Collections.singletonList(new EmployeeListItemDto(1L, EMPLOYEE_ID, EMPLOYEE_NAME,
+                        EMPLOYEE_EMAIL, LocalDate.now(), DEPART_ID, DEPART_NAME, ZonedDateTime.now(), ZonedDateTime.now())))
+                .nextCursor("cursor")
+                .build();
+    }
+
+    private EmployeeImportResponseDto getEmployeeImportResponseDto() {
+
+        return EmployeeImportResponseDto.builder()
+                .total(2L)
+                .created(1L)
+                .rejected(1L)
+                .message(ApiResponseMessage.EMP_IMPORT_MESSAGE.getValue())
+                .errors(Collections.singletonList(EmployeeImportRowErrorDto.builder()
+                        .line(3L)
+                        .errors(Collections.singletonList("Email should be valid"))
+                        .build()))
+                .build();
+    }
 }
@@ -0,0 +1,104 @@
+package com.sandemo.hrms.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class ReadYourWritesGuardTest {
+
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private AtomicLong now;
+    private MeterRegistry meterRegistry;
+    private ReadYourWritesGuard readYourWritesGuard;
+
+    @Before
+    public void init() {
+
+        now = new AtomicLong(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        readYourWritesGuard = new ReadYourWritesGuard(Duration.ofNanos(WINDOW_NANOS), meterRegistry, now::get);
+    }
+
+    @Test
+    public void testWrittenKeyIsPinnedForTheWindow() {
+
+        readYourWritesGuard.recordWrite("e1");
+
+        Assert.assertTrue(readYourWritesGuard.isPinned("e1"));
+        Assert.assertFalse(readYourWritesGuard.isPinned("e2"));
+
+        now.addAndGet(WINDOW_NANOS - 1);
+        Assert.assertTrue(readYourWritesGuard.isPinned("e1"));
+
+        now.incrementAndGet();
+        Assert.assertFalse(readYourWritesGuard.isPinned("e1"));
+        Assert.assertEquals(0, readYourWritesGuard.size());
+    }
+
+    @Test
+    public void testAnotherWriteExtendsTheWindow() {
+
+        readYourWritesGuard.recordWrite("e1");
+        now.addAndGet(WINDOW_NANOS - 1);
+        readYourWritesGuard.recordWrite("e1");
+        now.addAndGet(WINDOW_NANOS - 1);
+
+        Assert.assertTrue(readYourWritesGuard.isPinned("e1"));
+    }
+
+    @Test
+    public void testExpiredKeysAreSweptOnWrite() {
+
+        readYourWritesGuard.recordWrite("e1");
+        readYourWritesGuard.recordWrite("e2");
+        Assert.assertEquals(2.0, meterRegistry.get("hrms.datasource.pinned.keys").gauge().value(), 0);
+
+        now.addAndGet(WINDOW_NANOS);
+        readYourWritesGuard.recordWrite("e3");
+
+        Assert.assertEquals(1, readYourWritesGuard.size());
+        Assert.assertTrue(readYourWritesGuard.isPinned("e3"));
+    }
+
+    @Test
+    public void testReadRunsOnThePrimaryOnlyWhenPinned() {
+
+        readYourWritesGuard.recordWrite("e1");
+
+        Assert.assertTrue(readYourWritesGuard.read("e1", ReplicaRoutingDataSource::isPrimaryPinned));
+        Assert.assertFalse(readYourWritesGuard.read("e2", ReplicaRoutingDataSource::isPrimaryPinned));
+        Assert.assertTrue(readYourWritesGuard.read(Arrays.asList("e2", "e1"), ReplicaRoutingDataSource::isPrimaryPinned));
+        Assert.assertFalse(readYourWritesGuard.read(Arrays.asList("e2", "e3"), ReplicaRoutingDataSource::isPrimaryPinned));
+    }
+
+    @Test
+    public void testZeroWindowTurnsTheGuardOff() {
+
+        ReadYourWritesGuard disabled = new ReadYourWritesGuard(Duration.ZERO, meterRegistry, now::get);
+
+        disabled.recordWrite("e1");
+
+        Assert.assertFalse(disabled.isPinned("e1"));
+        Assert.assertEquals(0, disabled.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGuardWhenWindowIsNegative() {
+
+        new ReadYourWritesGuard(Duration.ofMillis(-1), meterRegistry);
+    }
+}
@@ -0,0 +1,129 @@
+package com.sandemo.hrms.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Runs against two separate in-memory databases, each of them tells its name, so the database a statement reached is
+ * known for sure
+ */
+@RunWith(JUnit4.class)
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    private static final String EMP_ID = "test";
+
+    private MeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                getDatabase(PRIMARY), getDatabase(REPLICA), meterRegistry));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    public void testReadOnlyTransactionIsRoutedToTheReplica() {
+
+        Assert.assertEquals(REPLICA, readOnlyTransaction.execute(status -> databaseName()));
+        Assert.assertEquals(1.0, meterRegistry.get("hrms.datasource.routing")
+                .tags("route", REPLICA, "reason", "read_only").counter().count(), 0);
+        Assert.assertEquals(1, meterRegistry.get("hrms.datasource.connection.acquire").tag("route", REPLICA)
+                .timer().count());
+    }
+
+    @Test
+    public void testWriteTransactionIsRoutedToThePrimary() {
+
+        Assert.assertEquals(PRIMARY, writeTransaction.execute(status -> databaseName()));
+
+        // The lazy proxy reads the connection defaults from the first connection, so only the increment is compared
+        double routed = meterRegistry.get("hrms.datasource.routing").tags("route", PRIMARY, "reason", "write")
+                .counter().count();
+
+        Assert.assertEquals(PRIMARY, databaseName());
+        Assert.assertEquals(routed + 1, meterRegistry.get("hrms.datasource.routing")
+                .tags("route", PRIMARY, "reason", "write").counter().count(), 0);
+    }
+
+    @Test
+    public void testReadOnlyTransactionJoiningAWriteStaysOnThePrimary() {
+
+        Assert.assertEquals(PRIMARY, writeTransaction.execute(status -> readOnlyTransaction.execute(
+                inner -> databaseName())));
+    }
+
+    @Test
+    public void testPinnedReadIsRoutedToThePrimary() {
+
+        Assert.assertEquals(PRIMARY, readOnlyTransaction.execute(
+                status -> ReplicaRoutingDataSource.callOnPrimary(this::databaseName)));
+        Assert.assertFalse(ReplicaRoutingDataSource.isPrimaryPinned());
+        Assert.assertEquals(1.0, meterRegistry.get("hrms.datasource.routing")
+                .tags("route", PRIMARY, "reason", "pinned").counter().count(), 0);
+    }
+
+    @Test
+    public void testReadYourWritesGuardPinsTheWrittenKeyOnly() {
+
+        ReadYourWritesGuard readYourWritesGuard = new ReadYourWritesGuard(Duration.ofMinutes(1), meterRegistry);
+
+        readYourWritesGuard.recordWrite(EMP_ID);
+
+        Assert.assertEquals(PRIMARY, readOnlyTransaction.execute(
+                status -> readYourWritesGuard.read(EMP_ID, this::databaseName)));
+        Assert.assertEquals(REPLICA, readOnlyTransaction.execute(
+                status -> readYourWritesGuard.read("other", this::databaseName)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRoutingWithoutAReplica() {
+
+        new ReplicaRoutingDataSource(getDatabase(PRIMARY), null, meterRegistry);
+    }
+
+    private String databaseName() {
+
+        return jdbcTemplate.queryForObject("SELECT name FROM database_instance", String.class);
+    }
+
+    private DataSource getDatabase(final String name) {
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        database.execute("CREATE TABLE IF NOT EXISTS database_instance (name varchar(20))");
+        database.execute("DELETE FROM database_instance");
+        database.update("INSERT INTO database_instance (name) VALUES (?)", name);
+
+        return dataSource;
+    }
+}
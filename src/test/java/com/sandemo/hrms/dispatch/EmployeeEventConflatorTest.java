@@ -0,0 +1,190 @@
+package com.sandemo.hrms.dispatch;
+
+import com.sandemo.hrms.EmployeeEventType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeEventConflatorTest {
+
+    private static final String EMP_ID = "test";
+    private static final String OTHER_EMP_ID = "other";
+    private static final Duration WINDOW = Duration.ofMillis(200);
+
+    private MeterRegistry meterRegistry;
+    private EmployeeEventConflator employeeEventConflator;
+
+    // The events in the order they were sent
+    private List<String> sent;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        sent = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @After
+    public void close() {
+
+        if (employeeEventConflator != null) {
+            employeeEventConflator.close();
+        }
+    }
+
+    @Test
+    public void testUpdatesWithinTheWindowAreConflatedToTheLatest() throws Exception {
+
+        employeeEventConflator = new EmployeeEventConflator(WINDOW, meterRegistry);
+
+        CompletableFuture<String> first = conflate(EMP_ID, EmployeeEventType.UPDATED, "update-1");
+        CompletableFuture<String> second = conflate(EMP_ID, EmployeeEventType.UPDATED, "update-2");
+        CompletableFuture<String> third = conflate(EMP_ID, EmployeeEventType.UPDATED, "update-3");
+
+        Assert.assertEquals("update-3", first.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("update-3", second.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals("update-3", third.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Collections.singletonList("update-3"), sent);
+
+        Assert.assertEquals(2.0, meterRegistry.get("hrms.kafka.conflation.events").tag("outcome", "conflated")
+                .counter().count(), 0.0);
+        Assert.assertEquals(1.0, meterRegistry.get("hrms.kafka.conflation.events").tag("outcome", "sent")
+                .counter().count(), 0.0);
+        Assert.assertEquals(1L, meterRegistry.get("hrms.kafka.conflation.delay").timer().count());
+    }
+
+    @Test
+    public void testCreatedIsNeverDropped() throws Exception {
+
+        employeeEventConflator = new EmployeeEventConflator(WINDOW, meterRegistry);
+
+        conflate(EMP_ID, EmployeeEventType.CREATED, "create");
+        conflate(EMP_ID, EmployeeEventType.UPDATED, "update-1");
+        conflate(EMP_ID, EmployeeEventType.UPDATED, "update-2").get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Arrays.asList("create", "update-2"), sent);
+    }
+
+    @Test
+    public void testDeletedReplacesThePendingUpdates() throws Exception {
+
+        employeeEventConflator = new EmployeeEventConflator(WINDOW, meterRegistry);
+
+        conflate(EMP_ID, EmployeeEventType.CREATED, "create");
+        CompletableFuture<String> update = conflate(EMP_ID, EmployeeEventType.UPDATED, "update");
+        conflate(EMP_ID, EmployeeEventType.DELETED, "delete").get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals("delete", update.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("create", "delete"), sent);
+    }
+
+    @Test
+    public void testEmployeesAreConflatedSeparately() throws Exception {
+
+        employeeEventConflator = new EmployeeEventConflator(WINDOW, meterRegistry);
+
+        conflate(EMP_ID, EmployeeEventType.UPDATED, "update-1");
+        CompletableFuture<String> other = conflate(OTHER_EMP_ID, EmployeeEventType.UPDATED, "other-update");
+        conflate(EMP_ID, EmployeeEventType.UPDATED, "update-2").get(5, TimeUnit.SECONDS);
+        other.get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Arrays.asList("update-2", "other-update"), sent);
+    }
+
+    @Test
+    public void testEventsAfterTheWindowAreSentInOrder() throws Exception {
+
+        employeeEventConflator = new EmployeeEventConflator(WINDOW, meterRegistry);
+
+        conflate(EMP_ID, EmployeeEventType.UPDATED, "update-1").get(5, TimeUnit.SECONDS);
+        conflate(EMP_ID, EmployeeEventType.UPDATED, "update-2").get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Arrays.asList("update-1", "update-2"), sent);
+    }
+
+    @Test
+    public void testReplacedEventFailsWithTheEventWhichReplacedIt() throws Exception {
+
+        employeeEventConflator = new EmployeeEventConflator(WINDOW, meterRegistry);
+
+        CompletableFuture<String> update = conflate(EMP_ID, EmployeeEventType.UPDATED, "update");
+        employeeEventConflator.conflate(EMP_ID, EmployeeEventType.DELETED, () -> {
+
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(new IllegalStateException("send failed"));
+
+            return future;
+        });
+
+        try {
+
+            update.get(5, TimeUnit.SECONDS);
+
+            Assert.fail("The replaced event must fail with the event which replaced it");
+
+        } catch (ExecutionException exception) {
+
+            Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testWithoutWindowEventsAreSentRightAway() {
+
+        employeeEventConflator = new EmployeeEventConflator(Duration.ZERO, meterRegistry);
+
+        CompletableFuture<String> future = conflate(EMP_ID, EmployeeEventType.UPDATED, "update-1");
+        conflate(EMP_ID, EmployeeEventType.UPDATED, "update-2");
+
+        Assert.assertFalse(employeeEventConflator.isEnabled());
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(Arrays.asList("update-1", "update-2"), sent);
+    }
+
+    @Test
+    public void testCloseSendsThePendingEvents() throws Exception {
+
+        employeeEventConflator = new EmployeeEventConflator(Duration.ofMinutes(1), meterRegistry);
+
+        CompletableFuture<String> future = conflate(EMP_ID, EmployeeEventType.UPDATED, "update");
+
+        employeeEventConflator.close();
+
+        Assert.assertEquals("update", future.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWindowIsRefused() {
+
+        new EmployeeEventConflator(Duration.ofMillis(-1), meterRegistry);
+    }
+
+    private CompletableFuture<String> conflate(final String employeeId, final EmployeeEventType eventType,
+                                               final String event) {
+
+        return employeeEventConflator.conflate(employeeId, eventType, () -> {
+
+            sent.add(event);
+
+            return CompletableFuture.completedFuture(event);
+        });
+    }
+}
@@ -0,0 +1,273 @@
+package com.sandemo.hrms.dispatch;
+
+import com.sandemo.hrms.constant.DispatchOverflowPolicy;
+import com.sandemo.hrms.exception.EventDispatchRejectedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeEventDispatcherTest {
+
+    private static final String EMP_ID = "test";
+
+    private MeterRegistry meterRegistry;
+    private EmployeeEventDispatcher employeeEventDispatcher;
+
+    // Holds the sender threads inside a send until it is counted down
+    private CountDownLatch release;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void close() {
+
+        release.countDown();
+
+        if (employeeEventDispatcher != null) {
+            employeeEventDispatcher.close();
+        }
+    }
+
+    @Test
+    public void testEventsOfAnEmployeeAreSentInOrder() throws Exception {
+
+        employeeEventDispatcher = dispatcher(4, 1000, DispatchOverflowPolicy.BLOCK);
+
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+
+            String event = String.valueOf(i);
+
+            futures.add(employeeEventDispatcher.dispatch(EMP_ID, () -> {
+
+                sent.add(event);
+
+                return CompletableFuture.completedFuture(event);
+            }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+
+            Assert.assertEquals(String.valueOf(i), futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+
+        for (int i = 0; i < sent.size(); i++) {
+
+            Assert.assertEquals(String.valueOf(i), sent.get(i));
+        }
+    }
+
+    @Test
+    public void testSendIsNotRunOnTheCallingThread() throws Exception {
+
+        employeeEventDispatcher = dispatcher(1, 10, DispatchOverflowPolicy.BLOCK);
+
+        Thread caller = Thread.currentThread();
+
+        Assert.assertNotSame(caller, employeeEventDispatcher.dispatch(EMP_ID,
+                () -> CompletableFuture.completedFuture(Thread.currentThread())).get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(employeeEventDispatcher.isAsync());
+    }
+
+    @Test
+    public void testWithoutSenderThreadsTheSendRunsOnTheCallingThread() throws Exception {
+
+        employeeEventDispatcher = dispatcher(0, 0, DispatchOverflowPolicy.REJECT);
+
+        Thread caller = Thread.currentThread();
+
+        Assert.assertSame(caller, employeeEventDispatcher.dispatch(EMP_ID,
+                () -> CompletableFuture.completedFuture(Thread.currentThread())).get());
+        Assert.assertFalse(employeeEventDispatcher.isAsync());
+    }
+
+    @Test
+    public void testRejectPolicyWhenTheQueueIsFull() throws Exception {
+
+        employeeEventDispatcher = dispatcher(1, 2, DispatchOverflowPolicy.REJECT);
+
+        fillQueue(2);
+
+        try {
+
+            employeeEventDispatcher.dispatch(EMP_ID, () -> CompletableFuture.completedFuture("rejected"));
+            Assert.fail("The event must be rejected");
+
+        } catch (EventDispatchRejectedException exception) {
+
+            Assert.assertEquals(1.0, meterRegistry.get("hrms.kafka.dispatch.overflow").tag("outcome", "rejected")
+                    .counter().count(), 0);
+        }
+    }
+
+    @Test(expected = EventDispatchRejectedException.class)
+    public void testBlockPolicyRejectsAfterTheTimeout() throws Exception {
+
+        employeeEventDispatcher = dispatcher(1, 1, DispatchOverflowPolicy.BLOCK);
+
+        fillQueue(1);
+
+        employeeEventDispatcher.dispatch(EMP_ID, () -> CompletableFuture.completedFuture("rejected"));
+    }
+
+    @Test
+    public void testBlockPolicyWaitsForRoom() throws Exception {
+
+        employeeEventDispatcher = new EmployeeEventDispatcher(1, 1, DispatchOverflowPolicy.BLOCK,
+                Duration.ofSeconds(5), meterRegistry);
+
+        fillQueue(1);
+
+        new Thread(() -> {
+
+            sleep(100);
+            release.countDown();
+        }).start();
+
+        Assert.assertEquals("queued", employeeEventDispatcher.dispatch(EMP_ID,
+                () -> CompletableFuture.completedFuture("queued")).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueueWaitGauge() throws Exception {
+
+        employeeEventDispatcher = dispatcher(1, 10, DispatchOverflowPolicy.BLOCK);
+
+        fillQueue(1);
+        employeeEventDispatcher.dispatch(EMP_ID, () -> CompletableFuture.completedFuture("waiting"));
+
+        sleep(50);
+
+        Assert.assertTrue(meterRegistry.get("hrms.kafka.dispatch.queue.wait").gauge().value() >= 50);
+    }
+
+    @Test
+    public void testFailedSendCompletesTheFutureExceptionally() throws Exception {
+
+        employeeEventDispatcher = dispatcher(1, 10, DispatchOverflowPolicy.BLOCK);
+
+        CompletableFuture<String> future = employeeEventDispatcher.dispatch(EMP_ID, () -> {
+            throw new IllegalStateException("buffer exhausted");
+        });
+
+        try {
+
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("The future must fail");
+
+        } catch (ExecutionException exception) {
+
+            Assert.assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+
+        Assert.assertEquals("next", employeeEventDispatcher.dispatch(EMP_ID,
+                () -> CompletableFuture.completedFuture("next")).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCloseSendsTheQueuedEvents() throws Exception {
+
+        employeeEventDispatcher = dispatcher(1, 10, DispatchOverflowPolicy.BLOCK);
+
+        CompletableFuture<String> queued = employeeEventDispatcher.dispatch(EMP_ID,
+                () -> CompletableFuture.completedFuture("queued"));
+
+        employeeEventDispatcher.close();
+
+        Assert.assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test(expected = EventDispatchRejectedException.class)
+    public void testDispatchWhenClosed() {
+
+        employeeEventDispatcher = dispatcher(1, 10, DispatchOverflowPolicy.REJECT);
+        employeeEventDispatcher.close();
+
+        employeeEventDispatcher.dispatch(EMP_ID, () -> CompletableFuture.completedFuture("closed"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDispatcherWithoutCapacity() {
+
+        dispatcher(1, 0, DispatchOverflowPolicy.BLOCK);
+    }
+
+    private EmployeeEventDispatcher dispatcher(final int senderThreads, final int queueCapacity,
+                                               final DispatchOverflowPolicy overflowPolicy) {
+
+        return new EmployeeEventDispatcher(senderThreads, queueCapacity, overflowPolicy, Duration.ofMillis(50),
+                meterRegistry);
+    }
+
+    /**
+     * Blocks the sender thread of the employee in a send and queues the given number of events behind it
+     */
+    private void fillQueue(final int events) throws InterruptedException {
+
+        CountDownLatch sending = new CountDownLatch(1);
+
+        employeeEventDispatcher.dispatch(EMP_ID, () -> {
+
+            sending.countDown();
+            await(release);
+
+            return CompletableFuture.completedFuture("blocking");
+        });
+
+        Assert.assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < events; i++) {
+
+            employeeEventDispatcher.dispatch(EMP_ID, () -> CompletableFuture.completedFuture("queued"));
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+
+        try {
+
+            latch.await(10, TimeUnit.SECONDS);
+
+        } catch (InterruptedException exception) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(final long millis) {
+
+        try {
+
+            Thread.sleep(millis);
+
+        } catch (InterruptedException exception) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sandemo.hrms.factory;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeEventFactoryServiceTest {
+
+    private static final String EMP_ID = "b5b1bca5-ef1e-4e5b-a8c2-2d59b8d6c1a4";
+    private static final String DEPART_NAME = "Engineering";
+    private static final LocalDate DATE_OF_BIRTH = LocalDate.of(1989, 6, 6);
+    private static final ZonedDateTime CREATED_AT = ZonedDateTime.of(2020, 12, 13, 2, 28, 48, 645_000_000,
+            ZoneOffset.ofHours(1));
+
+    private final EmployeeEventFactoryService employeeEventFactoryService = new EmployeeEventFactoryService();
+
+    @Test
+    public void testEmployeeEventValueV2CarriesTheDatesAsNumbers() throws Exception {
+
+        GenericRecord employeeEventValueV2 = employeeEventFactoryService.getEmployeeEventValueV2(
+                employeeEventFactoryService.getEmployeeEventValue(getEmployeeEntity(), EmployeeEventType.UPDATED),
+                DEPART_NAME);
+
+        GenericRecord decoded = decode(encode(employeeEventValueV2));
+        GenericRecord data = (GenericRecord) decoded.get("data");
+
+        Assert.assertEquals("UPDATED", decoded.get("type").toString());
+        Assert.assertEquals(DEPART_NAME, data.get("departmentName").toString());
+        Assert.assertEquals((int) DATE_OF_BIRTH.toEpochDay(), data.get("dateOfBirth"));
+        Assert.assertEquals(CREATED_AT.toInstant().toEpochMilli(), data.get("createdAt"));
+        Assert.assertEquals(CREATED_AT.toInstant().toEpochMilli(), data.get("updatedAt"));
+    }
+
+    @Test
+    public void testEmployeeEventValueV2IsSmallerThanV1() throws Exception {
+
+        EmployeeEventValue employeeEventValue =
+                employeeEventFactoryService.getEmployeeEventValue(getEmployeeEntity(), EmployeeEventType.UPDATED);
+
+        Assert.assertTrue(encode(employeeEventFactoryService.getEmployeeEventValueV2(employeeEventValue, null)).length
+                < employeeEventFactoryService.toBytes(employeeEventValue).length);
+    }
+
+    @Test
+    public void testEmployeeEventValueV2WithoutOptionalFields() throws Exception {
+
+        EmployeeEntity employeeEntity = getEmployeeEntity();
+        employeeEntity.setDateOfBirth(null);
+        employeeEntity.setCreatedAt(null);
+
+        GenericRecord data = (GenericRecord) decode(encode(employeeEventFactoryService.getEmployeeEventValueV2(
+                employeeEventFactoryService.getEmployeeEventValue(employeeEntity, EmployeeEventType.CREATED), null)))
+                .get("data");
+
+        Assert.assertNull(data.get("departmentName"));
+        Assert.assertNull(data.get("dateOfBirth"));
+        Assert.assertNull(data.get("createdAt"));
+    }
+
+    @Test
+    public void testEmployeeEventValueV2OfDeletedEventHasNoData() throws Exception {
+
+        GenericRecord decoded = decode(encode(employeeEventFactoryService.getEmployeeEventValueV2(
+                employeeEventFactoryService.getEmployeeEventValue(getEmployeeEntity(), EmployeeEventType.DELETED),
+                DEPART_NAME)));
+
+        Assert.assertEquals("DELETED", decoded.get("type").toString());
+        Assert.assertNull(decoded.get("data"));
+    }
+
+    private static byte[] encode(final GenericRecord genericRecord) throws Exception {
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(outputStream, null);
+
+        new GenericDatumWriter<GenericRecord>(genericRecord.getSchema()).write(genericRecord, encoder);
+        encoder.flush();
+
+        return outputStream.toByteArray();
+    }
+
+    private static GenericRecord decode(final byte[] bytes) throws Exception {
+
+        return new GenericDatumReader<GenericRecord>(EmployeeEventFactoryService.EMPLOYEE_EVENT_VALUE_V2_SCHEMA)
+                .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    }
+
+    private static EmployeeEntity getEmployeeEntity() {
+
+        return EmployeeEntity.builder()
+                .employeeId(EMP_ID)
+                .name("Test Emp")
+                .email("test@test.com")
+                .dateOfBirth(DATE_OF_BIRTH)
+                .departmentEntity(DepartmentEntity.builder().departId(1L).name(DEPART_NAME).build())
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT)
+                .build();
+    }
+}
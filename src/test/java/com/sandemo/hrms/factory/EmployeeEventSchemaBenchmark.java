@@ -0,0 +1,144 @@
+package com.sandemo.hrms.factory;
+
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.registry.EmbeddedSchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Serializes the same employee events as v1 and as v2 and prints the bytes on the wire per event, key and value with
+ * the schema registry framing, and the serialization cost per event. It is not run with the tests:
+ *
+ * java ... com.sandemo.hrms.factory.EmployeeEventSchemaBenchmark 1000000
+ *
+ * The v2 cost includes building the v1 event and deriving the v2 one from it, as the producer does. The schemas are
+ * registered with the embedded registry, so there is no network involved.
+ */
+public class EmployeeEventSchemaBenchmark {
+
+    private static final int EMPLOYEES = 1000;
+    private static final String TOPIC = "employee_updates_benchmark";
+    private static final String DEPART_NAME = "Engineering";
+
+    private static final EmployeeEventFactoryService FACTORY = new EmployeeEventFactoryService();
+
+    private static volatile long sink;
+
+    public static void main(String[] args) {
+
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        EmployeeEntity[] employeeEntities = employeeEntities();
+
+        Map<String, String> config = Collections.singletonMap(
+                AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, "http://embedded");
+        EmbeddedSchemaRegistryClient schemaRegistryClient =
+                new EmbeddedSchemaRegistryClient(null, new SimpleMeterRegistry());
+
+        KafkaAvroSerializer keySerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        keySerializer.configure(config, true);
+        KafkaAvroSerializer valueSerializer = new KafkaAvroSerializer(schemaRegistryClient);
+        valueSerializer.configure(config, false);
+        StringSerializer stringSerializer = new StringSerializer();
+
+        Scenario v1 = employeeEntity -> {
+
+            EmployeeEventKey key = FACTORY.getEmployeeEventKey(employeeEntity.getEmployeeId());
+
+            return keySerializer.serialize(TOPIC, key).length + valueSerializer.serialize(TOPIC,
+                    FACTORY.getEmployeeEventValue(employeeEntity, EmployeeEventType.UPDATED)).length;
+        };
+
+        Scenario v2 = employeeEntity -> {
+
+            EmployeeEventKey key = FACTORY.getEmployeeEventKey(employeeEntity.getEmployeeId());
+            EmployeeEventValue value = FACTORY.getEmployeeEventValue(employeeEntity, EmployeeEventType.UPDATED);
+
+            return keySerializer.serialize(TOPIC, key).length
+                    + valueSerializer.serialize(TOPIC, FACTORY.getEmployeeEventValueV2(value, null)).length;
+        };
+
+        Scenario v2Compact = employeeEntity -> {
+
+            EmployeeEventValue value = FACTORY.getEmployeeEventValue(employeeEntity, EmployeeEventType.UPDATED);
+
+            return stringSerializer.serialize(TOPIC, employeeEntity.getEmployeeId()).length
+                    + valueSerializer.serialize(TOPIC, FACTORY.getEmployeeEventValueV2(value, DEPART_NAME)).length;
+        };
+
+        run("v1", v1, employeeEntities, events);
+        run("v2", v2, employeeEntities, events);
+        run("v2 compact", v2Compact, employeeEntities, events);
+    }
+
+    private static void run(final String name, final Scenario scenario, final EmployeeEntity[] employeeEntities,
+                            final int events) {
+
+        warmUp(scenario, employeeEntities, events / 10);
+
+        long bytes = 0L;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < events; i++) {
+
+            bytes += scenario.serialize(employeeEntities[i % EMPLOYEES]);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        sink += bytes;
+
+        System.out.printf("%-12s %8.1f bytes/event %10.0f ns/event%n", name, bytes / (double) events,
+                elapsed / (double) events);
+    }
+
+    private static void warmUp(final Scenario scenario, final EmployeeEntity[] employeeEntities, final int events) {
+
+        for (int i = 0; i < events; i++) {
+
+            sink += scenario.serialize(employeeEntities[i % EMPLOYEES]);
+        }
+    }
+
+    private static EmployeeEntity[] employeeEntities() {
+
+        DepartmentEntity departmentEntity = DepartmentEntity.builder().departId(1L).name(DEPART_NAME).build();
+        EmployeeEntity[] employeeEntities = new EmployeeEntity[EMPLOYEES];
+
+        for (int i = 0; i < EMPLOYEES; i++) {
+
+            employeeEntities[i] = EmployeeEntity.builder()
+                    .employeeId(UUID.randomUUID().toString())
+                    .name("Benchmark Employee " + i)
+                    .email("benchmark." + i + "@sandemo.com")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i))
+                    .departmentEntity(departmentEntity)
+                    .createdAt(ZonedDateTime.now())
+                    .updatedAt(ZonedDateTime.now())
+                    .build();
+        }
+
+        return employeeEntities;
+    }
+
+    /**
+     * Serializes the key and the value of the event of the employee and returns their size in bytes
+     */
+    private interface Scenario {
+
+        int serialize(final EmployeeEntity employeeEntity);
+    }
+}
@@ -0,0 +1,138 @@
+package com.sandemo.hrms.generator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class PooledIdAllocatorTest {
+
+    private static final String SEQUENCE = "seq_test";
+    private static final int BLOCK_SIZE = 10;
+
+    private MeterRegistry meterRegistry;
+    private AtomicLong sequence;
+    private AtomicInteger inlineCalls;
+    private LongSupplier nextValue;
+    private LongSupplier inlineNextValue;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        sequence = new AtomicLong(1 - BLOCK_SIZE);
+        inlineCalls = new AtomicInteger();
+        nextValue = () -> sequence.addAndGet(BLOCK_SIZE);
+        inlineNextValue = () -> {
+
+            inlineCalls.incrementAndGet();
+
+            return nextValue.getAsLong();
+        };
+    }
+
+    @Test
+    public void testNextIsServedFromPrefetchedBlocks() {
+
+        PooledIdAllocator allocator = new PooledIdAllocator(SEQUENCE, BLOCK_SIZE, 3, nextValue, Runnable::run,
+                meterRegistry);
+
+        for (long expected = 1; expected <= 35; expected++) {
+
+            Assert.assertEquals(expected, allocator.next(inlineNextValue));
+        }
+
+        // Only the very first block had to be reserved by the caller
+        Assert.assertEquals(1, inlineCalls.get());
+        Assert.assertEquals(1.0, meterRegistry.get("hrms.id.block.stall").counter().count(), 0);
+        Assert.assertEquals(3, meterRegistry.get("hrms.id.block.fetch").tag("mode", "prefetch").timer().count());
+        Assert.assertEquals(5.0, meterRegistry.get("hrms.id.block.remaining").gauge().value(), 0);
+    }
+
+    @Test
+    public void testNextFallsBackToInlineWhenPrefetchFails() {
+
+        PooledIdAllocator allocator = new PooledIdAllocator(SEQUENCE, BLOCK_SIZE, 1, () -> {
+
+            throw new IllegalStateException("Sequence is not reachable");
+
+        }, Runnable::run, meterRegistry);
+
+        for (long expected = 1; expected <= 2 * BLOCK_SIZE; expected++) {
+
+            Assert.assertEquals(expected, allocator.next(inlineNextValue));
+        }
+
+        Assert.assertEquals(2, inlineCalls.get());
+        Assert.assertEquals(1.0, meterRegistry.get("hrms.id.block.prefetch.failed").counter().count(), 0);
+    }
+
+    @Test
+    public void testNextIsUniqueAcrossThreads() throws Exception {
+
+        ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+
+            PooledIdAllocator allocator = new PooledIdAllocator(SEQUENCE, BLOCK_SIZE, 4, nextValue,
+                    prefetchExecutor, meterRegistry);
+
+            List<Callable<List<Long>>> tasks = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+
+                tasks.add(() -> {
+
+                    List<Long> ids = new ArrayList<>();
+
+                    for (int j = 0; j < 500; j++) {
+
+                        ids.add(allocator.next(inlineNextValue));
+                    }
+
+                    return ids;
+                });
+            }
+
+            Set<Long> ids = new HashSet<>();
+
+            for (Future<List<Long>> future : callers.invokeAll(tasks)) {
+
+                ids.addAll(future.get());
+            }
+
+            Assert.assertEquals(8 * 500, ids.size());
+
+        } finally {
+
+            callers.shutdownNow();
+            prefetchExecutor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAllocatorWhenThresholdIsNotBelowBlockSize() {
+
+        new PooledIdAllocator(SEQUENCE, BLOCK_SIZE, BLOCK_SIZE, nextValue, Runnable::run, meterRegistry);
+    }
+}
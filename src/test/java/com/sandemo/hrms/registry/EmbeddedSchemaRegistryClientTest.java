@@ -0,0 +1,121 @@
+package com.sandemo.hrms.registry;
+
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventValue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.avro.Schema;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmbeddedSchemaRegistryClientTest {
+
+    private static final String KEY_SUBJECT = "employee_updates-com.sandemo.hrms.EmployeeEventKey";
+    private static final String VALUE_SUBJECT = "employee_updates-com.sandemo.hrms.EmployeeEventValue";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MeterRegistry meterRegistry;
+    private Path file;
+
+    @Before
+    public void init() {
+
+        meterRegistry = new SimpleMeterRegistry();
+        file = temporaryFolder.getRoot().toPath().resolve("registry").resolve("schema-registry.json");
+    }
+
+    @Test
+    public void testRegisteredSchemasKeepTheirIdsAcrossRestarts() throws Exception {
+
+        EmbeddedSchemaRegistryClient first = new EmbeddedSchemaRegistryClient(file, meterRegistry);
+
+        int keyId = first.register(KEY_SUBJECT, EmployeeEventKey.getClassSchema());
+        int valueId = first.register(VALUE_SUBJECT, EmployeeEventValue.getClassSchema());
+
+        Assert.assertTrue(Files.exists(file));
+        Assert.assertNotEquals(keyId, valueId);
+
+        EmbeddedSchemaRegistryClient restarted = new EmbeddedSchemaRegistryClient(file, new SimpleMeterRegistry());
+
+        Assert.assertEquals(valueId, restarted.getId(VALUE_SUBJECT, EmployeeEventValue.getClassSchema()));
+        Assert.assertEquals(keyId, restarted.getId(KEY_SUBJECT, EmployeeEventKey.getClassSchema()));
+        Assert.assertEquals(EmployeeEventValue.getClassSchema(), restarted.getById(valueId));
+    }
+
+    @Test
+    public void testRegisteringAgainDoesNotGrowTheFile() throws Exception {
+
+        EmbeddedSchemaRegistryClient first = new EmbeddedSchemaRegistryClient(file, meterRegistry);
+        first.register(KEY_SUBJECT, EmployeeEventKey.getClassSchema());
+
+        String stored = new String(Files.readAllBytes(file));
+
+        new EmbeddedSchemaRegistryClient(file, meterRegistry).register(KEY_SUBJECT,
+                new Schema.Parser().parse(EmployeeEventKey.getClassSchema().toString()));
+
+        Assert.assertEquals(stored, new String(Files.readAllBytes(file)));
+    }
+
+    @Test
+    public void testOnlyTheFirstLookupReachesTheRegistry() throws Exception {
+
+        EmbeddedSchemaRegistryClient client = new EmbeddedSchemaRegistryClient(null, meterRegistry);
+
+        int id = client.register(KEY_SUBJECT, EmployeeEventKey.getClassSchema());
+
+        for (int i = 0; i < 10; i++) {
+
+            Assert.assertEquals(id, client.getId(KEY_SUBJECT, EmployeeEventKey.getClassSchema()));
+            Assert.assertEquals(id, client.register(KEY_SUBJECT, EmployeeEventKey.getClassSchema()));
+        }
+
+        Assert.assertEquals(1, meterRegistry.get("hrms.kafka.schema.registry.lookup")
+                .tags("registry", "embedded", "operation", "register", "outcome", "success").timer().count());
+        Assert.assertTrue(meterRegistry.find("hrms.kafka.schema.registry.lookup").tag("operation", "get_id")
+                .timers().isEmpty());
+    }
+
+    @Test
+    public void testFailedLookupIsNotCached() throws Exception {
+
+        EmbeddedSchemaRegistryClient client = new EmbeddedSchemaRegistryClient(null, meterRegistry);
+
+        try {
+
+            client.getId(VALUE_SUBJECT, EmployeeEventValue.getClassSchema());
+            Assert.fail("The schema is not registered yet");
+
+        } catch (Exception exception) {
+
+            Assert.assertEquals(1, meterRegistry.get("hrms.kafka.schema.registry.lookup")
+                    .tags("operation", "get_id", "outcome", "error").timer().count());
+        }
+
+        int id = client.register(VALUE_SUBJECT, EmployeeEventValue.getClassSchema());
+
+        Assert.assertEquals(id, client.getId(VALUE_SUBJECT, EmployeeEventValue.getClassSchema()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnreadableFile() throws Exception {
+
+        Files.createDirectories(file.getParent());
+        Files.write(file, "not json".getBytes());
+
+        new EmbeddedSchemaRegistryClient(file, meterRegistry);
+    }
+}
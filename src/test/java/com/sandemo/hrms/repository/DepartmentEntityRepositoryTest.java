@@ -1,6 +1,8 @@
 package com.sandemo.hrms.repository;
 
+import com.sandemo.hrms.dto.response.DepartmentDto;
 import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -8,10 +10,13 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -27,10 +32,18 @@ public class DepartmentEntityRepositoryTest {
     @Autowired
     private DepartmentEntityRepository departmentEntityRepository;
 
+    @Autowired
+    private EmployeeEntityRepository employeeEntityRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private DepartmentEntity departmentHr;
+
     @Before
     public void init() {
 
-        this.departmentEntityRepository.save(DepartmentEntity.builder().name(NAME_HR).build());
+        this.departmentHr = this.departmentEntityRepository.save(DepartmentEntity.builder().name(NAME_HR).build());
         this.departmentEntityRepository.save(DepartmentEntity.builder().name(NAME_FINANCE).build());
     }
 
@@ -42,4 +55,57 @@ public class DepartmentEntityRepositoryTest {
         Assert.assertFalse(departmentEntities.isEmpty());
         Assert.assertEquals(2, departmentEntities.size());
     }
+
+    @Test
+    public void testHeadcountStartsAtZero() {
+
+        List<DepartmentDto> departments = this.departmentEntityRepository.findAllWithHeadcount();
+
+        Assert.assertEquals(2, departments.size());
+        Assert.assertEquals(NAME_HR, departments.get(0).getName());
+        Assert.assertEquals(Integer.valueOf(0), departments.get(0).getHeadcount());
+        Assert.assertEquals(Integer.valueOf(0), departments.get(1).getHeadcount());
+    }
+
+    @Test
+    public void testAddToHeadcount() {
+
+        Assert.assertEquals(1, this.departmentEntityRepository.addToHeadcount(departmentHr.getDepartId(), 3));
+        Assert.assertEquals(1, this.departmentEntityRepository.addToHeadcount(departmentHr.getDepartId(), -1));
+        Assert.assertEquals(0, this.departmentEntityRepository.addToHeadcount(-1L, 1));
+
+        Assert.assertEquals(Optional.of(2), this.departmentEntityRepository.findHeadcountForUpdate(departmentHr.getDepartId()));
+    }
+
+    @Test
+    public void testHeadcountIsNotOverwrittenByTheEntity() {
+
+        this.departmentEntityRepository.addToHeadcount(departmentHr.getDepartId(), 3);
+
+        // A copy read before the relative update still carries the old headcount, saving it must not undo the update
+        departmentHr.setName("People");
+        this.departmentEntityRepository.saveAndFlush(departmentHr);
+        this.testEntityManager.clear();
+
+        DepartmentEntity departmentEntity = this.departmentEntityRepository.findById(departmentHr.getDepartId()).orElse(null);
+
+        Assert.assertNotNull(departmentEntity);
+        Assert.assertEquals("People", departmentEntity.getName());
+        Assert.assertEquals(Integer.valueOf(3), departmentEntity.getHeadcount());
+    }
+
+    @Test
+    public void testCountEmployeesAndUpdateHeadcount() {
+
+        this.employeeEntityRepository.save(EmployeeEntity.builder()
+                .employeeId("test1")
+                .name("testname1")
+                .email("test1@email.com")
+                .dateOfBirth(LocalDate.now())
+                .departmentEntity(departmentHr).build());
+
+        Assert.assertEquals(1, this.departmentEntityRepository.countEmployees(departmentHr.getDepartId()));
+        Assert.assertEquals(1, this.departmentEntityRepository.updateHeadcount(departmentHr.getDepartId(), 1));
+        Assert.assertEquals(Optional.of(1), this.departmentEntityRepository.findHeadcountForUpdate(departmentHr.getDepartId()));
+    }
 }
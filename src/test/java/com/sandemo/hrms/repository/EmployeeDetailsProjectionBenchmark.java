@@ -0,0 +1,150 @@
+package com.sandemo.hrms.repository;
+
+import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sun.management.ThreadMXBean;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ *
+ * Reads the details of an employee as the entity read the details endpoint did before and as the projection it does
+ * now, and prints the bytes allocated and the time spent per read. It is not run with the tests:
+ *
+ * mvn test -Dtest=EmployeeDetailsProjectionBenchmark
+ *
+ * The statements are not logged, so the printing does not add to the time. Only the allocation is asserted, the time
+ * per read on a shared machine is too noisy to compare.
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(excludeAutoConfiguration = FlywayAutoConfiguration.class,
+        properties = "spring.jpa.properties.hibernate.show_sql=false")
+@PropertySource("classpath:application-test.properties")
+public class EmployeeDetailsProjectionBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final String EMPLOYEE_ID = "test1";
+
+    @Autowired
+    private EmployeeEntityRepository employeeEntityRepository;
+
+    @Autowired
+    private DepartmentEntityRepository departmentEntityRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Before
+    public void init() {
+
+        this.employeeEntityRepository.deleteAll();
+        this.departmentEntityRepository.deleteAll();
+
+        DepartmentEntity departmentEntity = departmentEntityRepository.save(
+                DepartmentEntity.builder().name("HR").build());
+
+        this.employeeEntityRepository.save(
+                EmployeeEntity.builder()
+                        .employeeId(EMPLOYEE_ID)
+                        .name("testname1")
+                        .email("email1@email.com")
+                        .dateOfBirth(LocalDate.now())
+                        .departmentEntity(departmentEntity).build());
+
+        this.testEntityManager.flush();
+    }
+
+    @Test
+    public void benchmarkFindDetailsByEmployeeId() {
+
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean);
+
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+
+        // The entity read as the details endpoint did it, the employee and its department are hydrated and snapshotted
+        Supplier<Object> entityRead = () -> this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_ID)
+                .map(employeeEntity -> EmployeeDetailsResponseDto.builder()
+                        .employeeId(employeeEntity.getEmployeeId())
+                        .name(employeeEntity.getName())
+                        .department(DepartmentDto.builder()
+                                .departmentId(employeeEntity.getDepartmentEntity().getDepartId())
+                                .name(employeeEntity.getDepartmentEntity().getName())
+                                .build())
+                        .build())
+                .orElse(null);
+        Supplier<Object> projectionRead = () -> this.employeeEntityRepository.findDetailsByEmployeeId(EMPLOYEE_ID)
+                .orElse(null);
+
+        ReadCost entityCost = measure(threadMXBean, entityRead);
+        ReadCost projectionCost = measure(threadMXBean, projectionRead);
+
+        System.out.printf("%-10s %,10d bytes %,10d ns per read%n", "entity", entityCost.bytesPerRead,
+                entityCost.nanosPerRead);
+        System.out.printf("%-10s %,10d bytes %,10d ns per read%n", "projection", projectionCost.bytesPerRead,
+                projectionCost.nanosPerRead);
+
+        Assert.assertTrue("The projection allocated " + projectionCost.bytesPerRead + " bytes per read, the entity "
+                        + entityCost.bytesPerRead, projectionCost.bytesPerRead < entityCost.bytesPerRead);
+    }
+
+    /**
+     * Runs the read in a fresh persistence context each time, the same as a request of its own, and returns the bytes
+     * allocated and the time spent per read on this thread after a warm up.
+     */
+    private ReadCost measure(final ThreadMXBean threadMXBean, final Supplier<Object> read) {
+
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+
+            Assert.assertNotNull(read.get());
+            this.testEntityManager.clear();
+        }
+
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long startedAt = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+
+            read.get();
+            this.testEntityManager.clear();
+        }
+
+        long nanos = System.nanoTime() - startedAt;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new ReadCost(allocated / ITERATIONS, nanos / ITERATIONS);
+    }
+
+    private static final class ReadCost {
+
+        private final long bytesPerRead;
+        private final long nanosPerRead;
+
+        private ReadCost(final long bytesPerRead, final long nanosPerRead) {
+
+            this.bytesPerRead = bytesPerRead;
+            this.nanosPerRead = nanosPerRead;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.sandemo.hrms.repository;
 
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
 import com.sandemo.hrms.model.DepartmentEntity;
 import com.sandemo.hrms.model.EmployeeEntity;
+import org.hibernate.Session;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,12 +14,20 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -38,6 +51,9 @@ public class EmployeeEntityRepositoryTest {
     @Autowired
     private DepartmentEntityRepository departmentEntityRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     @Before
     public void init() {
 
@@ -93,4 +109,275 @@ public class EmployeeEntityRepositoryTest {
         Assert.assertEquals(EMPLOYEE_2_NAME, employeeEntityOptional.get().getName());
         Assert.assertEquals(DEPART_HR, employeeEntityOptional.get().getDepartmentEntity().getName());
     }
+
+    @Test
+    public void testFindDetailsByEmployeeId() {
+
+        EmployeeEntity employeeEntity = this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_1_ID).orElse(null);
+
+        // Nothing is managed, so whatever the projection returns comes from the query
+        this.testEntityManager.clear();
+
+        Optional<EmployeeDetailsResponseDto> details = this.employeeEntityRepository.findDetailsByEmployeeId(EMPLOYEE_1_ID);
+
+        Assert.assertTrue(details.isPresent());
+        Assert.assertEquals(EMPLOYEE_1_NAME, details.get().getName());
+        Assert.assertEquals(EMPLOYEE_1_EMAIL, details.get().getEmail());
+        Assert.assertEquals(employeeEntity.getDateOfBirth(), details.get().getDataOfBirth());
+        Assert.assertEquals(employeeEntity.getDepartmentEntity().getDepartId(), details.get().getDepartment().getDepartmentId());
+        Assert.assertEquals(DEPART_HR, details.get().getDepartment().getName());
+        Assert.assertEquals(employeeEntity.getVersion(), details.get().getVersion());
+        Assert.assertEquals(0, this.testEntityManager.getEntityManager().unwrap(Session.class).getStatistics()
+                .getEntityCount());
+        Assert.assertFalse(this.employeeEntityRepository.findDetailsByEmployeeId("unknown").isPresent());
+    }
+
+    @Test
+    public void testFindExistingEmails() {
+
+        List<String> emails = this.employeeEntityRepository.findExistingEmails(
+                Arrays.asList(EMPLOYEE_1_EMAIL, "unknown@email.com"));
+
+        Assert.assertEquals(1, emails.size());
+        Assert.assertEquals(EMPLOYEE_1_EMAIL, emails.get(0));
+    }
+
+    @Test
+    public void testFindAllWithDepartmentByEmployeeIdIn() {
+
+        List<EmployeeEntity> employeeEntities = this.employeeEntityRepository.findAllWithDepartmentByEmployeeIdIn(
+                Arrays.asList(EMPLOYEE_2_ID, EMPLOYEE_1_ID, "unknown"));
+
+        Assert.assertEquals(2, employeeEntities.size());
+        Assert.assertTrue(employeeEntities.stream()
+                .allMatch(employeeEntity -> DEPART_HR.equals(employeeEntity.getDepartmentEntity().getName())));
+    }
+
+    @Test
+    public void testFindAllWithDepartmentByEmailIn() {
+
+        List<EmployeeEntity> employeeEntities = this.employeeEntityRepository.findAllWithDepartmentByEmailIn(
+                Arrays.asList(EMPLOYEE_2_EMAIL, "unknown@email.com"));
+
+        Assert.assertEquals(1, employeeEntities.size());
+        Assert.assertEquals(EMPLOYEE_2_ID, employeeEntities.get(0).getEmployeeId());
+        Assert.assertEquals(DEPART_HR, employeeEntities.get(0).getDepartmentEntity().getName());
+    }
+
+    @Test
+    public void testFindVersionByEmployeeId() {
+
+        EmployeeEntity employeeEntity = this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_1_ID).get();
+        employeeEntity.setName(EMPLOYEE_2_NAME);
+        this.employeeEntityRepository.saveAndFlush(employeeEntity);
+
+        Assert.assertEquals(Optional.of(1L), this.employeeEntityRepository.findVersionByEmployeeId(EMPLOYEE_1_ID));
+        Assert.assertEquals(Optional.of(0L), this.employeeEntityRepository.findVersionByEmployeeId(EMPLOYEE_2_ID));
+        Assert.assertFalse(this.employeeEntityRepository.findVersionByEmployeeId("unknown").isPresent());
+    }
+
+    @Test
+    public void testDeleteByEmployeeIdReturningDepartmentId() {
+
+        Long departmentId = this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_1_ID)
+                .map(employeeEntity -> employeeEntity.getDepartmentEntity().getDepartId()).orElse(null);
+
+        Assert.assertEquals(Optional.of(departmentId),
+                this.employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(EMPLOYEE_1_ID));
+        Assert.assertFalse(this.employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(EMPLOYEE_1_ID).isPresent());
+        Assert.assertFalse(this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_1_ID).isPresent());
+        Assert.assertTrue(this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_2_ID).isPresent());
+    }
+
+    @Test
+    public void testUpdateByEmployeeIdAndVersion() {
+
+        Long departmentId = this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_1_ID)
+                .map(employeeEntity -> employeeEntity.getDepartmentEntity().getDepartId()).orElse(null);
+
+        EmployeeEntity changes = EmployeeEntity.builder().name(EMPLOYEE_2_NAME).build();
+
+        Optional<Long> updated = this.employeeEntityRepository.updateByEmployeeIdAndVersion(EMPLOYEE_1_ID, 0L, changes);
+        Optional<Long> stale = this.employeeEntityRepository.updateByEmployeeIdAndVersion(EMPLOYEE_1_ID, 0L,
+                EmployeeEntity.builder().name(EMPLOYEE_1_NAME).build());
+
+        Assert.assertEquals(Optional.of(departmentId), updated);
+        Assert.assertFalse(stale.isPresent());
+        Assert.assertEquals(Optional.of(1L), this.employeeEntityRepository.findVersionByEmployeeId(EMPLOYEE_1_ID));
+
+        // The changes hold the whole updated row afterwards
+        Assert.assertEquals(EMPLOYEE_1_ID, changes.getEmployeeId());
+        Assert.assertEquals(EMPLOYEE_1_EMAIL, changes.getEmail());
+        Assert.assertEquals(departmentId, changes.getDepartmentEntity().getDepartId());
+        Assert.assertEquals(Long.valueOf(1L), changes.getVersion());
+
+        Optional<EmployeeEntity> employeeEntityOptional = this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_1_ID);
+
+        Assert.assertTrue(employeeEntityOptional.isPresent());
+        Assert.assertEquals(EMPLOYEE_2_NAME, employeeEntityOptional.get().getName());
+        Assert.assertEquals(EMPLOYEE_1_EMAIL, employeeEntityOptional.get().getEmail());
+    }
+
+    @Test
+    public void testFindEmployeePageById() {
+
+        DepartmentEntity departmentEntity = this.departmentEntityRepository.findAll().get(0);
+
+        for (int index = 3; index <= 5; index++) {
+
+            this.employeeEntityRepository.save(getEmployeeEntity("test" + index, departmentEntity, null));
+        }
+
+        List<EmployeeListItemDto> firstPage = this.employeeEntityRepository.findEmployeePage(
+                new EmployeeListRequestDto(), EmployeeListSort.ID, null, null, 3);
+        List<EmployeeListItemDto> secondPage = this.employeeEntityRepository.findEmployeePage(
+                new EmployeeListRequestDto(), EmployeeListSort.ID, firstPage.get(2).getEmployeeIdPk(), null, 3);
+
+        Assert.assertEquals(3, firstPage.size());
+        Assert.assertEquals(EMPLOYEE_1_ID, firstPage.get(0).getEmployeeId());
+        Assert.assertEquals(DEPART_HR, firstPage.get(0).getDepartment().getName());
+        Assert.assertEquals(2, secondPage.size());
+        Assert.assertEquals("test5", secondPage.get(1).getEmployeeId());
+    }
+
+    @Test
+    public void testFindEmployeePageByUpdatedAtWithTies() {
+
+        DepartmentEntity departmentEntity = this.departmentEntityRepository.findAll().get(0);
+        ZonedDateTime updatedAt = ZonedDateTime.of(2020, 11, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+        this.employeeEntityRepository.deleteAll();
+        this.employeeEntityRepository.save(getEmployeeEntity("test3", departmentEntity, updatedAt.plusHours(1)));
+        this.employeeEntityRepository.save(getEmployeeEntity("test4", departmentEntity, updatedAt));
+        this.employeeEntityRepository.save(getEmployeeEntity("test5", departmentEntity, updatedAt));
+
+        List<EmployeeListItemDto> firstPage = this.employeeEntityRepository.findEmployeePage(
+                new EmployeeListRequestDto(), EmployeeListSort.UPDATED_AT, null, null, 1);
+        List<EmployeeListItemDto> secondPage = this.employeeEntityRepository.findEmployeePage(
+                new EmployeeListRequestDto(), EmployeeListSort.UPDATED_AT, firstPage.get(0).getEmployeeIdPk(),
+                firstPage.get(0).getLastUpdatedAt(), 10);
+
+        Assert.assertEquals("test4", firstPage.get(0).getEmployeeId());
+        Assert.assertEquals(2, secondPage.size());
+        Assert.assertEquals("test5", secondPage.get(0).getEmployeeId());
+        Assert.assertEquals("test3", secondPage.get(1).getEmployeeId());
+    }
+
+    @Test
+    public void testFindEmployeePageWithFilters() {
+
+        DepartmentEntity departmentEntity = this.departmentEntityRepository.save(
+                DepartmentEntity.builder().name("IT").build());
+        ZonedDateTime updatedAt = ZonedDateTime.of(2020, 11, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+        this.employeeEntityRepository.save(getEmployeeEntity("test3", departmentEntity, updatedAt));
+        this.employeeEntityRepository.save(getEmployeeEntity("test4", departmentEntity, updatedAt.plusDays(1)));
+
+        List<EmployeeListItemDto> employees = this.employeeEntityRepository.findEmployeePage(
+                EmployeeListRequestDto.builder()
+                        .departmentId(departmentEntity.getDepartId())
+                        .updatedFrom(updatedAt)
+                        .updatedTo(updatedAt.plusDays(1)).build(),
+                EmployeeListSort.ID, null, null, 10);
+
+        Assert.assertEquals(1, employees.size());
+        Assert.assertEquals("test3", employees.get(0).getEmployeeId());
+        Assert.assertEquals("IT", employees.get(0).getDepartment().getName());
+    }
+
+    @Test
+    public void testFindEmployeePageForShare() {
+
+        List<EmployeeListItemDto> firstPage = this.employeeEntityRepository.findEmployeePageForShare(
+                new EmployeeListRequestDto(), null, 1);
+        List<EmployeeListItemDto> secondPage = this.employeeEntityRepository.findEmployeePageForShare(
+                new EmployeeListRequestDto(), firstPage.get(0).getEmployeeIdPk(), 10);
+
+        Assert.assertEquals(1, firstPage.size());
+        Assert.assertEquals(EMPLOYEE_1_ID, firstPage.get(0).getEmployeeId());
+        Assert.assertEquals(1, secondPage.size());
+        Assert.assertEquals(EMPLOYEE_2_ID, secondPage.get(0).getEmployeeId());
+        Assert.assertEquals(DEPART_HR, secondPage.get(0).getDepartment().getName());
+    }
+
+    @Test
+    public void testStreamAllEmployees() {
+
+        List<EmployeeListItemDto> employees;
+
+        try (Stream<EmployeeListItemDto> stream = this.employeeEntityRepository.streamAllEmployees(1)) {
+
+            employees = stream.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals(2, employees.size());
+        Assert.assertEquals(EMPLOYEE_1_ID, employees.get(0).getEmployeeId());
+        Assert.assertEquals(EMPLOYEE_2_ID, employees.get(1).getEmployeeId());
+        Assert.assertEquals(DEPART_HR, employees.get(1).getDepartment().getName());
+    }
+
+    @Test
+    public void testStreamEmployeesByDepartment() {
+
+        DepartmentEntity otherDepartment = this.departmentEntityRepository.save(
+                DepartmentEntity.builder().name("Other").build());
+        EmployeeEntity moved = this.employeeEntityRepository.findByEmployeeId(EMPLOYEE_1_ID).get();
+        moved.setDepartmentEntity(otherDepartment);
+        this.employeeEntityRepository.saveAndFlush(moved);
+
+        List<EmployeeListItemDto> employees;
+
+        try (Stream<EmployeeListItemDto> stream = this.employeeEntityRepository.streamEmployeesByDepartment(
+                otherDepartment.getDepartId(), 1)) {
+
+            employees = stream.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals(1, employees.size());
+        Assert.assertEquals(EMPLOYEE_1_ID, employees.get(0).getEmployeeId());
+        Assert.assertEquals("Other", employees.get(0).getDepartment().getName());
+    }
+
+    @Test
+    public void testInsertSkippingTakenEmails() {
+
+        DepartmentEntity departmentEntity = this.departmentEntityRepository.findAll().get(0);
+        ZonedDateTime createdAt = ZonedDateTime.now();
+
+        List<EmployeeEntity> employeeEntities = Arrays.asList(
+                getEmployeeEntity("test3", departmentEntity, null),
+                EmployeeEntity.builder().employeeId("test4").name("test4").email(EMPLOYEE_1_EMAIL)
+                        .departmentEntity(departmentEntity).build(),
+                getEmployeeEntity("test5", departmentEntity, null),
+                EmployeeEntity.builder().employeeId("test6").name("test6").email("test5@email.com")
+                        .departmentEntity(departmentEntity).build());
+
+        employeeEntities.forEach(employeeEntity -> employeeEntity.setCreatedAt(createdAt));
+
+        Set<String> insertedIds = this.employeeEntityRepository.insertSkippingTakenEmails(employeeEntities);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("test3", "test5")), insertedIds);
+        Assert.assertNotNull(employeeEntities.get(0).getEmployeeIdPk());
+
+        Optional<EmployeeEntity> employeeEntityOptional = this.employeeEntityRepository.findByEmployeeId("test5");
+
+        Assert.assertTrue(employeeEntityOptional.isPresent());
+        Assert.assertEquals(employeeEntities.get(2).getEmployeeIdPk(), employeeEntityOptional.get().getEmployeeIdPk());
+        Assert.assertEquals(Long.valueOf(0L), employeeEntityOptional.get().getVersion());
+        Assert.assertEquals(DEPART_HR, employeeEntityOptional.get().getDepartmentEntity().getName());
+        Assert.assertFalse(this.employeeEntityRepository.findByEmployeeId("test6").isPresent());
+        Assert.assertEquals(4, this.employeeEntityRepository.count());
+    }
+
+    private EmployeeEntity getEmployeeEntity(final String employeeId, final DepartmentEntity departmentEntity,
+                                             final ZonedDateTime updatedAt) {
+
+        return EmployeeEntity.builder()
+                .employeeId(employeeId)
+                .name(employeeId)
+                .email(employeeId + "@email.com")
+                .dateOfBirth(LocalDate.now())
+                .updatedAt(updatedAt)
+                .departmentEntity(departmentEntity).build();
+    }
 }
@@ -0,0 +1,120 @@
+package com.sandemo.hrms.repository;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.model.EmployeeOutboxEntity;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(excludeAutoConfiguration = FlywayAutoConfiguration.class)
+@PropertySource("classpath:application-test.properties")
+public class EmployeeOutboxEntityRepositoryTest {
+
+    private static final String EMPLOYEE_1_ID = "test1";
+    private static final String EMPLOYEE_2_ID = "test2";
+    private static final String EMPLOYEE_3_ID = "test3";
+    private static final String RELAY_OWNER = "relay1";
+
+    @Autowired
+    private EmployeeOutboxEntityRepository employeeOutboxEntityRepository;
+
+    private List<EmployeeOutboxEntity> outboxEntities;
+
+    @Before
+    public void init() {
+
+        this.employeeOutboxEntityRepository.deleteAll();
+
+        outboxEntities = this.employeeOutboxEntityRepository.saveAll(Arrays.asList(
+                getOutboxEntity(EMPLOYEE_1_ID), getOutboxEntity(EMPLOYEE_2_ID), getOutboxEntity(EMPLOYEE_3_ID)));
+    }
+
+    @Test
+    public void testFindNextBatchForRelay() {
+
+        List<EmployeeOutboxEntity> batch = this.employeeOutboxEntityRepository.findNextBatchForRelay(
+                ZonedDateTime.now(), PageRequest.of(0, 2));
+
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals(EMPLOYEE_1_ID, batch.get(0).getEmployeeId());
+        Assert.assertEquals(EMPLOYEE_2_ID, batch.get(1).getEmployeeId());
+    }
+
+    @Test
+    public void testFindNextBatchForRelaySkipsLeasedEmployees() {
+
+        // A later event of the first employee waits behind the leased one
+        this.employeeOutboxEntityRepository.save(getOutboxEntity(EMPLOYEE_1_ID));
+
+        ZonedDateTime now = ZonedDateTime.now();
+        this.employeeOutboxEntityRepository.claimByIds(Collections.singletonList(outboxEntities.get(0).getOutboxIdPk()),
+                RELAY_OWNER, now.plusMinutes(1));
+
+        List<EmployeeOutboxEntity> batch = this.employeeOutboxEntityRepository.findNextBatchForRelay(
+                now, PageRequest.of(0, 10));
+
+        Assert.assertEquals(Arrays.asList(EMPLOYEE_2_ID, EMPLOYEE_3_ID), batch.stream()
+                .map(EmployeeOutboxEntity::getEmployeeId)
+                .collect(Collectors.toList()));
+
+        // Once the lease expired the events of the first employee are claimed again, in their order
+        batch = this.employeeOutboxEntityRepository.findNextBatchForRelay(now.plusMinutes(2), PageRequest.of(0, 10));
+
+        Assert.assertEquals(Arrays.asList(EMPLOYEE_1_ID, EMPLOYEE_2_ID, EMPLOYEE_3_ID, EMPLOYEE_1_ID), batch.stream()
+                .map(EmployeeOutboxEntity::getEmployeeId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testReleaseClaims() {
+
+        ZonedDateTime now = ZonedDateTime.now();
+        this.employeeOutboxEntityRepository.claimByIds(Arrays.asList(outboxEntities.get(0).getOutboxIdPk(),
+                outboxEntities.get(1).getOutboxIdPk()), RELAY_OWNER, now.plusMinutes(1));
+
+        Assert.assertEquals(2, this.employeeOutboxEntityRepository.releaseClaims(RELAY_OWNER));
+        Assert.assertEquals(3, this.employeeOutboxEntityRepository.findNextBatchForRelay(now, PageRequest.of(0, 10))
+                .size());
+    }
+
+    @Test
+    public void testDeleteByIds() {
+
+        int deleted = this.employeeOutboxEntityRepository.deleteByIds(Arrays.asList(
+                outboxEntities.get(0).getOutboxIdPk(), outboxEntities.get(1).getOutboxIdPk()));
+
+        List<EmployeeOutboxEntity> remaining = this.employeeOutboxEntityRepository.findAll();
+
+        Assert.assertEquals(2, deleted);
+        Assert.assertEquals(1, remaining.size());
+        Assert.assertEquals(EMPLOYEE_3_ID, remaining.get(0).getEmployeeId());
+    }
+
+    private EmployeeOutboxEntity getOutboxEntity(final String employeeId) {
+
+        return EmployeeOutboxEntity.builder()
+                .employeeId(employeeId)
+                .eventType(EmployeeEventType.CREATED)
+                .eventKey(new byte[]{1})
+                .eventValue(new byte[]{2, 3})
+                .createdAt(ZonedDateTime.now())
+                .build();
+    }
+}
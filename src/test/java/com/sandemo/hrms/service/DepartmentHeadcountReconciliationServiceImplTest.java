@@ -0,0 +1,84 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.repository.DepartmentEntityRepository;
+import com.sandemo.hrms.service.impl.DepartmentHeadcountReconciliationServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class DepartmentHeadcountReconciliationServiceImplTest {
+
+    private static final Long DEPART_ID = 1L;
+    private static final Long DEPART_ID_TWO = 2L;
+    private static final Long DEPART_ID_DELETED = 3L;
+
+    @Mock
+    private DepartmentEntityRepository departmentEntityRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    DepartmentHeadcountReconciliationService departmentHeadcountReconciliationService =
+            new DepartmentHeadcountReconciliationServiceImpl(departmentEntityRepository, transactionManager, meterRegistry);
+
+    @Before
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+        Mockito.when(departmentEntityRepository.findAllDepartIds())
+                .thenReturn(Arrays.asList(DEPART_ID, DEPART_ID_TWO, DEPART_ID_DELETED));
+
+        Mockito.when(departmentEntityRepository.findHeadcountForUpdate(Mockito.eq(DEPART_ID))).thenReturn(Optional.of(4));
+        Mockito.when(departmentEntityRepository.countEmployees(Mockito.eq(DEPART_ID))).thenReturn(4L);
+        Mockito.when(departmentEntityRepository.findHeadcountForUpdate(Mockito.eq(DEPART_ID_TWO))).thenReturn(Optional.of(7));
+        Mockito.when(departmentEntityRepository.countEmployees(Mockito.eq(DEPART_ID_TWO))).thenReturn(5L);
+        Mockito.when(departmentEntityRepository.findHeadcountForUpdate(Mockito.eq(DEPART_ID_DELETED)))
+                .thenReturn(Optional.empty());
+    }
+
+    @Test
+    public void testReconcileHeadcountsCorrectsOnlyTheDrifted() {
+
+        Assert.assertEquals(1, departmentHeadcountReconciliationService.reconcileHeadcounts());
+
+        Mockito.verify(departmentEntityRepository).updateHeadcount(Mockito.eq(DEPART_ID_TWO), Mockito.eq(5));
+        Mockito.verify(departmentEntityRepository, Mockito.never()).updateHeadcount(Mockito.eq(DEPART_ID), Mockito.anyInt());
+        Mockito.verify(departmentEntityRepository, Mockito.never()).countEmployees(Mockito.eq(DEPART_ID_DELETED));
+        Assert.assertEquals(1.0, meterRegistry.get("hrms.department.headcount.corrected").counter().count(), 0);
+    }
+
+    @Test
+    public void testReconcileHeadcountsLocksBeforeCountingInATransactionPerDepartment() {
+
+        departmentHeadcountReconciliationService.reconcileHeadcounts();
+
+        InOrder inOrder = Mockito.inOrder(departmentEntityRepository);
+        inOrder.verify(departmentEntityRepository).findHeadcountForUpdate(Mockito.eq(DEPART_ID_TWO));
+        inOrder.verify(departmentEntityRepository).countEmployees(Mockito.eq(DEPART_ID_TWO));
+        inOrder.verify(departmentEntityRepository).updateHeadcount(Mockito.eq(DEPART_ID_TWO), Mockito.eq(5));
+
+        Mockito.verify(transactionManager, Mockito.times(3)).commit(Mockito.any());
+    }
+}
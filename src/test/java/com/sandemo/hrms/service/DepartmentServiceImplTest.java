@@ -1,6 +1,9 @@
 package com.sandemo.hrms.service;
 
+import com.sandemo.hrms.cache.DepartmentCache;
 import com.sandemo.hrms.dto.request.DepartmentRequestDto;
+import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.DepartmentListResponseDto;
 import com.sandemo.hrms.dto.response.DepartmentResponseDto;
 import com.sandemo.hrms.exception.GenericClientRuntimeException;
 import com.sandemo.hrms.exception.GenericServerRuntimeException;
@@ -8,18 +11,31 @@ import com.sandemo.hrms.factory.ValidationFactoryService;
 import com.sandemo.hrms.model.DepartmentEntity;
 import com.sandemo.hrms.repository.DepartmentEntityRepository;
 import com.sandemo.hrms.service.impl.DepartmentServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -38,8 +54,13 @@ public class DepartmentServiceImplTest {
     private ValidationFactoryService validationFactoryService = new ValidationFactoryService(
             Validation.buildDefaultValidatorFactory().getValidator());
 
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DepartmentCache departmentCache = new DepartmentCache(10, meterRegistry);
+
     @InjectMocks
-    DepartmentService departmentService = new DepartmentServiceImpl(departmentEntityRepository, validationFactoryService);
+    DepartmentService departmentService = new DepartmentServiceImpl(departmentEntityRepository, validationFactoryService,
+            departmentCache);
 
     @Before
     public void init() {
@@ -92,6 +113,20 @@ public class DepartmentServiceImplTest {
         Assert.assertEquals(NAME, departmentEntityOptional.get().getName());
     }
 
+    @Test
+    public void testGetDepartmentByIdIsServedFromCache() {
+
+        departmentService.getDepartmentById(ID);
+
+        Optional<DepartmentEntity> departmentEntityOptional = departmentService.getDepartmentById(ID);
+
+        Assert.assertTrue(departmentEntityOptional.isPresent());
+        Assert.assertEquals(NAME, departmentEntityOptional.get().getName());
+        Mockito.verify(departmentEntityRepository, Mockito.times(1)).findById(Mockito.eq(ID));
+        Assert.assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count(), 0);
+        Assert.assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count(), 0);
+    }
+
     @Test
     public void testGetDepartmentByIdWhenIdIsNull() {
 
@@ -108,6 +143,93 @@ public class DepartmentServiceImplTest {
         Assert.assertFalse(departmentEntityOptional.isPresent());
     }
 
+    @Test
+    public void testGetDepartmentsByIdsValid() {
+
+        Mockito.when(departmentEntityRepository.findAllById(Mockito.anyIterable()))
+                .thenReturn(Collections.singletonList(getDepartmentEntity()));
+
+        List<DepartmentEntity> departmentEntities = departmentService.getDepartmentsByIds(Arrays.asList(ID, ID_TWO));
+
+        Assert.assertEquals(1, departmentEntities.size());
+        Assert.assertEquals(ID, departmentEntities.get(0).getDepartId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetDepartmentsByIdsFetchesOnlyTheMissingOnes() {
+
+        departmentCache.put(getDepartmentEntity());
+
+        Mockito.when(departmentEntityRepository.findAllById(Mockito.anyIterable())).thenReturn(Collections.emptyList());
+
+        List<DepartmentEntity> departmentEntities = departmentService.getDepartmentsByIds(Arrays.asList(ID, ID_TWO, ID));
+
+        Assert.assertEquals(1, departmentEntities.size());
+
+        ArgumentCaptor<Iterable<Long>> captor = ArgumentCaptor.forClass(Iterable.class);
+        Mockito.verify(departmentEntityRepository).findAllById(captor.capture());
+        Assert.assertEquals(Collections.singletonList(ID_TWO), new ArrayList<>((Collection<Long>) captor.getValue()));
+    }
+
+    @Test
+    public void testGetDepartmentsByIdsWhenAllAreCached() {
+
+        departmentCache.put(getDepartmentEntity());
+
+        List<DepartmentEntity> departmentEntities = departmentService.getDepartmentsByIds(Collections.singletonList(ID));
+
+        Assert.assertEquals(1, departmentEntities.size());
+        Mockito.verify(departmentEntityRepository, Mockito.never()).findAllById(Mockito.any());
+    }
+
+    @Test
+    public void testPreloadDepartmentCache() {
+
+        Mockito.when(departmentEntityRepository.findAll(Mockito.any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(getDepartmentEntity())));
+
+        Assert.assertEquals(1, departmentService.preloadDepartmentCache());
+
+        Assert.assertTrue(departmentService.getDepartmentById(ID).isPresent());
+        Mockito.verify(departmentEntityRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test
+    public void testCreateDepartmentIsCached() {
+
+        departmentService.createDepartment(DepartmentRequestDto.builder().name(NAME).build());
+
+        Assert.assertEquals(1, departmentCache.size());
+    }
+
+    @Test
+    public void testGetDepartmentsByIdsWhenIdsAreEmpty() {
+
+        List<DepartmentEntity> departmentEntities = departmentService.getDepartmentsByIds(Collections.emptyList());
+
+        Assert.assertTrue(departmentEntities.isEmpty());
+        Mockito.verify(departmentEntityRepository, Mockito.never()).findAllById(Mockito.any());
+    }
+
+    @Test
+    public void testGetDepartmentReferenceValid() {
+
+        Mockito.when(departmentEntityRepository.getOne(Mockito.eq(ID)))
+                .thenReturn(DepartmentEntity.builder().departId(ID).build());
+
+        DepartmentEntity departmentEntity = departmentService.getDepartmentReference(ID);
+
+        Assert.assertEquals(ID, departmentEntity.getDepartId());
+        Mockito.verify(departmentEntityRepository, Mockito.never()).findById(Mockito.any());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testGetDepartmentReferenceWhenIdIsNull() {
+
+        departmentService.getDepartmentReference(null);
+    }
+
     @Test
     public void testCreateDepartmentAndGetResponseValid() {
 
@@ -124,6 +246,44 @@ public class DepartmentServiceImplTest {
         departmentService.createDepartmentAndGetResponse(null);
     }
 
+    @Test
+    public void testAdjustHeadcountsInDepartmentIdOrder() {
+
+        Map<Long, Integer> headcountDeltas = new HashMap<>();
+        headcountDeltas.put(3L, 1);
+        headcountDeltas.put(ID_TWO, 0);
+        headcountDeltas.put(ID, -1);
+
+        departmentService.adjustHeadcounts(headcountDeltas);
+
+        InOrder inOrder = Mockito.inOrder(departmentEntityRepository);
+        inOrder.verify(departmentEntityRepository).addToHeadcount(Mockito.eq(ID), Mockito.eq(-1));
+        inOrder.verify(departmentEntityRepository).addToHeadcount(Mockito.eq(3L), Mockito.eq(1));
+        Mockito.verify(departmentEntityRepository, Mockito.never()).addToHeadcount(Mockito.eq(ID_TWO), Mockito.anyInt());
+    }
+
+    @Test
+    public void testAdjustHeadcountsWhenDeltasAreEmpty() {
+
+        departmentService.adjustHeadcounts(Collections.emptyMap());
+        departmentService.adjustHeadcounts(null);
+
+        Mockito.verifyZeroInteractions(departmentEntityRepository);
+    }
+
+    @Test
+    public void testGetDepartmentList() {
+
+        Mockito.when(departmentEntityRepository.findAllWithHeadcount())
+                .thenReturn(Collections.singletonList(new DepartmentDto(ID, NAME, 5)));
+
+        DepartmentListResponseDto departmentListResponseDto = departmentService.getDepartmentList();
+
+        Assert.assertEquals(1, departmentListResponseDto.getDepartments().size());
+        Assert.assertEquals(Integer.valueOf(5), departmentListResponseDto.getDepartments().get(0).getHeadcount());
+        Mockito.verify(departmentEntityRepository, Mockito.never()).findAll();
+    }
+
     private DepartmentEntity getDepartmentEntity() {
 
         return DepartmentEntity.builder()
@@ -0,0 +1,383 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.constant.BackfillStatus;
+import com.sandemo.hrms.dto.request.EmployeeBackfillRequestDto;
+import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.EmployeeBackfillResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.exception.EmployeeBackfillNotFoundException;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.model.EmployeeBackfillEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.repository.EmployeeBackfillEntityRepository;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeBackfillServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeBackfillServiceImplTest {
+
+    private static final String JOB_NAME = "bootstrap";
+    private static final int EMPLOYEES = 5;
+    private static final long AWAIT_TIMEOUT_MS = 5000L;
+
+    @Mock
+    private EmployeeEntityRepository employeeEntityRepository;
+
+    @Mock
+    private EmployeeBackfillEntityRepository employeeBackfillEntityRepository;
+
+    @Mock
+    private EmployeeOutboxService employeeOutboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockEnvironment environment = new MockEnvironment()
+            .withProperty("employee.backfill.page.size", "2")
+            .withProperty("employee.backfill.rate.per.second", "0");
+
+    // The checkpoints saved by the job, by job name
+    private Map<String, EmployeeBackfillEntity> checkpoints = new ConcurrentHashMap<>();
+    // The events added to the outbox, by employee id
+    private Map<String, EmployeeEventType> outboxEvents = new ConcurrentHashMap<>();
+    private List<EmployeeListItemDto> employees = new ArrayList<>();
+
+    private EmployeeBackfillServiceImpl employeeBackfillService;
+
+    @Before
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+
+        ZonedDateTime createdAt = ZonedDateTime.now().minusDays(1);
+
+        for (long employeeIdPk = 1; employeeIdPk <= EMPLOYEES; employeeIdPk++) {
+
+            // The even employees were updated after they were created
+            employees.add(getEmployeeListItemDto(employeeIdPk, createdAt,
+                    employeeIdPk % 2 == 0 ? createdAt.plusHours(1) : createdAt));
+        }
+
+        Mockito.when(employeeBackfillEntityRepository.findById(Mockito.anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))));
+        Mockito.when(employeeBackfillEntityRepository.save(Mockito.any(EmployeeBackfillEntity.class)))
+                .thenAnswer(invocation -> {
+
+                    EmployeeBackfillEntity employeeBackfillEntity = invocation.getArgument(0);
+                    checkpoints.put(employeeBackfillEntity.getJobName(), employeeBackfillEntity);
+
+                    return employeeBackfillEntity;
+                });
+        Mockito.when(employeeEntityRepository.findEmployeePageForShare(Mockito.any(), Mockito.any(), Mockito.anyInt()))
+                .thenAnswer(invocation -> {
+
+                    Long afterEmployeeIdPk = invocation.getArgument(1);
+                    int limit = invocation.getArgument(2);
+
+                    return employees.stream()
+                            .filter(employee -> afterEmployeeIdPk == null || employee.getEmployeeIdPk() > afterEmployeeIdPk)
+                            .limit(limit)
+                            .collect(Collectors.toList());
+                });
+        Mockito.doAnswer(invocation -> {
+
+            List<EmployeeEntity> employeeEntities = invocation.getArgument(0);
+            employeeEntities.forEach(employeeEntity ->
+                    outboxEvents.put(employeeEntity.getEmployeeId(), invocation.getArgument(1)));
+
+            return null;
+        }).when(employeeOutboxService).addEvents(Mockito.anyList(), Mockito.any(EmployeeEventType.class));
+
+        employeeBackfillService = new EmployeeBackfillServiceImpl(employeeEntityRepository,
+                employeeBackfillEntityRepository, employeeOutboxService, transactionManager, meterRegistry,
+                environment);
+    }
+
+    @After
+    public void close() {
+
+        employeeBackfillService.close();
+    }
+
+    @Test
+    public void testEveryPageIsAddedToTheOutboxAndTheJobCompletes() throws Exception {
+
+        EmployeeBackfillResponseDto started = employeeBackfillService.startBackfill(getRequest());
+
+        Assert.assertEquals(BackfillStatus.RUNNING, started.getStatus());
+
+        EmployeeBackfillEntity checkpoint = awaitEnd();
+
+        Assert.assertEquals(BackfillStatus.COMPLETED, checkpoint.getStatus());
+        Assert.assertEquals(Long.valueOf(EMPLOYEES), checkpoint.getLastEmployeeIdPk());
+        Assert.assertEquals(Long.valueOf(EMPLOYEES), checkpoint.getPublished());
+        Assert.assertEquals((double) EMPLOYEES,
+                meterRegistry.get("hrms.employee.backfill.published").counter().count(), 0.0);
+
+        Assert.assertEquals(EMPLOYEES, outboxEvents.size());
+
+        // An employee which was never updated is published as CREATED
+        Assert.assertEquals(EmployeeEventType.CREATED, outboxEvents.get("emp1"));
+        Assert.assertEquals(EmployeeEventType.UPDATED, outboxEvents.get("emp2"));
+    }
+
+    @Test
+    public void testPagesAreAddedInTransactionsOnThePrimary() throws Exception {
+
+        employeeBackfillService.startBackfill(getRequest());
+
+        awaitEnd();
+
+        ArgumentCaptor<TransactionDefinition> definitionCaptor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(transactionManager, Mockito.atLeastOnce()).getTransaction(definitionCaptor.capture());
+
+        // Three pages and the read which finds no employee left
+        Assert.assertEquals(4, definitionCaptor.getAllValues().size());
+
+        for (TransactionDefinition transactionDefinition : definitionCaptor.getAllValues()) {
+
+            Assert.assertFalse(transactionDefinition.isReadOnly());
+            Assert.assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW,
+                    transactionDefinition.getPropagationBehavior());
+        }
+    }
+
+    @Test
+    public void testStoppedJobResumesAfterItsCheckpoint() throws Exception {
+
+        checkpoints.put(JOB_NAME, EmployeeBackfillEntity.builder()
+                .jobName(JOB_NAME)
+                .status(BackfillStatus.STOPPED)
+                .lastEmployeeIdPk(3L)
+                .published(3L)
+                .startedAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build());
+
+        employeeBackfillService.startBackfill(getRequest());
+
+        EmployeeBackfillEntity checkpoint = awaitEnd();
+
+        Assert.assertEquals(BackfillStatus.COMPLETED, checkpoint.getStatus());
+        Assert.assertEquals(Long.valueOf(EMPLOYEES), checkpoint.getPublished());
+        Assert.assertEquals(2, outboxEvents.size());
+        Assert.assertFalse(outboxEvents.containsKey("emp3"));
+    }
+
+    @Test
+    public void testFailedPageKeepsTheCheckpointOfThePreviousPage() throws Exception {
+
+        Mockito.doThrow(new GenericServerRuntimeException("Outbox insert failed")).when(employeeOutboxService)
+                .addEvents(Mockito.argThat(employeeEntities -> employeeEntities.stream()
+                        .anyMatch(employeeEntity -> "emp3".equals(employeeEntity.getEmployeeId()))),
+                        Mockito.any(EmployeeEventType.class));
+
+        employeeBackfillService.startBackfill(getRequest());
+
+        EmployeeBackfillEntity checkpoint = awaitEnd();
+
+        Assert.assertEquals(BackfillStatus.FAILED, checkpoint.getStatus());
+        Assert.assertEquals(Long.valueOf(2L), checkpoint.getLastEmployeeIdPk());
+        Assert.assertEquals(Long.valueOf(2L), checkpoint.getPublished());
+        Assert.assertNotNull(checkpoint.getError());
+    }
+
+    @Test
+    public void testCompletedJobIsNotStartedAgain() {
+
+        checkpoints.put(JOB_NAME, EmployeeBackfillEntity.builder()
+                .jobName(JOB_NAME)
+                .status(BackfillStatus.COMPLETED)
+                .lastEmployeeIdPk(5L)
+                .published(5L)
+                .startedAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build());
+
+        Assert.assertEquals(BackfillStatus.COMPLETED, employeeBackfillService.startBackfill(getRequest()).getStatus());
+
+        Mockito.verifyZeroInteractions(employeeEntityRepository, employeeOutboxService);
+    }
+
+    @Test
+    public void testJobLeftRunningByAnotherInstanceIsMarkedStopped() {
+
+        checkpoints.put(JOB_NAME, EmployeeBackfillEntity.builder()
+                .jobName(JOB_NAME)
+                .status(BackfillStatus.RUNNING)
+                .published(0L)
+                .startedAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build());
+
+        Assert.assertEquals(BackfillStatus.STOPPED, employeeBackfillService.stopBackfill(JOB_NAME).getStatus());
+    }
+
+    @Test
+    public void testJobRunningOnAnotherInstanceIsRefusedUntilItsLeaseExpires() throws Exception {
+
+        EmployeeBackfillEntity leased = EmployeeBackfillEntity.builder()
+                .jobName(JOB_NAME)
+                .status(BackfillStatus.RUNNING)
+                .published(0L)
+                .startedAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .owner("another-instance")
+                .lockedUntil(ZonedDateTime.now().plusMinutes(1))
+                .build();
+
+        checkpoints.put(JOB_NAME, leased);
+
+        try {
+
+            employeeBackfillService.startBackfill(getRequest());
+
+            Assert.fail("The job leased by another instance was started");
+
+        } catch (GenericClientRuntimeException exception) {
+
+            Mockito.verifyZeroInteractions(employeeEntityRepository, employeeOutboxService);
+        }
+
+        // The instance went down and did not renew its lease
+        leased.setLockedUntil(ZonedDateTime.now().minusSeconds(1));
+
+        Assert.assertEquals(BackfillStatus.RUNNING, employeeBackfillService.startBackfill(getRequest()).getStatus());
+        Assert.assertEquals(BackfillStatus.COMPLETED, awaitEnd().getStatus());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testJobClaimedMeanwhileByAnotherInstanceIsRefused() {
+
+        Mockito.when(employeeBackfillEntityRepository.save(Mockito.any(EmployeeBackfillEntity.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(EmployeeBackfillEntity.class, JOB_NAME));
+
+        try {
+
+            employeeBackfillService.startBackfill(getRequest());
+
+        } finally {
+
+            Mockito.verifyZeroInteractions(employeeEntityRepository, employeeOutboxService);
+        }
+    }
+
+    @Test
+    public void testJobStoppedFromAnotherInstanceEndsWithoutSavingItsPage() {
+
+        // The job is stopped elsewhere while its first page is read, which takes its lease away
+        Mockito.when(employeeEntityRepository.findEmployeePageForShare(Mockito.any(), Mockito.any(), Mockito.anyInt()))
+                .thenAnswer(invocation -> {
+
+                    EmployeeBackfillEntity checkpoint = checkpoints.get(JOB_NAME);
+                    checkpoint.setStatus(BackfillStatus.STOPPED);
+                    checkpoint.setOwner(null);
+                    checkpoint.setLockedUntil(null);
+
+                    return employees.subList(0, 2);
+                });
+
+        employeeBackfillService.startBackfill(getRequest());
+
+        // Waits for the job to end
+        employeeBackfillService.close();
+
+        EmployeeBackfillEntity checkpoint = checkpoints.get(JOB_NAME);
+
+        Assert.assertEquals(BackfillStatus.STOPPED, checkpoint.getStatus());
+        Assert.assertNull(checkpoint.getLastEmployeeIdPk());
+        Assert.assertEquals(Long.valueOf(0L), checkpoint.getPublished());
+        Mockito.verify(employeeEntityRepository, Mockito.times(1))
+                .findEmployeePageForShare(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testEmptyRangeIsRefused() {
+
+        ZonedDateTime now = ZonedDateTime.now();
+
+        employeeBackfillService.startBackfill(EmployeeBackfillRequestDto.builder()
+                .jobName(JOB_NAME)
+                .updatedFrom(now)
+                .updatedTo(now)
+                .build());
+    }
+
+    @Test(expected = EmployeeBackfillNotFoundException.class)
+    public void testUnknownJobIsNotFound() {
+
+        employeeBackfillService.getBackfill("unknown");
+    }
+
+    private EmployeeBackfillEntity awaitEnd() throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + AWAIT_TIMEOUT_MS;
+
+        while (System.currentTimeMillis() < deadline) {
+
+            EmployeeBackfillEntity checkpoint = checkpoints.get(JOB_NAME);
+
+            if (checkpoint != null && BackfillStatus.RUNNING != checkpoint.getStatus()) {
+
+                return checkpoint;
+            }
+
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        throw new AssertionError("The backfill job did not end in time");
+    }
+
+    private EmployeeBackfillRequestDto getRequest() {
+
+        return EmployeeBackfillRequestDto.builder().jobName(JOB_NAME).build();
+    }
+
+    private EmployeeListItemDto getEmployeeListItemDto(final long employeeIdPk, final ZonedDateTime createdAt,
+                                                       final ZonedDateTime updatedAt) {
+
+        return EmployeeListItemDto.builder()
+                .employeeIdPk(employeeIdPk)
+                .employeeId("emp" + employeeIdPk)
+                .name("Test Emp")
+                .email("emp" + employeeIdPk + "@test.com")
+                .dataOfBirth(LocalDate.of(1990, 1, 1))
+                .department(DepartmentDto.builder().departmentId(1L).name("Test Depart").build())
+                .createAt(createdAt)
+                .lastUpdatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.sandemo.hrms.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.constant.BulkRowStatus;
+import com.sandemo.hrms.context.EmployeeServiceApiJacksonContext;
+import com.sandemo.hrms.dto.response.EmployeeBulkResponseDto;
+import com.sandemo.hrms.exception.DepartmentNotFoundException;
+import com.sandemo.hrms.exception.EmailIdAlreadyExistsException;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.factory.ValidationFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeBulkServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeBulkServiceImplTest {
+
+    private static final String DEPART_NAME = "Test Depart";
+    private static final Long DEPART_ID = 1L;
+    private static final String TAKEN_EMAIL = "taken@test.com";
+
+    @Mock
+    private EmployeeEntityRepository employeeEntityRepository;
+    @Mock
+    private DepartmentService departmentService;
+    @Mock
+    private EmployeeOutboxService employeeOutboxService;
+    @Mock
+    private EntityManager entityManager;
+
+    private ValidationFactoryService validationFactoryService = new ValidationFactoryService(
+            Validation.buildDefaultValidatorFactory().getValidator());
+
+    private EmployeeSearchIndex employeeSearchIndex = new EmployeeSearchIndex(16, new SimpleMeterRegistry());
+
+    private ObjectMapper objectMapper = new EmployeeServiceApiJacksonContext().objectMapperBuilder();
+
+    private MockEnvironment environment = new MockEnvironment()
+            .withProperty("employee.bulk.chunk.size", "2")
+            .withProperty("employee.bulk.max.rows", "5");
+
+    @InjectMocks
+    private EmployeeBulkService employeeBulkService = new EmployeeBulkServiceImpl(employeeEntityRepository,
+            departmentService, validationFactoryService, employeeOutboxService, employeeSearchIndex, objectMapper, environment);
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(departmentService.getDepartmentsByIds(Mockito.anyCollection()))
+                .thenReturn(Collections.singletonList(getDepartmentEntity()));
+        // The email which is taken by another employee is skipped by the insert, the same as the unique constraint
+        Mockito.when(employeeEntityRepository.insertSkippingTakenEmails(Mockito.anyList()))
+                .thenAnswer(invocation -> ((List<EmployeeEntity>) invocation.getArgument(0)).stream()
+                        .filter(employeeEntity -> !TAKEN_EMAIL.equals(employeeEntity.getEmail()))
+                        .map(EmployeeEntity::getEmployeeId)
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreateEmployeesWithValidAndInvalidRows() {
+
+        EmployeeBulkResponseDto response = employeeBulkService.createEmployeesAndGetResponse(toStream("["
+                + employeeJson("one@test.com", DEPART_ID) + ","
+                + employeeJson("not-an-email", DEPART_ID) + ","
+                + employeeJson(TAKEN_EMAIL, DEPART_ID) + ","
+                + employeeJson("two@test.com", 99L) + ","
+                + employeeJson("ONE@test.com", DEPART_ID)
+                + "]"));
+
+        Assert.assertEquals(Integer.valueOf(5), response.getTotal());
+        Assert.assertEquals(Integer.valueOf(1), response.getCreated());
+        Assert.assertEquals(Integer.valueOf(4), response.getRejected());
+
+        Assert.assertEquals(BulkRowStatus.CREATED, response.getResults().get(0).getStatus());
+        Assert.assertNotNull(response.getResults().get(0).getEmployeeId());
+        Assert.assertEquals(Collections.singletonList("Email should be valid"), response.getResults().get(1).getErrors());
+        Assert.assertEquals(Collections.singletonList(EmailIdAlreadyExistsException.MESSAGE),
+                response.getResults().get(2).getErrors());
+        Assert.assertEquals(Collections.singletonList(DepartmentNotFoundException.MESSAGE),
+                response.getResults().get(3).getErrors());
+        Assert.assertEquals(Collections.singletonList(EmailIdAlreadyExistsException.MESSAGE),
+                response.getResults().get(4).getErrors());
+
+        // Each department id is resolved only once: the known one with the first chunk and the unknown one with the
+        // second, the last chunk is served from what was already resolved
+        Mockito.verify(departmentService, Mockito.times(2)).getDepartmentsByIds(Mockito.anyCollection());
+
+        // The events are recorded per chunk, only the first chunk has created an employee
+        ArgumentCaptor<List<EmployeeEntity>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(employeeOutboxService).addEvents(captor.capture(), Mockito.eq(EmployeeEventType.CREATED));
+        Assert.assertEquals(1, captor.getValue().size());
+        Assert.assertEquals("one@test.com", captor.getValue().get(0).getEmail());
+        Mockito.verify(entityManager).clear();
+        Mockito.verify(departmentService).adjustHeadcounts(Mockito.eq(Collections.singletonMap(DEPART_ID, 1)));
+
+        Assert.assertEquals(1, employeeSearchIndex.search("one@", null, 10).size());
+        Assert.assertTrue(employeeSearchIndex.search("two@", null, 10).isEmpty());
+    }
+
+    @Test
+    public void testCreateEmployeesWhenElementCanNotBeBound() {
+
+        EmployeeBulkResponseDto response = employeeBulkService.createEmployeesAndGetResponse(toStream("["
+                + "{\"name\":\"Test\",\"email\":\"a@test.com\",\"departmentId\":1,\"unknown\":true},"
+                + employeeJson("three@test.com", DEPART_ID)
+                + "]"));
+
+        Assert.assertEquals(BulkRowStatus.REJECTED, response.getResults().get(0).getStatus());
+        Assert.assertEquals(BulkRowStatus.CREATED, response.getResults().get(1).getStatus());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testCreateEmployeesWhenBodyIsNotAnArray() {
+
+        employeeBulkService.createEmployeesAndGetResponse(toStream(employeeJson("one@test.com", DEPART_ID)));
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testCreateEmployeesWhenBodyIsMalformed() {
+
+        employeeBulkService.createEmployeesAndGetResponse(toStream("[" + employeeJson("one@test.com", DEPART_ID) + ",{"));
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testCreateEmployeesWhenTooManyRows() {
+
+        StringBuilder body = new StringBuilder("[");
+
+        for (int i = 0; i < 6; i++) {
+
+            body.append(i == 0 ? "" : ",").append(employeeJson("emp" + i + "@test.com", DEPART_ID));
+        }
+
+        employeeBulkService.createEmployeesAndGetResponse(toStream(body.append("]").toString()));
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testCreateEmployeesWhenStreamIsNull() {
+
+        employeeBulkService.createEmployeesAndGetResponse(null);
+    }
+
+    private DepartmentEntity getDepartmentEntity() {
+
+        return DepartmentEntity.builder()
+                .departId(DEPART_ID)
+                .name(DEPART_NAME)
+                .build();
+    }
+
+    private String employeeJson(final String email, final Long departmentId) {
+
+        return "{\"name\":\"Test Emp\",\"email\":\"" + email + "\",\"dateOfBirth\":\"1990-01-01\",\"departmentId\":"
+                + departmentId + "}";
+    }
+
+    private InputStream toStream(final String body) {
+
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,189 @@
+package com.sandemo.hrms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeExportServiceImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeExportServiceImplTest {
+
+    private static final int FETCH_SIZE = 250;
+    private static final long MILLION = 1_000_000L;
+    private static final long HEAP_GROWTH_LIMIT = 32L * 1024 * 1024;
+
+    @Mock
+    private EmployeeEntityRepository employeeEntityRepository;
+
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MockEnvironment environment = new MockEnvironment()
+            .withProperty("employee.export.fetch.size", String.valueOf(FETCH_SIZE));
+
+    @InjectMocks
+    EmployeeExportService employeeExportService = new EmployeeExportServiceImpl(employeeEntityRepository,
+            objectMapper, environment);
+
+    @Before
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testExportEmployeesWritesOneLinePerEmployee() throws Exception {
+
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Mockito.when(employeeEntityRepository.streamAllEmployees(FETCH_SIZE)).thenReturn(
+                Stream.of(getItem(1L), getItem(2L)).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        Assert.assertEquals(2, employeeExportService.exportEmployees(outputStream));
+
+        String[] lines = new String(outputStream.toByteArray(), StandardCharsets.UTF_8).split("\n", -1);
+
+        // Two employees and the empty remainder after the last line separator
+        Assert.assertEquals(3, lines.length);
+        Assert.assertEquals("", lines[2]);
+
+        JsonNode employee = objectMapper.readTree(lines[1]);
+
+        Assert.assertEquals("id2", employee.get("employeeId").asText());
+        Assert.assertEquals("HR", employee.get("department").get("name").asText());
+        Assert.assertFalse(employee.has("employeeIdPk"));
+        Assert.assertTrue(closed.get());
+    }
+
+    @Test
+    public void testExportEmployeesKeepsTheHeapFlatForAMillionRows() {
+
+        // The rows are generated as they are pulled, so whatever the heap keeps is held by the export itself
+        Mockito.when(employeeEntityRepository.streamAllEmployees(FETCH_SIZE)).thenReturn(
+                LongStream.rangeClosed(1, MILLION).mapToObj(this::getItem));
+
+        HeapSamplingOutputStream outputStream = new HeapSamplingOutputStream();
+
+        Assert.assertEquals(MILLION, employeeExportService.exportEmployees(outputStream));
+
+        Assert.assertEquals(MILLION, outputStream.lines);
+        Assert.assertTrue("Sampled the heap only " + outputStream.samples + " times", outputStream.samples >= 5);
+        Assert.assertTrue("The heap grew by " + outputStream.maxGrowth + " bytes while exporting",
+                outputStream.maxGrowth < HEAP_GROWTH_LIMIT);
+    }
+
+    @Test(expected = GenericServerRuntimeException.class)
+    public void testExportEmployeesWhenUnexpectedException() {
+
+        Mockito.when(employeeEntityRepository.streamAllEmployees(FETCH_SIZE)).thenReturn(
+                Stream.generate(() -> {
+                    throw new IllegalStateException();
+                }));
+
+        employeeExportService.exportEmployees(new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testExportDepartmentEmployeesStreamsOnlyTheDepartment() throws Exception {
+
+        Mockito.when(employeeEntityRepository.streamEmployeesByDepartment(7L, FETCH_SIZE)).thenReturn(
+                Stream.of(getItem(3L)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        Assert.assertEquals(1, employeeExportService.exportDepartmentEmployees(7L, outputStream));
+        Assert.assertEquals("id3", objectMapper.readTree(new String(outputStream.toByteArray(),
+                StandardCharsets.UTF_8).trim()).get("employeeId").asText());
+
+        Mockito.verify(employeeEntityRepository, Mockito.never()).streamAllEmployees(Mockito.anyInt());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testExportDepartmentEmployeesWhenDepartmentIdIsNull() {
+
+        employeeExportService.exportDepartmentEmployees(null, new ByteArrayOutputStream());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testExportEmployeesWhenOutputStreamIsNull() {
+
+        employeeExportService.exportEmployees(null);
+    }
+
+    private EmployeeListItemDto getItem(final long employeeIdPk) {
+
+        ZonedDateTime now = ZonedDateTime.now();
+
+        return new EmployeeListItemDto(employeeIdPk, "id" + employeeIdPk, "Test " + employeeIdPk,
+                "test" + employeeIdPk + "@gmail.com", LocalDate.of(1990, 1, 1), 1L, "HR", now, now);
+    }
+
+    /**
+     * Discards the export while counting its lines, and measures the used heap after a collection every 100000 lines
+     */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        private static final long SAMPLE_EVERY_LINES = 100_000L;
+
+        private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        private final long baseline = usedHeapAfterCollection();
+
+        private long lines;
+        private int samples;
+        private long maxGrowth;
+
+        @Override
+        public void write(final int value) {
+
+            if (value == '\n' && ++lines % SAMPLE_EVERY_LINES == 0) {
+
+                maxGrowth = Math.max(maxGrowth, usedHeapAfterCollection() - baseline);
+                samples++;
+            }
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) {
+
+            for (int index = offset; index < offset + length; index++) {
+
+                write(bytes[index]);
+            }
+        }
+
+        private long usedHeapAfterCollection() {
+
+            System.gc();
+
+            return memoryMXBean.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
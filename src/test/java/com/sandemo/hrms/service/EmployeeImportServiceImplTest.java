@@ -0,0 +1,201 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.dto.response.EmployeeImportResponseDto;
+import com.sandemo.hrms.dto.response.EmployeeImportRowErrorDto;
+import com.sandemo.hrms.exception.DepartmentNotFoundException;
+import com.sandemo.hrms.exception.EmailIdAlreadyExistsException;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.factory.ValidationFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeImportServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeImportServiceImplTest {
+
+    private static final String HEADER = "name,email,dateOfBirth,departmentId\n";
+    private static final String DEPART_NAME = "Test Depart";
+    private static final Long DEPART_ID = 1L;
+    private static final String TAKEN_EMAIL = "taken@test.com";
+
+    @Mock
+    private EmployeeEntityRepository employeeEntityRepository;
+    @Mock
+    private DepartmentService departmentService;
+    @Mock
+    private EmployeeOutboxService employeeOutboxService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ValidationFactoryService validationFactoryService = new ValidationFactoryService(
+            Validation.buildDefaultValidatorFactory().getValidator());
+
+    private EmployeeSearchIndex employeeSearchIndex = new EmployeeSearchIndex(16, new SimpleMeterRegistry());
+
+    private MockEnvironment environment = new MockEnvironment()
+            .withProperty("employee.import.chunk.size", "3")
+            .withProperty("employee.import.max.reported.errors", "10");
+
+    @InjectMocks
+    private EmployeeImportService employeeImportService = new EmployeeImportServiceImpl(employeeEntityRepository,
+            departmentService, validationFactoryService, employeeOutboxService, employeeSearchIndex, transactionManager,
+            environment);
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+        Mockito.when(departmentService.getDepartmentsByIds(Mockito.anyCollection()))
+                .thenReturn(Collections.singletonList(DepartmentEntity.builder().departId(DEPART_ID).name(DEPART_NAME).build()));
+
+        // Same as the database: an email taken before, by an earlier chunk or earlier in the chunk is skipped
+        Set<String> emails = new HashSet<>(Collections.singleton(TAKEN_EMAIL));
+
+        Mockito.when(employeeEntityRepository.insertSkippingTakenEmails(Mockito.anyList())).thenAnswer(invocation ->
+                ((List<EmployeeEntity>) invocation.getArgument(0)).stream()
+                        .filter(employeeEntity -> emails.add(employeeEntity.getEmail()))
+                        .map(EmployeeEntity::getEmployeeId)
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImportEmployeesWithValidAndInvalidRows() {
+
+        EmployeeImportResponseDto response = employeeImportService.importEmployees(toStream(HEADER
+                + "One,one@test.com,1990-01-01,1\n"
+                + "Two,not-an-email,,1\n"
+                + "Three,three@test.com,01/01/1990,x\n"
+                + "Four,taken@test.com,,1\n"
+                + "Five,five@test.com,,99\n"
+                + "\"Six, Jr.\",ONE@test.com,,1\n"
+                + "Seven,seven@test.com\n"));
+
+        Assert.assertEquals(Long.valueOf(7), response.getTotal());
+        Assert.assertEquals(Long.valueOf(1), response.getCreated());
+        Assert.assertEquals(Long.valueOf(6), response.getRejected());
+
+        Map<Long, List<String>> errors = response.getErrors().stream()
+                .collect(Collectors.toMap(EmployeeImportRowErrorDto::getLine, EmployeeImportRowErrorDto::getErrors));
+
+        Assert.assertEquals(6, errors.size());
+        Assert.assertEquals(Collections.singletonList("Email should be valid"), errors.get(3L));
+        Assert.assertEquals(2, errors.get(4L).size());
+        Assert.assertEquals(Collections.singletonList(EmailIdAlreadyExistsException.MESSAGE), errors.get(5L));
+        Assert.assertEquals(Collections.singletonList(DepartmentNotFoundException.MESSAGE), errors.get(6L));
+        Assert.assertEquals(Collections.singletonList(EmailIdAlreadyExistsException.MESSAGE), errors.get(7L));
+        Assert.assertEquals(Collections.singletonList("The row must have 4 columns"), errors.get(8L));
+
+        // One transaction per chunk of three rows, the last chunk has no valid row left to insert
+        Mockito.verify(transactionManager, Mockito.times(2)).commit(Mockito.any());
+
+        ArgumentCaptor<List<EmployeeEntity>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(employeeOutboxService, Mockito.times(2)).addEvents(captor.capture(),
+                Mockito.eq(EmployeeEventType.CREATED));
+
+        List<EmployeeEntity> created = captor.getAllValues().stream().flatMap(List::stream).collect(Collectors.toList());
+
+        Assert.assertEquals(1, created.size());
+        Assert.assertEquals("one@test.com", created.get(0).getEmail());
+        Assert.assertEquals(DEPART_NAME, created.get(0).getDepartmentEntity().getName());
+        // The headcount is adjusted in the chunk transaction by the employees actually inserted
+        Mockito.verify(departmentService).adjustHeadcounts(Mockito.eq(Collections.singletonMap(DEPART_ID, 1)));
+        Mockito.verify(departmentService).adjustHeadcounts(Mockito.eq(Collections.emptyMap()));
+
+        Assert.assertEquals(1, employeeSearchIndex.search("one", null, 10).size());
+    }
+
+    @Test
+    public void testImportEmployeesWithColumnsInAnyOrder() {
+
+        EmployeeImportResponseDto response = employeeImportService.importEmployees(toStream(
+                "departmentId,email,name,dateOfBirth\r\n1,one@test.com,One,\r\n"));
+
+        Assert.assertEquals(Long.valueOf(1), response.getCreated());
+        Assert.assertTrue(response.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testImportEmployeesLimitsTheReportedErrors() {
+
+        StringBuilder csv = new StringBuilder(HEADER);
+
+        for (int row = 0; row < 12; row++) {
+
+            csv.append("Name,invalid,,1\n");
+        }
+
+        EmployeeImportResponseDto response = employeeImportService.importEmployees(toStream(csv.toString()));
+
+        Assert.assertEquals(Long.valueOf(12), response.getRejected());
+        Assert.assertEquals(10, response.getErrors().size());
+        Mockito.verify(employeeEntityRepository, Mockito.never()).insertSkippingTakenEmails(Mockito.anyList());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testImportEmployeesWhenHeaderIsMissingColumns() {
+
+        employeeImportService.importEmployees(toStream("name,email\nOne,one@test.com\n"));
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testImportEmployeesWhenBodyIsEmpty() {
+
+        employeeImportService.importEmployees(toStream(""));
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testImportEmployeesWhenInputParamIsNull() {
+
+        employeeImportService.importEmployees(null);
+    }
+
+    @Test(expected = GenericServerRuntimeException.class)
+    public void testImportEmployeesWhenUnexpectedException() {
+
+        Mockito.when(employeeEntityRepository.insertSkippingTakenEmails(Mockito.anyList()))
+                .thenThrow(new IllegalStateException());
+
+        employeeImportService.importEmployees(toStream(HEADER + "One,one@test.com,,1\n"));
+    }
+
+    private InputStream toStream(final String csv) {
+
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,17 +1,28 @@
 package com.sandemo.hrms.service;
 
+import com.sandemo.hrms.constant.DispatchOverflowPolicy;
+import com.sandemo.hrms.constant.EmployeeEventKeyEncoding;
+import com.sandemo.hrms.constant.EmployeeEventSchemaMode;
+import com.sandemo.hrms.dispatch.EmployeeEventConflator;
+import com.sandemo.hrms.dispatch.EmployeeEventDispatcher;
 import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
 import com.sandemo.hrms.model.DepartmentEntity;
 import com.sandemo.hrms.model.EmployeeEntity;
 import com.sandemo.hrms.service.impl.EmployeeKafkaProducerServiceImpl;
 import com.sandemo.hrms.EmployeeEventKey;
 import com.sandemo.hrms.EmployeeEventType;
 import com.sandemo.hrms.EmployeeEventValue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -19,10 +30,15 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.core.env.Environment;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.concurrent.ListenableFuture;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Sankar M <sankar.mm30@gmail.com>
@@ -31,6 +47,7 @@ import java.time.ZonedDateTime;
 public class EmployeeKafkaProducerServiceImplTest {
 
     private static final String TOPIC = "test";
+    private static final String V2_TOPIC = "test_v2";
     private static final String EMP_ID = "test";
     private static final String EMP_NAME = "Test Emp";
     private static final String EMP_EMAIL = "test@test.com";
@@ -39,28 +56,46 @@ public class EmployeeKafkaProducerServiceImplTest {
     private static final Long DEPART_ID = 1L;
     private static final Long EMP_ID_PK = 10L;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EmployeeEventFactoryService employeeEventFactoryService = new EmployeeEventFactoryService();
+
     @Mock
     private Environment environment;
     @Mock
     private KafkaTemplate<EmployeeEventKey, EmployeeEventValue> kafkaTemplate;
 
+    @Mock
+    private KafkaTemplate<Object, GenericRecord> employeeEventV2KafkaTemplate;
+    @Mock
+    private DepartmentService departmentService;
+
     @Mock
     private EmployeeEntity employeeEntityMock;
 
     @Mock
     private ListenableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> listenableFutureMock;
+    @Mock
+    private ListenableFuture<SendResult<Object, GenericRecord>> v2ListenableFutureMock;
 
     @InjectMocks
     private EmployeeKafkaProducerServiceImpl employeeKafkaProducerService =
-            new EmployeeKafkaProducerServiceImpl(environment, kafkaTemplate);
+            new EmployeeKafkaProducerServiceImpl(environment, kafkaTemplate, employeeEventV2KafkaTemplate,
+                    new EmployeeEventFactoryService(), departmentService,
+                    new EmployeeEventConflator(Duration.ZERO, new SimpleMeterRegistry()),
+                    new EmployeeEventDispatcher(0, 1, DispatchOverflowPolicy.BLOCK, Duration.ZERO,
+                            new SimpleMeterRegistry()), meterRegistry);
 
     @Before
     public void init() {
 
         MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "employeeEventTopic", TOPIC);
 
         Mockito.when(this.kafkaTemplate.send(Mockito.eq(TOPIC),
                 Mockito.any(EmployeeEventKey.class), Mockito.any(EmployeeEventValue.class))).thenReturn(listenableFutureMock);
+        Mockito.when(listenableFutureMock.completable()).thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(this.employeeEventV2KafkaTemplate.send(Mockito.eq(V2_TOPIC),
+                Mockito.any(), Mockito.any(GenericRecord.class))).thenReturn(v2ListenableFutureMock);
 
         Mockito.when(employeeEntityMock.getEmployeeId()).thenReturn(EMP_ID);
         Mockito.when(employeeEntityMock.getName()).thenReturn(EMP_NAME);
@@ -72,39 +107,190 @@ public class EmployeeKafkaProducerServiceImplTest {
     }
 
     @Test
-    public void testSendMessageWhenEmployeeCreatedValid() {
+    public void testSendEventWhenEmployeeCreatedValid() {
+
+        employeeKafkaProducerService.sendEvent(getEmployeeEventKey(), getEmployeeEventValue(EmployeeEventType.CREATED));
+
+        Mockito.verify(kafkaTemplate, Mockito.times(1)).send(Mockito.eq(TOPIC),
+                Mockito.any(EmployeeEventKey.class), Mockito.any(EmployeeEventValue.class));
+    }
+
+    @Test
+    public void testSendEventWhenEmployeeUpdatedValid() {
+
+        employeeKafkaProducerService.sendEvent(getEmployeeEventKey(), getEmployeeEventValue(EmployeeEventType.UPDATED));
+
+        Mockito.verify(kafkaTemplate, Mockito.times(1)).send(Mockito.eq(TOPIC),
+                Mockito.any(EmployeeEventKey.class), Mockito.any(EmployeeEventValue.class));
+    }
+
+    @Test
+    public void testSendEventWhenEmployeeDeletedValid() {
 
-        employeeKafkaProducerService.sendMessage(employeeEntityMock, EmployeeEventType.CREATED);
+        employeeKafkaProducerService.sendEvent(getEmployeeEventKey(), getEmployeeEventValue(EmployeeEventType.DELETED));
 
-        Assert.assertTrue("Always True", true);
+        Mockito.verify(kafkaTemplate, Mockito.times(1)).send(Mockito.eq(TOPIC),
+                Mockito.any(EmployeeEventKey.class), Mockito.any(EmployeeEventValue.class));
     }
 
     @Test
-    public void testSendMessageWhenEmployeeUpdatedValid() {
+    public void testSendEventThroughTheSenderThreads() throws Exception {
 
-        employeeKafkaProducerService.sendMessage(employeeEntityMock, EmployeeEventType.UPDATED);
+        Mockito.when(this.kafkaTemplate.send(Mockito.any(), Mockito.any(EmployeeEventKey.class),
+                Mockito.any(EmployeeEventValue.class))).thenReturn(listenableFutureMock);
 
-        Assert.assertTrue("Always True", true);
+        EmployeeEventDispatcher employeeEventDispatcher = new EmployeeEventDispatcher(2, 10,
+                DispatchOverflowPolicy.REJECT, Duration.ZERO, new SimpleMeterRegistry());
+
+        try {
+
+            EmployeeKafkaProducerServiceImpl asyncService = new EmployeeKafkaProducerServiceImpl(environment,
+                    kafkaTemplate, employeeEventV2KafkaTemplate, new EmployeeEventFactoryService(), departmentService,
+                    new EmployeeEventConflator(Duration.ZERO, new SimpleMeterRegistry()), employeeEventDispatcher,
+                    new SimpleMeterRegistry());
+
+            asyncService.sendEvent(getEmployeeEventKey(), getEmployeeEventValue(EmployeeEventType.CREATED));
+            asyncService.sendEvent(getEmployeeEventKey(), getEmployeeEventValue(EmployeeEventType.UPDATED))
+                    .get(5, TimeUnit.SECONDS);
+
+            Mockito.verify(kafkaTemplate, Mockito.times(2)).send(Mockito.any(),
+                    Mockito.any(EmployeeEventKey.class), Mockito.any(EmployeeEventValue.class));
+
+        } finally {
+
+            employeeEventDispatcher.close();
+        }
     }
 
     @Test
-    public void testSendMessageWhenEmployeeDeletedValid() {
+    public void testSendEventCompletesWithTheAcknowledgement() {
 
-        employeeKafkaProducerService.sendMessage(employeeEntityMock, EmployeeEventType.DELETED);
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> completableFuture = new CompletableFuture<>();
+        Mockito.when(listenableFutureMock.completable()).thenReturn(completableFuture);
+        Mockito.when(this.kafkaTemplate.send(Mockito.any(), Mockito.any(EmployeeEventKey.class),
+                Mockito.any(EmployeeEventValue.class))).thenReturn(listenableFutureMock);
 
-        Assert.assertTrue("Always True", true);
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> result = employeeKafkaProducerService.sendEvent(
+                getEmployeeEventKey(), getEmployeeEventValue(EmployeeEventType.CREATED));
+
+        Assert.assertSame(completableFuture, result);
     }
 
     @Test(expected = GenericServerRuntimeException.class)
-    public void testSendMessageWhenEmployeeEntityIsNull() {
+    public void testSendEventWhenKeyIsNull() {
 
-        employeeKafkaProducerService.sendMessage(null, EmployeeEventType.CREATED);
+        employeeKafkaProducerService.sendEvent(null, EmployeeEventValue.newBuilder()
+                .setTime("time").setType(EmployeeEventType.DELETED).setAppName("test").setData(null).build());
     }
 
     @Test(expected = GenericServerRuntimeException.class)
-    public void testSendMessageWhenEmployeeEventTypeIsNull() {
+    public void testSendEventWhenValueIsNull() {
+
+        employeeKafkaProducerService.sendEvent(getEmployeeEventKey(), null);
+    }
+
+    @Test
+    public void testDualModeCompletesOnceBothSchemasAreAcknowledged() {
+
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "employeeEventV2Topic", V2_TOPIC);
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "schemaMode", EmployeeEventSchemaMode.DUAL);
+
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> v1Future = new CompletableFuture<>();
+        CompletableFuture<SendResult<Object, GenericRecord>> v2Future = new CompletableFuture<>();
+        Mockito.when(listenableFutureMock.completable()).thenReturn(v1Future);
+        Mockito.when(v2ListenableFutureMock.completable()).thenReturn(v2Future);
+
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> result =
+                employeeKafkaProducerService.sendEvent(getEmployeeEventKey(),
+                        getEmployeeEventValue(EmployeeEventType.UPDATED));
+
+        ArgumentCaptor<Object> keyCaptor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(employeeEventV2KafkaTemplate).send(Mockito.eq(V2_TOPIC), keyCaptor.capture(),
+                Mockito.any(GenericRecord.class));
+        Assert.assertTrue(keyCaptor.getValue() instanceof EmployeeEventKey);
+
+        v1Future.complete(null);
+        Assert.assertFalse(result.isDone());
+
+        v2Future.complete(null);
+        Assert.assertTrue(result.isDone());
+        Assert.assertFalse(result.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testDualModeFailsWhenTheV2SendFails() {
+
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "employeeEventV2Topic", V2_TOPIC);
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "schemaMode", EmployeeEventSchemaMode.DUAL);
+
+        CompletableFuture<SendResult<Object, GenericRecord>> v2Future = new CompletableFuture<>();
+        v2Future.completeExceptionally(new IllegalStateException("v2 failed"));
+        Mockito.when(v2ListenableFutureMock.completable()).thenReturn(v2Future);
+
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> result =
+                employeeKafkaProducerService.sendEvent(getEmployeeEventKey(),
+                        getEmployeeEventValue(EmployeeEventType.UPDATED));
+
+        Assert.assertTrue(result.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testV2ModeSendsTheCompactKeyAndTheDepartmentName() {
+
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "employeeEventV2Topic", V2_TOPIC);
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "schemaMode", EmployeeEventSchemaMode.V2);
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "v2KeyEncoding", EmployeeEventKeyEncoding.STRING);
+        ReflectionTestUtils.setField(employeeKafkaProducerService, "v2DepartmentNameEnabled", true);
+
+        RecordMetadata recordMetadata = new RecordMetadata(new TopicPartition(V2_TOPIC, 0), 0L, 7L, 0L, 0L, 0, 0);
+        Mockito.when(v2ListenableFutureMock.completable()).thenReturn(
+                CompletableFuture.completedFuture(new SendResult<>(null, recordMetadata)));
+        Mockito.when(departmentService.getDepartmentById(DEPART_ID)).thenReturn(Optional.of(getDepartmentEntity()));
+
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> result =
+                employeeKafkaProducerService.sendEvent(getEmployeeEventKey(),
+                        getEmployeeEventValue(EmployeeEventType.CREATED));
+
+        ArgumentCaptor<GenericRecord> valueCaptor = ArgumentCaptor.forClass(GenericRecord.class);
+        Mockito.verify(employeeEventV2KafkaTemplate).send(Mockito.eq(V2_TOPIC), Mockito.eq(EMP_ID),
+                valueCaptor.capture());
+        Mockito.verify(kafkaTemplate, Mockito.never()).send(Mockito.any(),
+                Mockito.any(EmployeeEventKey.class), Mockito.any(EmployeeEventValue.class));
+
+        Assert.assertEquals(DEPART_NAME,
+                ((GenericRecord) valueCaptor.getValue().get("data")).get("departmentName"));
+        Assert.assertEquals(V2_TOPIC, result.join().getProducerRecord().topic());
+        Assert.assertEquals(7L, result.join().getRecordMetadata().offset());
+    }
+
+    @Test
+    public void testSendToAckLatencyIsTimedByEventType() {
+
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> completableFuture = new CompletableFuture<>();
+        Mockito.when(listenableFutureMock.completable()).thenReturn(completableFuture);
+
+        employeeKafkaProducerService.sendEvent(getEmployeeEventKey(),
+                getEmployeeEventValue(EmployeeEventType.DELETED));
+
+        Assert.assertEquals(0L, meterRegistry.get("hrms.kafka.send.ack")
+                .tags("type", "DELETED", "outcome", "acknowledged").timer().count());
+
+        completableFuture.complete(null);
+
+        Assert.assertEquals(1L, meterRegistry.get("hrms.kafka.send.ack")
+                .tags("type", "DELETED", "outcome", "acknowledged").timer().count());
+        Assert.assertEquals(0L, meterRegistry.get("hrms.kafka.send.ack")
+                .tags("type", "UPDATED", "outcome", "acknowledged").timer().count());
+    }
+
+    private EmployeeEventKey getEmployeeEventKey() {
+
+        return employeeEventFactoryService.getEmployeeEventKey(EMP_ID);
+    }
+
+    private EmployeeEventValue getEmployeeEventValue(final EmployeeEventType employeeEventType) {
 
-        employeeKafkaProducerService.sendMessage(employeeEntityMock, null);
+        return employeeEventFactoryService.getEmployeeEventValue(employeeEntityMock, employeeEventType);
     }
 
     private DepartmentEntity getDepartmentEntity() {
@@ -0,0 +1,144 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.constant.EmployeeListSort;
+import com.sandemo.hrms.dto.request.EmployeeListRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.dto.response.EmployeeListResponseDto;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeListServiceImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeListServiceImplTest {
+
+    private static final ZonedDateTime UPDATED_AT = ZonedDateTime.of(2020, 11, 2, 10, 15, 30, 123456000, ZoneOffset.UTC);
+
+    @Mock
+    private EmployeeEntityRepository employeeEntityRepository;
+
+    private MockEnvironment environment = new MockEnvironment()
+            .withProperty("employee.list.default.page.size", "2")
+            .withProperty("employee.list.max.page.size", "5");
+
+    @InjectMocks
+    EmployeeListService employeeListService = new EmployeeListServiceImpl(employeeEntityRepository, environment);
+
+    @Before
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testGetEmployeesWhenThereIsANextPage() {
+
+        Mockito.when(employeeEntityRepository.findEmployeePage(Mockito.any(), Mockito.eq(EmployeeListSort.ID),
+                Mockito.isNull(), Mockito.isNull(), Mockito.eq(3)))
+                .thenReturn(Arrays.asList(getItem(1L), getItem(2L), getItem(3L)));
+
+        EmployeeListResponseDto employeeListResponseDto = employeeListService.getEmployees(new EmployeeListRequestDto());
+
+        Assert.assertEquals(2, employeeListResponseDto.getEmployees().size());
+        Assert.assertNotNull(employeeListResponseDto.getNextCursor());
+
+        Mockito.when(employeeEntityRepository.findEmployeePage(Mockito.any(), Mockito.eq(EmployeeListSort.ID),
+                Mockito.eq(2L), Mockito.isNull(), Mockito.eq(3)))
+                .thenReturn(Collections.singletonList(getItem(3L)));
+
+        employeeListResponseDto = employeeListService.getEmployees(EmployeeListRequestDto.builder()
+                .cursor(employeeListResponseDto.getNextCursor()).build());
+
+        Assert.assertEquals(1, employeeListResponseDto.getEmployees().size());
+        Assert.assertNull(employeeListResponseDto.getNextCursor());
+    }
+
+    @Test
+    public void testGetEmployeesByUpdatedAtKeepsThePositionInTheCursor() {
+
+        Mockito.when(employeeEntityRepository.findEmployeePage(Mockito.any(), Mockito.eq(EmployeeListSort.UPDATED_AT),
+                Mockito.isNull(), Mockito.isNull(), Mockito.eq(2)))
+                .thenReturn(Arrays.asList(getItem(7L), getItem(8L)));
+
+        EmployeeListResponseDto employeeListResponseDto = employeeListService.getEmployees(EmployeeListRequestDto.builder()
+                .sort(EmployeeListSort.UPDATED_AT).size(1).build());
+
+        employeeListService.getEmployees(EmployeeListRequestDto.builder()
+                .sort(EmployeeListSort.UPDATED_AT).size(1).cursor(employeeListResponseDto.getNextCursor()).build());
+
+        Mockito.verify(employeeEntityRepository).findEmployeePage(Mockito.any(), Mockito.eq(EmployeeListSort.UPDATED_AT),
+                Mockito.eq(7L), Mockito.eq(UPDATED_AT), Mockito.eq(2));
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testGetEmployeesWhenTheCursorBelongsToAnotherSort() {
+
+        Mockito.when(employeeEntityRepository.findEmployeePage(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.anyInt()))
+                .thenReturn(Arrays.asList(getItem(1L), getItem(2L), getItem(3L)));
+
+        String nextCursor = employeeListService.getEmployees(new EmployeeListRequestDto()).getNextCursor();
+
+        employeeListService.getEmployees(EmployeeListRequestDto.builder()
+                .sort(EmployeeListSort.UPDATED_AT).cursor(nextCursor).build());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testGetEmployeesWhenTheCursorIsNotValid() {
+
+        employeeListService.getEmployees(EmployeeListRequestDto.builder().cursor("not-a-cursor").build());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testGetEmployeesWhenTheSizeIsAboveTheMaximum() {
+
+        employeeListService.getEmployees(EmployeeListRequestDto.builder().size(6).build());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testGetEmployeesWhenTheSizeIsNotPositive() {
+
+        employeeListService.getEmployees(EmployeeListRequestDto.builder().size(0).build());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testGetEmployeesWhenInputParamIsNull() {
+
+        employeeListService.getEmployees(null);
+    }
+
+    @Test(expected = GenericServerRuntimeException.class)
+    public void testGetEmployeesWhenUnexpectedException() {
+
+        Mockito.when(employeeEntityRepository.findEmployeePage(Mockito.any(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.anyInt()))
+                .thenThrow(new IllegalStateException());
+
+        employeeListService.getEmployees(new EmployeeListRequestDto());
+    }
+
+    private EmployeeListItemDto getItem(final Long employeeIdPk) {
+
+        return new EmployeeListItemDto(employeeIdPk, "id" + employeeIdPk, "Test", "test" + employeeIdPk + "@gmail.com",
+                LocalDate.of(1990, 1, 1), 1L, "HR", UPDATED_AT, UPDATED_AT);
+    }
+}
@@ -0,0 +1,199 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.EmployeeEventKey;
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.model.EmployeeOutboxEntity;
+import com.sandemo.hrms.repository.EmployeeOutboxEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeOutboxRelayServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeOutboxRelayServiceImplTest {
+
+    private static final String EMP_ID_1 = "emp1";
+    private static final String EMP_ID_2 = "emp2";
+    private static final String EMP_ID_3 = "emp3";
+
+    @Mock
+    private EmployeeOutboxEntityRepository employeeOutboxEntityRepository;
+    @Mock
+    private KafkaProducerService employeeKafkaProducerService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeEventFactoryService employeeEventFactoryService = new EmployeeEventFactoryService();
+
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockEnvironment environment = new MockEnvironment()
+            .withProperty("outbox.relay.batch.size", "3")
+            .withProperty("outbox.relay.send.timeout.ms", "1000");
+
+    @InjectMocks
+    private EmployeeOutboxRelayService employeeOutboxRelayService = new EmployeeOutboxRelayServiceImpl(
+            employeeOutboxEntityRepository, employeeEventFactoryService, employeeKafkaProducerService,
+            transactionManager, meterRegistry, environment);
+
+    @Before
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(employeeOutboxEntityRepository.tryLockRelayClaim(Mockito.anyLong())).thenReturn(true);
+        Mockito.when(employeeOutboxEntityRepository.findNextBatchForRelay(Mockito.any(ZonedDateTime.class),
+                Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(getOutboxEntity(1L, EMP_ID_1), getOutboxEntity(2L, EMP_ID_2),
+                        getOutboxEntity(3L, EMP_ID_3)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRelayNextBatchWhenAllEventsArePublished() {
+
+        Mockito.when(employeeKafkaProducerService.sendEvent(Mockito.any(EmployeeEventKey.class),
+                Mockito.any(EmployeeEventValue.class))).thenReturn(acknowledged());
+
+        Assert.assertEquals(3, employeeOutboxRelayService.relayNextBatch());
+
+        ArgumentCaptor<Collection<Long>> claimCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(employeeOutboxEntityRepository).claimByIds(claimCaptor.capture(), ownerCaptor.capture(),
+                Mockito.any(ZonedDateTime.class));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L), claimCaptor.getValue());
+
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(employeeOutboxEntityRepository).deleteByIds(captor.capture());
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L), captor.getValue());
+        Mockito.verify(employeeOutboxEntityRepository).releaseClaims(ownerCaptor.getValue());
+
+        // Every database call is made in its own short transaction, none of them spans the sends
+        Mockito.verify(transactionManager, Mockito.times(2)).commit(Mockito.any());
+
+        ArgumentCaptor<EmployeeEventKey> keyCaptor = ArgumentCaptor.forClass(EmployeeEventKey.class);
+        Mockito.verify(employeeKafkaProducerService, Mockito.times(3)).sendEvent(keyCaptor.capture(),
+                Mockito.any(EmployeeEventValue.class));
+        Assert.assertEquals(EMP_ID_1, keyCaptor.getAllValues().get(0).getEmployeeId().toString());
+
+        Assert.assertEquals(3.0, meterRegistry.get("hrms.outbox.relay.published").counter().count(), 0);
+        Assert.assertEquals(3, meterRegistry.get("hrms.outbox.relay.lag").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRelayNextBatchKeepsEventsFromTheFirstFailure() {
+
+        CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new TimeoutException("Expiring record"));
+
+        Mockito.when(employeeKafkaProducerService.sendEvent(Mockito.any(EmployeeEventKey.class),
+                Mockito.any(EmployeeEventValue.class))).thenReturn(acknowledged(), failed, acknowledged());
+
+        Assert.assertEquals(1, employeeOutboxRelayService.relayNextBatch());
+
+        ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(employeeOutboxEntityRepository).deleteByIds(captor.capture());
+        Assert.assertEquals(Collections.singletonList(1L), captor.getValue());
+
+        Assert.assertEquals(2.0, meterRegistry.get("hrms.outbox.relay.failed").counter().count(), 0);
+        Mockito.verify(employeeOutboxEntityRepository).releaseClaims(Mockito.anyString());
+    }
+
+    @Test
+    public void testRelayNextBatchWhenSendFailsImmediately() {
+
+        Mockito.when(employeeKafkaProducerService.sendEvent(Mockito.any(EmployeeEventKey.class),
+                Mockito.any(EmployeeEventValue.class))).thenThrow(new TimeoutException("Buffer is full"));
+
+        Assert.assertEquals(0, employeeOutboxRelayService.relayNextBatch());
+
+        Mockito.verify(employeeOutboxEntityRepository, Mockito.never()).deleteByIds(Mockito.anyCollection());
+        Mockito.verify(employeeOutboxEntityRepository).releaseClaims(Mockito.anyString());
+    }
+
+    @Test
+    public void testRelayNextBatchWhenAnotherRelayIsClaiming() {
+
+        Mockito.when(employeeOutboxEntityRepository.tryLockRelayClaim(Mockito.anyLong())).thenReturn(false);
+
+        Assert.assertEquals(0, employeeOutboxRelayService.relayNextBatch());
+
+        Mockito.verify(employeeOutboxEntityRepository, Mockito.never()).findNextBatchForRelay(
+                Mockito.any(ZonedDateTime.class), Mockito.any(Pageable.class));
+        Mockito.verifyZeroInteractions(employeeKafkaProducerService);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLeaseShorterThanTheSendTimeoutIsRefused() {
+
+        new EmployeeOutboxRelayServiceImpl(employeeOutboxEntityRepository, employeeEventFactoryService,
+                employeeKafkaProducerService, transactionManager, meterRegistry, new MockEnvironment()
+                .withProperty("outbox.relay.send.timeout.ms", "30000")
+                .withProperty("outbox.relay.lease.ms", "30000"));
+    }
+
+    @Test
+    public void testRelayNextBatchWhenOutboxIsEmpty() {
+
+        Mockito.when(employeeOutboxEntityRepository.findNextBatchForRelay(Mockito.any(ZonedDateTime.class),
+                Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        Assert.assertEquals(0, employeeOutboxRelayService.relayNextBatch());
+
+        Mockito.verifyZeroInteractions(employeeKafkaProducerService);
+        Assert.assertEquals(0.0, meterRegistry.get("hrms.outbox.relay.oldest.pending.age").gauge().value(), 0);
+    }
+
+    private CompletableFuture<SendResult<EmployeeEventKey, EmployeeEventValue>> acknowledged() {
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private EmployeeOutboxEntity getOutboxEntity(final Long outboxId, final String employeeId) {
+
+        EmployeeEntity employeeEntity = EmployeeEntity.builder()
+                .employeeId(employeeId)
+                .name("Test Emp")
+                .email(employeeId + "@test.com")
+                .departmentEntity(DepartmentEntity.builder().departId(1L).name("Test Depart").build())
+                .build();
+
+        return EmployeeOutboxEntity.builder()
+                .outboxIdPk(outboxId)
+                .employeeId(employeeId)
+                .eventType(EmployeeEventType.CREATED)
+                .eventKey(employeeEventFactoryService.toBytes(employeeEventFactoryService.getEmployeeEventKey(employeeId)))
+                .eventValue(employeeEventFactoryService.toBytes(
+                        employeeEventFactoryService.getEmployeeEventValue(employeeEntity, EmployeeEventType.CREATED)))
+                .createdAt(ZonedDateTime.now().minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.EmployeeEventType;
+import com.sandemo.hrms.EmployeeEventValue;
+import com.sandemo.hrms.exception.GenericServerRuntimeException;
+import com.sandemo.hrms.factory.EmployeeEventFactoryService;
+import com.sandemo.hrms.model.DepartmentEntity;
+import com.sandemo.hrms.model.EmployeeEntity;
+import com.sandemo.hrms.model.EmployeeOutboxEntity;
+import com.sandemo.hrms.repository.EmployeeOutboxEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeOutboxServiceImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeOutboxServiceImplTest {
+
+    private static final String EMP_ID = "test";
+    private static final String EMP_EMAIL = "test@test.com";
+    private static final Long DEPART_ID = 1L;
+
+    @Mock
+    private EmployeeOutboxEntityRepository employeeOutboxEntityRepository;
+
+    private EmployeeEventFactoryService employeeEventFactoryService = new EmployeeEventFactoryService();
+
+    @InjectMocks
+    private EmployeeOutboxService employeeOutboxService = new EmployeeOutboxServiceImpl(employeeOutboxEntityRepository,
+            employeeEventFactoryService);
+
+    @Before
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testAddEventFlushesTheEmployeeChangeFirst() {
+
+        employeeOutboxService.addEvent(getEmployeeEntity(), EmployeeEventType.UPDATED);
+
+        ArgumentCaptor<EmployeeOutboxEntity> captor = ArgumentCaptor.forClass(EmployeeOutboxEntity.class);
+
+        InOrder inOrder = Mockito.inOrder(employeeOutboxEntityRepository);
+        inOrder.verify(employeeOutboxEntityRepository).flush();
+        inOrder.verify(employeeOutboxEntityRepository).save(captor.capture());
+
+        EmployeeOutboxEntity outboxEntity = captor.getValue();
+        EmployeeEventValue employeeEventValue = employeeEventFactoryService.getEmployeeEventValue(outboxEntity.getEventValue());
+
+        Assert.assertEquals(EMP_ID, outboxEntity.getEmployeeId());
+        Assert.assertEquals(EmployeeEventType.UPDATED, outboxEntity.getEventType());
+        Assert.assertNotNull(outboxEntity.getCreatedAt());
+        Assert.assertEquals(EMP_ID,
+                employeeEventFactoryService.getEmployeeEventKey(outboxEntity.getEventKey()).getEmployeeId().toString());
+        Assert.assertEquals(EmployeeEventType.UPDATED, employeeEventValue.getType());
+        Assert.assertEquals(EMP_EMAIL, employeeEventValue.getData().getEmail().toString());
+        Assert.assertEquals(DEPART_ID, employeeEventValue.getData().getDepartmentId());
+    }
+
+    @Test
+    public void testAddEventWhenDeleted() {
+
+        employeeOutboxService.addEvent(EmployeeEntity.builder().employeeId(EMP_ID).build(), EmployeeEventType.DELETED);
+
+        ArgumentCaptor<EmployeeOutboxEntity> captor = ArgumentCaptor.forClass(EmployeeOutboxEntity.class);
+        Mockito.verify(employeeOutboxEntityRepository).save(captor.capture());
+
+        Assert.assertNull(employeeEventFactoryService.getEmployeeEventValue(captor.getValue().getEventValue()).getData());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddEvents() {
+
+        employeeOutboxService.addEvents(Arrays.asList(getEmployeeEntity(), getEmployeeEntity()), EmployeeEventType.CREATED);
+
+        ArgumentCaptor<List<EmployeeOutboxEntity>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(employeeOutboxEntityRepository).saveAll(captor.capture());
+
+        Assert.assertEquals(2, captor.getValue().size());
+    }
+
+    @Test
+    public void testAddEventsWhenListIsEmpty() {
+
+        employeeOutboxService.addEvents(Collections.emptyList(), EmployeeEventType.CREATED);
+
+        Mockito.verifyZeroInteractions(employeeOutboxEntityRepository);
+    }
+
+    @Test(expected = GenericServerRuntimeException.class)
+    public void testAddEventWhenEmployeeEventTypeIsNull() {
+
+        employeeOutboxService.addEvent(getEmployeeEntity(), null);
+    }
+
+    private EmployeeEntity getEmployeeEntity() {
+
+        return EmployeeEntity.builder()
+                .employeeId(EMP_ID)
+                .name("Test Emp")
+                .email(EMP_EMAIL)
+                .dateOfBirth(LocalDate.now())
+                .departmentEntity(DepartmentEntity.builder().departId(DEPART_ID).name("Test Depart").build())
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.sandemo.hrms.service;
+
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.dto.response.DepartmentDto;
+import com.sandemo.hrms.dto.response.EmployeeListItemDto;
+import com.sandemo.hrms.dto.response.EmployeeSearchResponseDto;
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import com.sandemo.hrms.repository.EmployeeEntityRepository;
+import com.sandemo.hrms.service.impl.EmployeeSearchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.stream.Stream;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class EmployeeSearchServiceImplTest {
+
+    private static final Long DEPART_ID = 1L;
+
+    @Mock
+    private EmployeeEntityRepository employeeEntityRepository;
+
+    private EmployeeSearchIndex employeeSearchIndex = new EmployeeSearchIndex(16, new SimpleMeterRegistry());
+
+    private MockEnvironment environment = new MockEnvironment()
+            .withProperty("employee.search.default.limit", "1")
+            .withProperty("employee.search.max.limit", "3")
+            .withProperty("employee.search.index.fetch.size", "50");
+
+    @InjectMocks
+    EmployeeSearchService employeeSearchService = new EmployeeSearchServiceImpl(employeeEntityRepository,
+            employeeSearchIndex, environment);
+
+    @Before
+    public void init() {
+
+        MockitoAnnotations.initMocks(this);
+
+        Mockito.when(employeeEntityRepository.streamAllEmployees(Mockito.eq(50))).thenReturn(Stream.of(
+                getItem("e1", "Anna Smith", "anna@test.com"),
+                getItem("e2", "Andrew Jones", "andrew@test.com")));
+    }
+
+    @Test
+    public void testRebuildSearchIndexStreamsTheEmployees() {
+
+        Assert.assertEquals(2, employeeSearchService.rebuildSearchIndex());
+        Assert.assertEquals(2, employeeSearchIndex.size());
+    }
+
+    @Test
+    public void testSearchEmployeesAppliesTheDefaultLimit() {
+
+        employeeSearchService.rebuildSearchIndex();
+
+        EmployeeSearchResponseDto response = employeeSearchService.searchEmployees(" AN ", null, null);
+
+        Assert.assertEquals(1, response.getEmployees().size());
+        Assert.assertEquals("e2", response.getEmployees().get(0).getEmployeeId());
+        Assert.assertEquals("Andrew Jones", response.getEmployees().get(0).getName());
+        Assert.assertEquals(DEPART_ID, response.getEmployees().get(0).getDepartmentId());
+
+        Assert.assertEquals(2, employeeSearchService.searchEmployees("an", DEPART_ID, 3).getEmployees().size());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testSearchEmployeesWhenQueryIsBlank() {
+
+        employeeSearchService.searchEmployees("  ", null, null);
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testSearchEmployeesWhenLimitIsAboveTheMax() {
+
+        employeeSearchService.searchEmployees("an", null, 4);
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testSearchEmployeesWhenLimitIsZero() {
+
+        employeeSearchService.searchEmployees("an", null, 0);
+    }
+
+    private EmployeeListItemDto getItem(final String employeeId, final String name, final String email) {
+
+        return EmployeeListItemDto.builder()
+                .employeeId(employeeId)
+                .name(name)
+                .email(email)
+                .department(DepartmentDto.builder().departmentId(DEPART_ID).build())
+                .build();
+    }
+}
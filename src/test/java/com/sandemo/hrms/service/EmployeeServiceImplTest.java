@@ -1,13 +1,24 @@
 package com.sandemo.hrms.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandemo.hrms.cache.EmployeeDetailsCache;
+import com.sandemo.hrms.cache.EmployeeSearchIndex;
+import com.sandemo.hrms.cache.EncodedEmployeeDetails;
 import com.sandemo.hrms.constant.ApiResponseMessage;
+import com.sandemo.hrms.constant.LookupStatus;
+import com.sandemo.hrms.datasource.ReadYourWritesGuard;
+import com.sandemo.hrms.datasource.ReplicaRoutingDataSource;
+import com.sandemo.hrms.dto.request.EmployeeDetailsBatchRequestDto;
 import com.sandemo.hrms.dto.request.EmployeeRequestDto;
 import com.sandemo.hrms.dto.request.PutEmployeeRequestDto;
+import com.sandemo.hrms.dto.response.EmployeeDetailsBatchResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeDetailsResponseDto;
 import com.sandemo.hrms.dto.response.EmployeeResponseDto;
 import com.sandemo.hrms.exception.DepartmentNotFoundException;
 import com.sandemo.hrms.exception.EmailIdAlreadyExistsException;
+import com.sandemo.hrms.exception.EmployeeConcurrentlyModifiedException;
 import com.sandemo.hrms.exception.EmployeeNotFoundException;
+import com.sandemo.hrms.exception.EmployeeVersionMismatchException;
 import com.sandemo.hrms.exception.GenericClientRuntimeException;
 import com.sandemo.hrms.exception.GenericServerRuntimeException;
 import com.sandemo.hrms.factory.ValidationFactoryService;
@@ -15,21 +26,33 @@ import com.sandemo.hrms.model.DepartmentEntity;
 import com.sandemo.hrms.model.EmployeeEntity;
 import com.sandemo.hrms.repository.EmployeeEntityRepository;
 import com.sandemo.hrms.service.impl.EmployeeServiceImpl;
+import com.sandemo.hrms.util.Util;
 import com.sandemo.hrms.EmployeeEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validation;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -44,21 +67,36 @@ public class EmployeeServiceImplTest {
     private static final String PUT_EMP_ID = "test1";
     private static final String DEPART_NAME = "Test Depart";
     private static final Long DEPART_ID = 1L;
+    private static final Long DEPART_ID_TWO = 2L;
     private static final Long EMP_ID_PK = 10L;
+    private static final long VERSION = 3L;
+    private static final String UNIQUE_EMAIL_CONSTRAINT = "unique_email";
+    private static final String DEPARTMENT_FOREIGN_KEY_CONSTRAINT = "fk_depart_id";
 
     @Mock
     private EmployeeEntityRepository employeeEntityRepository;
     @Mock
     private DepartmentService departmentService;
     @Mock
-    private KafkaProducerService employeeKafkaProducerService;
+    private EmployeeOutboxService employeeOutboxService;
 
     private ValidationFactoryService validationFactoryService = new ValidationFactoryService(
             Validation.buildDefaultValidatorFactory().getValidator());
 
+    private EmployeeDetailsCache employeeDetailsCache = new EmployeeDetailsCache(1024 * 1024, Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+
+    private EmployeeSearchIndex employeeSearchIndex = new EmployeeSearchIndex(16, new SimpleMeterRegistry());
+
+    private ReadYourWritesGuard readYourWritesGuard = new ReadYourWritesGuard(Duration.ofMinutes(1),
+            new SimpleMeterRegistry());
+
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     EmployeeService employeeService = new EmployeeServiceImpl(employeeEntityRepository, departmentService,
-            validationFactoryService, employeeKafkaProducerService);
+            validationFactoryService, employeeOutboxService, employeeDetailsCache, employeeSearchIndex,
+            readYourWritesGuard, objectMapper);
 
     @Before
     public void init() {
@@ -69,11 +107,11 @@ public class EmployeeServiceImplTest {
         Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.empty());
         Mockito.when(employeeEntityRepository.findByEmail(Mockito.eq(EMP_EMAIL))).thenReturn(Optional.empty());
 
-        Mockito.when(employeeEntityRepository.save(Mockito.any(EmployeeEntity.class))).thenReturn(getEmployeeEntity());
+        Mockito.when(this.departmentService.getDepartmentReference(Mockito.eq(DEPART_ID))).thenReturn(getDepartmentEntity());
 
-        Mockito.doNothing().when(employeeEntityRepository).delete(Mockito.any(EmployeeEntity.class));
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class))).thenReturn(getEmployeeEntity());
 
-        Mockito.doNothing().when(employeeKafkaProducerService).sendMessage(Mockito.any(EmployeeEntity.class),
+        Mockito.doNothing().when(employeeOutboxService).addEvent(Mockito.any(EmployeeEntity.class),
                 Mockito.any(EmployeeEventType.class));
     }
 
@@ -89,10 +127,47 @@ public class EmployeeServiceImplTest {
         Assert.assertEquals(EMP_ID, employeeEntity.getEmployeeId());
     }
 
+    @Test
+    public void testCreateEmployeeIncrementsHeadcount() {
+
+        employeeService.createEmployee(getEmployeeRequestDto());
+
+        Mockito.verify(departmentService).adjustHeadcounts(Mockito.eq(Collections.singletonMap(DEPART_ID, 1)));
+    }
+
+    @Test
+    public void testCreateEmployeeAddsItToTheSearchIndex() {
+
+        employeeService.createEmployee(getEmployeeRequestDto());
+
+        Assert.assertEquals(EMP_ID, employeeSearchIndex.search("emp", DEPART_ID, 10).get(0).getEmployeeId());
+    }
+
+    @Test
+    public void testCreateEmployeeRunsNoPreCheckQueries() {
+
+        employeeService.createEmployee(getEmployeeRequestDto());
+
+        Mockito.verify(employeeEntityRepository).saveAndFlush(Mockito.any(EmployeeEntity.class));
+        Mockito.verify(employeeEntityRepository, Mockito.never()).findByEmail(Mockito.any());
+        Mockito.verify(departmentService, Mockito.never()).getDepartmentById(Mockito.any());
+    }
+
     @Test(expected = EmailIdAlreadyExistsException.class)
     public void testCreateEmployeeWhenEmailAlreadyExists() {
 
-        Mockito.when(employeeEntityRepository.findByEmail(Mockito.eq(EMP_EMAIL))).thenReturn(Optional.of(getEmployeeEntity()));
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenThrow(getDataIntegrityViolation(UNIQUE_EMAIL_CONSTRAINT, "duplicate key"));
+
+        employeeService.createEmployee(getEmployeeRequestDto());
+    }
+
+    @Test(expected = EmailIdAlreadyExistsException.class)
+    public void testCreateEmployeeWhenEmailAlreadyExistsAndConstraintNameIsUnknown() {
+
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenThrow(getDataIntegrityViolation(null,
+                        "Unique index or primary key violation: \"PUBLIC.UNIQUE_EMAIL_INDEX_7 ON PUBLIC.EMPLOYEE(SEMAIL)\""));
 
         employeeService.createEmployee(getEmployeeRequestDto());
     }
@@ -100,7 +175,17 @@ public class EmployeeServiceImplTest {
     @Test(expected = DepartmentNotFoundException.class)
     public void testCreateEmployeeWhenDepartmentIsNotExists() {
 
-        Mockito.when(this.departmentService.getDepartmentById(Mockito.eq(DEPART_ID))).thenReturn(Optional.empty());
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenThrow(getDataIntegrityViolation(DEPARTMENT_FOREIGN_KEY_CONSTRAINT, "violates foreign key constraint"));
+
+        employeeService.createEmployee(getEmployeeRequestDto());
+    }
+
+    @Test(expected = GenericServerRuntimeException.class)
+    public void testCreateEmployeeWhenOtherConstraintIsViolated() {
+
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenThrow(getDataIntegrityViolation("unique_employee_id", "duplicate key"));
 
         employeeService.createEmployee(getEmployeeRequestDto());
     }
@@ -127,7 +212,7 @@ public class EmployeeServiceImplTest {
 
         Mockito.when(employeeEntityRepository.findByEmail(Mockito.eq(EMP_EMAIL))).thenReturn(Optional.empty());
 
-        Mockito.when(employeeEntityRepository.save(Mockito.any(EmployeeEntity.class)))
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
                 .thenThrow(new IllegalStateException("Test Exception"));
 
         employeeService.createEmployee(getEmployeeRequestDto());
@@ -169,6 +254,69 @@ public class EmployeeServiceImplTest {
         Assert.assertNotNull(employeeEntity);
     }
 
+    @Test
+    public void testUpdateEmployeeMovesHeadcount() {
+
+        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(null, null, null, DEPART_ID_TWO));
+
+        Map<Long, Integer> headcountDeltas = new HashMap<>();
+        headcountDeltas.put(DEPART_ID, -1);
+        headcountDeltas.put(DEPART_ID_TWO, 1);
+
+        Mockito.verify(departmentService).adjustHeadcounts(Mockito.eq(headcountDeltas));
+    }
+
+    @Test
+    public void testUpdateEmployeeUpdatesTheSearchIndex() {
+
+        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto("Renamed Person", null, null, null));
+
+        Assert.assertTrue(employeeSearchIndex.search("emp", null, 10).isEmpty());
+        Assert.assertEquals(EMP_ID, employeeSearchIndex.search("renamed", null, 10).get(0).getEmployeeId());
+    }
+
+    @Test
+    public void testUpdateEmployeeWithinTheSameDepartmentKeepsHeadcount() {
+
+        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, null, null, DEPART_ID));
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, null, null, null));
+
+        Mockito.verify(departmentService, Mockito.never()).adjustHeadcounts(Mockito.any());
+    }
+
+    @Test
+    public void testUpdateEmployeeWithExpectedVersionMovesHeadcount() {
+
+        mockUpdateByEmployeeIdAndVersion();
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(null, null, null, DEPART_ID_TWO), VERSION);
+
+        Map<Long, Integer> headcountDeltas = new HashMap<>();
+        headcountDeltas.put(DEPART_ID, -1);
+        headcountDeltas.put(DEPART_ID_TWO, 1);
+
+        Mockito.verify(departmentService).adjustHeadcounts(Mockito.eq(headcountDeltas));
+    }
+
+    @Test
+    public void testUpdateEmployeeWithExpectedVersionWithoutDepartmentKeepsHeadcount() {
+
+        mockUpdateByEmployeeIdAndVersion();
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, null, null, null), VERSION);
+
+        Mockito.verify(departmentService, Mockito.never()).adjustHeadcounts(Mockito.any());
+    }
+
     @Test
     public void testUpdateEmployeeWhenEmailAlreadyExistsWithSameEmployee() {
 
@@ -185,8 +333,8 @@ public class EmployeeServiceImplTest {
     public void testUpdateEmployeeWhenEmailAlreadyExistsWithAnotherEmployee() {
 
         Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
-        Mockito.when(employeeEntityRepository.findByEmail(Mockito.eq(EMP_EMAIL))).thenReturn(
-                Optional.of(EmployeeEntity.builder().employeeId(PUT_EMP_ID).build()));
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenThrow(getDataIntegrityViolation(UNIQUE_EMAIL_CONSTRAINT, "duplicate key"));
 
         employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, EMP_EMAIL, null, null));
     }
@@ -222,7 +370,8 @@ public class EmployeeServiceImplTest {
 
         Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
 
-        Mockito.when(this.departmentService.getDepartmentById(Mockito.eq(DEPART_ID))).thenReturn(Optional.empty());
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenThrow(getDataIntegrityViolation(DEPARTMENT_FOREIGN_KEY_CONSTRAINT, "violates foreign key constraint"));
 
         employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(null, null, null, DEPART_ID));
     }
@@ -232,12 +381,77 @@ public class EmployeeServiceImplTest {
 
         Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
 
-        Mockito.when(employeeEntityRepository.save(Mockito.any(EmployeeEntity.class)))
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
                 .thenThrow(new IllegalStateException("Test Exception"));
 
         employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, EMP_EMAIL, LocalDate.now(), DEPART_ID));
     }
 
+    @Test(expected = EmployeeConcurrentlyModifiedException.class)
+    public void testUpdateEmployeeWhenConcurrentlyModified() {
+
+        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+
+        Mockito.when(employeeEntityRepository.saveAndFlush(Mockito.any(EmployeeEntity.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(EmployeeEntity.class, EMP_ID_PK));
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, EMP_EMAIL, LocalDate.now(), DEPART_ID));
+    }
+
+    @Test
+    public void testUpdateEmployeeWithExpectedVersion() {
+
+        mockUpdateByEmployeeIdAndVersion();
+
+        EmployeeEntity employeeEntity = employeeService.updateEmployee(EMP_ID.toUpperCase(),
+                getPutEmployeeRequestDto(null, EMP_EMAIL.toUpperCase(), null, DEPART_ID), VERSION);
+
+        // The conditional update is the only statement, the employee is built from the row it returns
+        ArgumentCaptor<EmployeeEntity> changes = ArgumentCaptor.forClass(EmployeeEntity.class);
+        Mockito.verify(employeeEntityRepository).updateByEmployeeIdAndVersion(Mockito.eq(EMP_ID), Mockito.eq(VERSION),
+                changes.capture());
+        Mockito.verify(employeeEntityRepository, Mockito.never()).findByEmployeeId(Mockito.any());
+        Mockito.verify(employeeEntityRepository, Mockito.never()).saveAndFlush(Mockito.any());
+
+        Assert.assertSame(changes.getValue(), employeeEntity);
+        Assert.assertEquals(EMP_ID, employeeEntity.getEmployeeId());
+        Assert.assertEquals(EMP_NAME, employeeEntity.getName());
+        Assert.assertEquals(Long.valueOf(VERSION + 1), employeeEntity.getVersion());
+        Assert.assertEquals(EMP_EMAIL, changes.getValue().getEmail());
+        Assert.assertEquals(DEPART_ID, changes.getValue().getDepartmentEntity().getDepartId());
+        Assert.assertNotNull(changes.getValue().getUpdatedAt());
+    }
+
+    @Test(expected = EmployeeVersionMismatchException.class)
+    public void testUpdateEmployeeWithExpectedVersionWhenVersionIsStale() {
+
+        Mockito.when(employeeEntityRepository.updateByEmployeeIdAndVersion(Mockito.eq(EMP_ID), Mockito.eq(VERSION),
+                Mockito.any(EmployeeEntity.class))).thenReturn(Optional.empty());
+        Mockito.when(employeeEntityRepository.findVersionByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(VERSION + 1));
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, null, null, null), VERSION);
+    }
+
+    @Test(expected = EmployeeNotFoundException.class)
+    public void testUpdateEmployeeWithExpectedVersionWhenEmployeeNotFound() {
+
+        Mockito.when(employeeEntityRepository.updateByEmployeeIdAndVersion(Mockito.eq(EMP_ID), Mockito.eq(VERSION),
+                Mockito.any(EmployeeEntity.class))).thenReturn(Optional.empty());
+        Mockito.when(employeeEntityRepository.findVersionByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.empty());
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, null, null, null), VERSION);
+    }
+
+    @Test(expected = DepartmentNotFoundException.class)
+    public void testUpdateEmployeeWithExpectedVersionWhenDepartmentNotExists() {
+
+        Mockito.when(employeeEntityRepository.updateByEmployeeIdAndVersion(Mockito.eq(EMP_ID), Mockito.eq(VERSION),
+                Mockito.any(EmployeeEntity.class)))
+                .thenThrow(getDataIntegrityViolation(DEPARTMENT_FOREIGN_KEY_CONSTRAINT, "violates foreign key constraint"));
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(null, null, null, DEPART_ID), VERSION);
+    }
+
     @Test
     public void testUpdateEmployeeAndGetResponseValid() {
 
@@ -254,19 +468,39 @@ public class EmployeeServiceImplTest {
     @Test
     public void testDeleteEmployeeByIdValid() {
 
-        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+        Mockito.when(employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(Mockito.eq(EMP_ID)))
+                .thenReturn(Optional.of(DEPART_ID));
+
+        employeeService.deleteEmployeeById(EMP_ID);
+
+        Mockito.verify(employeeEntityRepository, Mockito.never()).findByEmployeeId(Mockito.any());
+        Mockito.verify(departmentService).adjustHeadcounts(Mockito.eq(Collections.singletonMap(DEPART_ID, -1)));
+    }
+
+    @Test
+    public void testDeleteEmployeeByIdRemovesItFromTheSearchIndex() {
+
+        Mockito.when(employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(Mockito.eq(EMP_ID)))
+                .thenReturn(Optional.of(DEPART_ID));
+
+        employeeSearchIndex.put(EMP_ID, EMP_NAME, EMP_EMAIL, DEPART_ID);
 
         employeeService.deleteEmployeeById(EMP_ID);
 
-        Assert.assertTrue("Always True", true);
+        Assert.assertTrue(employeeSearchIndex.search("test", null, 10).isEmpty());
     }
 
     @Test(expected = EmployeeNotFoundException.class)
     public void testDeleteEmployeeByIdWhenEmployeeNotFound() {
 
-        employeeService.deleteEmployeeById(EMP_ID);
+        try {
+
+            employeeService.deleteEmployeeById(EMP_ID);
+
+        } finally {
 
-        Assert.assertTrue("Always True", true);
+            Mockito.verifyZeroInteractions(departmentService);
+        }
     }
 
     @Test(expected = GenericClientRuntimeException.class)
@@ -278,10 +512,8 @@ public class EmployeeServiceImplTest {
     @Test(expected = GenericServerRuntimeException.class)
     public void testDeleteEmployeeByIdWhenUnexpectedException() {
 
-        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
-
-        Mockito.doThrow(new IllegalStateException("Test Exception"))
-                .when(employeeEntityRepository).delete(Mockito.any(EmployeeEntity.class));
+        Mockito.when(employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(Mockito.eq(EMP_ID)))
+                .thenThrow(new IllegalStateException("Test Exception"));
 
         employeeService.deleteEmployeeById(EMP_ID);
     }
@@ -289,7 +521,8 @@ public class EmployeeServiceImplTest {
     @Test
     public void testDeleteEmployeeByIdAndGetResponseValid() {
 
-        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+        Mockito.when(employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(Mockito.eq(EMP_ID)))
+                .thenReturn(Optional.of(DEPART_ID));
 
         EmployeeResponseDto employeeResponseDto = employeeService.deleteEmployeeByIdAndGetResponse(EMP_ID);
 
@@ -337,19 +570,22 @@ public class EmployeeServiceImplTest {
     @Test
     public void testGetEmployeeDetailsByIdValid() {
 
-        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+        Mockito.when(employeeEntityRepository.findDetailsByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeDetails()));
 
-        EmployeeDetailsResponseDto employeeDetailsResponseDto = employeeService.getEmployeeDetailsById(EMP_ID);
+        EmployeeDetailsResponseDto employeeDetailsResponseDto = employeeService.getEmployeeDetailsById(EMP_ID.toUpperCase());
 
         Assert.assertNotNull(employeeDetailsResponseDto);
         Assert.assertEquals(EMP_ID, employeeDetailsResponseDto.getEmployeeId());
+
+        // The projection replaces the entity read
+        Mockito.verify(employeeEntityRepository, Mockito.never()).findByEmployeeId(Mockito.any());
     }
 
     @Test(expected = EmployeeNotFoundException.class)
     public void testGetEmployeeDetailsByIdWhenNoDataFound() {
 
         // when
-        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID)))
+        Mockito.when(employeeEntityRepository.findDetailsByEmployeeId(Mockito.eq(EMP_ID)))
                 .thenReturn(Optional.empty());
 
         employeeService.getEmployeeDetailsById(EMP_ID);
@@ -367,6 +603,206 @@ public class EmployeeServiceImplTest {
         employeeService.getEmployeeDetailsById("");
     }
 
+    @Test
+    public void testGetEmployeeDetailsByIdIsReadFromThePrimaryAfterAWrite() {
+
+        Map<String, Boolean> primaryPinned = new HashMap<>();
+
+        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+        Mockito.when(employeeEntityRepository.findDetailsByEmployeeId(Mockito.anyString())).thenAnswer(invocation -> {
+
+            primaryPinned.put(invocation.getArgument(0), ReplicaRoutingDataSource.isPrimaryPinned());
+
+            return Optional.of(getEmployeeDetails());
+        });
+
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, EMP_EMAIL, LocalDate.now(), DEPART_ID));
+
+        employeeService.getEmployeeDetailsById(EMP_ID);
+        employeeService.getEmployeeDetailsById(PUT_EMP_ID);
+
+        Assert.assertTrue(primaryPinned.get(EMP_ID));
+        Assert.assertFalse(primaryPinned.get(PUT_EMP_ID));
+        Assert.assertFalse(ReplicaRoutingDataSource.isPrimaryPinned());
+    }
+
+    @Test
+    public void testGetEmployeeVersionByIdIsReadFromThePrimaryAfterADelete() {
+
+        Mockito.when(employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(Mockito.eq(EMP_ID)))
+                .thenReturn(Optional.of(DEPART_ID));
+        Mockito.when(employeeEntityRepository.findVersionByEmployeeId(Mockito.eq(EMP_ID))).thenAnswer(
+                invocation -> ReplicaRoutingDataSource.isPrimaryPinned() ? Optional.empty() : Optional.of(VERSION));
+
+        employeeService.deleteEmployeeById(EMP_ID.toUpperCase());
+
+        Assert.assertFalse(employeeService.getEmployeeVersionById(EMP_ID).isPresent());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsBatchByIdsFollowsTheRequestOrder() {
+
+        EmployeeEntity other = getEmployeeEntity();
+        other.setEmployeeId(PUT_EMP_ID);
+
+        Mockito.when(employeeEntityRepository.findAllWithDepartmentByEmployeeIdIn(Mockito.anyCollection()))
+                .thenReturn(Arrays.asList(other, getEmployeeEntity()));
+
+        EmployeeDetailsBatchResponseDto response = employeeService.getEmployeeDetailsBatch(
+                EmployeeDetailsBatchRequestDto.builder()
+                        .employeeIds(Arrays.asList("TEST", "unknown", PUT_EMP_ID, EMP_ID))
+                        .build());
+
+        Assert.assertEquals(4, response.getResults().size());
+        Assert.assertEquals("TEST", response.getResults().get(0).getEmployeeId());
+        Assert.assertEquals(LookupStatus.FOUND, response.getResults().get(0).getStatus());
+        Assert.assertEquals(EMP_ID, response.getResults().get(0).getDetails().getEmployeeId());
+        Assert.assertEquals(DEPART_NAME, response.getResults().get(0).getDetails().getDepartment().getName());
+        Assert.assertEquals(LookupStatus.NOT_FOUND, response.getResults().get(1).getStatus());
+        Assert.assertNull(response.getResults().get(1).getDetails());
+        Assert.assertEquals(PUT_EMP_ID, response.getResults().get(2).getDetails().getEmployeeId());
+        Assert.assertEquals(EMP_ID, response.getResults().get(3).getDetails().getEmployeeId());
+
+        // One query for all of them, the repeated id is looked up once
+        Mockito.verify(employeeEntityRepository).findAllWithDepartmentByEmployeeIdIn(
+                Mockito.eq(new LinkedHashSet<>(Arrays.asList(EMP_ID, "unknown", PUT_EMP_ID))));
+        Mockito.verify(employeeEntityRepository, Mockito.never()).findByEmployeeId(Mockito.any());
+        Mockito.verifyZeroInteractions(departmentService);
+    }
+
+    @Test
+    public void testGetEmployeeDetailsBatchByEmails() {
+
+        Mockito.when(employeeEntityRepository.findAllWithDepartmentByEmailIn(Mockito.anyCollection()))
+                .thenReturn(Collections.singletonList(getEmployeeEntity()));
+
+        EmployeeDetailsBatchResponseDto response = employeeService.getEmployeeDetailsBatch(
+                EmployeeDetailsBatchRequestDto.builder()
+                        .emails(Arrays.asList("unknown@test.com", EMP_EMAIL.toUpperCase(), " "))
+                        .build());
+
+        Assert.assertEquals(LookupStatus.NOT_FOUND, response.getResults().get(0).getStatus());
+        Assert.assertEquals("unknown@test.com", response.getResults().get(0).getEmail());
+        Assert.assertEquals(LookupStatus.FOUND, response.getResults().get(1).getStatus());
+        Assert.assertEquals(EMP_ID, response.getResults().get(1).getDetails().getEmployeeId());
+        Assert.assertEquals(LookupStatus.NOT_FOUND, response.getResults().get(2).getStatus());
+
+        Mockito.verify(employeeEntityRepository).findAllWithDepartmentByEmailIn(
+                Mockito.eq(new LinkedHashSet<>(Arrays.asList("unknown@test.com", EMP_EMAIL))));
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void testGetEmployeeDetailsBatchWhenBothIdsAndEmailsAreGiven() {
+
+        employeeService.getEmployeeDetailsBatch(EmployeeDetailsBatchRequestDto.builder()
+                .employeeIds(Collections.singletonList(EMP_ID))
+                .emails(Collections.singletonList(EMP_EMAIL))
+                .build());
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void testGetEmployeeDetailsBatchWhenTooManyIds() {
+
+        employeeService.getEmployeeDetailsBatch(EmployeeDetailsBatchRequestDto.builder()
+                .employeeIds(Collections.nCopies(101, EMP_ID))
+                .build());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsJsonByIdIsServedFromCache() throws Exception {
+
+        Mockito.when(employeeEntityRepository.findDetailsByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeDetails()));
+
+        EncodedEmployeeDetails first = employeeService.getEncodedEmployeeDetailsById(EMP_ID);
+        EncodedEmployeeDetails second = employeeService.getEncodedEmployeeDetailsById(EMP_ID.toUpperCase());
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(VERSION, second.getVersion());
+        Assert.assertEquals(EMP_ID, objectMapper.readValue(second.getJson(), EmployeeDetailsResponseDto.class).getEmployeeId());
+        Mockito.verify(employeeEntityRepository, Mockito.times(1)).findDetailsByEmployeeId(Mockito.eq(EMP_ID));
+        Mockito.verify(employeeEntityRepository, Mockito.never()).findByEmployeeId(Mockito.any());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsJsonByIdAfterUpdate() {
+
+        Mockito.when(employeeEntityRepository.findByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeEntity()));
+        Mockito.when(employeeEntityRepository.findDetailsByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeDetails()));
+
+        employeeService.getEncodedEmployeeDetailsById(EMP_ID);
+        employeeService.updateEmployee(EMP_ID, getPutEmployeeRequestDto(EMP_NAME, EMP_EMAIL, LocalDate.now(), DEPART_ID));
+
+        Assert.assertEquals(0, employeeDetailsCache.size());
+    }
+
+    @Test
+    public void testGetEmployeeDetailsJsonByIdAfterDelete() {
+
+        Mockito.when(employeeEntityRepository.findDetailsByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeDetails()));
+        Mockito.when(employeeEntityRepository.deleteByEmployeeIdReturningDepartmentId(Mockito.eq(EMP_ID)))
+                .thenReturn(Optional.of(DEPART_ID));
+
+        employeeService.getEncodedEmployeeDetailsById(EMP_ID);
+        employeeService.deleteEmployeeById(EMP_ID);
+
+        Assert.assertEquals(0, employeeDetailsCache.size());
+    }
+
+    @Test(expected = EmployeeNotFoundException.class)
+    public void testGetEmployeeDetailsJsonByIdWhenNoDataFound() {
+
+        try {
+
+            employeeService.getEncodedEmployeeDetailsById(EMP_ID);
+
+        } finally {
+
+            Assert.assertEquals(0, employeeDetailsCache.size());
+        }
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testGetEmployeeDetailsJsonByIdWhenEmployeeIdIsEmpty() {
+
+        employeeService.getEncodedEmployeeDetailsById("");
+    }
+
+    @Test
+    public void testGetEmployeeVersionByIdReadsOnlyTheVersion() {
+
+        Mockito.when(employeeEntityRepository.findVersionByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(VERSION));
+
+        Assert.assertEquals(Optional.of(VERSION), employeeService.getEmployeeVersionById(EMP_ID));
+        Mockito.verify(employeeEntityRepository, Mockito.never()).findByEmployeeId(Mockito.any());
+    }
+
+    @Test
+    public void testGetEmployeeVersionByIdIsNotServedFromCache() {
+
+        Mockito.when(employeeEntityRepository.findDetailsByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(getEmployeeDetails()));
+
+        employeeService.getEncodedEmployeeDetailsById(EMP_ID);
+
+        // Another instance has updated the employee since it was cached here
+        Mockito.when(employeeEntityRepository.findVersionByEmployeeId(Mockito.eq(EMP_ID))).thenReturn(Optional.of(VERSION + 1));
+
+        Assert.assertEquals(Optional.of(VERSION + 1), employeeService.getEmployeeVersionById(EMP_ID));
+    }
+
+    @Test
+    public void testGetEmployeeVersionByIdWhenEmployeeIdIsEmpty() {
+
+        Assert.assertFalse(employeeService.getEmployeeVersionById("").isPresent());
+    }
+
+    private DataIntegrityViolationException getDataIntegrityViolation(final String constraintName,
+                                                                      final String message) {
+
+        return new DataIntegrityViolationException("could not execute statement",
+                new org.hibernate.exception.ConstraintViolationException("could not execute statement",
+                        new SQLException(message), constraintName));
+    }
+
     private DepartmentEntity getDepartmentEntity() {
 
         return DepartmentEntity.builder()
@@ -375,6 +811,34 @@ public class EmployeeServiceImplTest {
                 .build();
     }
 
+    /**
+     * The conditional update matches, it returns the department the employee was in and sets the updated row on the
+     * changes the same way the repository does
+     */
+    private void mockUpdateByEmployeeIdAndVersion() {
+
+        Mockito.when(employeeEntityRepository.updateByEmployeeIdAndVersion(Mockito.eq(EMP_ID), Mockito.eq(VERSION),
+                Mockito.any(EmployeeEntity.class))).thenAnswer(invocation -> {
+
+                    EmployeeEntity changes = invocation.getArgument(2);
+                    EmployeeEntity current = getEmployeeEntity();
+
+                    changes.setEmployeeIdPk(current.getEmployeeIdPk());
+                    changes.setEmployeeId(current.getEmployeeId());
+                    changes.setName(Util.isNull(changes.getName()) ? current.getName() : changes.getName());
+                    changes.setEmail(Util.isNull(changes.getEmail()) ? current.getEmail() : changes.getEmail());
+                    changes.setCreatedAt(current.getCreatedAt());
+                    changes.setVersion(VERSION + 1);
+
+                    if(Util.isNull(changes.getDepartmentEntity())) {
+
+                        changes.setDepartmentEntity(current.getDepartmentEntity());
+                    }
+
+                    return Optional.of(DEPART_ID);
+                });
+    }
+
     private EmployeeEntity getEmployeeEntity() {
 
         return EmployeeEntity.builder()
@@ -385,9 +849,16 @@ public class EmployeeServiceImplTest {
                 .departmentEntity(getDepartmentEntity())
                 .createdAt(ZonedDateTime.now())
                 .updatedAt(ZonedDateTime.now())
+                .version(VERSION)
                 .build();
     }
 
+    private EmployeeDetailsResponseDto getEmployeeDetails() {
+
+        return new EmployeeDetailsResponseDto(EMP_ID, EMP_NAME, EMP_EMAIL, null, DEPART_ID, DEPART_NAME,
+                ZonedDateTime.now(), ZonedDateTime.now(), VERSION);
+    }
+
     private EmployeeRequestDto getEmployeeRequestDto() {
 
         return EmployeeRequestDto.builder()
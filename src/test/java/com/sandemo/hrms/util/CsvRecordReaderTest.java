@@ -0,0 +1,62 @@
+package com.sandemo.hrms.util;
+
+import com.sandemo.hrms.exception.GenericClientRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * @author Sankar M <sankar.mm30@gmail.com>
+ */
+@RunWith(JUnit4.class)
+public class CsvRecordReaderTest {
+
+    @Test
+    public void testReadRecordWithPlainFields() throws IOException {
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b,,c\r\nd,e,f,g"));
+
+        Assert.assertEquals(Arrays.asList("a", "b", "", "c"), reader.readRecord());
+        Assert.assertEquals(1, reader.getRecordLine());
+        Assert.assertEquals(Arrays.asList("d", "e", "f", "g"), reader.readRecord());
+        Assert.assertEquals(2, reader.getRecordLine());
+        Assert.assertNull(reader.readRecord());
+    }
+
+    @Test
+    public void testReadRecordWithQuotedFields() throws IOException {
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\"Doe, John\",\"say \"\"hi\"\"\",\"two\nlines\"\nnext,row,here\n"));
+
+        Assert.assertEquals(Arrays.asList("Doe, John", "say \"hi\"", "two\nlines"), reader.readRecord());
+        Assert.assertEquals(1, reader.getRecordLine());
+
+        // The line break inside the quoted field still counts
+        Assert.assertEquals(Arrays.asList("next", "row", "here"), reader.readRecord());
+        Assert.assertEquals(3, reader.getRecordLine());
+        Assert.assertNull(reader.readRecord());
+    }
+
+    @Test
+    public void testReadRecordSkipsBlankLines() throws IOException {
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a\n\n\r\nb\n\n"));
+
+        Assert.assertEquals(Arrays.asList("a"), reader.readRecord());
+        Assert.assertEquals(Arrays.asList("b"), reader.readRecord());
+        Assert.assertEquals(4, reader.getRecordLine());
+        Assert.assertNull(reader.readRecord());
+    }
+
+    @Test(expected = GenericClientRuntimeException.class)
+    public void testReadRecordWhenQuoteIsNotClosed() throws IOException {
+
+        new CsvRecordReader(new StringReader("a,\"b\nc")).readRecord();
+    }
+}
@@ -48,4 +48,18 @@ public class UtilTest {
         Assert.assertEquals(TEST_TIMESTAMP, Util.getFormattedTimestamp(inputDateTime));
         Assert.assertNull(Util.getFormattedTimestamp(null));
     }
+
+    @Test
+    public void testParseDate() {
+
+        Assert.assertEquals(LocalDate.of(2020, 1, 1), Util.parseDate(TEST_DATE));
+        Assert.assertNull(Util.parseDate(null));
+    }
+
+    @Test
+    public void testParseTimestamp() {
+
+        Assert.assertEquals(TEST_TIMESTAMP, Util.getFormattedTimestamp(Util.parseTimestamp(TEST_TIMESTAMP)));
+        Assert.assertNull(Util.parseTimestamp(null));
+    }
 }